@@ -8,8 +8,11 @@ plugins {
 group = "com.madirex"
 version = "0.0.1-SNAPSHOT"
 
+// Java 21 para poder ejecutar las peticiones en hilos virtuales (spring.threads.virtual.enabled)
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
 }
 
 configurations {
@@ -24,11 +27,16 @@ repositories {
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    // Caché de segundo nivel de Hibernate sobre JCache, con Ehcache como proveedor local acotado (ehcache.xml)
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.ehcache:ehcache::jakarta")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-cache")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-websocket")
     implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-xml")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
     implementation("org.springframework.boot:spring-boot-starter-data-mongodb")
     implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
     implementation("org.webjars:bootstrap:4.6.2")
@@ -58,8 +66,25 @@ tasks.withType<Test> {
 }
 
 tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
     finalizedBy(tasks.jacocoTestReport)
 }
+
+// Benchmarks de rendimiento, excluidos de los tests normales: ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+    description = "Ejecuta los benchmarks de rendimiento"
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+}
 tasks.jacocoTestReport {
     dependsOn(tasks.test)
     reports {
@@ -70,6 +95,6 @@ tasks.jacocoTestReport {
 }
 
 jacoco {
-    toolVersion = "0.8.9"
+    toolVersion = "0.8.11"
     reportsDirectory = layout.buildDirectory.dir("testReports")
 }
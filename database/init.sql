@@ -34,6 +34,14 @@ create table public.funko
 alter table public.funko
     owner to admin;
 
+-- Índices de los filtros por rango y de las ordenaciones permitidas en el listado de Funkos
+create index idx_funko_category_price_id on public.funko (category_id, price, id);
+create index idx_funko_price_id on public.funko (price, id);
+create index idx_funko_name_id on public.funko (name, id);
+create index idx_funko_quantity_id on public.funko (quantity, id);
+create index idx_funko_created_at_id on public.funko (created_at, id);
+create index idx_funko_updated_at_id on public.funko (updated_at, id);
+
 create table public.users
 (
     id         uuid                                not null
@@ -49,12 +57,28 @@ create table public.users
     updated_at timestamp default CURRENT_TIMESTAMP not null,
     username   varchar(255)                        not null
         constraint uk_r43af9ap4edm43mmtq01oddj6
-            unique
+            unique,
+    username_lower varchar(255),
+    email_lower    varchar(255)
 );
 
 alter table public.users
     owner to admin;
 
+-- Índices de la búsqueda de usuarios sobre las columnas normalizadas en minúsculas
+-- Trigramas para buscar por subcadena, text_pattern_ops para buscar por prefijo y (columna, id) para el paginado por
+-- cursor. El índice parcial cubre el listado habitual, que solo muestra los usuarios no borrados
+create extension if not exists pg_trgm;
+create index idx_users_username_lower_trgm on public.users using gin (username_lower gin_trgm_ops);
+create index idx_users_email_lower_trgm on public.users using gin (email_lower gin_trgm_ops);
+create index idx_users_username_lower_prefix on public.users (username_lower text_pattern_ops);
+create index idx_users_email_lower_prefix on public.users (email_lower text_pattern_ops);
+create index idx_users_username_lower_id on public.users (username_lower, id);
+create index idx_users_active_username_lower_id on public.users (username_lower, id) where is_deleted = false;
+-- Unicidad sin distinguir mayúsculas: el alta confía en estas restricciones cuando el filtro de existencia no ve el valor
+create unique index uk_users_username_lower on public.users (username_lower);
+create unique index uk_users_email_lower on public.users (email_lower);
+
 create table public.user_roles
 (
     user_id uuid not null
@@ -54,3 +54,5 @@ db.orders.insertMany([
         ]
     }
 ]);
+
+db.orders.createIndex({userId: 1, createdAt: -1, _id: -1}, {name: "user_created_id"});
@@ -0,0 +1,151 @@
+package com.madirex.funkosspringrest.config.security;
+
+import com.madirex.funkosspringrest.rest.entities.auth.exceptions.PasswordHashingBusy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Clase PooledPasswordEncoder
+ * PasswordEncoder BCrypt que calcula los hashes en un pool de hilos propio y acotado. El pool solo limita cuántos
+ * hashes se calculan a la vez, para que una avalancha de inicios de sesión no ocupe toda la CPU: el hilo de la
+ * petición sigue bloqueado esperando el resultado. Si el pool y su cola están llenos se rechaza la petición al momento
+ * con PasswordHashingBusy (503), y lo mismo si el resultado no llega a tiempo
+ * BCrypt no atiende interrupciones, así que un cálculo que ya ha empezado no se puede cancelar: tras agotarse la espera
+ * sigue ocupando su hilo del pool hasta terminar, y solo se descartan los que aún estaban en cola
+ * Los hashes con un coste distinto al configurado se marcan para recalcularse en el siguiente inicio de sesión
+ */
+@Slf4j
+public class PooledPasswordEncoder implements PasswordEncoder, DisposableBean {
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor PooledPasswordEncoder
+     *
+     * @param strength      Coste de BCrypt (log2 de las iteraciones)
+     * @param threads       Hilos del pool; 0 para usar uno por procesador
+     * @param queueCapacity Peticiones que pueden esperar en cola con todos los hilos ocupados
+     * @param timeoutMillis Tiempo máximo que el llamante espera un cálculo, en milisegundos; el cálculo no se detiene
+     */
+    public PooledPasswordEncoder(int strength, int threads, int queueCapacity, long timeoutMillis) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeoutMillis = timeoutMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Calcula el hash de una contraseña en el pool
+     *
+     * @param rawPassword Contraseña
+     * @return Hash
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Comprueba una contraseña contra su hash en el pool
+     *
+     * @param rawPassword     Contraseña
+     * @param encodedPassword Hash
+     * @return ¿coinciden?
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si un hash debe recalcularse porque su coste no es el configurado
+     *
+     * @param encodedPassword Hash
+     * @return ¿recalcular?
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Peticiones esperando en la cola del pool
+     *
+     * @return Número de peticiones en cola
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Detiene el pool al cerrar el contexto
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ejecuta un cálculo en el pool y espera su resultado, bloqueando el hilo llamante como mucho timeoutMillis
+     * Al agotarse la espera se cancela la tarea sin interrumpirla: si aún estaba en cola ya no se ejecuta, y si había
+     * empezado termina en su hilo y el resultado se descarta
+     *
+     * @param task Cálculo
+     * @param <T>  Tipo del resultado
+     * @return Resultado
+     */
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Pool de contraseñas saturado: " + executor.getActiveCount() + " activos y " + queued()
+                    + " en cola");
+            throw new PasswordHashingBusy("inténtelo de nuevo más tarde");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new PasswordHashingBusy("tiempo de espera agotado");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusy("petición interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.madirex.funkosspringrest.config.security;
+
+import com.madirex.funkosspringrest.rest.entities.auth.services.jwt.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clase RateLimitFilter
+ * Limita las peticiones por IP y por usuario para cada clase de ruta (autenticación, pedidos, catálogo y resto de la
+ * API) con cubetas de tokens. Va antes que JwtAuthenticationFilter, así que una petición rechazada no llega a
+ * consultar la base de datos. El usuario se toma del sujeto del token Bearer solo si su firma y su expiración son
+ * válidas, para que no se pueda agotar el límite de otro usuario con un token inventado. El límite por IP se aplica
+ * siempre, y sin un token válido es el único.
+ * Detrás de un proxy, la IP real depende de server.forward-headers-strategy
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final JwtService jwtService;
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final Map<RouteClass, RateLimiter.Limit> ipLimits = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, RateLimiter.Limit> userLimits = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Constructor
+     *
+     * @param jwtService     servicio de JWT, para verificar el token antes de usar su usuario
+     * @param enabled        ¿limitación activada?
+     * @param maxBuckets     número máximo de cubetas en memoria
+     * @param sweepInterval  intervalo de limpieza de cubetas inactivas, en milisegundos
+     * @param authPerIp      límite por IP de la autenticación
+     * @param ordersPerIp    límite por IP de los pedidos
+     * @param ordersPerUser  límite por usuario de los pedidos
+     * @param catalogPerIp   límite por IP del catálogo
+     * @param catalogPerUser límite por usuario del catálogo
+     * @param defaultPerIp   límite por IP del resto de la API
+     * @param defaultPerUser límite por usuario del resto de la API
+     */
+    @Autowired
+    public RateLimitFilter(JwtService jwtService,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.max-buckets:100000}") int maxBuckets,
+                           @Value("${rate-limit.sweep-interval-ms:60000}") long sweepInterval,
+                           @Value("${rate-limit.auth.per-ip:20/1m}") String authPerIp,
+                           @Value("${rate-limit.orders.per-ip:120/1m}") String ordersPerIp,
+                           @Value("${rate-limit.orders.per-user:60/1m}") String ordersPerUser,
+                           @Value("${rate-limit.catalog.per-ip:600/1m}") String catalogPerIp,
+                           @Value("${rate-limit.catalog.per-user:600/1m}") String catalogPerUser,
+                           @Value("${rate-limit.default.per-ip:600/1m}") String defaultPerIp,
+                           @Value("${rate-limit.default.per-user:600/1m}") String defaultPerUser) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.rateLimiter = new RateLimiter(maxBuckets, sweepInterval);
+        putLimit(ipLimits, RouteClass.AUTH, authPerIp);
+        putLimit(ipLimits, RouteClass.ORDERS, ordersPerIp);
+        putLimit(userLimits, RouteClass.ORDERS, ordersPerUser);
+        putLimit(ipLimits, RouteClass.CATALOG, catalogPerIp);
+        putLimit(userLimits, RouteClass.CATALOG, catalogPerUser);
+        putLimit(ipLimits, RouteClass.DEFAULT, defaultPerIp);
+        putLimit(userLimits, RouteClass.DEFAULT, defaultPerUser);
+    }
+
+    /**
+     * Filtro de limitación de peticiones
+     *
+     * @param request     petición
+     * @param response    respuesta
+     * @param filterChain cadena de filtros
+     * @throws ServletException excepción de servlet
+     * @throws IOException      excepción de entrada/salida
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteClass route = RouteClass.of(request.getRequestURI());
+        long wait = 0;
+        RateLimiter.Limit ipLimit = ipLimits.get(route);
+        if (ipLimit != null) {
+            wait = rateLimiter.tryAcquire("ip:" + route.ordinal() + ":" + request.getRemoteAddr(), ipLimit);
+        }
+        RateLimiter.Limit userLimit = userLimits.get(route);
+        if (wait == 0 && userLimit != null) {
+            String user = userOf(request);
+            if (user != null) {
+                wait = rateLimiter.tryAcquire("user:" + route.ordinal() + ":" + user, userLimit);
+            }
+        }
+        if (wait > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            log.warn("Límite de peticiones superado en " + route + " por " + request.getRemoteAddr());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Demasiadas peticiones");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Solo se limitan la API y el catálogo web, no los recursos estáticos
+     *
+     * @param request petición
+     * @return ¿omitir el filtro?
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || RouteClass.of(request.getRequestURI()) == null;
+    }
+
+    /**
+     * Número de cubetas en memoria
+     *
+     * @return Número de cubetas
+     */
+    public int buckets() {
+        return rateLimiter.size();
+    }
+
+    /**
+     * Obtiene el usuario de un token Bearer verificado, sin consultar la base de datos
+     *
+     * @param request petición
+     * @return Nombre de usuario, o null si la petición no lleva un token válido
+     */
+    private String userOf(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (!StringUtils.hasText(authHeader) || !StringUtils.startsWithIgnoreCase(authHeader, "Bearer ")) {
+            return null;
+        }
+        return jwtService.extractVerifiedUserName(authHeader.substring(7));
+    }
+
+    /**
+     * Añade un límite si está configurado
+     *
+     * @param limits Límites
+     * @param route  Clase de ruta
+     * @param value  Límite con el formato peticiones/periodo
+     */
+    private static void putLimit(Map<RouteClass, RateLimiter.Limit> limits, RouteClass route, String value) {
+        RateLimiter.Limit limit = RateLimiter.Limit.parse(value);
+        if (limit != null) {
+            limits.put(route, limit);
+        }
+    }
+
+    /**
+     * Clases de ruta con límites propios
+     */
+    enum RouteClass {
+        AUTH, ORDERS, CATALOG, DEFAULT;
+
+        /**
+         * Obtiene la clase de una ruta
+         *
+         * @param uri Ruta de la petición
+         * @return Clase de ruta, o null si la ruta no se limita
+         */
+        static RouteClass of(String uri) {
+            if (uri.startsWith("/api/auth")) {
+                return AUTH;
+            }
+            if (uri.startsWith("/api/orders") || uri.startsWith("/api/users/me/orders")) {
+                return ORDERS;
+            }
+            if (uri.startsWith("/api/funkos") || uri.startsWith("/api/category") || uri.startsWith("/funkos")) {
+                return CATALOG;
+            }
+            return uri.startsWith("/api/") ? DEFAULT : null;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.madirex.funkosspringrest.config.security;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Clase RateLimiter
+ * Cubetas de tokens por clave (IP, usuario y clase de ruta) sin bloqueos. Cada cubeta guarda un único AtomicLong con
+ * el instante teórico en el que volverá a estar llena (algoritmo GCRA, equivalente a una cubeta de tokens), de forma
+ * que consumir un token es una lectura y un compareAndSet
+ * La memoria está acotada: una cubeta que ya se ha rellenado del todo no guarda información y se elimina en la
+ * siguiente limpieza; si aun así se alcanza el máximo de cubetas, las claves nuevas comparten una cubeta de
+ * desbordamiento por límite, que frena a quien intente llenar la memoria con claves distintas
+ */
+public class RateLimiter {
+    private final int maxBuckets;
+    private final long sweepIntervalNanos;
+    private final LongSupplier clock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Limit, Bucket> overflow = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    /**
+     * Constructor RateLimiter
+     *
+     * @param maxBuckets    Número máximo de cubetas en memoria
+     * @param sweepInterval Intervalo entre limpiezas de cubetas inactivas, en milisegundos
+     */
+    public RateLimiter(int maxBuckets, long sweepInterval) {
+        this(maxBuckets, sweepInterval, System::nanoTime);
+    }
+
+    /**
+     * Constructor RateLimiter con reloj propio, para los tests
+     *
+     * @param maxBuckets    Número máximo de cubetas en memoria
+     * @param sweepInterval Intervalo entre limpiezas de cubetas inactivas, en milisegundos
+     * @param clock         Reloj en nanosegundos
+     */
+    RateLimiter(int maxBuckets, long sweepInterval, LongSupplier clock) {
+        this.maxBuckets = maxBuckets;
+        this.sweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sweepInterval);
+        this.clock = clock;
+        this.nextSweep = new AtomicLong(clock.getAsLong() + sweepIntervalNanos);
+    }
+
+    /**
+     * Intenta consumir un token de la cubeta de una clave
+     *
+     * @param key   Clave
+     * @param limit Límite de la cubeta
+     * @return 0 si se permite la petición; si no, nanosegundos hasta que habrá un token disponible
+     */
+    public long tryAcquire(String key, Limit limit) {
+        long now = clock.getAsLong();
+        sweepIfDue(now);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxBuckets
+                    ? buckets.computeIfAbsent(key, k -> new Bucket(now))
+                    : overflow.computeIfAbsent(limit, l -> new Bucket(now));
+        }
+        return bucket.tryAcquire(now, limit);
+    }
+
+    /**
+     * Número de cubetas en memoria
+     *
+     * @return Número de cubetas
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Elimina las cubetas llenas si ha pasado el intervalo de limpieza; solo la hace un hilo
+     *
+     * @param now Instante actual
+     */
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + sweepIntervalNanos)) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            overflow.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    /**
+     * Límite de una cubeta: capacidad y tiempo en el que se rellena por completo
+     *
+     * @param capacity Peticiones permitidas de golpe
+     * @param period   Tiempo en nanosegundos en el que se recuperan todas las peticiones
+     */
+    public record Limit(int capacity, long period) {
+        /**
+         * Intervalo entre tokens en nanosegundos
+         *
+         * @return Intervalo
+         */
+        long interval() {
+            return period / capacity;
+        }
+
+        /**
+         * Crea un límite a partir de un texto con el formato peticiones/periodo, por ejemplo 60/1m
+         * El periodo admite las unidades s, m y h. Un texto vacío o "0" desactiva el límite
+         *
+         * @param value Texto
+         * @return Límite, o null si está desactivado
+         */
+        public static Limit parse(String value) {
+            if (value == null || value.isBlank() || value.trim().equals("0")) {
+                return null;
+            }
+            String[] parts = value.trim().toLowerCase(Locale.ROOT).split("/");
+            if (parts.length != 2 || parts[1].length() < 2) {
+                throw new IllegalArgumentException("Límite no válido: " + value);
+            }
+            int capacity = Integer.parseInt(parts[0].trim());
+            long amount = Long.parseLong(parts[1].substring(0, parts[1].length() - 1).trim());
+            TimeUnit unit = switch (parts[1].charAt(parts[1].length() - 1)) {
+                case 's' -> TimeUnit.SECONDS;
+                case 'm' -> TimeUnit.MINUTES;
+                case 'h' -> TimeUnit.HOURS;
+                default -> throw new IllegalArgumentException("Unidad de límite no válida: " + value);
+            };
+            if (capacity < 1 || amount < 1) {
+                throw new IllegalArgumentException("Límite no válido: " + value);
+            }
+            return new Limit(capacity, unit.toNanos(amount));
+        }
+    }
+
+    /**
+     * Cubeta de tokens guardada como el instante teórico en el que estará llena de nuevo
+     */
+    private static final class Bucket {
+        private final AtomicLong fullAt;
+
+        /**
+         * Constructor Bucket
+         *
+         * @param now Instante actual; la cubeta empieza llena
+         */
+        private Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * Intenta consumir un token
+         *
+         * @param now   Instante actual
+         * @param limit Límite
+         * @return 0 si se consume; si no, nanosegundos hasta que habrá un token disponible
+         */
+        private long tryAcquire(long now, Limit limit) {
+            long interval = limit.interval();
+            while (true) {
+                long current = fullAt.get();
+                long base = now - current > 0 ? now : current;
+                long next = base + interval;
+                long wait = next - now - limit.period();
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Indica si la cubeta está llena y por tanto puede olvidarse
+         *
+         * @param now Instante actual
+         * @return ¿llena?
+         */
+        private boolean isFull(long now) {
+            return now - fullAt.get() >= 0;
+        }
+    }
+}
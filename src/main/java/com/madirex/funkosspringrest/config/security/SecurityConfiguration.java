@@ -1,6 +1,9 @@
 package com.madirex.funkosspringrest.config.security;
 
+import com.madirex.funkosspringrest.rest.entities.auth.services.users.AuthUsersService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,8 +14,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -27,34 +28,42 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 @EnableMethodSecurity
 public class SecurityConfiguration {
 
-    private final UserDetailsService userService;
+    private final AuthUsersService userService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Constructor
      *
-     * @param userService             UserDetailsService
+     * @param userService             AuthUsersService
      * @param jwtAuthenticationFilter JwtAuthenticationFilter
+     * @param rateLimitFilter         RateLimitFilter
      */
     @Autowired
-    public SecurityConfiguration(UserDetailsService userService, JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfiguration(AuthUsersService userService, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                 RateLimitFilter rateLimitFilter) {
         this.userService = userService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     /**
      * Método para configurar la seguridad
      *
-     * @param http HttpSecurity
+     * @param http            HttpSecurity
+     * @param passwordEncoder PasswordEncoder
      * @return SecurityFilterChain
      * @throws Exception Excepción
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder)
+            throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(manager -> manager.sessionCreationPolicy(STATELESS))
                 .authorizeHttpRequests((authorizeHttpRequests) -> authorizeHttpRequests
+                        //los despachos asíncronos (exportaciones en streaming) ya se autorizaron en la petición original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         //acceso a los recursos estáticos para todos los usuarios
                         .requestMatchers("/error/**").permitAll()
                         .requestMatchers("/static/**").permitAll()
@@ -71,31 +80,46 @@ public class SecurityConfiguration {
                         //Acceso al perfil para usuarios autenticados
                         .requestMatchers("/funkos/**").permitAll()
                         .anyRequest().authenticated())
-                .authenticationProvider(authenticationProvider()).addFilterBefore(
-                        jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .authenticationProvider(authenticationProvider(passwordEncoder)).addFilterBefore(
+                        jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                //la limitación de peticiones va antes de la autenticación, que consulta la base de datos
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
     /**
      * Método para configurar PasswordEncoder
+     * Los hashes BCrypt se calculan en un pool acotado, que limita cuántos se ejecutan a la vez
      *
-     * @return SecurityFilterChain
+     * @param strength      Coste de BCrypt
+     * @param threads       Hilos del pool de cálculo de contraseñas
+     * @param queueCapacity Capacidad de la cola del pool
+     * @param timeoutMillis Tiempo máximo de espera por un cálculo
+     * @return PasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PooledPasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength,
+                                                 @Value("${security.password-hashing.threads:0}") int threads,
+                                                 @Value("${security.password-hashing.queue-capacity:64}")
+                                                 int queueCapacity,
+                                                 @Value("${security.password-hashing.timeout-ms:5000}")
+                                                 long timeoutMillis) {
+        return new PooledPasswordEncoder(strength, threads, queueCapacity, timeoutMillis);
     }
 
     /**
      * Método para configurar AuthenticationProvider
+     * Al iniciar sesión, las contraseñas con un coste distinto al configurado se recalculan y se guardan
      *
+     * @param passwordEncoder PasswordEncoder
      * @return AuthenticationProvider
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
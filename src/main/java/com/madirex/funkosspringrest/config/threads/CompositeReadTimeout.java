@@ -0,0 +1,31 @@
+package com.madirex.funkosspringrest.config.threads;
+
+import com.madirex.funkosspringrest.manager.error.exceptions.ResponseException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Class CompositeReadTimeout
+ * Se lanza cuando una lectura compuesta no termina dentro del plazo de la petición
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CompositeReadTimeout extends ResponseException {
+    /**
+     * Constructor CompositeReadTimeout
+     *
+     * @param message Mensaje de error
+     */
+    public CompositeReadTimeout(String message) {
+        super("Lectura no disponible - " + message);
+    }
+
+    /**
+     * Método getHttpStatus
+     *
+     * @return HttpStatus
+     */
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
@@ -0,0 +1,160 @@
+package com.madirex.funkosspringrest.config.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Clase CompositeReader
+ * Ejecuta a la vez lecturas independientes de distintos almacenes (Postgres y Mongo) para que una lectura compuesta
+ * tarde lo que la más lenta y no la suma de todas. Cada lectura se lanza en un hilo virtual dentro de un ámbito:
+ * join() espera a todas hasta el plazo de la petición; si una falla o se agota el plazo se cancelan las demás y se
+ * propaga el error. Las lecturas no comparten la transacción del hilo que las lanza, así que solo deben usarse para
+ * consultas independientes de solo lectura
+ */
+@Slf4j
+@Component
+public class CompositeReader implements DisposableBean {
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("composite-read-", 0).factory());
+    private final long timeoutMillis;
+    private final int maxParallelism;
+
+    /**
+     * Constructor CompositeReader
+     *
+     * @param timeoutMillis  Plazo máximo de una lectura compuesta, en milisegundos
+     * @param maxParallelism Lecturas simultáneas como máximo en un mismo ámbito, para no agotar las conexiones
+     */
+    @Autowired
+    public CompositeReader(@Value("${composite-read.timeout-ms:2000}") long timeoutMillis,
+                           @Value("${composite-read.max-parallelism:4}") int maxParallelism) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxParallelism = Math.max(1, maxParallelism);
+    }
+
+    /**
+     * Abre un ámbito de lecturas con el plazo configurado
+     *
+     * @return Ámbito; debe cerrarse, por ejemplo con try-with-resources
+     */
+    public Scope open() {
+        return new Scope(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    /**
+     * Detiene el ejecutor al cerrar el contexto
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ámbito de una lectura compuesta: agrupa las lecturas lanzadas, las espera juntas y cancela las pendientes al
+     * cerrarse
+     */
+    public final class Scope implements AutoCloseable {
+        private final long deadline;
+        private final Semaphore permits = new Semaphore(maxParallelism);
+        private final CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        private final List<Future<Object>> futures = new ArrayList<>();
+        private boolean joined;
+
+        /**
+         * Constructor Scope
+         *
+         * @param deadline Instante límite en nanosegundos
+         */
+        private Scope(long deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * Lanza una lectura
+         *
+         * @param read Lectura
+         * @param <T>  Tipo del resultado
+         * @return Resultado, disponible tras join()
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Supplier<T> fork(Callable<T> read) {
+            Future<Object> future = completion.submit(() -> {
+                permits.acquire();
+                try {
+                    return read.call();
+                } finally {
+                    permits.release();
+                }
+            });
+            futures.add(future);
+            return () -> {
+                if (!joined) {
+                    throw new IllegalStateException("La lectura compuesta no ha terminado");
+                }
+                return (T) future.resultNow();
+            };
+        }
+
+        /**
+         * Espera a que terminen todas las lecturas
+         * Al primer error se cancelan las lecturas pendientes y se propaga su excepción
+         *
+         * @throws CompositeReadTimeout si no terminan antes del plazo
+         */
+        public void join() {
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        throw new CompositeReadTimeout("las lecturas no han terminado en " + timeoutMillis + " ms");
+                    }
+                    done.get();
+                }
+                joined = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompositeReadTimeout("lectura interrumpida");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                if (!joined) {
+                    cancelPending();
+                }
+            }
+        }
+
+        /**
+         * Cancela las lecturas que no hayan terminado
+         */
+        @Override
+        public void close() {
+            cancelPending();
+        }
+
+        /**
+         * Cancela las lecturas pendientes
+         */
+        private void cancelPending() {
+            futures.stream().filter(future -> !future.isDone()).forEach(future -> future.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.madirex.funkosspringrest.config.threads;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clase VirtualThreadPinningMonitor
+ * Escucha con JFR los eventos jdk.VirtualThreadPinned: un hilo virtual que se bloquea dentro de un bloque
+ * synchronized o de código nativo no libera su hilo de plataforma, y si ocurre a menudo el modo virtual pierde su
+ * ventaja. Cada bloqueo largo se registra con su traza y se acumula por el punto del código que lo provoca; al cerrar
+ * la aplicación se muestra el resumen
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 8;
+    private static final int SUMMARY_SIZE = 10;
+
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    /**
+     * Constructor VirtualThreadPinningMonitor
+     *
+     * @param thresholdMillis Duración mínima de un bloqueo para informar de él, en milisegundos
+     */
+    public VirtualThreadPinningMonitor(long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    /**
+     * Empieza a escuchar los eventos de bloqueo
+     */
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitor de hilos virtuales bloqueados activo (umbral " + threshold.toMillis() + " ms)");
+    }
+
+    /**
+     * Registra un bloqueo
+     *
+     * @param event Evento de JFR
+     */
+    void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String site = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk."))
+                .findFirst()
+                .orElse("desconocido");
+        pinnedBySite.computeIfAbsent(site, s -> new LongAdder()).increment();
+        StringBuilder trace = new StringBuilder();
+        frames.stream().limit(STACK_DEPTH).forEach(frame -> trace.append("\n\tat ").append(describe(frame)));
+        log.warn("Hilo virtual bloqueado " + event.getDuration().toMillis() + " ms en " + site + trace);
+    }
+
+    /**
+     * Número de bloqueos por punto del código, de más a menos frecuente
+     *
+     * @return Bloqueos por punto del código
+     */
+    public Map<String, Long> report() {
+        Map<String, Long> report = new LinkedHashMap<>();
+        pinnedBySite.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> report.put(e.getKey(), e.getValue().sum()));
+        return report;
+    }
+
+    /**
+     * Deja de escuchar y muestra el resumen de bloqueos
+     */
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+        Map<String, Long> report = report();
+        if (!report.isEmpty()) {
+            StringBuilder summary = new StringBuilder("Puntos donde se han bloqueado hilos virtuales:");
+            report.entrySet().stream().limit(SUMMARY_SIZE)
+                    .forEach(e -> summary.append("\n\t").append(e.getValue()).append(" x ").append(e.getKey()));
+            log.warn(summary.toString());
+        }
+    }
+
+    /**
+     * Describe un marco de la traza
+     *
+     * @param frame Marco
+     * @return Clase, método y línea
+     */
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
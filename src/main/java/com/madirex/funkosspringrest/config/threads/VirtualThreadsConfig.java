@@ -0,0 +1,60 @@
+package com.madirex.funkosspringrest.config.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Clase VirtualThreadsConfig
+ * Modo opcional de ejecución en hilos virtuales (spring.threads.virtual.enabled=true): las peticiones de Tomcat y las
+ * tareas asíncronas (exportaciones en streaming, @Async) se ejecutan cada una en su propio hilo virtual, de forma que
+ * esperar a Postgres o a Mongo no ocupa un hilo de plataforma. El cálculo de contraseñas sigue en su pool acotado,
+ * porque es trabajo de CPU
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(value = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    /**
+     * Ejecuta cada petición de Tomcat en un hilo virtual
+     *
+     * @return Personalizador del protocolo de Tomcat
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        log.info("Peticiones HTTP en hilos virtuales");
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Ejecutor de tareas asíncronas con un hilo virtual por tarea
+     *
+     * @return Ejecutor de tareas
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("task-", 0).factory()));
+    }
+
+    /**
+     * Monitor de hilos virtuales bloqueados a su hilo de plataforma
+     *
+     * @param threshold Duración mínima de un bloqueo para informar de él, en milisegundos
+     * @return Monitor
+     */
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${threads.virtual.pinned-threshold-ms:20}") long threshold) {
+        return new VirtualThreadPinningMonitor(threshold);
+    }
+}
@@ -0,0 +1,45 @@
+package com.madirex.funkosspringrest.config.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Clase BinaryFormatsConfig
+ * Registra CBOR (application/cbor) y Smile (application/x-jackson-smile) como formatos negociables en todos los
+ * controladores REST, con ?format=cbor / ?format=smile o con la cabecera Accept. Los convertidores usan el mismo
+ * builder de Jackson que JSON, así que los módulos y la configuración de fechas son los mismos en todos los formatos
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    /**
+     * Convertidor CBOR
+     *
+     * @param objectMapperBuilder Builder de los ObjectMapper de la aplicación
+     * @return Convertidor
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Convertidor Smile
+     *
+     * @param objectMapperBuilder Builder de los ObjectMapper de la aplicación
+     * @return Convertidor
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,35 @@
+package com.madirex.funkosspringrest.config.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madirex.funkosspringrest.rest.pagination.model.CursorPageResponse;
+import com.madirex.funkosspringrest.rest.pagination.model.PageResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * Clase StreamingXmlConfig
+ * Sustituye el convertidor XML de Spring Boot por StreamingXmlHttpMessageConverter, que escribe en streaming las
+ * páginas de resultados. Se desactiva con xml.streaming.enabled=false
+ */
+@Configuration
+public class StreamingXmlConfig {
+
+    /**
+     * Convertidor XML con streaming de las páginas de resultados
+     *
+     * @param objectMapperBuilder Builder de los ObjectMapper de la aplicación
+     * @param objectMapper        ObjectMapper JSON de la aplicación
+     * @return Convertidor
+     */
+    @Bean
+    @ConditionalOnProperty(name = "xml.streaming.enabled", havingValue = "true", matchIfMissing = true)
+    public StreamingXmlHttpMessageConverter streamingXmlHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder, ObjectMapper objectMapper) {
+        return new StreamingXmlHttpMessageConverter(objectMapperBuilder.createXmlMapper(true).build(), objectMapper,
+                List.of(PageResponse.class, CursorPageResponse.class));
+    }
+}
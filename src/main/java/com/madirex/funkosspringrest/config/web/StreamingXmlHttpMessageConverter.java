@@ -0,0 +1,84 @@
+package com.madirex.funkosspringrest.config.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.madirex.funkosspringrest.util.StreamingXmlWriter;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Clase StreamingXmlHttpMessageConverter
+ * Convertidor XML que escribe las páginas de resultados con StreamingXmlWriter: cada elemento del contenido se
+ * escribe en la salida según se recorre, con el modelo de campos del JSON y sin pasar cada campo por ToXmlGenerator
+ * El resto de respuestas, la lectura de XML y las salidas con sangría o codificaciones distintas de UTF-8 siguen en
+ * MappingJackson2XmlHttpMessageConverter. Al ser una subclase, Spring Boot lo usa en lugar del convertidor XML por
+ * defecto y en su misma posición, detrás de JSON
+ */
+public class StreamingXmlHttpMessageConverter extends MappingJackson2XmlHttpMessageConverter {
+    private final StreamingXmlWriter streamingXmlWriter;
+    private final List<Class<?>> streamedTypes;
+
+    /**
+     * Constructor StreamingXmlHttpMessageConverter
+     *
+     * @param xmlMapper     XmlMapper de la aplicación
+     * @param jsonMapper    ObjectMapper JSON del que se toma el modelo de campos
+     * @param streamedTypes Clases que se escriben en streaming
+     */
+    public StreamingXmlHttpMessageConverter(XmlMapper xmlMapper, ObjectMapper jsonMapper,
+                                            List<Class<?>> streamedTypes) {
+        super(xmlMapper);
+        this.streamingXmlWriter = new StreamingXmlWriter(jsonMapper, xmlMapper);
+        this.streamedTypes = List.copyOf(streamedTypes);
+    }
+
+    /**
+     * Escribe la respuesta en streaming si es una página; si no, con Jackson
+     *
+     * @param object        Objeto
+     * @param type          Tipo declarado
+     * @param outputMessage Respuesta
+     * @throws IOException                     Si no se ha podido escribir
+     * @throws HttpMessageNotWritableException Si Jackson no puede serializar el objeto
+     */
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!isStreamed(object, outputMessage.getHeaders().getContentType())) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        streamingXmlWriter.write(object, outputMessage.getBody());
+    }
+
+    /**
+     * Indica si una respuesta se escribe en streaming
+     *
+     * @param object      Objeto
+     * @param contentType Tipo de contenido de la respuesta
+     * @return ¿en streaming?
+     */
+    private boolean isStreamed(Object object, @Nullable MediaType contentType) {
+        if (object instanceof MappingJacksonValue || getObjectMapper().isEnabled(SerializationFeature.INDENT_OUTPUT)
+                || (contentType != null && contentType.getCharset() != null
+                && !StandardCharsets.UTF_8.equals(contentType.getCharset()))) {
+            return false;
+        }
+        for (Class<?> streamedType : streamedTypes) {
+            if (streamedType.isInstance(object)) {
+                return streamingXmlWriter.isStreamed(object.getClass());
+            }
+        }
+        return false;
+    }
+}
@@ -7,22 +7,28 @@ import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
 import java.time.LocalTime;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Clase WebSocketHandler
+ * Las sesiones se guardan envueltas en un ConcurrentWebSocketSessionDecorator, ya que las notificaciones se envían
+ * desde hilos propios y una sesión no admite envíos simultáneos
  */
 @Slf4j
 public class WebSocketHandler extends TextWebSocketHandler implements SubProtocolCapable, WebSocketSender {
+    private static final int SEND_TIME_LIMIT = 5000;
+    private static final int BUFFER_SIZE_LIMIT = 512 * 1024;
+
     private final String entity;
 
-    private final Set<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
+    private final Map<WebSocketSession, WebSocketSession> sessions = new ConcurrentHashMap<>();
 
     /**
      * Constructor de la clase
@@ -43,7 +49,7 @@ public class WebSocketHandler extends TextWebSocketHandler implements SubProtoco
     public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
         log.info("Conexión establecida con el servidor");
         log.info("Sesión: " + session);
-        sessions.add(session);
+        sessions.put(session, new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT, BUFFER_SIZE_LIMIT));
         TextMessage message = new TextMessage("Updates Web socket: " + entity + " - API Spring Boot");
         log.info("Servidor envía: {}", message);
         session.sendMessage(message);
@@ -69,7 +75,7 @@ public class WebSocketHandler extends TextWebSocketHandler implements SubProtoco
     @Override
     public void sendMessage(String message) {
         log.info("Enviar mensaje de cambios en la entidad: " + entity + " : " + message);
-        for (WebSocketSession session : sessions) {
+        for (WebSocketSession session : sessions.values()) {
             if (session.isOpen()) {
                 log.info("Servidor WS envía: " + message);
                 try {
@@ -89,7 +95,7 @@ public class WebSocketHandler extends TextWebSocketHandler implements SubProtoco
     @Scheduled(fixedRate = 1000)
     @Override
     public void sendPeriodicMessages() throws IOException {
-        for (WebSocketSession session : sessions) {
+        for (WebSocketSession session : sessions.values()) {
             if (session.isOpen()) {
                 String broadcast = "server periodic message " + LocalTime.now();
                 log.info("Server sends: " + broadcast);
@@ -0,0 +1,87 @@
+package com.madirex.funkosspringrest.rest.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Clase SecondLevelCache
+ * Acceso a la caché de segundo nivel de Hibernate: estadísticas por región e invalidación de las entidades que se
+ * modifican sin pasar por Hibernate. Las escrituras de JPA y las sentencias UPDATE/DELETE de JPQL ya invalidan sus
+ * regiones; los lotes JDBC, como las actualizaciones masivas y la sincronización de stock, deben invalidarlas aquí
+ * después de confirmar la transacción
+ */
+@Slf4j
+@Component
+public class SecondLevelCache {
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructor SecondLevelCache
+     *
+     * @param entityManagerFactory EntityManagerFactory
+     */
+    @Autowired
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Invalida todas las entradas de una entidad
+     *
+     * @param entityClass Clase de la entidad
+     */
+    public void evict(Class<?> entityClass) {
+        entityManagerFactory.getCache().evict(entityClass);
+        log.debug("Caché de segundo nivel invalidada para " + entityClass.getSimpleName());
+    }
+
+    /**
+     * Estadísticas de cada región de la caché, ordenadas por nombre
+     * Solo se recogen con hibernate.generate_statistics=true; si no, todos los contadores están a 0
+     *
+     * @return Estadísticas por región
+     */
+    public List<RegionStatistics> statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(RegionStatistics::of)
+                .toList();
+    }
+
+    /**
+     * Estadísticas de una región
+     *
+     * @param region   Nombre de la región
+     * @param hits     Lecturas servidas desde la caché
+     * @param misses   Lecturas que no estaban en la caché
+     * @param puts     Entradas guardadas
+     * @param hitRatio Proporción de aciertos, entre 0 y 1
+     */
+    public record RegionStatistics(String region, long hits, long misses, long puts, double hitRatio) {
+        /**
+         * Crea las estadísticas a partir de las de Hibernate
+         *
+         * @param statistics Estadísticas de Hibernate
+         * @return Estadísticas
+         */
+        static RegionStatistics of(CacheRegionStatistics statistics) {
+            long hits = statistics.getHitCount();
+            long misses = statistics.getMissCount();
+            long reads = hits + misses;
+            return new RegionStatistics(statistics.getRegionName(), hits, misses, statistics.getPutCount(),
+                    reads == 0 ? 0 : (double) hits / reads);
+        }
+    }
+}
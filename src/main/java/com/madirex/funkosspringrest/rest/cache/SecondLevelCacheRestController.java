@@ -0,0 +1,43 @@
+package com.madirex.funkosspringrest.rest.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador de la caché de segundo nivel
+ */
+@RestController
+@RequestMapping("/api/cache")
+@Slf4j
+public class SecondLevelCacheRestController {
+    private final SecondLevelCache secondLevelCache;
+
+    /**
+     * Constructor SecondLevelCacheRestController
+     *
+     * @param secondLevelCache Caché de segundo nivel
+     */
+    @Autowired
+    public SecondLevelCacheRestController(SecondLevelCache secondLevelCache) {
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    /**
+     * Obtiene las estadísticas de cada región de la caché de segundo nivel
+     *
+     * @return Estadísticas por región
+     */
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SecondLevelCache.RegionStatistics>> getStatistics() {
+        log.info("Obteniendo las estadísticas de la caché de segundo nivel");
+        return ResponseEntity.ok(secondLevelCache.statistics());
+    }
+}
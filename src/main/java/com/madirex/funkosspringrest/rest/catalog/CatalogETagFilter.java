@@ -0,0 +1,297 @@
+package com.madirex.funkosspringrest.rest.catalog;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Clase CatalogETagFilter
+ * GET condicional para /api/funkos y /api/category: las respuestas llevan una ETag débil calculada con la versión del
+ * catálogo (la del Funko o la categoría en los detalles) y el tipo de contenido negociado y, si coincide con
+ * If-None-Match, se responde 304 sin llegar al controlador ni consultar la base de datos. Se ejecuta tras la cadena de
+ * seguridad, así que la petición debe estar autenticada como cualquier otra. Las ETags son débiles para que sigan
+ * siendo válidas con la compresión
+ * La ETag solo se añade a las respuestas 2xx, justo antes de enviar las cabeceras, porque hasta entonces no se conocen
+ * el estado ni el tipo de contenido. Como la representación depende de Accept, todas las respuestas llevan Vary: Accept
+ */
+@Component
+public class CatalogETagFilter extends OncePerRequestFilter {
+    private static final String FUNKOS_PATH = "/api/funkos";
+    private static final String CATEGORIES_PATH = "/api/category";
+    // Tipos que se pueden negociar, en el orden en que se eligen si Accept admite varios por igual
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+    private final CatalogVersion catalogVersion;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final boolean enabled;
+
+    /**
+     * Constructor CatalogETagFilter
+     *
+     * @param catalogVersion            Versión del catálogo
+     * @param contentNegotiationManager Gestor de negociación de contenido, el mismo que usan los controladores
+     * @param enabled                   ¿ETags activadas?
+     */
+    @Autowired
+    public CatalogETagFilter(CatalogVersion catalogVersion, ContentNegotiationManager contentNegotiationManager,
+                             @Value("${catalog.etag.enabled:true}") boolean enabled) {
+        this.catalogVersion = catalogVersion;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Responde 304 si la ETag de la petición sigue vigente o añade la ETag actual a la respuesta si es 2xx
+     *
+     * @param request     petición
+     * @param response    respuesta
+     * @param filterChain cadena de filtros
+     * @throws ServletException excepción de servlet
+     * @throws IOException      excepción de entrada/salida
+     */
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long version = versionOf(request.getRequestURI());
+        // Obliga a revalidar en cada uso en lugar de desactivar la caché del cliente
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        MediaType negotiated = negotiate(request);
+        if (negotiated != null) {
+            String etag = etag(version, negotiated);
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setHeader(HttpHeaders.ETAG, etag);
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        ETagResponseWrapper wrapper = new ETagResponseWrapper(response, version);
+        filterChain.doFilter(request, wrapper);
+        wrapper.writeETag();
+    }
+
+    /**
+     * Solo se filtran las lecturas del catálogo
+     *
+     * @param request petición
+     * @return ¿omitir el filtro?
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        return !enabled || !(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method))
+                || !(isUnder(uri, FUNKOS_PATH) || isUnder(uri, CATEGORIES_PATH));
+    }
+
+    /**
+     * Versión de la que depende una ruta: la del elemento en los detalles y la global en el resto
+     *
+     * @param uri Ruta de la petición
+     * @return Versión
+     */
+    long versionOf(String uri) {
+        String id = detailId(uri, FUNKOS_PATH);
+        if (id != null) {
+            try {
+                UUID.fromString(id);
+                return catalogVersion.ofFunko(id);
+            } catch (IllegalArgumentException e) {
+                return catalogVersion.current();
+            }
+        }
+        id = detailId(uri, CATEGORIES_PATH);
+        if (id != null) {
+            try {
+                return catalogVersion.ofCategory(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                return catalogVersion.current();
+            }
+        }
+        return catalogVersion.current();
+    }
+
+    /**
+     * ETag débil de una versión en un tipo de contenido
+     *
+     * @param version   Versión
+     * @param mediaType Tipo de contenido, sin parámetros
+     * @return ETag
+     */
+    static String etag(long version, MediaType mediaType) {
+        return "W/\"" + version + "-" + mediaType.getType() + "/" + mediaType.getSubtype() + "\"";
+    }
+
+    /**
+     * Tipo de contenido que se negociará para una petición (parámetro format o cabecera Accept), con el mismo orden
+     * de preferencia que los convertidores: el primer tipo pedido, por calidad y especificidad, que se puede generar
+     *
+     * @param request petición
+     * @return Tipo de contenido, o null si no se pide ninguno que se pueda generar
+     */
+    MediaType negotiate(HttpServletRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return null;
+        }
+        for (MediaType mediaType : accepted) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (mediaType.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Comprueba si una ETag está en la cabecera If-None-Match, con la comparación débil
+     *
+     * @param ifNoneMatch Cabecera If-None-Match
+     * @param etag        ETag actual
+     * @return ¿coincide?
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || opaque(value).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parte opaca de una ETag, sin el indicador de ETag débil
+     *
+     * @param etag ETag
+     * @return Parte opaca
+     */
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Comprueba si una ruta es una base o cuelga de ella
+     *
+     * @param uri  Ruta
+     * @param base Ruta base
+     * @return ¿está bajo la base?
+     */
+    private static boolean isUnder(String uri, String base) {
+        return uri.equals(base) || uri.startsWith(base + "/");
+    }
+
+    /**
+     * Obtiene el ID de una ruta de detalle, base/{id}
+     *
+     * @param uri  Ruta
+     * @param base Ruta base
+     * @return ID, o null si la ruta no es de detalle
+     */
+    private static String detailId(String uri, String base) {
+        if (!uri.startsWith(base + "/")) {
+            return null;
+        }
+        String rest = uri.substring(base.length() + 1);
+        return rest.isEmpty() || rest.contains("/") ? null : rest;
+    }
+
+    /**
+     * Respuesta que añade la ETag justo antes de enviar las cabeceras, si es 2xx y tiene tipo de contenido
+     */
+    private static final class ETagResponseWrapper extends OnCommittedResponseWrapper {
+        private final long version;
+        private boolean error;
+        private boolean written;
+
+        /**
+         * Constructor ETagResponseWrapper
+         *
+         * @param response Respuesta
+         * @param version  Versión del catálogo al empezar la petición
+         */
+        private ETagResponseWrapper(HttpServletResponse response, long version) {
+            super(response);
+            this.version = version;
+        }
+
+        /**
+         * Marca la respuesta como error antes de enviarla
+         *
+         * @param sc Estado
+         * @throws IOException excepción de entrada/salida
+         */
+        @Override
+        public void sendError(int sc) throws IOException {
+            error = true;
+            super.sendError(sc);
+        }
+
+        /**
+         * Marca la respuesta como error antes de enviarla
+         *
+         * @param sc  Estado
+         * @param msg Mensaje
+         * @throws IOException excepción de entrada/salida
+         */
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            error = true;
+            super.sendError(sc, msg);
+        }
+
+        /**
+         * Añade la ETag al enviarse las cabeceras
+         */
+        @Override
+        protected void onResponseCommitted() {
+            writeETag();
+        }
+
+        /**
+         * Añade la ETag con el tipo de contenido de la respuesta, una sola vez y solo si no se ha enviado ya
+         */
+        private void writeETag() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            int status = getStatus();
+            String contentType = getContentType();
+            if (error || status < 200 || status >= 300 || contentType == null) {
+                return;
+            }
+            try {
+                setHeader(HttpHeaders.ETAG, etag(version, MediaType.parseMediaType(contentType)));
+            } catch (InvalidMediaTypeException e) {
+                // Sin un tipo de contenido reconocible no se puede revalidar la representación
+            }
+        }
+    }
+}
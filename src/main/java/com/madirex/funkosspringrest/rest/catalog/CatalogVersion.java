@@ -0,0 +1,94 @@
+package com.madirex.funkosspringrest.rest.catalog;
+
+import com.madirex.funkosspringrest.rest.entities.category.models.CategoryChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clase CatalogVersion
+ * Versión del catálogo que crece con cada escritura de Funkos o categorías, incluidos los cambios de stock de los
+ * pedidos. Además de la versión global guarda la versión del último cambio de cada Funko y cada categoría, de forma
+ * que las ETags de los listados y de los detalles se calculan sin consultar la base de datos
+ * Empieza en el instante de arranque, así que las ETags de una ejecución anterior no coinciden con las nuevas. Los
+ * cambios se aplican tras confirmar la transacción, para que una ETag nueva nunca acompañe a datos antiguos
+ */
+@Component
+public class CatalogVersion {
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final Map<String, Long> funkoVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> categoryVersions = new ConcurrentHashMap<>();
+    private volatile long funkosSince = version.get();
+    private volatile long categoriesSince = version.get();
+
+    /**
+     * Versión actual del catálogo
+     *
+     * @return Versión
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Versión del último cambio de un Funko
+     *
+     * @param id ID del Funko
+     * @return Versión
+     */
+    public long ofFunko(String id) {
+        return Math.max(funkosSince, funkoVersions.getOrDefault(id.toLowerCase(Locale.ROOT), 0L));
+    }
+
+    /**
+     * Versión del último cambio de una categoría
+     *
+     * @param id ID de la categoría
+     * @return Versión
+     */
+    public long ofCategory(Long id) {
+        return Math.max(categoriesSince, categoryVersions.getOrDefault(id, 0L));
+    }
+
+    /**
+     * Actualiza la versión tras una escritura de Funkos
+     * Las operaciones masivas cambian la versión de todos los Funkos
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onFunkoChange(FunkoChangeEvent event) {
+        long next = version.incrementAndGet();
+        if (event.type() == Notification.Type.BULK || event.funko() == null || event.funko().getId() == null) {
+            funkosSince = next;
+            funkoVersions.clear();
+        } else {
+            funkoVersions.put(event.funko().getId().toString(), next);
+        }
+    }
+
+    /**
+     * Actualiza la versión tras una escritura de categorías
+     * Los Funkos incluyen su categoría, así que también cambia la versión de todos ellos
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategoryChange(CategoryChangeEvent event) {
+        long next = version.incrementAndGet();
+        if (event.id() == null) {
+            categoriesSince = next;
+            categoryVersions.clear();
+        } else {
+            categoryVersions.put(event.id(), next);
+        }
+        funkosSince = next;
+        funkoVersions.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package com.madirex.funkosspringrest.rest.entities.auth.exceptions;
+
+import com.madirex.funkosspringrest.manager.error.exceptions.ResponseException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Class PasswordHashingBusy
+ * Se lanza cuando el pool de cálculo de contraseñas está saturado y la petición se rechaza en lugar de esperar
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusy extends ResponseException {
+    /**
+     * Constructor PasswordHashingBusy
+     *
+     * @param message Mensaje de error
+     */
+    public PasswordHashingBusy(String message) {
+        super("Servicio de autenticación saturado - " + message);
+    }
+
+    /**
+     * Método getHttpStatus
+     *
+     * @return HttpStatus
+     */
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
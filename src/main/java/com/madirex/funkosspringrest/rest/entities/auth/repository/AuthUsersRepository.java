@@ -2,6 +2,8 @@ package com.madirex.funkosspringrest.rest.entities.auth.repository;
 
 import com.madirex.funkosspringrest.rest.entities.user.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -20,4 +22,23 @@ public interface AuthUsersRepository extends JpaRepository<User, UUID> {
      * @return Usuario
      */
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    /**
+     * Comprueba si existe un usuario con el nombre de usuario o el email, ya normalizados en minúsculas
+     *
+     * @param usernameLower Nombre de usuario en minúsculas
+     * @param emailLower    Email en minúsculas
+     * @return ¿existe el usuario?
+     */
+    boolean existsByUsernameLowerOrEmailLower(String usernameLower, String emailLower);
+
+    /**
+     * Actualiza el hash de la contraseña de un usuario
+     *
+     * @param id       ID del usuario
+     * @param password Hash de la contraseña
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    void updatePasswordById(UUID id, String password);
+}
@@ -10,15 +10,18 @@ import com.madirex.funkosspringrest.rest.entities.auth.repository.AuthUsersRepos
 import com.madirex.funkosspringrest.rest.entities.auth.services.jwt.JwtService;
 import com.madirex.funkosspringrest.rest.entities.user.models.Role;
 import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import com.madirex.funkosspringrest.rest.entities.user.search.UserExistenceIndex;
+import com.madirex.funkosspringrest.util.UuidV7;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
+import java.util.Locale;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,6 +35,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserExistenceIndex existenceIndex;
 
     /**
      * Constructor
@@ -40,18 +44,23 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * @param passwordEncoder       encoder de contraseñas
      * @param jwtService            servicio de JWT
      * @param authenticationManager gestor de autenticación
+     * @param existenceIndex        filtro de existencia de nombres de usuario y emails
      */
     @Autowired
     public AuthenticationServiceImpl(AuthUsersRepository authUsersRepository, PasswordEncoder passwordEncoder,
-                                     JwtService jwtService, AuthenticationManager authenticationManager) {
+                                     JwtService jwtService, AuthenticationManager authenticationManager,
+                                     UserExistenceIndex existenceIndex) {
         this.authUsersRepository = authUsersRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.existenceIndex = existenceIndex;
     }
 
     /**
      * Registra un usuario
+     * Solo se consulta si el username o el email están ocupados cuando el filtro de existencia indica que pueden
+     * estarlo, antes de calcular el hash de la contraseña. La restricción única de la base de datos resuelve el resto
      *
      * @param request datos del usuario
      * @return Token de autenticación
@@ -60,21 +69,27 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     public JwtAuthResponse signUp(UserSignUpRequest request) {
         log.info("Creando usuario: {}", request);
         if (request.getPassword().contentEquals(request.getPasswordRepeat())) {
+            if (existenceIndex.mightContain(request.getUsername(), request.getEmail())
+                    && authUsersRepository.existsByUsernameLowerOrEmailLower(
+                    lower(request.getUsername()), lower(request.getEmail()))) {
+                throw accountAlreadyExists(request);
+            }
             User user = User.builder()
-                    .id(UUID.randomUUID())
+                    .id(UuidV7.randomUUID())
                     .username(request.getUsername())
                     .password(passwordEncoder.encode(request.getPassword()))
                     .email(request.getEmail())
                     .name(request.getName())
                     .surname(request.getSurname())
                     .roles(Stream.of(Role.USER).collect(Collectors.toSet()))
+                    .newEntity(true)
                     .build();
             try {
                 var userStored = authUsersRepository.save(user);
+                existenceIndex.add(user.getUsername(), user.getEmail());
                 return JwtAuthResponse.builder().token(jwtService.generateToken(userStored)).build();
             } catch (DataIntegrityViolationException ex) {
-                throw new AccountAlreadyExists("El usuario con username " + request.getUsername() + " o email " +
-                        request.getEmail() + " no están disponibles.");
+                throw accountAlreadyExists(request);
             }
         } else {
             throw new PasswordsDiffer("Las contraseñas no coinciden");
@@ -84,6 +99,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     /**
      * Autentica un usuario
+     * La comprobación de la contraseña se hace en el pool acotado del PasswordEncoder
      *
      * @param request datos del usuario
      * @return Token de autenticación
@@ -91,11 +107,35 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     public JwtAuthResponse signIn(UserSignInRequest request) {
         log.info("Autenticando usuario: {}", request);
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
-        var user = authUsersRepository.findByUsername(request.getUsername())
+        // El proveedor ya cargó el usuario para comprobar la contraseña: se reutiliza en lugar de consultarlo otra vez
+        User user = authentication != null && authentication.getPrincipal() instanceof User principal
+                ? principal
+                : authUsersRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new AuthSignInInvalid("Usuario o contraseña incorrectos"));
         var jwt = jwtService.generateToken(user);
         return JwtAuthResponse.builder().token(jwt).build();
     }
+
+    /**
+     * Crea la excepción de cuenta ya existente
+     *
+     * @param request datos del usuario
+     * @return Excepción
+     */
+    private static AccountAlreadyExists accountAlreadyExists(UserSignUpRequest request) {
+        return new AccountAlreadyExists("El usuario con username " + request.getUsername() + " o email " +
+                request.getEmail() + " no están disponibles.");
+    }
+
+    /**
+     * Normaliza un valor en minúsculas
+     *
+     * @param value valor
+     * @return valor en minúsculas
+     */
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -11,6 +11,14 @@ public interface JwtService {
      */
     String extractUserName(String token);
 
+    /**
+     * Extrae el nombre de usuario de un token solo si su firma es válida y no ha expirado
+     *
+     * @param token Token
+     * @return Nombre de usuario, o null si el token no es válido
+     */
+    String extractVerifiedUserName(String token);
+
     /**
      * Genera un token
      *
@@ -1,7 +1,9 @@
 package com.madirex.funkosspringrest.rest.entities.auth.services.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +28,8 @@ public class JwtServiceImpl implements JwtService {
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    private volatile JWTVerifier verifier;
+
     /**
      * Extrae el nombre de usuario del token
      *
@@ -38,6 +42,22 @@ public class JwtServiceImpl implements JwtService {
         return extractClaim(token, DecodedJWT::getSubject);
     }
 
+    /**
+     * Extrae el nombre de usuario del token comprobando antes su firma y su expiración
+     * No consulta la base de datos ni deja trazas, porque se llama en cada petición
+     *
+     * @param token token
+     * @return nombre de usuario, o null si el token no es válido
+     */
+    @Override
+    public String extractVerifiedUserName(String token) {
+        try {
+            return getVerifier().verify(token).getSubject();
+        } catch (JWTVerificationException e) {
+            return null;
+        }
+    }
+
     /**
      * Genera un token
      *
@@ -130,6 +150,20 @@ public class JwtServiceImpl implements JwtService {
         return header;
     }
 
+    /**
+     * Obtiene el verificador de firma y expiración, creado la primera vez que se usa
+     *
+     * @return verificador
+     */
+    private JWTVerifier getVerifier() {
+        JWTVerifier current = verifier;
+        if (current == null) {
+            current = JWT.require(Algorithm.HMAC512(getSigningKey())).build();
+            verifier = current;
+        }
+        return current;
+    }
+
     /**
      * Obtiene la clave de firma
      *
@@ -1,12 +1,13 @@
 package com.madirex.funkosspringrest.rest.entities.auth.services.users;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 /**
  * Interface AuthUsersService
  */
-public interface AuthUsersService extends UserDetailsService {
+public interface AuthUsersService extends UserDetailsService, UserDetailsPasswordService {
     /**
      * Carga un usuario por su nombre de usuario
      *
@@ -15,4 +16,14 @@ public interface AuthUsersService extends UserDetailsService {
      */
     @Override
     UserDetails loadUserByUsername(String username);
-}
\ No newline at end of file
+
+    /**
+     * Guarda el nuevo hash de la contraseña de un usuario
+     *
+     * @param user        Usuario
+     * @param newPassword Nuevo hash de la contraseña
+     * @return Usuario actualizado
+     */
+    @Override
+    UserDetails updatePassword(UserDetails user, String newPassword);
+}
@@ -2,9 +2,11 @@ package com.madirex.funkosspringrest.rest.entities.auth.services.users;
 
 import com.madirex.funkosspringrest.rest.entities.auth.repository.AuthUsersRepository;
 import com.madirex.funkosspringrest.rest.entities.user.exceptions.UserNotFound;
+import com.madirex.funkosspringrest.rest.entities.user.models.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementación de AuthUsersService
@@ -35,4 +37,20 @@ public class AuthUsersServiceImpl implements AuthUsersService {
         return authUsersRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFound("Usuario con username " + username + " no encontrado"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Guarda el nuevo hash de la contraseña de un usuario, recalculado al iniciar sesión con otro coste de BCrypt
+     *
+     * @param user        Usuario
+     * @param newPassword Nuevo hash de la contraseña
+     * @return Usuario actualizado
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User stored = (User) user;
+        authUsersRepository.updatePasswordById(stored.getId(), newPassword);
+        stored.setPassword(newPassword);
+        return stored;
+    }
+}
@@ -0,0 +1,12 @@
+package com.madirex.funkosspringrest.rest.entities.category.models;
+
+/**
+ * CategoryChangeEvent
+ * Evento de aplicación publicado tras cada escritura de categorías
+ *
+ * @param id ID de la categoría modificada
+ */
+public record CategoryChangeEvent(
+        Long id
+) {
+}
@@ -1,10 +1,14 @@
 package com.madirex.funkosspringrest.rest.entities.category.repository;
 
 import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,5 +22,16 @@ public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSp
      * @param type Tipo de categoría
      * @return Categoría
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByType(String type);
+
+    /**
+     * Método que obtiene todas las categorías
+     * El resultado se guarda en la caché de consultas de Hibernate y se invalida con cualquier escritura en la tabla
+     *
+     * @return Categorías
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Category> findAll();
 }
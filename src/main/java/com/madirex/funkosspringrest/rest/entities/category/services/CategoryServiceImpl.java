@@ -7,72 +7,116 @@ import com.madirex.funkosspringrest.rest.entities.category.exceptions.CategoryAl
 import com.madirex.funkosspringrest.rest.entities.category.exceptions.CategoryNotFoundException;
 import com.madirex.funkosspringrest.rest.entities.category.mappers.CategoryMapperImpl;
 import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.category.models.CategoryChangeEvent;
 import com.madirex.funkosspringrest.rest.entities.category.repository.CategoryRepository;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
 import com.madirex.funkosspringrest.util.Util;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 /**
  * Clase CategoryServiceImpl
+ * Las categorías son pocas y cambian muy poco, así que se cargan al arrancar en un registro inmutable indexado por id y
+ * por tipo. Todas las lecturas, incluidas las validaciones de las escrituras de Funkos, se resuelven con el registro y
+ * cada escritura de categorías publica uno nuevo (copy-on-write) que sustituye al anterior de forma atómica
  */
+@Slf4j
 @Service
-@CacheConfig(cacheNames = "category")
 public class CategoryServiceImpl implements CategoryService {
 
     public static final String FUNKO_NOT_FOUND_MSG = "No se ha encontrado el Category con el ID indicado";
+    static final Map<String, Comparator<Category>> SORT_FIELDS = Map.of(
+            "id", nullsFirst(Category::getId),
+            "type", nullsFirst(Category::getType),
+            "active", nullsFirst(Category::getActive),
+            "createdAt", nullsFirst(Category::getCreatedAt),
+            "updatedAt", nullsFirst(Category::getUpdatedAt)
+    );
     private final CategoryRepository categoryRepository;
     private final CategoryMapperImpl categoryMapperImpl;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock registryLock = new ReentrantLock();
+    private volatile Registry registry;
 
     /**
      * Constructor CategoryServiceImpl
      *
      * @param categoryRepository CategoryRepositoryImpl
      * @param categoryMapperImpl CategoryMapper
+     * @param eventPublisher     Publicador de eventos para reindexar los Funkos si cambia el tipo de una categoría
      */
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryMapperImpl categoryMapperImpl) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryMapperImpl categoryMapperImpl,
+                               ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.categoryMapperImpl = categoryMapperImpl;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Recarga el registro de categorías desde la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        registryLock.lock();
+        try {
+            registry = Registry.of(categoryRepository.findAll());
+            log.info("Registro de categorías cargado con " + registry.byId.size() + " categorías");
+        } finally {
+            registryLock.unlock();
+        }
     }
 
     /**
      * Obtiene todas las categorías
+     * Se resuelve con el registro salvo que se ordene por un campo desconocido, que se delega en la base de datos
      *
      * @param type     Tipo de categoría por la que filtrar
      * @param isActive Si la categoría está activa o no
      * @param pageable Paginación
      * @return Lista de categorías
      */
-    @Cacheable
     @Override
     public Page<Category> getAllCategory(Optional<String> type, Optional<Boolean> isActive, Pageable pageable) {
-        Specification<Category> specType = (root, query, criteriaBuilder) ->
-                type.map(m -> {
-                    try {
-                        return criteriaBuilder.equal(root.get("type"), m.toUpperCase());
-                    } catch (IllegalArgumentException e) {
-                        return criteriaBuilder.isTrue(criteriaBuilder.literal(false));
-                    }
-                }).orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
-
-        Specification<Category> specIsActive = (root, query, criteriaBuilder) ->
-                isActive.map(d -> criteriaBuilder.equal(root.get("active"), d))
-                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
-
-        Specification<Category> criterion = Specification.where(specType)
-                .and(specIsActive);
-        return categoryRepository.findAll(criterion, pageable);
+        Comparator<Category> comparator = comparator(pageable.getSort());
+        if (comparator == null) {
+            return findAll(type, isActive, pageable);
+        }
+        Optional<String> upperType = type.map(String::toUpperCase);
+        List<Category> categories = registry().byId.values().stream()
+                .filter(c -> upperType.map(t -> t.equals(c.getType())).orElse(true))
+                .filter(c -> isActive.map(a -> a.equals(c.getActive())).orElse(true))
+                .sorted(comparator)
+                .toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(categories);
+        }
+        int from = (int) Math.min(pageable.getOffset(), categories.size());
+        int to = Math.min(from + pageable.getPageSize(), categories.size());
+        return new PageImpl<>(categories.subList(from, to), pageable, categories.size());
     }
 
     /**
@@ -82,11 +126,22 @@ public class CategoryServiceImpl implements CategoryService {
      * @return Category con el ID indicado
      * @throws CategoryNotFoundException Si no se ha encontrado el Category con el ID indicado
      */
-    @Cacheable(key = "#result.id")
     @Override
     public Category getCategoryById(Long id) throws CategoryNotFoundException {
-        return categoryRepository.findById(id).orElseThrow(() ->
-                new CategoryNotFoundException(FUNKO_NOT_FOUND_MSG));
+        Category category = registry().byId.get(id);
+        if (category == null) {
+            throw new CategoryNotFoundException(FUNKO_NOT_FOUND_MSG);
+        }
+        return category;
+    }
+
+    /**
+     * Obtiene todas las categorías indexadas por su ID
+     *
+     * @return Mapa inmutable de categorías por ID
+     */
+    public Map<Long, Category> getCategoriesById() {
+        return registry().byId;
     }
 
     /**
@@ -97,7 +152,6 @@ public class CategoryServiceImpl implements CategoryService {
      * @return Category actualizado
      * @throws CategoryNotFoundException Si no se ha encontrado el Category con el ID indicado
      */
-    @CachePut(key = "#result.id")
     @Override
     public Category patchCategory(Long id, PatchCategoryDTO funko) throws CategoryNotFoundException {
         var opt = categoryRepository.findById(id);
@@ -105,7 +159,7 @@ public class CategoryServiceImpl implements CategoryService {
             BeanUtils.copyProperties(funko, opt.get(), Util.getNullPropertyNames(funko));
             opt.get().setId(id);
             opt.get().setUpdatedAt(LocalDateTime.now());
-            return categoryRepository.save(opt.get());
+            return register(categoryRepository.save(opt.get()));
         }
         throw new CategoryNotFoundException(FUNKO_NOT_FOUND_MSG);
     }
@@ -116,12 +170,12 @@ public class CategoryServiceImpl implements CategoryService {
      * @param category CreateCategoryDTO con los datos del Category a crear
      * @return Category creado
      */
-    @CachePut(key = "#result.id")
     @Override
     public Category postCategory(CreateCategoryDTO category) {
-        categoryRepository.findByType(category.getType())
-                .ifPresent(c -> {throw new CategoryAlreadyExistsException("Ya existe una categoría con ese tipo");});
-        return categoryRepository.save(categoryMapperImpl.toCategory(category));
+        if (registry().byType.containsKey(category.getType())) {
+            throw new CategoryAlreadyExistsException("Ya existe una categoría con ese tipo");
+        }
+        return register(categoryRepository.save(categoryMapperImpl.toCategory(category)));
     }
 
     /**
@@ -132,14 +186,13 @@ public class CategoryServiceImpl implements CategoryService {
      * @return Category actualizado
      * @throws CategoryNotFoundException Si no se ha encontrado el Category con el ID indicado
      */
-    @CachePut(key = "#result.id")
     @Override
     public Category putCategory(Long id, UpdateCategoryDTO funko) throws CategoryNotFoundException {
         Category existingCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Categoría no encontrada"));
         Category f = categoryMapperImpl.toCategory(existingCategory, funko);
         f.setId(id);
-        return categoryRepository.save(f);
+        return register(categoryRepository.save(f));
     }
 
     /**
@@ -148,7 +201,6 @@ public class CategoryServiceImpl implements CategoryService {
      * @param id ID del Category a eliminar
      * @throws CategoryNotFoundException Si no se ha encontrado el Category con el ID indicado
      */
-    @CacheEvict(key = "#id")
     @Override
     public void deleteCategory(Long id) throws CategoryNotFoundException {
         var opt = categoryRepository.findById(id);
@@ -157,4 +209,145 @@ public class CategoryServiceImpl implements CategoryService {
         }
         patchCategory(id, PatchCategoryDTO.builder().active(false).build());
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el registro actual, cargándolo si aún no se ha hecho
+     *
+     * @return Registro de categorías
+     */
+    private Registry registry() {
+        Registry current = registry;
+        if (current == null) {
+            registryLock.lock();
+            try {
+                if (registry == null) {
+                    reload();
+                }
+                current = registry;
+            } finally {
+                registryLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Publica un registro nuevo con la categoría guardada y avisa del cambio
+     * Si ha cambiado el tipo de la categoría se reindexan los Funkos, que guardan el tipo en sus índices en memoria
+     *
+     * @param category Categoría guardada
+     * @return Categoría guardada
+     */
+    private Category register(Category category) {
+        registryLock.lock();
+        try {
+            Registry current = registry();
+            Category previous = current.byId.get(category.getId());
+            Map<Long, Category> categories = new HashMap<>(current.byId);
+            categories.put(category.getId(), category);
+            registry = Registry.of(categories.values());
+            eventPublisher.publishEvent(new CategoryChangeEvent(category.getId()));
+            if (previous != null && !Objects.equals(previous.getType(), category.getType())) {
+                eventPublisher.publishEvent(FunkoChangeEvent.bulk());
+            }
+            return category;
+        } finally {
+            registryLock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el comparador de una ordenación, con el ID como desempate
+     *
+     * @param sort Ordenación
+     * @return Comparador, o null si algún campo no se puede ordenar en memoria
+     */
+    private static Comparator<Category> comparator(Sort sort) {
+        Comparator<Category> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Category> field = SORT_FIELDS.get(order.getProperty());
+            if (field == null) {
+                return null;
+            }
+            comparator = comparator.thenComparing(order.isDescending() ? field.reversed() : field);
+        }
+        return comparator.thenComparing(SORT_FIELDS.get("id"));
+    }
+
+    /**
+     * Comparador por un campo con los nulos al principio
+     *
+     * @param field Campo
+     * @param <T>   Tipo del campo
+     * @return Comparador
+     */
+    private static <T extends Comparable<? super T>> Comparator<Category> nullsFirst(Function<Category, T> field) {
+        return Comparator.comparing(field, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Obtiene las categorías desde la base de datos
+     *
+     * @param type     Tipo de categoría por la que filtrar
+     * @param isActive Si la categoría está activa o no
+     * @param pageable Paginación
+     * @return Lista de categorías
+     */
+    private Page<Category> findAll(Optional<String> type, Optional<Boolean> isActive, Pageable pageable) {
+        Specification<Category> specType = (root, query, criteriaBuilder) ->
+                type.map(m -> {
+                    try {
+                        return criteriaBuilder.equal(root.get("type"), m.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        return criteriaBuilder.isTrue(criteriaBuilder.literal(false));
+                    }
+                }).orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+
+        Specification<Category> specIsActive = (root, query, criteriaBuilder) ->
+                isActive.map(d -> criteriaBuilder.equal(root.get("active"), d))
+                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+
+        Specification<Category> criterion = Specification.where(specType)
+                .and(specIsActive);
+        return categoryRepository.findAll(criterion, pageable);
+    }
+
+    /**
+     * Registro inmutable de categorías por ID, ordenadas por ID, y por tipo
+     */
+    private static final class Registry {
+        private final Map<Long, Category> byId;
+        private final Map<String, Category> byType;
+
+        /**
+         * Constructor Registry
+         *
+         * @param byId   Categorías por ID
+         * @param byType Categorías por tipo
+         */
+        private Registry(Map<Long, Category> byId, Map<String, Category> byType) {
+            this.byId = byId;
+            this.byType = byType;
+        }
+
+        /**
+         * Construye un registro
+         *
+         * @param categories Categorías
+         * @return Registro
+         */
+        private static Registry of(Collection<Category> categories) {
+            Map<Long, Category> byId = new LinkedHashMap<>();
+            Map<String, Category> byType = new HashMap<>();
+            categories.stream()
+                    .sorted(SORT_FIELDS.get("id"))
+                    .forEach(c -> {
+                        byId.put(c.getId(), c);
+                        if (c.getType() != null) {
+                            byType.put(c.getType(), c);
+                        }
+                    });
+            return new Registry(Collections.unmodifiableMap(byId), Map.copyOf(byType));
+        }
+    }
+}
@@ -8,8 +8,10 @@ import com.madirex.funkosspringrest.rest.entities.funko.dto.PatchFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.UpdateFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotFoundException;
 import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotValidUUIDException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
@@ -21,12 +23,15 @@ public interface FunkoRestController {
     /**
      * Método para obtener todos los Funkos
      *
-     * @param id id del Funko
-     * @return ResponseEntity con el código de estado
-     * @throws FunkoNotValidUUIDException del Funko
-     * @throws FunkoNotFoundException     del Funko
+     * @param id      id del Funko
+     * @param request petición
+     * @return ResponseEntity con el código de estado y el Funko serializado
+     * @throws FunkoNotValidUUIDException          del Funko
+     * @throws FunkoNotFoundException              del Funko
+     * @throws HttpMediaTypeNotAcceptableException Si no se acepta ningún formato soportado
      */
-    ResponseEntity<GetFunkoDTO> getFunkoById(@Valid @PathVariable String id) throws FunkoNotValidUUIDException, FunkoNotFoundException;
+    ResponseEntity<byte[]> getFunkoById(@Valid @PathVariable String id, HttpServletRequest request)
+            throws FunkoNotValidUUIDException, FunkoNotFoundException, HttpMediaTypeNotAcceptableException;
 
     /**
      * Método para crear un Funko
@@ -2,16 +2,32 @@ package com.madirex.funkosspringrest.rest.entities.funko.controllers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.madirex.funkosspringrest.rest.entities.category.exceptions.CategoryNotFoundException;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.BulkPatchFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.CreateFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoBulkPatchResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoImportResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoStockSyncResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoSuggestion;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.PatchFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.UpdateFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotFoundException;
 import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotValidUUIDException;
+import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoSortNotValidException;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoSorts;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoFacetIndex;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoResponseCache;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSearchIndex;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSuggestIndex;
+import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoBulkServiceImpl;
+import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoExportServiceImpl;
 import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoServiceImpl;
 import com.madirex.funkosspringrest.rest.pagination.exceptions.PageNotValidException;
 import com.madirex.funkosspringrest.rest.pagination.model.PageResponse;
 import com.madirex.funkosspringrest.rest.pagination.util.PaginationLinksUtils;
+import com.madirex.funkosspringrest.util.ExportFormat;
+import com.madirex.funkosspringrest.util.RecordReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -22,16 +38,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -40,83 +65,173 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api/funkos")
 public class FunkoRestControllerImpl implements FunkoRestController {
+    public static final String SEARCH_LIMIT_HEADER = "X-Search-Limit";
 
     private final FunkoServiceImpl service;
+    private final FunkoBulkServiceImpl bulkService;
+    private final FunkoExportServiceImpl exportService;
+    private final FunkoSearchIndex searchIndex;
+    private final FunkoSuggestIndex suggestIndex;
+    private final FunkoFacetIndex facetIndex;
+    private final FunkoResponseCache responseCache;
     private final PaginationLinksUtils paginationLinksUtils;
+    private final ContentNegotiationManager contentNegotiationManager;
 
     /**
      * Constructor de la clase
      *
-     * @param service              Servicio de Funko
-     * @param paginationLinksUtils Utilidad para la paginación
+     * @param service                   Servicio de Funko
+     * @param bulkService               Servicio de operaciones masivas de Funko
+     * @param exportService             Servicio de exportación de Funko
+     * @param searchIndex               Índice de búsqueda de texto de Funko
+     * @param suggestIndex              Índice de autocompletado de Funko
+     * @param facetIndex                Índice de facetas de Funko
+     * @param responseCache             Caché de respuestas serializadas de Funko
+     * @param paginationLinksUtils      Utilidad para la paginación
+     * @param contentNegotiationManager Gestor de negociación de contenido
      */
     @Autowired
-    public FunkoRestControllerImpl(FunkoServiceImpl service, PaginationLinksUtils paginationLinksUtils) {
+    public FunkoRestControllerImpl(FunkoServiceImpl service, FunkoBulkServiceImpl bulkService,
+                                   FunkoExportServiceImpl exportService, FunkoSearchIndex searchIndex,
+                                   FunkoSuggestIndex suggestIndex, FunkoFacetIndex facetIndex, FunkoResponseCache responseCache,
+                                   PaginationLinksUtils paginationLinksUtils,
+                                   ContentNegotiationManager contentNegotiationManager) {
         this.service = service;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.responseCache = responseCache;
         this.paginationLinksUtils = paginationLinksUtils;
+        this.contentNegotiationManager = contentNegotiationManager;
     }
 
     /**
      * Método para obtener un Funko por su UUID
+     * El cuerpo se sirve ya serializado (y comprimido si el cliente acepta gzip) desde la caché de respuestas
      *
-     * @param id UUID del Funko en formato String
-     * @return ResponseEntity con el código de estado
-     * @throws FunkoNotFoundException Si no se ha encontrado el Funko con el UUID indicado
+     * @param id      UUID del Funko en formato String
+     * @param request petición
+     * @return ResponseEntity con el código de estado y el Funko serializado
+     * @throws FunkoNotFoundException              Si no se ha encontrado el Funko con el UUID indicado
+     * @throws HttpMediaTypeNotAcceptableException Si no se acepta ningún formato soportado
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     @Override
-    public ResponseEntity<GetFunkoDTO> getFunkoById(@Valid @PathVariable String id) throws FunkoNotFoundException {
-        return ResponseEntity.ok(service.getFunkoById(id));
+    public ResponseEntity<byte[]> getFunkoById(@Valid @PathVariable String id, HttpServletRequest request)
+            throws FunkoNotFoundException, HttpMediaTypeNotAcceptableException {
+        FunkoResponseCache.Body body = responseCache.get(id,
+                contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)),
+                acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)), () -> service.getFunkoById(id));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(body.mediaType())
+                .contentLength(body.bytes().length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (body.gzipped()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body.bytes());
     }
 
     /**
      * Método para obtener todos los Funkos
      *
-     * @param category    categoría
-     * @param maxPrice    precio máximo
-     * @param maxQuantity cantidad máxima
-     * @param page        página
-     * @param size        tamaño de página
-     * @param sortBy      ordenar por
-     * @param direction   dirección
-     * @param request     petición
+     * @param category     categoría
+     * @param minPrice     precio mínimo
+     * @param maxPrice     precio máximo
+     * @param minQuantity  cantidad mínima
+     * @param maxQuantity  cantidad máxima
+     * @param updatedSince fecha de actualización mínima
+     * @param q            texto a buscar en el nombre y la categoría
+     * @param page         página
+     * @param size         tamaño de página
+     * @param sortBy       campos de ordenación separados por comas
+     * @param direction    dirección
+     * @param facets       incluir el número de Funkos por categoría, tramo de precio y tramo de stock
+     * @param request      petición
      * @return ResponseEntity con el código de estado
+     * @throws FunkoSortNotValidException Si la ordenación no está permitida
      */
-    @Operation(summary = "Obtiene todos los Funko", description = "Obtiene una lista de Funkos")
+    @Operation(summary = "Obtiene todos los Funko", description = "Obtiene una lista de Funkos. Una búsqueda de "
+            + "texto ordenada por relevancia recorre todos los resultados; ordenada por otro campo se limita a los "
+            + "resultados más relevantes e indica el límite en la cabecera " + SEARCH_LIMIT_HEADER)
     @Parameter(name = "category", description = "Categoría del Funko", example = "OTHER")
+    @Parameter(name = "minPrice", description = "Precio mínimo", example = "1.5")
     @Parameter(name = "maxPrice", description = "Precio máximo", example = "2.2")
+    @Parameter(name = "minQuantity", description = "Cantidad mínima", example = "1")
     @Parameter(name = "maxQuantity", description = "Cantidad máxima", example = "23")
+    @Parameter(name = "updatedSince", description = "Fecha de actualización mínima",
+            example = "2023-11-30T00:00:00")
+    @Parameter(name = "q", description = "Texto a buscar en el nombre y la categoría", example = "spider")
     @Parameter(name = "page", description = "Número de página", example = "0")
     @Parameter(name = "size", description = "Tamaño de la página", example = "10")
-    @Parameter(name = "sortBy", description = "Campo de ordenación", example = "id")
+    @Parameter(name = "sortBy", description = "Campos de ordenación separados por comas, con dirección opcional "
+            + "(id, name, price, quantity, createdAt, updatedAt, category o category,price), o relevance al buscar "
+            + "por texto", example = "category,price:desc")
     @Parameter(name = "direction", description = "Dirección de ordenación", example = "asc")
+    @Parameter(name = "facets", description = "Incluir las facetas de categoría, precio y stock", example = "false")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Página de Funkos"),
+            @ApiResponse(responseCode = "400", description = "Página u ordenación no válida"),
     })
     @GetMapping()
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<PageResponse<GetFunkoDTO>> getAllFunko(
             @Valid @RequestParam(required = false) Optional<String> category,
+            @RequestParam(required = false) Optional<Double> minPrice,
             @RequestParam(required = false) Optional<Double> maxPrice,
+            @RequestParam(required = false) Optional<Integer> minQuantity,
             @RequestParam(required = false) Optional<Integer> maxQuantity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Optional<LocalDateTime> updatedSince,
+            @RequestParam(required = false) Optional<String> q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean facets,
             HttpServletRequest request
     ) {
         if (page < 0 || size < 1) {
             throw new PageNotValidException("La página no puede ser menor que 0 y su tamaño no debe de ser menor a 1.");
         }
-        Sort sort = direction.equalsIgnoreCase(
-                Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        Sort sort = FunkoSorts.of(sortBy, direction);
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(request.getRequestURL().toString());
-        Page<GetFunkoDTO> pageResult = service.getAllFunko(category, maxPrice, maxQuantity,
-                PageRequest.of(page, size, sort));
-        return ResponseEntity.ok()
-                .header("link", paginationLinksUtils.createLinkHeader(pageResult, uriBuilder))
-                .body(PageResponse.of(pageResult, sortBy, direction));
+        FunkoFilter filter = FunkoFilter.of(category, minPrice, maxPrice, minQuantity, maxQuantity, updatedSince)
+                .toBuilder()
+                .q(q.orElse(null))
+                .build();
+        Page<GetFunkoDTO> pageResult = service.getAllFunko(filter, PageRequest.of(page, size, sort));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("link", paginationLinksUtils.createLinkHeader(pageResult, uriBuilder));
+        if (q.isPresent() && !q.get().isBlank() && sort.getOrderFor(FunkoServiceImpl.RELEVANCE_SORT) == null) {
+            response.header(SEARCH_LIMIT_HEADER, String.valueOf(searchIndex.getMaxResults()));
+        }
+        return response
+                .body(PageResponse.of(pageResult, sortBy, direction, facets ? facetIndex.facets(filter) : null));
+    }
+
+    /**
+     * Método para obtener sugerencias de autocompletado de Funkos
+     *
+     * @param prefix prefijo escrito por el usuario
+     * @param limit  número máximo de sugerencias
+     * @return ResponseEntity con las sugerencias ordenadas por stock
+     */
+    @Operation(summary = "Sugerencias de Funkos", description = "Obtiene los Funkos cuyo nombre, o alguna de sus "
+            + "palabras, empieza por el prefijo indicado, ordenados por stock")
+    @Parameter(name = "prefix", description = "Prefijo a buscar", example = "spi", required = true)
+    @Parameter(name = "limit", description = "Número máximo de sugerencias", example = "10")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de sugerencias"),
+    })
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<FunkoSuggestion>> suggestFunkos(@RequestParam String prefix,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestIndex.suggest(prefix, limit));
     }
 
     /**
@@ -251,4 +366,133 @@ public class FunkoRestControllerImpl implements FunkoRestController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No se ha enviado una imagen para el Funko");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Método para importar Funkos de forma masiva
+     * La entrada se procesa de forma incremental, por lo que admite ficheros de gran tamaño
+     *
+     * @param request petición con los registros en formato NDJSON o CSV
+     * @return ResponseEntity con el resumen de la importación
+     * @throws IOException excepción de entrada/salida
+     */
+    @Operation(summary = "Importa Funkos de forma masiva",
+            description = "Importa Funkos a partir de un fichero NDJSON o CSV con cabecera")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumen de la importación con los errores por registro"),
+            @ApiResponse(responseCode = "415", description = "Formato no soportado"),
+    })
+    @PostMapping(value = "/import", consumes = {RecordReader.NDJSON_MEDIA_TYPE, RecordReader.CSV_MEDIA_TYPE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FunkoImportResponse> importFunkos(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkService.importFunkos(request.getInputStream(),
+                RecordReader.Format.fromContentType(request.getContentType())));
+    }
+
+    /**
+     * Método para sincronizar el stock con una instantánea del almacén
+     *
+     * @param request petición con los pares (id, quantity) en formato NDJSON o CSV
+     * @return ResponseEntity con el informe de la conciliación
+     * @throws IOException excepción de entrada/salida
+     */
+    @Operation(summary = "Sincroniza el stock de los Funkos",
+            description = "Compara una instantánea del almacén con el stock actual y aplica solo los cambios")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Informe de la conciliación"),
+            @ApiResponse(responseCode = "415", description = "Formato no soportado"),
+    })
+    @PutMapping(value = "/stock", consumes = {RecordReader.NDJSON_MEDIA_TYPE, RecordReader.CSV_MEDIA_TYPE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FunkoStockSyncResponse> syncStock(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkService.syncStock(request.getInputStream(),
+                RecordReader.Format.fromContentType(request.getContentType())));
+    }
+
+    /**
+     * Método para actualizar Funkos de forma masiva
+     *
+     * @param patch lista de actualizaciones parciales o regla de actualización de precios
+     * @return ResponseEntity con el resultado por Funko
+     */
+    @Operation(summary = "Actualiza Funkos de forma masiva",
+            description = "Aplica una lista de actualizaciones parciales o una regla de precios por categoría")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, description = "Actualización masiva")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado de la actualización por Funko"),
+            @ApiResponse(responseCode = "400", description = "Actualización masiva no válida"),
+    })
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FunkoBulkPatchResponse> patchFunkos(@Valid @RequestBody BulkPatchFunkoDTO patch) {
+        return ResponseEntity.ok(bulkService.patchFunkos(patch));
+    }
+
+    /**
+     * Método para exportar el catálogo de Funkos
+     * Los Funkos se leen de un cursor y se escriben directamente en la respuesta, sin paginar
+     *
+     * @param category     categoría
+     * @param minPrice     precio mínimo
+     * @param maxPrice     precio máximo
+     * @param minQuantity  cantidad mínima
+     * @param maxQuantity  cantidad máxima
+     * @param updatedSince fecha de actualización mínima
+     * @param request      petición
+     * @return ResponseEntity con el catálogo en el formato negociado
+     * @throws HttpMediaTypeNotAcceptableException Si el formato solicitado no está soportado
+     */
+    @Operation(summary = "Exporta el catálogo de Funkos",
+            description = "Exporta todos los Funkos que cumplen los filtros en formato JSON, NDJSON, CSV o XML")
+    @Parameter(name = "category", description = "Categoría del Funko", example = "OTHER")
+    @Parameter(name = "minPrice", description = "Precio mínimo", example = "1.5")
+    @Parameter(name = "maxPrice", description = "Precio máximo", example = "2.2")
+    @Parameter(name = "minQuantity", description = "Cantidad mínima", example = "1")
+    @Parameter(name = "maxQuantity", description = "Cantidad máxima", example = "23")
+    @Parameter(name = "updatedSince", description = "Fecha de actualización mínima",
+            example = "2023-11-30T00:00:00")
+    @Parameter(name = "format", description = "Formato de exportación", example = "csv")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catálogo de Funkos"),
+            @ApiResponse(responseCode = "406", description = "Formato no soportado"),
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportFunkos(
+            @RequestParam(required = false) Optional<String> category,
+            @RequestParam(required = false) Optional<Double> minPrice,
+            @RequestParam(required = false) Optional<Double> maxPrice,
+            @RequestParam(required = false) Optional<Integer> minQuantity,
+            @RequestParam(required = false) Optional<Integer> maxQuantity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Optional<LocalDateTime> updatedSince,
+            HttpServletRequest request
+    ) throws HttpMediaTypeNotAcceptableException {
+        ExportFormat format = ExportFormat.resolve(contentNegotiationManager
+                        .resolveMediaTypes(new ServletWebRequest(request)))
+                .orElseThrow(() -> new HttpMediaTypeNotAcceptableException(ExportFormat.mediaTypes()));
+        FunkoFilter filter = FunkoFilter.of(category, minPrice, maxPrice, minQuantity, maxQuantity, updatedSince);
+        StreamingResponseBody body = output -> exportService.exportFunkos(filter, format, output);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=funkos." + format.getExtension())
+                .body(body);
+    }
+
+    /**
+     * Comprueba si el cliente acepta respuestas comprimidas con gzip
+     *
+     * @param acceptEncoding Cabecera Accept-Encoding
+     * @return ¿acepta gzip?
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).replace(" ", "").split(",")) {
+            if (coding.equals("gzip") || coding.startsWith("gzip;") && !coding.matches("gzip;q=0(\\.0*)?")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Class BulkPatchFunkoDTO
+ * Actualización masiva de Funkos: una lista de actualizaciones parciales o una regla, pero no ambas
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPatchFunkoDTO {
+    @Schema(description = "Actualizaciones parciales por Funko")
+    private List<FunkoPatchItemDTO> items;
+    @Valid
+    @Schema(description = "Regla de actualización de precios")
+    private FunkoPatchRuleDTO rule;
+}
@@ -0,0 +1,15 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+/**
+ * FunkoBulkNotificationResponse
+ *
+ * @param operation Operación masiva realizada
+ * @param affected  Número de Funkos afectados
+ * @param failed    Número de registros con error
+ */
+public record FunkoBulkNotificationResponse(
+        String operation,
+        long affected,
+        long failed
+) {
+}
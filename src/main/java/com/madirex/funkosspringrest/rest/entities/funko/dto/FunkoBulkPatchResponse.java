@@ -0,0 +1,17 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import java.util.List;
+
+/**
+ * FunkoBulkPatchResponse
+ *
+ * @param updated Número de Funkos actualizados
+ * @param failed  Número de actualizaciones que no se han aplicado
+ * @param results Resultado por Funko (vacío al aplicar una regla)
+ */
+public record FunkoBulkPatchResponse(
+        long updated,
+        long failed,
+        List<FunkoPatchResult> results
+) {
+}
@@ -0,0 +1,54 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * FunkoFilter
+ * Filtros de búsqueda de Funkos compartidos por el listado paginado y la exportación
+ *
+ * @param category     Categoría por la que filtrar
+ * @param minPrice     Precio mínimo por el que filtrar
+ * @param maxPrice     Precio máximo por el que filtrar
+ * @param minQuantity  Cantidad mínima por la que filtrar
+ * @param maxQuantity  Cantidad máxima por la que filtrar
+ * @param updatedSince Fecha de actualización a partir de la que filtrar
+ * @param q            Texto a buscar en el nombre y la categoría
+ */
+@Builder(toBuilder = true)
+public record FunkoFilter(
+        String category,
+        Double minPrice,
+        Double maxPrice,
+        Integer minQuantity,
+        Integer maxQuantity,
+        LocalDateTime updatedSince,
+        String q
+) {
+    /**
+     * Crea un filtro a partir de los parámetros opcionales de la petición, sin búsqueda de texto
+     * Lo usan el listado y la exportación para que una exportación reproduzca el filtro de un listado
+     *
+     * @param category     Categoría por la que filtrar
+     * @param minPrice     Precio mínimo por el que filtrar
+     * @param maxPrice     Precio máximo por el que filtrar
+     * @param minQuantity  Cantidad mínima por la que filtrar
+     * @param maxQuantity  Cantidad máxima por la que filtrar
+     * @param updatedSince Fecha de actualización a partir de la que filtrar
+     * @return Filtro
+     */
+    public static FunkoFilter of(Optional<String> category, Optional<Double> minPrice, Optional<Double> maxPrice,
+                                 Optional<Integer> minQuantity, Optional<Integer> maxQuantity,
+                                 Optional<LocalDateTime> updatedSince) {
+        return FunkoFilter.builder()
+                .category(category.orElse(null))
+                .minPrice(minPrice.orElse(null))
+                .maxPrice(maxPrice.orElse(null))
+                .minQuantity(minQuantity.orElse(null))
+                .maxQuantity(maxQuantity.orElse(null))
+                .updatedSince(updatedSince.orElse(null))
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+/**
+ * FunkoImportError
+ *
+ * @param line    Línea de la entrada en la que se ha producido el error
+ * @param message Mensaje de error
+ */
+public record FunkoImportError(
+        long line,
+        String message
+) {
+}
@@ -0,0 +1,19 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import java.util.List;
+
+/**
+ * FunkoImportResponse
+ *
+ * @param total    Número de registros leídos
+ * @param imported Número de Funkos importados
+ * @param failed   Número de registros con error
+ * @param errors   Errores por registro (limitado a los primeros errores)
+ */
+public record FunkoImportResponse(
+        long total,
+        long imported,
+        long failed,
+        List<FunkoImportError> errors
+) {
+}
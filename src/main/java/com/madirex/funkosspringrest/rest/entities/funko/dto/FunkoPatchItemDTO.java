@@ -0,0 +1,35 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class FunkoPatchItemDTO
+ * Actualización parcial de un Funko dentro de una actualización masiva
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FunkoPatchItemDTO {
+    @NotBlank(message = "El identificador no puede estar vacío")
+    @Schema(description = "Identificador UUID", example = "f7a3d5e0-9b9a-4c9a-8b1a-9a0a1a2b3b4c")
+    private String id;
+    @Schema(description = "Nombre", example = "Funko de Batman")
+    private String name;
+    @Min(value = 0, message = "El precio no puede estar en negativo")
+    @Schema(description = "Precio", example = "12.99")
+    private Double price;
+    @Min(value = 0, message = "La cantidad no puede estar en negativo")
+    @Schema(description = "Cantidad", example = "10")
+    private Integer quantity;
+    @Schema(description = "Imagen", example = "https://www.madirex.com/images/batman.jpg")
+    private String image;
+    @Schema(description = "Identificador de la categoría", example = "1")
+    private Long categoryId;
+}
@@ -0,0 +1,22 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * FunkoPatchResult
+ *
+ * @param id      Identificador del Funko
+ * @param status  Resultado de la actualización
+ * @param message Mensaje de error, solo presente si no se ha actualizado
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FunkoPatchResult(
+        String id,
+        Status status,
+        String message
+) {
+    /**
+     * Enum Status
+     */
+    public enum Status {UPDATED, NOT_FOUND, INVALID, FAILED}
+}
@@ -0,0 +1,43 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class FunkoPatchRuleDTO
+ * Regla de actualización masiva de precios sobre los Funkos que cumplen un filtro
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FunkoPatchRuleDTO {
+    @Schema(description = "Categoría de los Funkos a actualizar", example = "MOVIE")
+    private String category;
+    @Schema(description = "Precio máximo de los Funkos a actualizar", example = "50.0")
+    private Double maxPrice;
+    @Schema(description = "Cantidad máxima de los Funkos a actualizar", example = "100")
+    private Integer maxQuantity;
+    @NotNull(message = "El factor de precio no puede ser nulo")
+    @Positive(message = "El factor de precio debe ser positivo")
+    @Schema(description = "Factor por el que se multiplica el precio", example = "0.9")
+    private Double priceFactor;
+
+    /**
+     * Obtiene el filtro de los Funkos afectados por la regla
+     *
+     * @return Filtro
+     */
+    public FunkoFilter toFilter() {
+        return FunkoFilter.builder()
+                .category(category)
+                .maxPrice(maxPrice)
+                .maxQuantity(maxQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import java.util.List;
+
+/**
+ * FunkoStockSyncResponse
+ *
+ * @param total     Número de registros leídos
+ * @param updated   Número de Funkos cuyo stock se ha actualizado
+ * @param unchanged Número de Funkos cuyo stock ya coincidía
+ * @param unknown   Número de registros de Funkos que no existen
+ * @param conflicts Número de actualizaciones rechazadas por dejar el stock reservado en negativo
+ * @param invalid   Número de registros no válidos
+ * @param errors    Detalle de los registros no aplicados (limitado a los primeros)
+ */
+public record FunkoStockSyncResponse(
+        long total,
+        long updated,
+        long unchanged,
+        long unknown,
+        long conflicts,
+        long invalid,
+        List<FunkoImportError> errors
+) {
+}
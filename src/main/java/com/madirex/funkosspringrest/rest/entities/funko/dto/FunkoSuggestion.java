@@ -0,0 +1,17 @@
+package com.madirex.funkosspringrest.rest.entities.funko.dto;
+
+import java.util.UUID;
+
+/**
+ * FunkoSuggestion
+ *
+ * @param id       Identificador del Funko
+ * @param name     Nombre del Funko
+ * @param quantity Stock disponible, usado para ordenar las sugerencias
+ */
+public record FunkoSuggestion(
+        UUID id,
+        String name,
+        int quantity
+) {
+}
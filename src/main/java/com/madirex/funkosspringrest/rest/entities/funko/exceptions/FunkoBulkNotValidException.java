@@ -0,0 +1,30 @@
+package com.madirex.funkosspringrest.rest.entities.funko.exceptions;
+
+import com.madirex.funkosspringrest.manager.error.exceptions.ResponseException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Class FunkoBulkNotValidException
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class FunkoBulkNotValidException extends ResponseException {
+    /**
+     * Constructor FunkoBulkNotValidException
+     *
+     * @param message Mensaje de error
+     */
+    public FunkoBulkNotValidException(String message) {
+        super("Operación masiva no válida - " + message);
+    }
+
+    /**
+     * Método getHttpStatus
+     *
+     * @return HttpStatus
+     */
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
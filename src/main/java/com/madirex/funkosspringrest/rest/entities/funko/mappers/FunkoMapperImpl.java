@@ -5,11 +5,11 @@ import com.madirex.funkosspringrest.rest.entities.funko.dto.CreateFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.UpdateFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.util.UuidV7;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Clase FunkoMapper
@@ -26,13 +26,14 @@ public class FunkoMapperImpl implements FunkoMapper {
      */
     public Funko toFunko(CreateFunkoDTO dto, Category category) {
         return Funko.builder()
-                .id(UUID.randomUUID())
+                .id(UuidV7.randomUUID())
                 .name(dto.getName())
                 .price(dto.getPrice())
                 .quantity(dto.getQuantity())
                 .image(dto.getImage())
                 .category(category)
                 .updatedAt(LocalDateTime.now())
+                .newEntity(true)
                 .build();
     }
 
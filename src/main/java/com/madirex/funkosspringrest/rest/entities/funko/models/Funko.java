@@ -7,8 +7,11 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -16,6 +19,7 @@ import java.util.UUID;
 
 /**
  * Clase Funko
+ * El ID lo asigna la aplicación, así que el Funko indica si es nuevo para que save() lo inserte sin consultarlo antes
  */
 @Getter
 @Setter
@@ -23,9 +27,20 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_funko_category_price_id", columnList = "category_id, price, id"),
+        @Index(name = "idx_funko_price_id", columnList = "price, id"),
+        @Index(name = "idx_funko_name_id", columnList = "name, id"),
+        @Index(name = "idx_funko_quantity_id", columnList = "quantity, id"),
+        @Index(name = "idx_funko_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_funko_updated_at_id", columnList = "updated_at, id")
+})
 @EntityListeners(AuditingEntityListener.class)
-public class Funko {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Funko.CACHE_REGION)
+public class Funko implements Persistable<UUID> {
     public static final String IMAGE_DEFAULT = "https://www.madirex.com/favicon.ico";
+    public static final String CACHE_REGION = "funko";
 
     @NotNull
     @Id
@@ -62,4 +77,30 @@ public class Funko {
     @LastModifiedDate
     @Schema(description = "Fecha de actualización", example = "2021-08-01T00:00:00.000Z")
     private LocalDateTime updatedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Schema(hidden = true)
+    private boolean newEntity;
+
+    /**
+     * Indica si el Funko aún no se ha guardado
+     * Solo lo son los creados con newEntity(true); en caso de duda se devuelve false y save() hace merge
+     *
+     * @return ¿es nuevo?
+     */
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Marca el Funko como guardado al insertarlo o cargarlo
+     */
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        newEntity = false;
+    }
 }
\ No newline at end of file
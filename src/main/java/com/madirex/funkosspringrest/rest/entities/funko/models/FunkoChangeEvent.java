@@ -0,0 +1,24 @@
+package com.madirex.funkosspringrest.rest.entities.funko.models;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+
+/**
+ * FunkoChangeEvent
+ * Evento de aplicación publicado tras cada escritura de Funkos, para mantener actualizadas las estructuras en memoria
+ *
+ * @param type  Tipo de cambio
+ * @param funko Funko modificado, o null en las operaciones masivas (BULK), que afectan a varios Funkos
+ */
+public record FunkoChangeEvent(
+        Notification.Type type,
+        GetFunkoDTO funko
+) {
+    /**
+     * Crea el evento de una operación masiva
+     *
+     * @return Evento
+     */
+    public static FunkoChangeEvent bulk() {
+        return new FunkoChangeEvent(Notification.Type.BULK, null);
+    }
+}
@@ -14,5 +14,5 @@ public record Notification<T>(
     /**
      * Enum Type
      */
-    public enum Type {CREATE, UPDATE, DELETE}
+    public enum Type {CREATE, UPDATE, DELETE, BULK}
 }
\ No newline at end of file
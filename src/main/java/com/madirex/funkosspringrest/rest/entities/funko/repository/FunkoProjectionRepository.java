@@ -0,0 +1,34 @@
+package com.madirex.funkosspringrest.rest.entities.funko.repository;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * FunkoProjectionRepository
+ * Lecturas de Funkos proyectadas directamente a GetFunkoDTO, sin cargar entidades
+ */
+public interface FunkoProjectionRepository {
+
+    /**
+     * Obtiene una página de Funkos proyectados a GetFunkoDTO
+     *
+     * @param specification Filtro
+     * @param pageable      Paginación, o Pageable.unpaged() para obtener todos
+     * @return Página de Funkos
+     */
+    Page<GetFunkoDTO> findAllDto(Specification<Funko> specification, Pageable pageable);
+
+    /**
+     * Obtiene un Funko proyectado a GetFunkoDTO
+     *
+     * @param id Identificador
+     * @return Funko, si existe
+     */
+    Optional<GetFunkoDTO> findDtoById(UUID id);
+}
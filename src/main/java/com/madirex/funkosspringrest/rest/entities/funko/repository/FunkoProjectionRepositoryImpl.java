@@ -0,0 +1,157 @@
+package com.madirex.funkosspringrest.rest.entities.funko.repository;
+
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Clase FunkoProjectionRepositoryImpl
+ * Selecciona solo las columnas de GetFunkoDTO con un LEFT JOIN explícito a la categoría, de forma que cada página es
+ * una única consulta sin entidades gestionadas ni consultas adicionales por categoría. El total se calcula con una
+ * consulta de conteo aparte que solo hace el JOIN si el filtro lo necesita, y se omite cuando la página ya lo indica
+ */
+public class FunkoProjectionRepositoryImpl implements FunkoProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor FunkoProjectionRepositoryImpl
+     *
+     * @param entityManager EntityManager
+     */
+    public FunkoProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Obtiene una página de Funkos proyectados a GetFunkoDTO
+     *
+     * @param specification Filtro
+     * @param pageable      Paginación, o Pageable.unpaged() para obtener todos
+     * @return Página de Funkos
+     */
+    @Override
+    public Page<GetFunkoDTO> findAllDto(Specification<Funko> specification, Pageable pageable) {
+        TypedQuery<Tuple> query = createQuery(specification, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<GetFunkoDTO> content = query.getResultList().stream()
+                .map(FunkoProjectionRepositoryImpl::toDto)
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    /**
+     * Obtiene un Funko proyectado a GetFunkoDTO
+     *
+     * @param id Identificador
+     * @return Funko, si existe
+     */
+    @Override
+    public Optional<GetFunkoDTO> findDtoById(UUID id) {
+        Specification<Funko> byId = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id);
+        return createQuery(byId, Sort.unsorted()).getResultStream()
+                .findFirst()
+                .map(FunkoProjectionRepositoryImpl::toDto);
+    }
+
+    /**
+     * Crea la consulta de la proyección
+     *
+     * @param specification Filtro
+     * @param sort          Ordenación
+     * @return Consulta
+     */
+    private TypedQuery<Tuple> createQuery(Specification<Funko> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Funko> root = query.from(Funko.class);
+        Join<Funko, ?> category = FunkoSpecifications.category(root);
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("name").alias("name"),
+                root.get("price").alias("price"),
+                root.get("quantity").alias("quantity"),
+                root.get("image").alias("image"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("updatedAt").alias("updatedAt"),
+                category.get("id").alias("categoryId"),
+                category.get("type").alias("categoryType"),
+                category.get("active").alias("categoryActive"),
+                category.get("createdAt").alias("categoryCreatedAt"),
+                category.get("updatedAt").alias("categoryUpdatedAt"));
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Cuenta los Funkos que cumplen el filtro
+     *
+     * @param specification Filtro
+     * @return Número de Funkos
+     */
+    private long count(Specification<Funko> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Funko> root = query.from(Funko.class);
+        query.select(criteriaBuilder.count(root));
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Convierte una fila de la proyección en GetFunkoDTO
+     *
+     * @param tuple Fila
+     * @return GetFunkoDTO
+     */
+    private static GetFunkoDTO toDto(Tuple tuple) {
+        Long categoryId = tuple.get("categoryId", Long.class);
+        return GetFunkoDTO.builder()
+                .id(tuple.get("id", UUID.class))
+                .name(tuple.get("name", String.class))
+                .price(tuple.get("price", Double.class))
+                .quantity(tuple.get("quantity", Integer.class))
+                .image(tuple.get("image", String.class))
+                .category(categoryId == null ? null : Category.builder()
+                        .id(categoryId)
+                        .type(tuple.get("categoryType", String.class))
+                        .active(tuple.get("categoryActive", Boolean.class))
+                        .createdAt(tuple.get("categoryCreatedAt", LocalDateTime.class))
+                        .updatedAt(tuple.get("categoryUpdatedAt", LocalDateTime.class))
+                        .build())
+                .createdAt(tuple.get("createdAt", LocalDateTime.class))
+                .updatedAt(tuple.get("updatedAt", LocalDateTime.class))
+                .build();
+    }
+}
@@ -11,6 +11,7 @@ import java.util.UUID;
  * FunkoRepository
  */
 @Repository
-public interface FunkoRepository extends JpaRepository<Funko, UUID>, JpaSpecificationExecutor<Funko> {
+public interface FunkoRepository extends JpaRepository<Funko, UUID>, JpaSpecificationExecutor<Funko>,
+        FunkoProjectionRepository {
 
 }
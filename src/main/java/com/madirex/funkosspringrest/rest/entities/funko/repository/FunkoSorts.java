@@ -0,0 +1,105 @@
+package com.madirex.funkosspringrest.rest.entities.funko.repository;
+
+import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoSortNotValidException;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clase FunkoSorts
+ * Lista blanca de ordenaciones del listado de Funkos
+ * Solo se permiten las combinaciones de campos que son prefijo de un índice de la tabla funko, de forma que la base de
+ * datos nunca tenga que ordenar en memoria. Se añade siempre el id como desempate para que la paginación sea estable
+ */
+public class FunkoSorts {
+    public static final String ID_FIELD = "id";
+    public static final String RELEVANCE_FIELD = "relevance";
+    static final Map<String, String> FIELDS = Map.of(
+            ID_FIELD, ID_FIELD,
+            "name", "name",
+            "price", "price",
+            "quantity", "quantity",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt",
+            "category", "category.id"
+    );
+    static final Set<List<String>> INDEXED = Set.of(
+            List.of(ID_FIELD),
+            List.of("name"),
+            List.of("price"),
+            List.of("quantity"),
+            List.of("createdAt"),
+            List.of("updatedAt"),
+            List.of("category"),
+            List.of("category", "price")
+    );
+    private static final String SEPARATOR = ",";
+    private static final String DIRECTION_SEPARATOR = ":";
+
+    /**
+     * Constructor privado para evitar instanciación
+     */
+    private FunkoSorts() {
+        // Constructor privado para evitar instanciación
+    }
+
+    /**
+     * Obtiene la ordenación de una petición
+     * Los campos se separan por comas y cada uno admite su propia dirección, por ejemplo "category,price:desc"
+     *
+     * @param sortBy    Campos de ordenación
+     * @param direction Dirección por defecto
+     * @return Ordenación
+     * @throws FunkoSortNotValidException Si algún campo no existe o la combinación no está respaldada por un índice
+     */
+    public static Sort of(String sortBy, String direction) {
+        Sort.Direction defaultDirection = direction(direction);
+        if (RELEVANCE_FIELD.equals(sortBy.trim())) {
+            return Sort.by(defaultDirection, RELEVANCE_FIELD);
+        }
+        List<String> fields = new ArrayList<>();
+        List<Sort.Direction> directions = new ArrayList<>();
+        for (String item : sortBy.split(SEPARATOR)) {
+            String[] parts = item.trim().split(DIRECTION_SEPARATOR, 2);
+            String field = parts[0].trim();
+            if (!FIELDS.containsKey(field)) {
+                throw new FunkoSortNotValidException("El campo '" + field + "' no es ordenable. Campos permitidos: "
+                        + String.join(", ", FIELDS.keySet().stream().sorted().toList()));
+            }
+            fields.add(field);
+            directions.add(parts.length > 1 ? direction(parts[1]) : defaultDirection);
+        }
+        Sort.Direction sortDirection = directions.get(0);
+        if (directions.stream().anyMatch(d -> d != sortDirection)) {
+            throw new FunkoSortNotValidException("Todos los campos deben ordenarse en la misma dirección");
+        }
+        List<String> indexed = fields.size() > 1 && fields.get(fields.size() - 1).equals(ID_FIELD)
+                ? fields.subList(0, fields.size() - 1) : fields;
+        if (!INDEXED.contains(indexed)) {
+            throw new FunkoSortNotValidException("La combinación '" + String.join(SEPARATOR, indexed)
+                    + "' no está respaldada por ningún índice");
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        indexed.stream()
+                .filter(field -> !field.equals(ID_FIELD))
+                .forEach(field -> orders.add(new Sort.Order(sortDirection, FIELDS.get(field))));
+        orders.add(new Sort.Order(sortDirection, ID_FIELD));
+        return Sort.by(orders);
+    }
+
+    /**
+     * Obtiene una dirección de ordenación
+     *
+     * @param direction Dirección, asc o desc
+     * @return Dirección
+     * @throws FunkoSortNotValidException Si la dirección no es válida
+     */
+    private static Sort.Direction direction(String direction) {
+        return Sort.Direction.fromOptionalString(direction.trim())
+                .orElseThrow(() -> new FunkoSortNotValidException("La dirección '" + direction
+                        + "' no es válida, debe ser asc o desc"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.madirex.funkosspringrest.rest.entities.funko.repository;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Clase FunkoSpecifications
+ * Construye las Specification de búsqueda de Funkos a partir de un FunkoFilter
+ * La búsqueda de texto (q) no se resuelve aquí, sino en el índice FunkoSearchIndex
+ */
+public class FunkoSpecifications {
+
+    /**
+     * Constructor privado para evitar instanciación
+     */
+    private FunkoSpecifications() {
+        // Constructor privado para evitar instanciación
+    }
+
+    /**
+     * Obtiene la Specification correspondiente a un filtro
+     *
+     * @param filter Filtro
+     * @return Specification
+     */
+    public static Specification<Funko> of(FunkoFilter filter) {
+        return Specification.where(byCategory(Optional.ofNullable(filter.category())))
+                .and(byMinPrice(Optional.ofNullable(filter.minPrice())))
+                .and(byMaxPrice(Optional.ofNullable(filter.maxPrice())))
+                .and(byMinQuantity(Optional.ofNullable(filter.minQuantity())))
+                .and(byMaxQuantity(Optional.ofNullable(filter.maxQuantity())))
+                .and(byUpdatedSince(Optional.ofNullable(filter.updatedSince())));
+    }
+
+    /**
+     * Filtro por un conjunto de identificadores, por ejemplo los resultados de una búsqueda de texto
+     *
+     * @param ids Identificadores
+     * @return Specification
+     */
+    public static Specification<Funko> idIn(Collection<UUID> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Obtiene el JOIN a la categoría de la consulta, creándolo como LEFT JOIN si aún no existe
+     * Así la proyección y el filtro por categoría comparten un único JOIN, y el conteo solo lo hace si se filtra
+     *
+     * @param root Raíz de la consulta
+     * @return JOIN a la categoría
+     */
+    public static Join<Funko, ?> category(Root<Funko> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("category"))
+                .findFirst()
+                .orElseGet(() -> root.join("category", JoinType.LEFT));
+    }
+
+    /**
+     * Filtro por tipo de categoría
+     *
+     * @param category Categoría
+     * @return Specification
+     */
+    private static Specification<Funko> byCategory(Optional<String> category) {
+        return (root, query, criteriaBuilder) ->
+                category.map(m -> {
+                    try {
+                        return criteriaBuilder.equal(category(root).get("type"), m.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        return criteriaBuilder.isTrue(criteriaBuilder.literal(false));
+                    }
+                }).orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+
+    /**
+     * Filtro por precio mínimo
+     *
+     * @param minPrice Precio mínimo
+     * @return Specification
+     */
+    private static Specification<Funko> byMinPrice(Optional<Double> minPrice) {
+        return (root, query, criteriaBuilder) ->
+                minPrice.map(p -> criteriaBuilder.greaterThanOrEqualTo(root.get("price"), p))
+                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+
+    /**
+     * Filtro por precio máximo
+     *
+     * @param maxPrice Precio máximo
+     * @return Specification
+     */
+    private static Specification<Funko> byMaxPrice(Optional<Double> maxPrice) {
+        return (root, query, criteriaBuilder) ->
+                maxPrice.map(p -> criteriaBuilder.lessThanOrEqualTo(root.get("price"), p))
+                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+
+    /**
+     * Filtro por cantidad mínima
+     *
+     * @param minQuantity Cantidad mínima
+     * @return Specification
+     */
+    private static Specification<Funko> byMinQuantity(Optional<Integer> minQuantity) {
+        return (root, query, criteriaBuilder) ->
+                minQuantity.map(p -> criteriaBuilder.greaterThanOrEqualTo(root.get("quantity"), p))
+                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+
+    /**
+     * Filtro por cantidad máxima
+     *
+     * @param maxQuantity Cantidad máxima
+     * @return Specification
+     */
+    private static Specification<Funko> byMaxQuantity(Optional<Integer> maxQuantity) {
+        return (root, query, criteriaBuilder) ->
+                maxQuantity.map(p -> criteriaBuilder.lessThanOrEqualTo(root.get("quantity"), p))
+                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+
+    /**
+     * Filtro por fecha de actualización mínima
+     *
+     * @param updatedSince Fecha a partir de la que se ha actualizado
+     * @return Specification
+     */
+    private static Specification<Funko> byUpdatedSince(Optional<LocalDateTime> updatedSince) {
+        return (root, query, criteriaBuilder) ->
+                updatedSince.map(d -> criteriaBuilder.greaterThanOrEqualTo(root.<LocalDateTime>get("updatedAt"), d))
+                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+}
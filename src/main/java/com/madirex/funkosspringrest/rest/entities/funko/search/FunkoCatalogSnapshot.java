@@ -0,0 +1,497 @@
+package com.madirex.funkosspringrest.rest.entities.funko.search;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Clase FunkoCatalogSnapshot
+ * Motor de lectura opcional del catálogo (funkos.catalog.snapshot.enabled) que resuelve el listado paginado en memoria
+ * El catálogo se guarda por columnas en arrays de tipos primitivos (precios, cantidades y ordinales de categoría) junto
+ * con una permutación precalculada por cada campo de ordenación, así que filtrar, ordenar y paginar es un único recorrido
+ * que no crea objetos por fila. Cada escritura publica una instantánea nueva (copy-on-write) y las lecturas en curso
+ * siguen usando la anterior. La instantánea nueva no se vuelve a ordenar: el Funko modificado se quita y se inserta en
+ * cada permutación mediante búsqueda binaria
+ * No se ordena por nombre: la base de datos compara los textos con su collation (mayúsculas, acentos) y el orden de
+ * String sería distinto, así que esas consultas siguen resolviéndose con JPA
+ */
+@Slf4j
+@Component
+public class FunkoCatalogSnapshot {
+    static final String ID_FIELD = "id";
+    static final Comparator<GetFunkoDTO> BY_ID = Comparator.comparing(GetFunkoDTO::getId,
+            FunkoCatalogSnapshot::compareUuid);
+    static final Map<String, Comparator<GetFunkoDTO>> SORT_FIELDS = Map.of(
+            ID_FIELD, BY_ID,
+            "price", nullsFirst(GetFunkoDTO::getPrice),
+            "quantity", nullsFirst(GetFunkoDTO::getQuantity),
+            "createdAt", nullsFirst(GetFunkoDTO::getCreatedAt),
+            "updatedAt", nullsFirst(GetFunkoDTO::getUpdatedAt)
+    );
+    private static final int NO_CATEGORY = -1;
+
+    private final FunkoRepository funkoRepository;
+    private final boolean enabled;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    /**
+     * Constructor FunkoCatalogSnapshot
+     *
+     * @param funkoRepository Repositorio de Funkos para la carga inicial
+     * @param enabled         Si el listado de Funkos se resuelve en memoria
+     */
+    @Autowired
+    public FunkoCatalogSnapshot(FunkoRepository funkoRepository,
+                                @Value("${funkos.catalog.snapshot.enabled:false}") boolean enabled) {
+        this.funkoRepository = funkoRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indica si el listado de Funkos se resuelve en memoria
+     *
+     * @return true si está activado
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indica si una consulta se puede resolver con la instantánea: sin búsqueda de texto, paginada y ordenada como
+     * mucho por uno de los campos precalculados, con el id como desempate en la misma dirección
+     *
+     * @param filter   Filtro
+     * @param pageable Paginación
+     * @return true si se puede resolver en memoria
+     */
+    public boolean supports(FunkoFilter filter, Pageable pageable) {
+        if (!enabled || pageable.isUnpaged() || (filter.q() != null && !filter.q().isBlank())) {
+            return false;
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() == 2 && orders.get(1).getProperty().equals(ID_FIELD)
+                && orders.get(1).getDirection() == orders.get(0).getDirection()) {
+            orders = orders.subList(0, 1);
+        }
+        return orders.isEmpty() || (orders.size() == 1 && SORT_FIELDS.containsKey(orders.get(0).getProperty()));
+    }
+
+    /**
+     * Recarga el catálogo desde la base de datos y publica una instantánea nueva
+     * Se carga con la proyección a GetFunkoDTO, en una sola consulta y sin entidades gestionadas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            snapshot = Snapshot.build(funkoRepository.findAllDto(Specification.where(null), Pageable.unpaged())
+                    .getContent());
+            log.info("Instantánea del catálogo construida con " + snapshot.funkos.length + " Funkos");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Actualiza el catálogo tras una escritura de Funkos
+     * Solo se aplica cuando la transacción se confirma, para no servir datos que se deshacen con un rollback
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFunkoChange(FunkoChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (event.type() == Notification.Type.BULK || event.funko() == null) {
+                rebuild();
+                return;
+            }
+            snapshot = event.type() == Notification.Type.DELETE
+                    ? snapshot.without(event.funko().getId())
+                    : snapshot.with(event.funko());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene una página de Funkos filtrados y ordenados
+     *
+     * @param filter   Filtro, sin búsqueda de texto
+     * @param pageable Paginación, ordenada como mucho por un campo precalculado y el id
+     * @return Página de Funkos
+     */
+    public Page<GetFunkoDTO> findAll(FunkoFilter filter, Pageable pageable) {
+        Snapshot current = snapshot;
+        int category = NO_CATEGORY;
+        if (filter.category() != null) {
+            Integer ordinal = current.categoryOrdinals.get(filter.category().toUpperCase());
+            if (ordinal == null) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+            category = ordinal;
+        }
+        double minPrice = filter.minPrice() == null ? Double.NEGATIVE_INFINITY : filter.minPrice();
+        double maxPrice = filter.maxPrice() == null ? Double.POSITIVE_INFINITY : filter.maxPrice();
+        int minQuantity = filter.minQuantity() == null ? Integer.MIN_VALUE : filter.minQuantity();
+        int maxQuantity = filter.maxQuantity() == null ? Integer.MAX_VALUE : filter.maxQuantity();
+        LocalDateTime updatedSince = filter.updatedSince();
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(ID_FIELD));
+        int[] permutation = current.permutations.get(order.getProperty());
+        boolean descending = order.isDescending();
+
+        long offset = pageable.getOffset();
+        long end = offset + pageable.getPageSize();
+        int size = permutation.length;
+        List<GetFunkoDTO> content = new ArrayList<>(pageable.getPageSize());
+        long total = 0;
+        for (int k = 0; k < size; k++) {
+            int row = permutation[descending ? size - 1 - k : k];
+            if ((category != NO_CATEGORY && current.categories[row] != category)
+                    || current.prices[row] < minPrice || current.prices[row] > maxPrice
+                    || current.quantities[row] < minQuantity || current.quantities[row] > maxQuantity
+                    || (updatedSince != null && !updatedSince(current.funkos[row], updatedSince))) {
+                continue;
+            }
+            if (total >= offset && total < end) {
+                content.add(current.funkos[row]);
+            }
+            total++;
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Número de Funkos de la instantánea
+     *
+     * @return Número de Funkos
+     */
+    public int size() {
+        return snapshot.funkos.length;
+    }
+
+    /**
+     * Indica si un Funko se ha actualizado a partir de una fecha
+     *
+     * @param funko Funko
+     * @param since Fecha
+     * @return true si se ha actualizado en esa fecha o después
+     */
+    private static boolean updatedSince(GetFunkoDTO funko, LocalDateTime since) {
+        return funko.getUpdatedAt() != null && !funko.getUpdatedAt().isBefore(since);
+    }
+
+    /**
+     * Compara dos UUID byte a byte, sin signo, igual que las bases de datos
+     *
+     * @param a UUID
+     * @param b UUID
+     * @return Resultado de la comparación
+     */
+    private static int compareUuid(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * Comparador por un campo con los nulos al principio y el id como desempate
+     * Con el desempate cada Funko tiene una única posición en su permutación y se puede localizar por búsqueda binaria
+     *
+     * @param field Campo
+     * @param <T>   Tipo del campo
+     * @return Comparador
+     */
+    private static <T extends Comparable<? super T>> Comparator<GetFunkoDTO> nullsFirst(
+            Function<GetFunkoDTO, T> field) {
+        return Comparator.comparing(field, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(BY_ID);
+    }
+
+    /**
+     * Instantánea inmutable del catálogo, por columnas
+     * Las filas no siguen ningún orden y cada permutación contiene las filas ordenadas de forma ascendente por su campo
+     * y, a igualdad, por el id
+     */
+    private static final class Snapshot {
+        private final GetFunkoDTO[] funkos;
+        private final double[] prices;
+        private final int[] quantities;
+        private final int[] categories;
+        private final Map<String, Integer> categoryOrdinals;
+        private final Map<String, int[]> permutations;
+
+        /**
+         * Constructor Snapshot
+         *
+         * @param funkos           Funko de cada fila
+         * @param prices           Precio de cada fila
+         * @param quantities       Cantidad de cada fila
+         * @param categories       Ordinal de la categoría de cada fila
+         * @param categoryOrdinals Ordinal de cada tipo de categoría
+         * @param permutations     Filas ordenadas por cada campo de ordenación
+         */
+        private Snapshot(GetFunkoDTO[] funkos, double[] prices, int[] quantities, int[] categories,
+                         Map<String, Integer> categoryOrdinals, Map<String, int[]> permutations) {
+            this.funkos = funkos;
+            this.prices = prices;
+            this.quantities = quantities;
+            this.categories = categories;
+            this.categoryOrdinals = categoryOrdinals;
+            this.permutations = permutations;
+        }
+
+        /**
+         * Construye una instantánea ordenando todas las permutaciones
+         * Solo se usa en la carga completa: al arrancar y tras las operaciones masivas
+         *
+         * @param values Funkos
+         * @return Instantánea
+         */
+        private static Snapshot build(Collection<GetFunkoDTO> values) {
+            GetFunkoDTO[] funkos = values.toArray(GetFunkoDTO[]::new);
+            int size = funkos.length;
+            double[] prices = new double[size];
+            int[] quantities = new int[size];
+            int[] categories = new int[size];
+            Map<String, Integer> categoryOrdinals = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                prices[i] = price(funkos[i]);
+                quantities[i] = quantity(funkos[i]);
+                categories[i] = categoryOrdinal(funkos[i], categoryOrdinals);
+            }
+            Map<String, int[]> permutations = new HashMap<>();
+            SORT_FIELDS.forEach((field, comparator) -> permutations.put(field, IntStream.range(0, size).boxed()
+                    .sorted((a, b) -> comparator.compare(funkos[a], funkos[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray()));
+            return new Snapshot(funkos, prices, quantities, categories, Map.copyOf(categoryOrdinals),
+                    Map.copyOf(permutations));
+        }
+
+        /**
+         * Obtiene una instantánea con un Funko añadido o actualizado
+         * Un Funko nuevo ocupa una fila al final; uno existente conserva su fila. En cada permutación se quita de su
+         * posición anterior y se inserta en la nueva, ambas localizadas por búsqueda binaria
+         *
+         * @param funko Funko
+         * @return Instantánea nueva
+         */
+        private Snapshot with(GetFunkoDTO funko) {
+            int row = rowOf(funko.getId());
+            boolean added = row < 0;
+            int size = funkos.length + (added ? 1 : 0);
+            if (added) {
+                row = funkos.length;
+            }
+            GetFunkoDTO[] nextFunkos = Arrays.copyOf(funkos, size);
+            double[] nextPrices = Arrays.copyOf(prices, size);
+            int[] nextQuantities = Arrays.copyOf(quantities, size);
+            int[] nextCategories = Arrays.copyOf(categories, size);
+            Map<String, Integer> nextOrdinals = categoryOrdinals;
+            String type = funko.getCategory() == null ? null : funko.getCategory().getType();
+            if (type != null && !categoryOrdinals.containsKey(type)) {
+                Map<String, Integer> ordinals = new HashMap<>(categoryOrdinals);
+                ordinals.put(type, ordinals.size());
+                nextOrdinals = Map.copyOf(ordinals);
+            }
+            nextFunkos[row] = funko;
+            nextPrices[row] = price(funko);
+            nextQuantities[row] = quantity(funko);
+            nextCategories[row] = categoryOrdinal(funko, nextOrdinals);
+
+            Map<String, int[]> nextPermutations = new HashMap<>();
+            for (Map.Entry<String, Comparator<GetFunkoDTO>> sort : SORT_FIELDS.entrySet()) {
+                Comparator<GetFunkoDTO> comparator = sort.getValue();
+                int[] permutation = permutations.get(sort.getKey());
+                int from = added ? permutation.length : find(permutation, -1, funkos[row], comparator);
+                int to = -find(permutation, from, funko, comparator) - 1;
+                nextPermutations.put(sort.getKey(), move(permutation, from, to, row));
+            }
+            return new Snapshot(nextFunkos, nextPrices, nextQuantities, nextCategories, nextOrdinals,
+                    Map.copyOf(nextPermutations));
+        }
+
+        /**
+         * Obtiene una instantánea sin un Funko
+         * Para no dejar huecos, la última fila pasa a ocupar la del Funko eliminado
+         *
+         * @param id Identificador del Funko
+         * @return Instantánea nueva, o esta misma si el Funko no estaba
+         */
+        private Snapshot without(UUID id) {
+            int row = rowOf(id);
+            if (row < 0) {
+                return this;
+            }
+            int last = funkos.length - 1;
+            GetFunkoDTO[] nextFunkos = Arrays.copyOf(funkos, last);
+            double[] nextPrices = Arrays.copyOf(prices, last);
+            int[] nextQuantities = Arrays.copyOf(quantities, last);
+            int[] nextCategories = Arrays.copyOf(categories, last);
+            if (row != last) {
+                nextFunkos[row] = funkos[last];
+                nextPrices[row] = prices[last];
+                nextQuantities[row] = quantities[last];
+                nextCategories[row] = categories[last];
+            }
+
+            Map<String, int[]> nextPermutations = new HashMap<>();
+            for (Map.Entry<String, Comparator<GetFunkoDTO>> sort : SORT_FIELDS.entrySet()) {
+                Comparator<GetFunkoDTO> comparator = sort.getValue();
+                int[] permutation = permutations.get(sort.getKey());
+                int removed = find(permutation, -1, funkos[row], comparator);
+                int[] next = new int[last];
+                System.arraycopy(permutation, 0, next, 0, removed);
+                System.arraycopy(permutation, removed + 1, next, removed, last - removed);
+                if (row != last) {
+                    int moved = find(permutation, -1, funkos[last], comparator);
+                    next[moved < removed ? moved : moved - 1] = row;
+                }
+                nextPermutations.put(sort.getKey(), next);
+            }
+            return new Snapshot(nextFunkos, nextPrices, nextQuantities, nextCategories, categoryOrdinals,
+                    Map.copyOf(nextPermutations));
+        }
+
+        /**
+         * Busca la fila de un Funko en la permutación por id
+         *
+         * @param id Identificador
+         * @return Fila, o -1 si no está
+         */
+        private int rowOf(UUID id) {
+            int[] byId = permutations.get(ID_FIELD);
+            int low = 0;
+            int high = byId.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int result = compareUuid(funkos[byId[mid]].getId(), id);
+                if (result < 0) {
+                    low = mid + 1;
+                } else if (result > 0) {
+                    high = mid - 1;
+                } else {
+                    return byId[mid];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Busca un Funko en una permutación mediante búsqueda binaria
+         *
+         * @param permutation Permutación
+         * @param skip        Posición que se ignora, como si ya se hubiera quitado, o -1
+         * @param funko       Funko
+         * @param comparator  Orden de la permutación
+         * @return Posición, o (-(punto de inserción) - 1) si no está
+         */
+        private int find(int[] permutation, int skip, GetFunkoDTO funko, Comparator<GetFunkoDTO> comparator) {
+            int low = 0;
+            int high = permutation.length - (skip >= 0 && skip < permutation.length ? 2 : 1);
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int index = skip >= 0 && mid >= skip ? mid + 1 : mid;
+                int result = comparator.compare(funkos[permutation[index]], funko);
+                if (result < 0) {
+                    low = mid + 1;
+                } else if (result > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Mueve una fila dentro de una permutación
+         * Equivale a quitar la posición from y a insertar la fila en la posición to de la permutación resultante
+         *
+         * @param permutation Permutación
+         * @param from        Posición actual, o permutation.length si la fila es nueva
+         * @param to          Posición nueva
+         * @param row         Fila
+         * @return Permutación nueva
+         */
+        private static int[] move(int[] permutation, int from, int to, int row) {
+            int[] next = Arrays.copyOf(permutation, Math.max(permutation.length, from + 1));
+            if (to <= from) {
+                System.arraycopy(permutation, to, next, to + 1, from - to);
+            } else {
+                System.arraycopy(permutation, from + 1, next, from, to - from);
+            }
+            next[to] = row;
+            return next;
+        }
+
+        /**
+         * Precio de un Funko para la columna de precios
+         *
+         * @param funko Funko
+         * @return Precio, o 0 si no tiene
+         */
+        private static double price(GetFunkoDTO funko) {
+            return funko.getPrice() == null ? 0 : funko.getPrice();
+        }
+
+        /**
+         * Cantidad de un Funko para la columna de cantidades
+         *
+         * @param funko Funko
+         * @return Cantidad, o 0 si no tiene
+         */
+        private static int quantity(GetFunkoDTO funko) {
+            return funko.getQuantity() == null ? 0 : funko.getQuantity();
+        }
+
+        /**
+         * Ordinal de la categoría de un Funko, registrándola si el mapa admite cambios
+         *
+         * @param funko    Funko
+         * @param ordinals Ordinal de cada tipo de categoría
+         * @return Ordinal, o NO_CATEGORY si no tiene categoría
+         */
+        private static int categoryOrdinal(GetFunkoDTO funko, Map<String, Integer> ordinals) {
+            if (funko.getCategory() == null || funko.getCategory().getType() == null) {
+                return NO_CATEGORY;
+            }
+            Integer ordinal = ordinals.get(funko.getCategory().getType());
+            return ordinal != null ? ordinal : ordinals.computeIfAbsent(funko.getCategory().getType(),
+                    t -> ordinals.size());
+        }
+    }
+}
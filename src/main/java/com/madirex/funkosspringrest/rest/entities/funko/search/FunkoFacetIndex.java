@@ -0,0 +1,402 @@
+package com.madirex.funkosspringrest.rest.entities.funko.search;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Clase FunkoFacetIndex
+ * Calcula en memoria el número de Funkos por categoría, tramo de precio y tramo de stock para un filtro
+ * Cada Funko ocupa una posición fija en unos arrays paralelos y cada categoría tiene un BitSet con sus posiciones. El
+ * tramo de precio y de stock de cada Funko se calcula al indexarlo, de forma que todas las facetas se obtienen en una
+ * sola pasada sobre los Funkos que cumplen el filtro. Se mantiene de forma incremental con los eventos FunkoChangeEvent
+ */
+@Slf4j
+@Component
+public class FunkoFacetIndex {
+    public static final String CATEGORY_FACET = "category";
+    public static final String PRICE_FACET = "price";
+    public static final String STOCK_FACET = "stock";
+    static final String FACET_SQL = "SELECT f.id, f.price, f.quantity, c.type, f.updated_at FROM funko f "
+            + "LEFT JOIN category c ON c.id = f.category_id";
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FunkoSearchIndex searchIndex;
+    private final double[] priceBounds;
+    private final double[] stockBounds;
+    private final List<String> priceLabels;
+    private final List<String> stockLabels;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<BitSet> categoryBits = new ArrayList<>();
+    private final BitSet alive = new BitSet();
+    private int nextSlot = 0;
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int[] categoryOf = new int[INITIAL_CAPACITY];
+    private int[] priceBucketOf = new int[INITIAL_CAPACITY];
+    private int[] stockBucketOf = new int[INITIAL_CAPACITY];
+    private LocalDateTime[] updatedAts = new LocalDateTime[INITIAL_CAPACITY];
+
+    /**
+     * Constructor FunkoFacetIndex
+     *
+     * @param jdbcTemplate JdbcTemplate para la carga inicial
+     * @param searchIndex  Índice de búsqueda de texto, para aplicar el filtro q
+     * @param priceBounds  Límites de los tramos de precio, en orden ascendente
+     * @param stockBounds  Límites de los tramos de stock, en orden ascendente
+     */
+    @Autowired
+    public FunkoFacetIndex(JdbcTemplate jdbcTemplate, FunkoSearchIndex searchIndex,
+                           @Value("${funkos.facets.price-buckets:10,20,50,100}") double[] priceBounds,
+                           @Value("${funkos.facets.stock-buckets:1,10,50}") double[] stockBounds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchIndex = searchIndex;
+        this.priceBounds = priceBounds.clone();
+        this.stockBounds = stockBounds.clone();
+        Arrays.sort(this.priceBounds);
+        Arrays.sort(this.stockBounds);
+        this.priceLabels = labels(this.priceBounds);
+        this.stockLabels = labels(this.stockBounds);
+    }
+
+    /**
+     * Recarga todos los Funkos desde la base de datos
+     * La consulta se hace fuera del bloqueo, así que las facetas siguen disponibles mientras se carga
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query(FACET_SQL, rs -> {
+            rows.add(new Object[]{rs.getObject(1, UUID.class), rs.getDouble(2), rs.getInt(3), rs.getString(4),
+                    rs.getObject(5, LocalDateTime.class)});
+        });
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            freeSlots.clear();
+            categoryOrdinals.clear();
+            categoryNames.clear();
+            categoryBits.clear();
+            alive.clear();
+            nextSlot = 0;
+            for (Object[] row : rows) {
+                put((UUID) row[0], (Double) row[1], (Integer) row[2], (String) row[3], (LocalDateTime) row[4]);
+            }
+            log.info("Facetas de Funkos construidas con " + rows.size() + " Funkos y " + categoryNames.size()
+                    + " categorías");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Actualiza las facetas tras una escritura de Funkos, una vez confirmada su transacción
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFunkoChange(FunkoChangeEvent event) {
+        if (event.type() == Notification.Type.BULK || event.funko() == null) {
+            rebuild();
+            return;
+        }
+        GetFunkoDTO funko = event.funko();
+        lock.writeLock().lock();
+        try {
+            if (event.type() == Notification.Type.DELETE) {
+                remove(funko.getId());
+            } else {
+                put(funko.getId(), funko.getPrice(), funko.getQuantity(),
+                        funko.getCategory() == null ? null : funko.getCategory().getType(), funko.getUpdatedAt());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Calcula las facetas de los Funkos que cumplen un filtro
+     *
+     * @param filter Filtro
+     * @return Número de Funkos por valor de cada faceta: categoría, tramo de precio y tramo de stock
+     */
+    public Map<String, Map<String, Long>> facets(FunkoFilter filter) {
+        Map<UUID, Double> ranking = filter.q() == null || filter.q().isBlank() ? null : searchIndex.search(filter.q());
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) alive.clone();
+            if (filter.category() != null) {
+                Integer ordinal = categoryOrdinals.get(filter.category().toUpperCase());
+                if (ordinal == null) {
+                    candidates.clear();
+                } else {
+                    candidates.and(categoryBits.get(ordinal));
+                }
+            }
+            if (ranking != null) {
+                BitSet found = new BitSet(nextSlot);
+                ranking.keySet().forEach(id -> {
+                    Integer slot = slots.get(id);
+                    if (slot != null) {
+                        found.set(slot);
+                    }
+                });
+                candidates.and(found);
+            }
+
+            long[] categoryCounts = new long[categoryNames.size()];
+            long[] priceCounts = new long[priceLabels.size()];
+            long[] stockCounts = new long[stockLabels.size()];
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (!matches(filter, slot)) {
+                    continue;
+                }
+                if (categoryOf[slot] >= 0) {
+                    categoryCounts[categoryOf[slot]]++;
+                }
+                priceCounts[priceBucketOf[slot]]++;
+                stockCounts[stockBucketOf[slot]]++;
+            }
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            Map<String, Long> categories = new LinkedHashMap<>();
+            IntStream.range(0, categoryCounts.length)
+                    .filter(i -> categoryCounts[i] > 0)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingLong(i -> categoryCounts[i]).reversed()
+                            .thenComparing(categoryNames::get))
+                    .forEach(i -> categories.put(categoryNames.get(i), categoryCounts[i]));
+            facets.put(CATEGORY_FACET, categories);
+            facets.put(PRICE_FACET, counts(priceLabels, priceCounts));
+            facets.put(STOCK_FACET, counts(stockLabels, stockCounts));
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filtra una lista de Funkos por la categoría y los filtros por rango, conservando su orden
+     * Permite paginar en memoria los resultados de una búsqueda de texto sin enviar todos sus identificadores a la
+     * base de datos
+     *
+     * @param filter Filtro, sin tener en cuenta la búsqueda de texto
+     * @param ids    Identificadores
+     * @return Identificadores de los Funkos indexados que cumplen el filtro, en el mismo orden
+     */
+    public List<UUID> filter(FunkoFilter filter, Collection<UUID> ids) {
+        lock.readLock().lock();
+        try {
+            int category = -1;
+            if (filter.category() != null) {
+                Integer ordinal = categoryOrdinals.get(filter.category().toUpperCase());
+                if (ordinal == null) {
+                    return List.of();
+                }
+                category = ordinal;
+            }
+            List<UUID> matches = new ArrayList<>();
+            for (UUID id : ids) {
+                Integer slot = slots.get(id);
+                if (slot != null && (category < 0 || categoryOf[slot] == category) && matches(filter, slot)) {
+                    matches.add(id);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa o reindexa un Funko. Debe llamarse con el bloqueo de escritura
+     *
+     * @param id        Identificador
+     * @param price     Precio
+     * @param quantity  Stock
+     * @param category  Tipo de categoría
+     * @param updatedAt Fecha de actualización
+     */
+    private void put(UUID id, Double price, Integer quantity, String category, LocalDateTime updatedAt) {
+        Integer slot = slots.get(id);
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+            ensureCapacity(slot + 1);
+            slots.put(id, slot);
+        } else if (categoryOf[slot] >= 0) {
+            categoryBits.get(categoryOf[slot]).clear(slot);
+        }
+        prices[slot] = price == null ? 0 : price;
+        quantities[slot] = quantity == null ? 0 : quantity;
+        priceBucketOf[slot] = bucket(priceBounds, prices[slot]);
+        stockBucketOf[slot] = bucket(stockBounds, quantities[slot]);
+        updatedAts[slot] = updatedAt;
+        categoryOf[slot] = category == null ? -1 : categoryOrdinal(category);
+        if (categoryOf[slot] >= 0) {
+            categoryBits.get(categoryOf[slot]).set(slot);
+        }
+        alive.set(slot);
+    }
+
+    /**
+     * Indica si un Funko cumple los filtros por rango. Debe llamarse con el bloqueo de lectura
+     *
+     * @param filter Filtro
+     * @param slot   Posición del Funko
+     * @return true si cumple los filtros
+     */
+    private boolean matches(FunkoFilter filter, int slot) {
+        return (filter.minPrice() == null || prices[slot] >= filter.minPrice())
+                && (filter.maxPrice() == null || prices[slot] <= filter.maxPrice())
+                && (filter.minQuantity() == null || quantities[slot] >= filter.minQuantity())
+                && (filter.maxQuantity() == null || quantities[slot] <= filter.maxQuantity())
+                && (filter.updatedSince() == null
+                || (updatedAts[slot] != null && !updatedAts[slot].isBefore(filter.updatedSince())));
+    }
+
+    /**
+     * Elimina un Funko y deja su posición libre para reutilizarla. Debe llamarse con el bloqueo de escritura
+     *
+     * @param id Identificador
+     */
+    private void remove(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        alive.clear(slot);
+        if (categoryOf[slot] >= 0) {
+            categoryBits.get(categoryOf[slot]).clear(slot);
+        }
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Obtiene el ordinal de una categoría, registrándola si es nueva
+     *
+     * @param category Tipo de categoría
+     * @return Ordinal
+     */
+    private int categoryOrdinal(String category) {
+        return categoryOrdinals.computeIfAbsent(category, c -> {
+            categoryNames.add(c);
+            categoryBits.add(new BitSet());
+            return categoryNames.size() - 1;
+        });
+    }
+
+    /**
+     * Amplía los arrays paralelos si es necesario
+     *
+     * @param capacity Capacidad mínima
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= prices.length) {
+            return;
+        }
+        int size = Math.max(capacity, prices.length * 2);
+        prices = Arrays.copyOf(prices, size);
+        quantities = Arrays.copyOf(quantities, size);
+        categoryOf = Arrays.copyOf(categoryOf, size);
+        priceBucketOf = Arrays.copyOf(priceBucketOf, size);
+        stockBucketOf = Arrays.copyOf(stockBucketOf, size);
+        updatedAts = Arrays.copyOf(updatedAts, size);
+    }
+
+    /**
+     * Obtiene el tramo de un valor: el tramo i contiene los valores entre bounds[i - 1] (incluido) y bounds[i]
+     *
+     * @param bounds Límites de los tramos
+     * @param value  Valor
+     * @return Tramo
+     */
+    private static int bucket(double[] bounds, double value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value >= bounds[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Genera las etiquetas de los tramos: "<10", "10-20", ..., ">=100"
+     *
+     * @param bounds Límites de los tramos
+     * @return Etiquetas
+     */
+    private static List<String> labels(double[] bounds) {
+        List<String> labels = new ArrayList<>();
+        if (bounds.length == 0) {
+            labels.add("*");
+            return labels;
+        }
+        for (int i = 0; i <= bounds.length; i++) {
+            if (i == 0) {
+                labels.add("<" + format(bounds[0]));
+            } else if (i == bounds.length) {
+                labels.add(">=" + format(bounds[i - 1]));
+            } else {
+                labels.add(format(bounds[i - 1]) + "-" + format(bounds[i]));
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Formatea un límite sin decimales innecesarios
+     *
+     * @param value Límite
+     * @return Texto
+     */
+    private static String format(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Asocia las etiquetas de los tramos con su número de Funkos
+     *
+     * @param labels Etiquetas
+     * @param counts Número de Funkos por tramo
+     * @return Número de Funkos por etiqueta
+     */
+    private static Map<String, Long> counts(List<String> labels, long[] counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            result.put(labels.get(i), counts[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,260 @@
+package com.madirex.funkosspringrest.rest.entities.funko.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.madirex.funkosspringrest.rest.catalog.CatalogVersion;
+import com.madirex.funkosspringrest.rest.entities.category.models.CategoryChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Clase FunkoResponseCache
+ * Caché de los cuerpos ya serializados de GET /api/funkos/{id}, por Funko, versión, formato (JSON, XML, CBOR o
+ * Smile) y codificación (sin comprimir o gzip). Un acierto se escribe directamente en la respuesta sin mapear el Funko
+ * ni pasar por Jackson ni por la compresión del servidor
+ * La versión se lee antes de cargar el Funko y cada entrada guarda la suya, así que una escritura confirmada deja
+ * obsoletas sus entradas aunque se hayan guardado a la vez. Además, las escrituras de Funkos y categorías eliminan las
+ * entradas afectadas para liberar memoria
+ * Con la caché llena se descarta el Funko usado hace más tiempo (LRU), así que los más consultados se quedan
+ */
+@Slf4j
+@Component
+public class FunkoResponseCache {
+    private final CatalogVersion catalogVersion;
+    private final Map<String, Entry> entries;
+    private final Map<Format, ObjectMapper> mappers;
+    private final boolean enabled;
+    private final long gzipMinSize;
+
+    /**
+     * Constructor FunkoResponseCache
+     *
+     * @param catalogVersion      Versión del catálogo
+     * @param objectMapperBuilder Builder de los ObjectMapper de la aplicación
+     * @param enabled             ¿caché activada?
+     * @param maxEntries          Número máximo de Funkos en caché
+     * @param gzipMinSize         Tamaño mínimo de un cuerpo para comprimirlo
+     */
+    @Autowired
+    public FunkoResponseCache(CatalogVersion catalogVersion, Jackson2ObjectMapperBuilder objectMapperBuilder,
+                              @Value("${funkos.response-cache.enabled:true}") boolean enabled,
+                              @Value("${funkos.response-cache.max-entries:10000}") int maxEntries,
+                              @Value("${server.compression.min-response-size:2KB}") DataSize gzipMinSize) {
+        this.catalogVersion = catalogVersion;
+        // El builder se reutiliza: cada build() parte de la configuración acumulada hasta ese momento
+        ObjectMapper json = objectMapperBuilder.build();
+        ObjectMapper xml = objectMapperBuilder.createXmlMapper(true).build();
+        ObjectMapper cbor = objectMapperBuilder.createXmlMapper(false).factory(new CBORFactory()).build();
+        ObjectMapper smile = objectMapperBuilder.factory(new SmileFactory()).build();
+        this.mappers = Map.of(Format.JSON, json, Format.XML, xml, Format.CBOR, cbor, Format.SMILE, smile);
+        this.enabled = enabled;
+        this.gzipMinSize = gzipMinSize.toBytes();
+        // Ordenado por acceso: cada lectura mueve su entrada al final y al insertar se descarta la primera
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FunkoResponseCache.Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Obtiene el cuerpo de la respuesta de un Funko, serializándolo solo si no está en caché
+     *
+     * @param id       ID del Funko
+     * @param accepted Tipos de contenido aceptados, por orden de preferencia
+     * @param gzip     ¿acepta el cliente gzip?
+     * @param loader   Carga el Funko si no está en caché
+     * @return Cuerpo de la respuesta
+     * @throws HttpMediaTypeNotAcceptableException Si no se acepta ningún formato soportado
+     */
+    public Body get(String id, List<MediaType> accepted, boolean gzip, Supplier<GetFunkoDTO> loader)
+            throws HttpMediaTypeNotAcceptableException {
+        Format format = Format.resolve(accepted);
+        String key = id.toLowerCase(Locale.ROOT);
+        long version = catalogVersion.ofFunko(key);
+        Entry cached = enabled ? entries.get(key) : null;
+        Entry entry = cached != null && cached.version == version ? cached : new Entry(version);
+        byte[] plain = entry.bodies.get(format.name());
+        if (plain == null) {
+            plain = serialize(format, loader.get());
+            entry.bodies.put(format.name(), plain);
+        }
+        Body body = new Body(format.mediaType, false, plain);
+        if (gzip && plain.length >= gzipMinSize) {
+            byte[] source = plain;
+            byte[] gzipped = entry.bodies.computeIfAbsent(format.name() + ":gzip", k -> gzip(source));
+            body = new Body(format.mediaType, true, gzipped);
+        }
+        if (enabled) {
+            store(key, entry);
+        }
+        return body;
+    }
+
+    /**
+     * Número de Funkos en caché
+     *
+     * @return Número de Funkos
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Elimina las entradas de los Funkos modificados
+     * Se hace después de confirmar la transacción: si se hiciera antes, una lectura concurrente podría volver a
+     * guardar la versión anterior
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFunkoChange(FunkoChangeEvent event) {
+        if (event.type() == Notification.Type.BULK || event.funko() == null || event.funko().getId() == null) {
+            entries.clear();
+        } else {
+            entries.remove(event.funko().getId().toString());
+        }
+    }
+
+    /**
+     * Vacía la caché tras un cambio de categorías, ya que los Funkos incluyen su categoría
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChange(CategoryChangeEvent event) {
+        entries.clear();
+    }
+
+    /**
+     * Guarda una entrada; si la caché está llena, el propio mapa descarta la usada hace más tiempo
+     *
+     * @param key   ID del Funko
+     * @param entry Entrada
+     */
+    private void store(String key, Entry entry) {
+        // No se sustituye una entrada por otra de una versión anterior
+        entries.merge(key, entry, (current, candidate) -> candidate.version >= current.version ? candidate : current);
+    }
+
+    /**
+     * Serializa un Funko
+     *
+     * @param format Formato
+     * @param funko  Funko
+     * @return Cuerpo serializado
+     */
+    private byte[] serialize(Format format, GetFunkoDTO funko) {
+        try {
+            return mappers.get(format).writeValueAsBytes(funko);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Comprime un cuerpo con gzip
+     *
+     * @param plain Cuerpo
+     * @return Cuerpo comprimido
+     */
+    private static byte[] gzip(byte[] plain) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(plain.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Cuerpo de una respuesta
+     *
+     * @param mediaType Tipo de contenido
+     * @param gzipped   ¿comprimido con gzip?
+     * @param bytes     Bytes del cuerpo
+     */
+    public record Body(MediaType mediaType, boolean gzipped, byte[] bytes) {
+    }
+
+    /**
+     * Formatos en los que se sirve un Funko
+     */
+    enum Format {
+        JSON(MediaType.APPLICATION_JSON), XML(MediaType.APPLICATION_XML),
+        CBOR(MediaType.APPLICATION_CBOR), SMILE(new MediaType("application", "x-jackson-smile"));
+
+        private final MediaType mediaType;
+
+        /**
+         * Constructor Format
+         *
+         * @param mediaType Tipo de contenido
+         */
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        /**
+         * Obtiene el primer formato compatible con los tipos de contenido aceptados
+         *
+         * @param accepted Tipos de contenido aceptados, por orden de preferencia
+         * @return Formato
+         * @throws HttpMediaTypeNotAcceptableException Si no se acepta ningún formato
+         */
+        static Format resolve(List<MediaType> accepted) throws HttpMediaTypeNotAcceptableException {
+            for (MediaType mediaType : accepted) {
+                for (Format format : values()) {
+                    if (mediaType.isCompatibleWith(format.mediaType)) {
+                        return format;
+                    }
+                }
+            }
+            throw new HttpMediaTypeNotAcceptableException(
+                    Arrays.stream(values()).map(format -> format.mediaType).toList());
+        }
+    }
+
+    /**
+     * Cuerpos serializados de un Funko en una versión
+     */
+    private static final class Entry {
+        private final long version;
+        private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+
+        /**
+         * Constructor Entry
+         *
+         * @param version Versión del Funko
+         */
+        private Entry(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.madirex.funkosspringrest.rest.entities.funko.search;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.util.TextNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clase FunkoSearchIndex
+ * Índice invertido en memoria sobre el nombre y el tipo de categoría de los Funkos
+ * Se construye al arrancar y se actualiza de forma incremental con los eventos FunkoChangeEvent. Las búsquedas no
+ * bloquean: las escrituras se serializan y las lecturas trabajan sobre estructuras concurrentes
+ */
+@Slf4j
+@Component
+public class FunkoSearchIndex {
+    static final String INDEX_SQL = "SELECT f.id, f.name, c.type FROM funko f LEFT JOIN category c ON c.id = f.category_id";
+    static final int NAME_WEIGHT = 2;
+    static final int CATEGORY_WEIGHT = 1;
+    static final double PREFIX_FACTOR = 0.5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxResults;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Index index = new Index();
+
+    /**
+     * Constructor FunkoSearchIndex
+     *
+     * @param jdbcTemplate JdbcTemplate para la carga inicial
+     * @param maxResults   Número máximo de resultados que se envían a la base de datos al ordenar por otro campo
+     */
+    @Autowired
+    public FunkoSearchIndex(JdbcTemplate jdbcTemplate, @Value("${funkos.search.max-results:1000}") int maxResults) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de la base de datos
+     * Las búsquedas siguen usando el índice anterior hasta que el nuevo está completo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            Index rebuilt = new Index();
+            jdbcTemplate.query(INDEX_SQL, rs -> {
+                rebuilt.add(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3));
+            });
+            index = rebuilt;
+            log.info("Índice de búsqueda de Funkos construido con " + rebuilt.documents.size() + " Funkos y "
+                    + rebuilt.postings.size() + " términos");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Actualiza el índice tras una escritura de Funkos
+     * Se ejecuta al confirmarse la transacción que publica el evento, así que un cambio deshecho nunca llega al índice
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFunkoChange(FunkoChangeEvent event) {
+        if (event.type() == Notification.Type.BULK || event.funko() == null) {
+            rebuild();
+        } else if (event.type() == Notification.Type.DELETE) {
+            remove(event.funko().getId());
+        } else {
+            index(event.funko());
+        }
+    }
+
+    /**
+     * Indexa o reindexa un Funko
+     *
+     * @param funko Funko
+     */
+    public void index(GetFunkoDTO funko) {
+        writeLock.lock();
+        try {
+            index.remove(funko.getId());
+            index.add(funko.getId(), funko.getName(),
+                    funko.getCategory() == null ? null : funko.getCategory().getType());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Elimina un Funko del índice
+     *
+     * @param id Identificador del Funko
+     */
+    public void remove(UUID id) {
+        writeLock.lock();
+        try {
+            index.remove(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Busca Funkos por texto
+     * Todos los términos de la consulta deben aparecer, de forma exacta o como prefijo de un término indexado. Los
+     * resultados se ordenan por relevancia: peso del campo (nombre o categoría) por la rareza (idf) del término y se
+     * devuelven todos, sin límite
+     *
+     * @param query Texto a buscar
+     * @return Identificadores de todos los Funkos encontrados y su puntuación, ordenados por relevancia
+     */
+    public Map<UUID, Double> search(String query) {
+        Index current = index;
+        List<String> terms = TextNormalizer.tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Double> scores = null;
+        for (String term : terms) {
+            Map<UUID, Double> termScores = current.score(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return Map.of();
+            }
+        }
+        Map<UUID, Double> ranking = new LinkedHashMap<>();
+        scores.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> ranking.put(e.getKey(), e.getValue()));
+        return ranking;
+    }
+
+    /**
+     * Número máximo de resultados de una búsqueda que se envían a la base de datos cuando se ordena por un campo
+     * distinto de la relevancia (funkos.search.max-results). Ordenando por relevancia no hay límite
+     *
+     * @return Número máximo de resultados
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Número de Funkos indexados
+     *
+     * @return Número de Funkos
+     */
+    public int size() {
+        return index.documents.size();
+    }
+
+    /**
+     * Estructuras del índice: listas de apariciones por término y términos por Funko para poder desindexarlo
+     */
+    private static class Index {
+        private final ConcurrentSkipListMap<String, Map<UUID, Integer>> postings = new ConcurrentSkipListMap<>();
+        private final Map<UUID, Set<String>> documents = new ConcurrentHashMap<>();
+
+        /**
+         * Añade un Funko al índice
+         *
+         * @param id       Identificador
+         * @param name     Nombre
+         * @param category Tipo de categoría
+         */
+        private void add(UUID id, String name, String category) {
+            Map<String, Integer> weights = new HashMap<>();
+            TextNormalizer.tokenize(name).forEach(t -> weights.merge(t, NAME_WEIGHT, Integer::sum));
+            TextNormalizer.tokenize(category).forEach(t -> weights.merge(t, CATEGORY_WEIGHT, Integer::sum));
+            weights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, weight));
+            documents.put(id, Set.copyOf(weights.keySet()));
+        }
+
+        /**
+         * Elimina un Funko del índice
+         *
+         * @param id Identificador
+         */
+        private void remove(UUID id) {
+            Set<String> terms = documents.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                postings.computeIfPresent(term, (t, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        /**
+         * Puntúa los Funkos que contienen un término, de forma exacta o como prefijo
+         *
+         * @param term Término normalizado
+         * @return Puntuación por Funko
+         */
+        private Map<UUID, Double> score(String term) {
+            Map<UUID, Double> scores = new HashMap<>();
+            int total = Math.max(documents.size(), 1);
+            postings.subMap(term, true, term + Character.MAX_VALUE, false).forEach((indexed, ids) -> {
+                double idf = Math.log(1 + (double) total / ids.size());
+                double factor = indexed.equals(term) ? 1 : PREFIX_FACTOR;
+                ids.forEach((id, weight) -> scores.merge(id, weight * idf * factor, Math::max));
+            });
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.madirex.funkosspringrest.rest.entities.funko.search;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoSuggestion;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.util.TextNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clase FunkoSuggestIndex
+ * Autocompletado de nombres de Funkos sobre un trie en memoria
+ * Cada nodo tiene precalculadas las mejores sugerencias por stock, de forma que una consulta solo recorre los
+ * caracteres del prefijo sin crear objetos intermedios. Una escritura solo actualiza los nodos de las claves del Funko
+ * modificado, sustituyendo sus arrays por copias (copy-on-write), por lo que las consultas nunca se bloquean. El trie
+ * completo solo se construye al arrancar y tras las operaciones masivas
+ */
+@Slf4j
+@Component
+public class FunkoSuggestIndex {
+    static final String SUGGEST_SQL = "SELECT id, name, quantity FROM funko";
+    static final int MAX_KEY_LENGTH = 64;
+    static final Comparator<FunkoSuggestion> RANKING = Comparator.comparingInt(FunkoSuggestion::quantity).reversed()
+            .thenComparing(FunkoSuggestion::name, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(FunkoSuggestion::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxSuggestions;
+    private final int capacity;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<UUID, FunkoSuggestion> entries = new ConcurrentHashMap<>();
+    private volatile Node root = new Node('\0');
+
+    /**
+     * Constructor FunkoSuggestIndex
+     * Cada nodo guarda el doble de las sugerencias que se sirven, para que un Funko que baja de stock no obligue a
+     * recorrer el subárbol salvo que salga también de esa reserva
+     *
+     * @param jdbcTemplate   JdbcTemplate para la carga inicial
+     * @param maxSuggestions Número máximo de sugerencias por prefijo
+     */
+    @Autowired
+    public FunkoSuggestIndex(JdbcTemplate jdbcTemplate,
+                             @Value("${funkos.suggest.max-results:10}") int maxSuggestions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxSuggestions = maxSuggestions;
+        this.capacity = Math.max(maxSuggestions, 1) * 2;
+    }
+
+    /**
+     * Recarga todos los Funkos desde la base de datos y reconstruye el trie
+     * Las consultas siguen usando el trie anterior hasta que el nuevo está completo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            entries.clear();
+            jdbcTemplate.query(SUGGEST_SQL, rs -> {
+                UUID id = rs.getObject(1, UUID.class);
+                entries.put(id, new FunkoSuggestion(id, rs.getString(2), rs.getInt(3)));
+            });
+            Node rebuilt = new Node('\0');
+            entries.values().stream().sorted(RANKING).forEach(entry -> add(rebuilt, entry));
+            root = rebuilt;
+            log.info("Autocompletado de Funkos construido con " + entries.size() + " Funkos y " + rebuilt.countNodes()
+                    + " nodos");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Actualiza las sugerencias tras una escritura de Funkos, una vez confirmada su transacción
+     * Si el Funko no cambia de nombre ni de stock no se modifica nada; en otro caso solo se actualizan los nodos de sus
+     * claves anteriores y nuevas
+     *
+     * @param event Evento de cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFunkoChange(FunkoChangeEvent event) {
+        writeLock.lock();
+        try {
+            if (event.type() == Notification.Type.BULK || event.funko() == null) {
+                rebuild();
+                return;
+            }
+            GetFunkoDTO funko = event.funko();
+            FunkoSuggestion updated = event.type() == Notification.Type.DELETE ? null
+                    : new FunkoSuggestion(funko.getId(), funko.getName(),
+                    funko.getQuantity() == null ? 0 : funko.getQuantity());
+            FunkoSuggestion previous = updated == null ? entries.remove(funko.getId())
+                    : entries.put(funko.getId(), updated);
+            if (updated != null && updated.equals(previous)) {
+                return;
+            }
+
+            Node current = root;
+            Set<Node> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (previous != null) {
+                touched.addAll(remove(current, previous));
+            }
+            if (updated != null) {
+                touched.addAll(add(current, updated));
+            }
+            if (previous != null) {
+                prune(current, previous);
+            }
+            for (Node node : touched) {
+                if (node.count > 0 && node.top.length < Math.min(node.count, maxSuggestions)) {
+                    refill(node);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene las sugerencias para un prefijo
+     * El prefijo puede coincidir con el inicio del nombre o con el inicio de cualquiera de sus palabras
+     *
+     * @param prefix Prefijo escrito por el usuario
+     * @param limit  Número máximo de sugerencias
+     * @return Sugerencias ordenadas por stock descendente
+     */
+    public List<FunkoSuggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextNormalizer.tokenize(prefix));
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        FunkoSuggestion[] top = node.top;
+        int size = Math.min(top.length, Math.min(limit, maxSuggestions));
+        return Collections.unmodifiableList(Arrays.asList(top).subList(0, size));
+    }
+
+    /**
+     * Número de Funkos indexados
+     *
+     * @return Número de Funkos
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Obtiene las claves de un nombre: el nombre normalizado a partir de cada una de sus palabras
+     *
+     * @param name Nombre
+     * @return Claves, sin repetir y recortadas a MAX_KEY_LENGTH caracteres
+     */
+    private static Set<String> keys(String name) {
+        List<String> tokens = TextNormalizer.tokenize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int word = 0; word < tokens.size(); word++) {
+            String key = String.join(" ", tokens.subList(word, tokens.size()));
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+        return keys;
+    }
+
+    /**
+     * Añade un Funko a los nodos de sus claves, creando los que falten
+     *
+     * @param root  Raíz del trie
+     * @param entry Funko
+     * @return Nodos por los que pasa el Funko
+     */
+    private Set<Node> add(Node root, FunkoSuggestion entry) {
+        Set<Node> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String key : keys(entry.name())) {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                if (path.add(node)) {
+                    node.count++;
+                    node.offer(entry, capacity);
+                }
+            }
+            node.ends.add(entry.id());
+        }
+        return path;
+    }
+
+    /**
+     * Quita un Funko de los nodos de sus claves
+     *
+     * @param root  Raíz del trie
+     * @param entry Funko, con los datos con los que se indexó
+     * @return Nodos por los que pasaba el Funko
+     */
+    private static Set<Node> remove(Node root, FunkoSuggestion entry) {
+        Set<Node> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String key : keys(entry.name())) {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+                if (node != null && path.add(node)) {
+                    node.count--;
+                    node.discard(entry.id());
+                }
+            }
+            if (node != null) {
+                node.ends.remove(entry.id());
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Elimina los nodos de las claves de un Funko por los que ya no pasa ningún otro
+     *
+     * @param root  Raíz del trie
+     * @param entry Funko, con los datos con los que se indexó
+     */
+    private static void prune(Node root, FunkoSuggestion entry) {
+        for (String key : keys(entry.name())) {
+            Node parent = root;
+            for (int i = 0; i < key.length() && parent != null; i++) {
+                Node node = parent.child(key.charAt(i));
+                if (node != null && node.count == 0) {
+                    parent.removeChild(node.label);
+                    break;
+                }
+                parent = node;
+            }
+        }
+    }
+
+    /**
+     * Recalcula las mejores sugerencias de un nodo a partir de todos los Funkos de su subárbol
+     * Solo es necesario cuando un Funko sale de la reserva del nodo y quedan otros que no estaban en ella
+     *
+     * @param node Nodo
+     */
+    private void refill(Node node) {
+        Set<UUID> ids = new HashSet<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Node next = pending.pop();
+            ids.addAll(next.ends);
+            for (Node child : next.children) {
+                pending.push(child);
+            }
+        }
+        node.top = ids.stream()
+                .map(entries::get)
+                .sorted(RANKING)
+                .limit(capacity)
+                .toArray(FunkoSuggestion[]::new);
+    }
+
+    /**
+     * Nodo del trie
+     * Los hijos y las sugerencias son arrays que no se modifican una vez publicados: el escritor, que está
+     * sincronizado, los sustituye por copias y las consultas leen siempre un array completo
+     */
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final FunkoSuggestion[] NO_SUGGESTIONS = new FunkoSuggestion[0];
+
+        private final char label;
+        private volatile Node[] children = NO_CHILDREN;
+        private volatile FunkoSuggestion[] top = NO_SUGGESTIONS;
+        private int count;
+        private final Set<UUID> ends = new HashSet<>();
+
+        /**
+         * Constructor Node
+         *
+         * @param label Carácter del nodo
+         */
+        private Node(char label) {
+            this.label = label;
+        }
+
+        /**
+         * Busca un hijo por su carácter mediante búsqueda binaria
+         *
+         * @param c Carácter
+         * @return Hijo, o null si no existe
+         */
+        private Node child(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            return index >= 0 ? current[index] : null;
+        }
+
+        /**
+         * Obtiene un hijo por su carácter, creándolo si no existe
+         *
+         * @param c Carácter
+         * @return Hijo
+         */
+        private Node childOrCreate(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            if (index >= 0) {
+                return current[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node(c);
+            Node[] copy = new Node[current.length + 1];
+            System.arraycopy(current, 0, copy, 0, insertAt);
+            copy[insertAt] = child;
+            System.arraycopy(current, insertAt, copy, insertAt + 1, current.length - insertAt);
+            children = copy;
+            return child;
+        }
+
+        /**
+         * Elimina un hijo por su carácter
+         *
+         * @param c Carácter
+         */
+        private void removeChild(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            if (index < 0) {
+                return;
+            }
+            Node[] copy = new Node[current.length - 1];
+            System.arraycopy(current, 0, copy, 0, index);
+            System.arraycopy(current, index + 1, copy, index, current.length - index - 1);
+            children = copy;
+        }
+
+        /**
+         * Añade un Funko a las sugerencias del nodo si le corresponde
+         * Si las sugerencias no incluyen a todos los Funkos del nodo, solo entra si mejora a la última
+         *
+         * @param entry    Funko, ya contado en el nodo
+         * @param capacity Número máximo de sugerencias del nodo
+         */
+        private void offer(FunkoSuggestion entry, int capacity) {
+            FunkoSuggestion[] current = top;
+            int position = -Arrays.binarySearch(current, entry, RANKING) - 1;
+            boolean complete = current.length == count - 1;
+            if (position < 0 || (!complete && position == current.length) || position >= capacity) {
+                return;
+            }
+            int size = Math.min(current.length + 1, capacity);
+            FunkoSuggestion[] copy = new FunkoSuggestion[size];
+            System.arraycopy(current, 0, copy, 0, position);
+            copy[position] = entry;
+            System.arraycopy(current, position, copy, position + 1, size - position - 1);
+            top = copy;
+        }
+
+        /**
+         * Quita un Funko de las sugerencias del nodo si está en ellas
+         *
+         * @param id Identificador del Funko
+         */
+        private void discard(UUID id) {
+            FunkoSuggestion[] current = top;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i].id().equals(id)) {
+                    FunkoSuggestion[] copy = new FunkoSuggestion[current.length - 1];
+                    System.arraycopy(current, 0, copy, 0, i);
+                    System.arraycopy(current, i + 1, copy, i, current.length - i - 1);
+                    top = copy;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Número de nodos del subárbol, incluido este
+         *
+         * @return Número de nodos
+         */
+        private int countNodes() {
+            int nodes = 1;
+            for (Node child : children) {
+                nodes += child.countNodes();
+            }
+            return nodes;
+        }
+
+        /**
+         * Posición de un carácter en un array de hijos ordenado
+         *
+         * @param nodes Hijos
+         * @param c     Carácter
+         * @return Posición, o (-(punto de inserción) - 1) si no está
+         */
+        private static int indexOf(Node[] nodes, char c) {
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (nodes[mid].label < c) {
+                    low = mid + 1;
+                } else if (nodes[mid].label > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.madirex.funkosspringrest.rest.entities.funko.services;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.BulkPatchFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoBulkPatchResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoImportResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoStockSyncResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoBulkNotValidException;
+import com.madirex.funkosspringrest.util.RecordReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Interface FunkoBulkService
+ */
+public interface FunkoBulkService {
+
+    /**
+     * Importa Funkos de forma masiva a partir de una entrada NDJSON o CSV
+     *
+     * @param input  Entrada con los registros
+     * @param format Formato de la entrada
+     * @return Resumen de la importación con los errores por registro
+     * @throws IOException Si no se ha podido leer la entrada
+     */
+    FunkoImportResponse importFunkos(InputStream input, RecordReader.Format format) throws IOException;
+
+    /**
+     * Aplica una actualización masiva de Funkos, ya sea una lista de actualizaciones parciales o una regla
+     *
+     * @param patch Actualización masiva
+     * @return Resumen de la actualización con el resultado por Funko
+     * @throws FunkoBulkNotValidException Si la actualización masiva no es válida
+     */
+    FunkoBulkPatchResponse patchFunkos(BulkPatchFunkoDTO patch) throws FunkoBulkNotValidException;
+
+    /**
+     * Sincroniza el stock con una instantánea del almacén, aplicando solo los cambios
+     *
+     * @param input  Entrada con los pares (id, quantity)
+     * @param format Formato de la entrada
+     * @return Informe de la conciliación
+     * @throws IOException Si no se ha podido leer la entrada
+     */
+    FunkoStockSyncResponse syncStock(InputStream input, RecordReader.Format format) throws IOException;
+}
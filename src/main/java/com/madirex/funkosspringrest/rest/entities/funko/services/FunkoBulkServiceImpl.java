@@ -0,0 +1,623 @@
+package com.madirex.funkosspringrest.rest.entities.funko.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madirex.funkosspringrest.rest.cache.SecondLevelCache;
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.category.services.CategoryServiceImpl;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.*;
+import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoBulkNotValidException;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoSpecifications;
+import com.madirex.funkosspringrest.util.RecordReader;
+import com.madirex.funkosspringrest.util.UuidV7;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Clase FunkoBulkServiceImpl
+ * Realiza las operaciones masivas sobre Funkos mediante lotes JDBC en transacciones por bloques
+ */
+@Slf4j
+@Service
+@CacheConfig(cacheNames = FunkoBulkServiceImpl.FUNKOS_CACHE)
+public class FunkoBulkServiceImpl implements FunkoBulkService {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    static final String INSERT_SQL = "INSERT INTO funko (id, name, price, quantity, image, category_id, created_at, " +
+            "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String PATCH_SQL = "UPDATE funko SET name = COALESCE(?, name), price = COALESCE(?, price), " +
+            "quantity = COALESCE(?, quantity), image = COALESCE(?, image), category_id = COALESCE(?, category_id), " +
+            "updated_at = ? WHERE id = ?";
+    static final String PRICE_RULE_SQL = "UPDATE funko SET price = CAST(ROUND(CAST(price * ? AS NUMERIC), 2) AS " +
+            "DOUBLE PRECISION), updated_at = ? WHERE id IN (%s)";
+    static final String STOCK_SNAPSHOT_SQL = "SELECT id, quantity FROM funko";
+    static final String STOCK_DELTA_SQL = "UPDATE funko SET quantity = quantity + ?, updated_at = ? WHERE id = ? " +
+            "AND quantity + ? >= 0";
+    static final String FUNKOS_CACHE = "funkos";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final CategoryServiceImpl categoryService;
+    private final FunkoServiceImpl funkoService;
+    private final Validator validator;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final SecondLevelCache secondLevelCache;
+    private final ObjectMapper mapper;
+    private final int chunkSize;
+
+    /**
+     * Constructor FunkoBulkServiceImpl
+     *
+     * @param jdbcTemplate       JdbcTemplate
+     * @param transactionManager Gestor de transacciones
+     * @param entityManager      EntityManager
+     * @param categoryService    Servicio de categorías, con el registro de categorías en memoria
+     * @param funkoService       FunkoServiceImpl para las notificaciones
+     * @param validator          Validador de los registros
+     * @param cacheManager       Gestor de cachés, si está disponible
+     * @param secondLevelCache   Caché de segundo nivel de Hibernate
+     * @param chunkSize          Número de registros por lote y transacción
+     */
+    @Autowired
+    public FunkoBulkServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                EntityManager entityManager, CategoryServiceImpl categoryService,
+                                FunkoServiceImpl funkoService, Validator validator,
+                                ObjectProvider<CacheManager> cacheManager, SecondLevelCache secondLevelCache,
+                                @Value("${funkos.bulk.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.categoryService = categoryService;
+        this.funkoService = funkoService;
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.secondLevelCache = secondLevelCache;
+        this.chunkSize = chunkSize;
+        this.mapper = new ObjectMapper();
+    }
+
+    /**
+     * Importa Funkos de forma masiva a partir de una entrada NDJSON o CSV
+     * Las categorías se resuelven una única vez, cada registro se valida de forma independiente y los válidos
+     * se insertan en lotes JDBC, cada uno en su propia transacción
+     *
+     * @param input  Entrada con los registros
+     * @param format Formato de la entrada
+     * @return Resumen de la importación con los errores por registro
+     * @throws IOException Si no se ha podido leer la entrada
+     */
+    @CacheEvict(allEntries = true)
+    @Override
+    public FunkoImportResponse importFunkos(InputStream input, RecordReader.Format format) throws IOException {
+        log.info("Iniciando importación masiva de Funkos en formato " + format);
+        Map<Long, Category> categories = categoryService.getCategoriesById();
+        ImportProgress progress = new ImportProgress();
+        List<Object[]> batch = new ArrayList<>(chunkSize);
+        List<Long> batchLines = new ArrayList<>(chunkSize);
+
+        try (RecordReader reader = new RecordReader(input, format, mapper)) {
+            RecordReader.Row row;
+            while ((row = reader.next()) != null) {
+                progress.total++;
+                if (row.error() != null) {
+                    progress.fail(row.line(), row.error());
+                    continue;
+                }
+                try {
+                    batch.add(toInsertParams(row.values(), categories));
+                    batchLines.add(row.line());
+                } catch (IllegalArgumentException e) {
+                    progress.fail(row.line(), e.getMessage());
+                }
+                if (batch.size() >= chunkSize) {
+                    flush(batch, batchLines, progress);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, batchLines, progress);
+        }
+
+        log.info("Importación masiva de Funkos finalizada: " + progress.total + " registros, " + progress.imported
+                + " importados, " + progress.failed + " con error");
+        if (progress.imported > 0) {
+            notifyBulk("IMPORT", progress.imported, progress.failed);
+        }
+        return new FunkoImportResponse(progress.total, progress.imported, progress.failed, progress.errors);
+    }
+
+    /**
+     * Inserta un lote de registros en una única transacción
+     * Si el lote falla, se marcan como erróneos todos sus registros y se continúa con el siguiente
+     *
+     * @param batch    Parámetros de los registros del lote
+     * @param lines    Líneas de entrada de los registros del lote
+     * @param progress Progreso de la importación
+     */
+    private void flush(List<Object[]> batch, List<Long> lines, ImportProgress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch));
+            progress.imported += batch.size();
+        } catch (DataAccessException e) {
+            log.error("Error al insertar un lote de " + batch.size() + " Funkos", e);
+            String message = "Error al insertar el lote: " + e.getMostSpecificCause().getMessage();
+            lines.forEach(line -> progress.fail(line, message));
+        }
+        log.info("Progreso de la importación de Funkos: " + progress.total + " registros procesados, "
+                + progress.imported + " importados, " + progress.failed + " con error");
+        batch.clear();
+        lines.clear();
+    }
+
+    /**
+     * Valida un registro y obtiene los parámetros de inserción
+     *
+     * @param values     Valores del registro
+     * @param categories Categorías existentes por ID
+     * @return Parámetros de la sentencia de inserción
+     * @throws IllegalArgumentException Si el registro no es válido
+     */
+    private Object[] toInsertParams(Map<String, String> values, Map<Long, Category> categories) {
+        String image = values.get("image");
+        CreateFunkoDTO dto = CreateFunkoDTO.builder()
+                .name(values.get("name"))
+                .price(parse(values, "price", Double::valueOf))
+                .quantity(parse(values, "quantity", Integer::valueOf))
+                .image(image == null ? Funko.IMAGE_DEFAULT : image)
+                .categoryId(parse(values, "categoryId", Long::valueOf))
+                .build();
+        var violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        Category category = categories.get(dto.getCategoryId());
+        if (category == null) {
+            throw new IllegalArgumentException("Categoría no encontrada - " + dto.getCategoryId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return new Object[]{UuidV7.randomUUID(), dto.getName(), dto.getPrice(), dto.getQuantity(), dto.getImage(),
+                category.getId(), now, now};
+    }
+
+    /**
+     * Interpreta un campo numérico de un registro
+     *
+     * @param values Valores del registro
+     * @param field  Nombre del campo
+     * @param parser Función de conversión
+     * @param <T>    Tipo del campo
+     * @return Valor convertido o null si no está presente
+     * @throws IllegalArgumentException Si el valor no tiene un formato válido
+     */
+    private static <T> T parse(Map<String, String> values, String field, Function<String, T> parser) {
+        String value = values.get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo " + field + " no tiene un formato numérico válido: " + value);
+        }
+    }
+
+    /**
+     * Aplica una actualización masiva de Funkos, ya sea una lista de actualizaciones parciales o una regla
+     * Los cambios se aplican con sentencias UPDATE por bloques, cada uno en su propia transacción. La caché se
+     * invalida tras cada bloque y la notificación se envía una única vez al terminar la operación
+     *
+     * @param patch Actualización masiva
+     * @return Resumen de la actualización con el resultado por Funko
+     * @throws FunkoBulkNotValidException Si no se indica exactamente una lista de actualizaciones o una regla
+     */
+    @Override
+    public FunkoBulkPatchResponse patchFunkos(BulkPatchFunkoDTO patch) throws FunkoBulkNotValidException {
+        boolean hasItems = patch.getItems() != null && !patch.getItems().isEmpty();
+        if (hasItems == (patch.getRule() != null)) {
+            throw new FunkoBulkNotValidException("Se debe indicar una lista de actualizaciones o una regla");
+        }
+        return hasItems ? patchItems(patch.getItems()) : patchRule(patch.getRule());
+    }
+
+    /**
+     * Aplica una lista de actualizaciones parciales mediante lotes JDBC
+     *
+     * @param items Actualizaciones parciales
+     * @return Resumen de la actualización
+     */
+    private FunkoBulkPatchResponse patchItems(List<FunkoPatchItemDTO> items) {
+        log.info("Aplicando actualización masiva de " + items.size() + " Funkos");
+        Map<Long, Category> categories = categoryService.getCategoriesById();
+        List<FunkoPatchResult> results = new ArrayList<>(items.size());
+        List<Object[]> batch = new ArrayList<>(chunkSize);
+        List<String> batchIds = new ArrayList<>(chunkSize);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (FunkoPatchItemDTO item : items) {
+            try {
+                batch.add(toPatchParams(item, categories, now));
+                batchIds.add(item.getId());
+            } catch (IllegalArgumentException e) {
+                results.add(new FunkoPatchResult(item.getId(), FunkoPatchResult.Status.INVALID, e.getMessage()));
+            }
+            if (batch.size() >= chunkSize) {
+                flushPatch(batch, batchIds, results);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushPatch(batch, batchIds, results);
+        }
+
+        long updated = results.stream().filter(r -> r.status() == FunkoPatchResult.Status.UPDATED).count();
+        log.info("Actualización masiva de Funkos finalizada: " + updated + " actualizados, "
+                + (results.size() - updated) + " sin aplicar");
+        if (updated > 0) {
+            notifyBulk("PATCH", updated, results.size() - updated);
+        }
+        return new FunkoBulkPatchResponse(updated, results.size() - updated, results);
+    }
+
+    /**
+     * Aplica un lote de actualizaciones parciales en una única transacción
+     *
+     * @param batch   Parámetros de las actualizaciones del lote
+     * @param ids     Identificadores de los Funkos del lote
+     * @param results Resultados por Funko
+     */
+    private void flushPatch(List<Object[]> batch, List<String> ids, List<FunkoPatchResult> results) {
+        long updated = 0;
+        try {
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(PATCH_SQL, batch));
+            for (int i = 0; i < ids.size(); i++) {
+                int count = counts == null ? Statement.SUCCESS_NO_INFO : counts[i];
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    results.add(new FunkoPatchResult(ids.get(i), FunkoPatchResult.Status.UPDATED, null));
+                    updated++;
+                } else {
+                    results.add(new FunkoPatchResult(ids.get(i), FunkoPatchResult.Status.NOT_FOUND,
+                            FunkoServiceImpl.FUNKO_NOT_FOUND_MSG));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("Error al actualizar un lote de " + batch.size() + " Funkos", e);
+            String message = "Error al actualizar el lote: " + e.getMostSpecificCause().getMessage();
+            ids.forEach(id -> results.add(new FunkoPatchResult(id, FunkoPatchResult.Status.FAILED, message)));
+        }
+        afterChunk(updated);
+        batch.clear();
+        ids.clear();
+    }
+
+    /**
+     * Valida una actualización parcial y obtiene los parámetros de la sentencia
+     *
+     * @param item       Actualización parcial
+     * @param categories Categorías existentes por ID
+     * @param now        Fecha de actualización
+     * @return Parámetros de la sentencia de actualización
+     * @throws IllegalArgumentException Si la actualización no es válida
+     */
+    private Object[] toPatchParams(FunkoPatchItemDTO item, Map<Long, Category> categories, LocalDateTime now) {
+        var violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        UUID id = parseId(item.getId());
+        if (item.getCategoryId() != null && !categories.containsKey(item.getCategoryId())) {
+            throw new IllegalArgumentException("Categoría no encontrada - " + item.getCategoryId());
+        }
+        return new Object[]{item.getName(), item.getPrice(), item.getQuantity(), item.getImage(),
+                item.getCategoryId(), now, id};
+    }
+
+    /**
+     * Aplica una regla de precios sobre los Funkos que cumplen su filtro
+     * Se obtienen solo los identificadores afectados y se actualizan por bloques con una sentencia UPDATE cada uno
+     *
+     * @param rule Regla de actualización
+     * @return Resumen de la actualización
+     */
+    private FunkoBulkPatchResponse patchRule(FunkoPatchRuleDTO rule) {
+        var violations = validator.validate(rule);
+        if (!violations.isEmpty()) {
+            throw new FunkoBulkNotValidException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        List<UUID> ids = findIds(rule.toFilter());
+        log.info("Aplicando regla de precio x" + rule.getPriceFactor() + " sobre " + ids.size() + " Funkos");
+        long updated = 0;
+        long failed = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            String sql = String.format(PRICE_RULE_SQL, String.join(", ", Collections.nCopies(chunk.size(), "?")));
+            List<Object> params = new ArrayList<>(chunk.size() + 2);
+            params.add(rule.getPriceFactor());
+            params.add(now);
+            params.addAll(chunk);
+            long chunkUpdated = 0;
+            try {
+                Integer count = transactionTemplate.execute(status -> jdbcTemplate.update(sql, params.toArray()));
+                chunkUpdated = count == null ? 0 : count;
+            } catch (DataAccessException e) {
+                log.error("Error al aplicar la regla de precio a un bloque de " + chunk.size() + " Funkos", e);
+                failed += chunk.size();
+            }
+            updated += chunkUpdated;
+            afterChunk(chunkUpdated);
+        }
+        log.info("Regla de precio aplicada: " + updated + " Funkos actualizados, " + failed + " con error");
+        if (updated > 0) {
+            notifyBulk("PATCH", updated, failed);
+        }
+        return new FunkoBulkPatchResponse(updated, failed, List.of());
+    }
+
+    /**
+     * Obtiene los identificadores de los Funkos que cumplen un filtro, sin cargar las entidades
+     *
+     * @param filter Filtro
+     * @return Identificadores
+     */
+    private List<UUID> findIds(FunkoFilter filter) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        Root<Funko> root = query.from(Funko.class);
+        query.select(root.get("id"));
+        Predicate predicate = FunkoSpecifications.of(filter).toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Sincroniza el stock con una instantánea del almacén en formato NDJSON o CSV con pares (id, quantity)
+     * La instantánea se compara en memoria con el stock actual y solo se aplican los cambios, como incrementos
+     * condicionales por lotes, de forma que las reservas de pedidos realizadas durante la sincronización se respetan
+     *
+     * @param input  Entrada con los registros
+     * @param format Formato de la entrada
+     * @return Informe de la conciliación
+     * @throws IOException Si no se ha podido leer la entrada
+     */
+    @Override
+    public FunkoStockSyncResponse syncStock(InputStream input, RecordReader.Format format) throws IOException {
+        log.info("Iniciando sincronización de stock en formato " + format);
+        Map<UUID, Integer> stock = new HashMap<>();
+        jdbcTemplate.query(STOCK_SNAPSHOT_SQL, rs -> {
+            stock.put(rs.getObject(1, UUID.class), rs.getInt(2));
+        });
+        StockSyncProgress progress = new StockSyncProgress();
+        List<Object[]> batch = new ArrayList<>(chunkSize);
+        List<Long> batchLines = new ArrayList<>(chunkSize);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (RecordReader reader = new RecordReader(input, format, mapper)) {
+            RecordReader.Row row;
+            while ((row = reader.next()) != null) {
+                progress.total++;
+                if (row.error() != null) {
+                    progress.invalid++;
+                    progress.report(row.line(), row.error());
+                    continue;
+                }
+                UUID id;
+                Integer quantity;
+                try {
+                    id = parseId(row.values().get("id"));
+                    quantity = parse(row.values(), "quantity", Integer::valueOf);
+                    if (quantity == null || quantity < 0) {
+                        throw new IllegalArgumentException("La cantidad no puede estar en negativo ni vacía");
+                    }
+                } catch (IllegalArgumentException e) {
+                    progress.invalid++;
+                    progress.report(row.line(), e.getMessage());
+                    continue;
+                }
+                Integer current = stock.get(id);
+                if (current == null) {
+                    progress.unknown++;
+                    progress.report(row.line(), FunkoServiceImpl.FUNKO_NOT_FOUND_MSG + ": " + id);
+                } else if (current.equals(quantity)) {
+                    progress.unchanged++;
+                } else {
+                    int delta = quantity - current;
+                    stock.put(id, quantity);
+                    batch.add(new Object[]{delta, now, id, delta});
+                    batchLines.add(row.line());
+                    if (batch.size() >= chunkSize) {
+                        flushStock(batch, batchLines, progress);
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushStock(batch, batchLines, progress);
+        }
+
+        log.info("Sincronización de stock finalizada: " + progress.total + " registros, " + progress.updated
+                + " actualizados, " + progress.unchanged + " sin cambios, " + progress.unknown + " desconocidos, "
+                + progress.conflicts + " en conflicto, " + progress.invalid + " no válidos");
+        if (progress.updated > 0) {
+            notifyBulk("STOCK_SYNC", progress.updated, progress.conflicts);
+        }
+        return new FunkoStockSyncResponse(progress.total, progress.updated, progress.unchanged, progress.unknown,
+                progress.conflicts, progress.invalid, progress.errors);
+    }
+
+    /**
+     * Aplica un lote de incrementos de stock en una única transacción
+     * Un incremento que dejaría el stock en negativo, por reservas realizadas tras leer la instantánea, no se aplica
+     * y se informa como conflicto
+     *
+     * @param batch    Parámetros de los incrementos del lote
+     * @param lines    Líneas de entrada de los incrementos del lote
+     * @param progress Progreso de la sincronización
+     */
+    private void flushStock(List<Object[]> batch, List<Long> lines, StockSyncProgress progress) {
+        long updated = 0;
+        try {
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(STOCK_DELTA_SQL, batch));
+            for (int i = 0; i < lines.size(); i++) {
+                int count = counts == null ? Statement.SUCCESS_NO_INFO : counts[i];
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                } else {
+                    progress.conflicts++;
+                    progress.report(lines.get(i), "El stock reservado por pedidos en curso supera el nuevo stock");
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("Error al actualizar el stock de un lote de " + batch.size() + " Funkos", e);
+            String message = "Error al actualizar el lote: " + e.getMostSpecificCause().getMessage();
+            progress.conflicts += lines.size();
+            lines.forEach(line -> progress.report(line, message));
+        }
+        progress.updated += updated;
+        log.info("Progreso de la sincronización de stock: " + progress.total + " registros procesados, "
+                + progress.updated + " actualizados");
+        afterChunk(updated);
+        batch.clear();
+        lines.clear();
+    }
+
+    /**
+     * Invalida las cachés de Funkos tras un bloque ya confirmado
+     * Los lotes JDBC no pasan por Hibernate, así que la región de Funkos de la caché de segundo nivel se invalida aquí.
+     * Los índices en memoria no se reconstruyen por bloque, sino una única vez con la notificación final de la operación
+     *
+     * @param affected Número de Funkos afectados en el bloque
+     */
+    private void afterChunk(long affected) {
+        if (affected == 0) {
+            return;
+        }
+        cacheManager.ifAvailable(manager -> Optional.ofNullable(manager.getCache(FUNKOS_CACHE))
+                .ifPresent(Cache::clear));
+        secondLevelCache.evict(Funko.class);
+    }
+
+    /**
+     * Interpreta el identificador de un Funko
+     *
+     * @param value Valor del identificador
+     * @return UUID
+     * @throws IllegalArgumentException Si el identificador está vacío o no tiene un formato válido
+     */
+    private static UUID parseId(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("El identificador no puede estar vacío");
+        }
+        try {
+            return UUID.fromString(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(FunkoServiceImpl.NOT_VALID_FORMAT_UUID_MSG);
+        }
+    }
+
+    /**
+     * Envía una única notificación resumen de la operación masiva, cuando todos sus bloques ya están confirmados
+     *
+     * @param operation Operación realizada
+     * @param affected  Número de Funkos afectados
+     * @param failed    Número de registros con error
+     */
+    private void notifyBulk(String operation, long affected, long failed) {
+        try {
+            funkoService.onBulkChange(new FunkoBulkNotificationResponse(operation, affected, failed));
+        } catch (JsonProcessingException e) {
+            log.warn("No se ha podido enviar la notificación de la operación masiva " + operation, e);
+        }
+    }
+
+    /**
+     * Progreso de una importación
+     */
+    private static class ImportProgress {
+        private long total = 0;
+        private long imported = 0;
+        private long failed = 0;
+        private final List<FunkoImportError> errors = new ArrayList<>();
+
+        /**
+         * Registra un registro erróneo
+         *
+         * @param line    Línea de la entrada
+         * @param message Mensaje de error
+         */
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new FunkoImportError(line, message));
+            }
+        }
+    }
+
+    /**
+     * Progreso de una sincronización de stock
+     */
+    private static class StockSyncProgress {
+        private long total = 0;
+        private long updated = 0;
+        private long unchanged = 0;
+        private long unknown = 0;
+        private long conflicts = 0;
+        private long invalid = 0;
+        private final List<FunkoImportError> errors = new ArrayList<>();
+
+        /**
+         * Registra el detalle de un registro no aplicado
+         *
+         * @param line    Línea de la entrada
+         * @param message Mensaje
+         */
+        private void report(long line, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new FunkoImportError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.madirex.funkosspringrest.rest.entities.funko.services;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.util.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interface FunkoExportService
+ */
+public interface FunkoExportService {
+
+    /**
+     * Exporta todos los Funkos que cumplen el filtro escribiéndolos directamente en la salida
+     *
+     * @param filter Filtro de búsqueda
+     * @param format Formato de exportación
+     * @param output Salida
+     * @return Número de Funkos exportados
+     * @throws IOException Si no se ha podido escribir en la salida
+     */
+    long exportFunkos(FunkoFilter filter, ExportFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,253 @@
+package com.madirex.funkosspringrest.rest.entities.funko.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.mappers.FunkoMapperImpl;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoSpecifications;
+import com.madirex.funkosspringrest.util.ExportFormat;
+import com.madirex.funkosspringrest.util.StreamingXmlWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Clase FunkoExportServiceImpl
+ * Exporta el catálogo leyendo los Funkos desde un cursor de solo avance y escribiéndolos uno a uno en la salida,
+ * de forma que la memoria utilizada no depende del tamaño del catálogo
+ */
+@Slf4j
+@Service
+public class FunkoExportServiceImpl implements FunkoExportService {
+
+    static final String CSV_HEADER = "id,name,price,quantity,image,category,createdAt,updatedAt";
+
+    private final EntityManager entityManager;
+    private final FunkoMapperImpl funkoMapperImpl;
+    private final ObjectMapper jsonMapper;
+    private final StreamingXmlWriter streamingXmlWriter;
+    private final int fetchSize;
+
+    /**
+     * Constructor FunkoExportServiceImpl
+     *
+     * @param entityManager      EntityManager
+     * @param funkoMapperImpl    FunkoMapper
+     * @param objectMapperBuilder Builder de los ObjectMapper de la aplicación
+     * @param fetchSize          Número de filas que se leen del cursor en cada viaje a la base de datos
+     */
+    @Autowired
+    public FunkoExportServiceImpl(EntityManager entityManager, FunkoMapperImpl funkoMapperImpl,
+                                  Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                  @Value("${funkos.export.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.funkoMapperImpl = funkoMapperImpl;
+        this.jsonMapper = objectMapperBuilder.build();
+        this.streamingXmlWriter = new StreamingXmlWriter(jsonMapper, objectMapperBuilder.createXmlMapper(true).build());
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Exporta todos los Funkos que cumplen el filtro escribiéndolos directamente en la salida
+     *
+     * @param filter Filtro de búsqueda
+     * @param format Formato de exportación
+     * @param output Salida
+     * @return Número de Funkos exportados
+     * @throws IOException Si no se ha podido escribir en la salida
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public long exportFunkos(FunkoFilter filter, ExportFormat format, OutputStream output) throws IOException {
+        log.info("Exportando Funkos en formato " + format + " con filtro " + filter);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Funko> query = criteriaBuilder.createQuery(Funko.class);
+        Root<Funko> root = query.from(Funko.class);
+        root.fetch("category", JoinType.LEFT);
+        Predicate predicate = FunkoSpecifications.of(filter).toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        long count = 0;
+        FunkoWriter writer = createWriter(format, output);
+        try (Stream<Funko> stream = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Funko> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Funko funko = iterator.next();
+                writer.write(funkoMapperImpl.toGetFunkoDTO(funko));
+                entityManager.detach(funko);
+                count++;
+            }
+        }
+        writer.finish();
+        log.info("Exportación de Funkos finalizada: " + count + " Funkos exportados");
+        return count;
+    }
+
+    /**
+     * Crea el escritor correspondiente al formato de exportación
+     *
+     * @param format Formato de exportación
+     * @param output Salida
+     * @return Escritor
+     * @throws IOException Si no se ha podido inicializar la salida
+     */
+    private FunkoWriter createWriter(ExportFormat format, OutputStream output) throws IOException {
+        return switch (format) {
+            case JSON -> sequenceWriter(jsonWriter().writeValuesAsArray(output));
+            case NDJSON -> sequenceWriter(jsonWriter().withRootValueSeparator("\n").writeValues(output));
+            case CSV -> csvWriter(output);
+            case XML -> xmlWriter(output);
+        };
+    }
+
+    /**
+     * ObjectWriter JSON que no cierra la salida al terminar
+     *
+     * @return ObjectWriter
+     */
+    private ObjectWriter jsonWriter() {
+        return jsonMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Escritor JSON o NDJSON
+     *
+     * @param sequence SequenceWriter de Jackson
+     * @return Escritor
+     */
+    private static FunkoWriter sequenceWriter(SequenceWriter sequence) {
+        return new FunkoWriter() {
+            @Override
+            public void write(GetFunkoDTO funko) throws IOException {
+                sequence.write(funko);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                sequence.close();
+            }
+        };
+    }
+
+    /**
+     * Escritor CSV con cabecera
+     *
+     * @param output Salida
+     * @return Escritor
+     * @throws IOException Si no se ha podido escribir la cabecera
+     */
+    private static FunkoWriter csvWriter(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        return new FunkoWriter() {
+            @Override
+            public void write(GetFunkoDTO funko) throws IOException {
+                writer.write(String.join(",",
+                        csv(funko.getId()),
+                        csv(funko.getName()),
+                        csv(funko.getPrice()),
+                        csv(funko.getQuantity()),
+                        csv(funko.getImage()),
+                        csv(funko.getCategory() == null ? null : funko.getCategory().getType()),
+                        csv(funko.getCreatedAt()),
+                        csv(funko.getUpdatedAt())));
+                writer.write('\n');
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    /**
+     * Escapa un valor para CSV
+     *
+     * @param value Valor
+     * @return Valor escapado
+     */
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    /**
+     * Escritor XML sobre StAX que escribe cada Funko como un elemento del documento
+     *
+     * @param output Salida
+     * @return Escritor
+     * @throws IOException Si no se ha podido iniciar el documento
+     */
+    private FunkoWriter xmlWriter(OutputStream output) throws IOException {
+        StreamingXmlWriter.Document document = streamingXmlWriter.open(output, true);
+        document.startElement("funkos");
+        return new FunkoWriter() {
+            @Override
+            public void write(GetFunkoDTO funko) throws IOException {
+                document.write("funko", funko);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                document.finish();
+            }
+        };
+    }
+
+    /**
+     * Escritor de Funkos en un formato de exportación
+     */
+    private interface FunkoWriter {
+        /**
+         * Escribe un Funko
+         *
+         * @param funko Funko
+         * @throws IOException Si no se ha podido escribir
+         */
+        void write(GetFunkoDTO funko) throws IOException;
+
+        /**
+         * Finaliza el documento y vacía la salida sin cerrarla
+         *
+         * @throws IOException Si no se ha podido escribir
+         */
+        void finish() throws IOException;
+    }
+}
@@ -3,6 +3,7 @@ package com.madirex.funkosspringrest.rest.entities.funko.services;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.madirex.funkosspringrest.rest.entities.category.exceptions.CategoryNotFoundException;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.CreateFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.PatchFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.UpdateFunkoDTO;
@@ -13,7 +14,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Optional;
 
 /**
  * Interface FunkoService
@@ -22,14 +22,11 @@ public interface FunkoService {
     /**
      * Obtiene todos los Funkos
      *
-     * @param category    Categoría por la que filtrar
-     * @param maxPrice    Precio máximo por el que filtrar
-     * @param maxQuantity Cantidad máxima por la que filtrar
-     * @param pageable    Paginación
+     * @param filter   Filtros de búsqueda
+     * @param pageable Paginación
      * @return Lista de Funkos
      */
-    Page<GetFunkoDTO> getAllFunko(Optional<String> category, Optional<Double> maxPrice,
-                                  Optional<Integer> maxQuantity, Pageable pageable);
+    Page<GetFunkoDTO> getAllFunko(FunkoFilter filter, Pageable pageable);
 
     /**
      * Obtiene un Funko por su UUID
@@ -13,20 +13,30 @@ import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotValid
 import com.madirex.funkosspringrest.rest.entities.funko.mappers.FunkoMapperImpl;
 import com.madirex.funkosspringrest.rest.entities.funko.mappers.FunkoNotificationMapper;
 import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
 import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
 import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoSpecifications;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoCatalogSnapshot;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoFacetIndex;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSearchIndex;
 import com.madirex.funkosspringrest.storage.services.StorageService;
 import com.madirex.funkosspringrest.util.Util;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -37,8 +47,11 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Clase FunkoServiceImpl
@@ -50,6 +63,7 @@ public class FunkoServiceImpl implements FunkoService {
 
     public static final String FUNKO_NOT_FOUND_MSG = "No se ha encontrado el Funko con el UUID indicado";
     public static final String NOT_VALID_FORMAT_UUID_MSG = "El UUID no tiene un formato válido";
+    public static final String RELEVANCE_SORT = "relevance";
 
     private final FunkoRepository funkoRepository;
     private final FunkoMapperImpl funkoMapperImpl;
@@ -60,7 +74,11 @@ public class FunkoServiceImpl implements FunkoService {
     private final CategoryService categoryService;
     private final ObjectMapper mapper;
     private final FunkoNotificationMapper funkoNotificationMapper;
-
+    private final FunkoSearchIndex searchIndex;
+    private final FunkoFacetIndex facetIndex;
+    private final FunkoCatalogSnapshot catalogSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
 
     /**
      * Constructor FunkoServiceImpl
@@ -71,10 +89,19 @@ public class FunkoServiceImpl implements FunkoService {
      * @param storageService          StorageService
      * @param categoryService         CategoryService
      * @param funkoNotificationMapper FunkoNotificationMapper
+     * @param searchIndex             Índice de búsqueda de texto
+     * @param facetIndex              Índice de facetas, para filtrar en memoria los resultados de una búsqueda
+     * @param catalogSnapshot         Instantánea en memoria del catálogo
+     * @param eventPublisher          Publicador de eventos de cambio
+     * @param taskExecutor            Ejecutor de tareas de la aplicación, para enviar las notificaciones ws
      */
     @Autowired
     public FunkoServiceImpl(FunkoRepository funkoRepository, FunkoMapperImpl funkoMapperImpl,
-                            WebSocketConfig webSocketConfig, StorageService storageService, CategoryService categoryService, FunkoNotificationMapper funkoNotificationMapper) {
+                            WebSocketConfig webSocketConfig, StorageService storageService, CategoryService categoryService, FunkoNotificationMapper funkoNotificationMapper,
+                            FunkoSearchIndex searchIndex, FunkoFacetIndex facetIndex,
+                            FunkoCatalogSnapshot catalogSnapshot, ApplicationEventPublisher eventPublisher,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                            TaskExecutor taskExecutor) {
         this.funkoRepository = funkoRepository;
         this.funkoMapperImpl = funkoMapperImpl;
         this.webSocketConfig = webSocketConfig;
@@ -82,49 +109,77 @@ public class FunkoServiceImpl implements FunkoService {
         this.storageService = storageService;
         this.categoryService = categoryService;
         this.funkoNotificationMapper = funkoNotificationMapper;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.catalogSnapshot = catalogSnapshot;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
         this.mapper = new ObjectMapper();
     }
 
     /**
      * Obtiene todos los Funkos
+     * Si se indica un texto de búsqueda, se resuelve con el índice invertido y el resto de filtros se aplican en memoria
+     * con el índice de facetas. Al ordenar por relevancia la página se obtiene del ranking completo y solo se cargan
+     * los Funkos de esa página; al ordenar por otro campo, la ordenación se hace en la base de datos sobre los
+     * funkos.search.max-results resultados más relevantes. Si la instantánea del catálogo está activada y admite la
+     * consulta, se resuelve en memoria sin acceder a la base de datos
      *
-     * @param category    Categoría por la que filtrar
-     * @param maxPrice    Precio máximo por el que filtrar
-     * @param maxQuantity Cantidad máxima por la que filtrar
-     * @param pageable    Paginación
+     * @param filter   Filtros de búsqueda
+     * @param pageable Paginación
      * @return Lista de Funkos
      */
     @Cacheable
     @Override
-    public Page<GetFunkoDTO> getAllFunko(Optional<String> category, Optional<Double> maxPrice,
-                                         Optional<Integer> maxQuantity, Pageable pageable) {
-        Specification<Funko> specType = (root, query, criteriaBuilder) ->
-                category.map(m -> {
-                    try {
-                        return criteriaBuilder.equal(root.get("category").get("type"), m.toUpperCase());
-                    } catch (IllegalArgumentException e) {
-                        return criteriaBuilder.isTrue(criteriaBuilder.literal(false));
-                    }
-                }).orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
-
-        Specification<Funko> specMaxPrice = (root, query, criteriaBuilder) ->
-                maxPrice.map(p -> criteriaBuilder.lessThanOrEqualTo(root.get("price"), p))
-                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    public Page<GetFunkoDTO> getAllFunko(FunkoFilter filter, Pageable pageable) {
+        if (catalogSnapshot.supports(filter, pageable)) {
+            return catalogSnapshot.findAll(filter, pageable);
+        }
+        Specification<Funko> criterion = FunkoSpecifications.of(filter);
+        boolean byRelevance = pageable.getSort().getOrderFor(RELEVANCE_SORT) != null;
+        if (byRelevance) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        }
 
-        Specification<Funko> specMaxQuantity = (root, query, criteriaBuilder) ->
-                maxQuantity.map(p -> criteriaBuilder.lessThanOrEqualTo(root.get("quantity"), p))
-                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+        if (filter.q() != null && !filter.q().isBlank()) {
+            Map<UUID, Double> ranking = searchIndex.search(filter.q());
+            List<UUID> matches = ranking.isEmpty() ? List.of() : facetIndex.filter(filter, ranking.keySet());
+            if (matches.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            if (byRelevance) {
+                return getRankedPage(matches, pageable);
+            }
+            criterion = criterion.and(FunkoSpecifications.idIn(
+                    matches.subList(0, Math.min(matches.size(), searchIndex.getMaxResults()))));
+        }
 
-        Specification<Funko> criterion = Specification.where(specType)
-                .and(specMaxPrice)
-                .and(specMaxQuantity);
+        return funkoRepository.findAllDto(criterion, pageable);
+    }
 
-        Page<Funko> funkoPage = funkoRepository.findAll(criterion, pageable);
-        List<GetFunkoDTO> dtoList = funkoPage.getContent().stream()
-                .map(funkoMapperImpl::toGetFunkoDTO)
+    /**
+     * Obtiene una página de los resultados de una búsqueda ordenados por relevancia
+     * Solo se cargan de la base de datos los Funkos de la página, que se devuelven en el orden del ranking
+     *
+     * @param ranked   Identificadores de los resultados, ordenados por relevancia
+     * @param pageable Paginación
+     * @return Página de Funkos
+     */
+    private Page<GetFunkoDTO> getRankedPage(List<UUID> ranked, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<UUID> pageIds = ranked.subList(from, to);
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ranked.size());
+        }
+        Map<UUID, GetFunkoDTO> found = funkoRepository.findAllDto(FunkoSpecifications.idIn(pageIds),
+                        Pageable.unpaged()).stream()
+                .collect(Collectors.toMap(GetFunkoDTO::getId, Function.identity()));
+        List<GetFunkoDTO> content = pageIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
                 .toList();
-
-        return new PageImpl<>(dtoList, funkoPage.getPageable(), funkoPage.getTotalElements());
+        return new PageImpl<>(content, pageable, ranked.size());
     }
 
     /**
@@ -140,9 +195,8 @@ public class FunkoServiceImpl implements FunkoService {
     public GetFunkoDTO getFunkoById(String id) throws FunkoNotValidUUIDException, FunkoNotFoundException {
         try {
             UUID uuid = UUID.fromString(id);
-            var f = funkoRepository.findById(uuid).orElseThrow(() ->
+            return funkoRepository.findDtoById(uuid).orElseThrow(() ->
                     new FunkoNotFoundException(FUNKO_NOT_FOUND_MSG));
-            return funkoMapperImpl.toGetFunkoDTO(f);
         } catch (IllegalArgumentException e) {
             throw new FunkoNotValidUUIDException(NOT_VALID_FORMAT_UUID_MSG);
         }
@@ -298,21 +352,47 @@ public class FunkoServiceImpl implements FunkoService {
      */
     public void onChange(Notification.Type type, GetFunkoDTO data) throws JsonProcessingException {
         log.debug("Servicio de productos onChange con tipo: " + type + " y datos: " + data);
-        if (webSocketService == null) {
-            log.warn("No se ha podido enviar la notificación a los clientes ws, no se ha encontrado el servicio");
-            webSocketService = this.webSocketConfig.webSocketHandler();
-        }
-        Notification<FunkoNotificationResponse> notification = new Notification<>(
+        eventPublisher.publishEvent(new FunkoChangeEvent(type, data));
+        sendNotification(new Notification<>(
                 "FUNKOS",
                 type,
                 funkoNotificationMapper.toFunkoNotificationDto(data),
                 LocalDateTime.now().toString()
-        );
+        ));
+    }
+
+    /**
+     * Método para enviar una única notificación resumen de una operación masiva a los clientes ws
+     *
+     * @param data Resumen de la operación masiva
+     */
+    public void onBulkChange(FunkoBulkNotificationResponse data) throws JsonProcessingException {
+        log.debug("Servicio de productos onBulkChange con datos: " + data);
+        eventPublisher.publishEvent(FunkoChangeEvent.bulk());
+        sendNotification(new Notification<>(
+                "FUNKOS",
+                Notification.Type.BULK,
+                data,
+                LocalDateTime.now().toString()
+        ));
+    }
+
+    /**
+     * Método que serializa y envía una notificación a los clientes ws
+     * El envío se delega en el ejecutor de tareas de la aplicación para no retrasar la respuesta; con
+     * spring.threads.virtual.enabled=true ese ejecutor lanza un hilo virtual por tarea
+     *
+     * @param notification Notificación
+     */
+    private void sendNotification(Notification<?> notification) throws JsonProcessingException {
+        if (webSocketService == null) {
+            log.warn("No se ha podido enviar la notificación a los clientes ws, no se ha encontrado el servicio");
+            webSocketService = this.webSocketConfig.webSocketHandler();
+        }
 
         String json = mapper.writeValueAsString(notification);
 
         log.info("Enviando mensaje a los clientes ws");
-        Thread senderThread = new Thread(() -> webSocketService.sendMessage(json));
-        senderThread.start();
+        taskExecutor.execute(() -> webSocketService.sendMessage(json));
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.TypeAlias;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -17,8 +18,11 @@ import java.util.List;
 
 /**
  * Clase Order
+ * El índice compuesto (userId, createdAt, _id) cubre el recuento y los últimos pedidos de un usuario sin leer los
+ * documentos completos
  */
 @Document("orders")
+@CompoundIndex(name = "user_created_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 @TypeAlias("order")
 @Getter
 @AllArgsConstructor
@@ -2,6 +2,9 @@ package com.madirex.funkosspringrest.rest.entities.order.repository;
 
 import com.madirex.funkosspringrest.rest.entities.order.models.Order;
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -20,6 +23,34 @@ public interface OrderRepository extends MongoRepository<Order, ObjectId> {
      */
     List<Order> findOrdersByUserId(String userId);
 
+    /**
+     * Encuentra una página de pedidos dado un ID de usuario
+     *
+     * @param userId   ID de usuario
+     * @param pageable Paginación
+     * @return Página de pedidos
+     */
+    Page<Order> findByUserId(String userId, Pageable pageable);
+
+    /**
+     * Cuenta los pedidos de un usuario
+     *
+     * @param userId ID de usuario
+     * @return Número de pedidos
+     */
+    long countByUserId(String userId);
+
+    /**
+     * Encuentra los pedidos de un usuario devolviendo solo su ID
+     * La proyección solo lee el índice (userId, createdAt, _id), sin cargar los documentos
+     *
+     * @param userId   ID de usuario
+     * @param pageable Paginación y ordenación
+     * @return Pedidos con solo el ID
+     */
+    @Query(value = "{ 'userId': ?0 }", fields = "{ '_id': 1 }")
+    List<Order> findIdsByUserId(String userId, Pageable pageable);
+
     /**
      * Existe un producto con el ID de usuario
      *
@@ -2,6 +2,10 @@ package com.madirex.funkosspringrest.rest.entities.order.services;
 
 import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotFoundException;
 import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotValidUUIDException;
+import com.madirex.funkosspringrest.rest.entities.funko.mappers.FunkoMapperImpl;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
 import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
 import com.madirex.funkosspringrest.rest.entities.order.dto.CreateOrder;
 import com.madirex.funkosspringrest.rest.entities.order.dto.UpdateOrder;
@@ -16,15 +20,20 @@ import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.madirex.funkosspringrest.rest.entities.funko.services.FunkoServiceImpl.NOT_VALID_FORMAT_UUID_MSG;
 
@@ -38,6 +47,8 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final FunkoRepository funkoRepository;
     private final OrderMapper orderMapper;
+    private final FunkoMapperImpl funkoMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructor de la clase
@@ -45,11 +56,16 @@ public class OrderServiceImpl implements OrderService {
      * @param orderRepository Repositorio Order
      * @param funkoRepository Repositorio Funko
      * @param orderMapper     Mapper Order
+     * @param funkoMapper     Mapper Funko
+     * @param eventPublisher  Publicador de eventos para avisar de los cambios de stock
      */
-    public OrderServiceImpl(OrderRepository orderRepository, FunkoRepository funkoRepository, OrderMapper orderMapper) {
+    public OrderServiceImpl(OrderRepository orderRepository, FunkoRepository funkoRepository, OrderMapper orderMapper,
+                            FunkoMapperImpl funkoMapper, ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.funkoRepository = funkoRepository;
         this.orderMapper = orderMapper;
+        this.funkoMapper = funkoMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -144,11 +160,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     public Page<Order> findByUserId(String id, Pageable pageable) {
         log.info("Obteniendo orders del usuario con ID: " + id);
-        List<Order> userOrders = orderRepository.findOrdersByUserId(id);
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), userOrders.size());
-        List<Order> paginatedOrders = userOrders.subList(start, end);
-        return new PageImpl<>(paginatedOrders, pageable, userOrders.size());
+        return orderRepository.findByUserId(id, pageable);
     }
 
     /**
@@ -171,6 +183,7 @@ public class OrderServiceImpl implements OrderService {
                 var funko = funkoOpt.get();
                 funko.setQuantity(funko.getQuantity() - orderLine.getQuantity());
                 funkoRepository.save(funko);
+                onStockChange(funko);
                 orderLine.setTotal(orderLine.getQuantity() * orderLine.getProductPrice());
             } catch (IllegalArgumentException e) {
                 throw new FunkoNotValidUUIDException(NOT_VALID_FORMAT_UUID_MSG);
@@ -204,6 +217,7 @@ public class OrderServiceImpl implements OrderService {
                     var funko = funkoOpt.get();
                     funko.setQuantity(funko.getQuantity() + orderLine.getQuantity());
                     funkoRepository.save(funko);
+                    onStockChange(funko);
                 } catch (IllegalArgumentException e) {
                     throw new FunkoNotValidUUIDException(NOT_VALID_FORMAT_UUID_MSG);
                 }
@@ -211,8 +225,19 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /**
+     * Publica el cambio de stock de un Funko para actualizar las estructuras en memoria
+     *
+     * @param funko Funko modificado
+     */
+    private void onStockChange(Funko funko) {
+        eventPublisher.publishEvent(new FunkoChangeEvent(Notification.Type.UPDATE, funkoMapper.toGetFunkoDTO(funko)));
+    }
+
     /**
      * Comprueba si el pedido es válido
+     * Los productos del pedido se cargan con una sola consulta en el hilo que llama, dentro de su transacción, así
+     * que un pedido grande no ocupa una conexión por producto
      *
      * @param order pedido
      */
@@ -221,20 +246,26 @@ public class OrderServiceImpl implements OrderService {
         if (order.getOrderLineList() == null || order.getOrderLineList().isEmpty()) {
             throw new OrderNoItems(order.getId());
         }
+        Set<UUID> productIds = new LinkedHashSet<>();
         order.getOrderLineList().forEach(orderLine -> {
             try {
-                var funko = funkoRepository.findById(UUID.fromString(orderLine.getProductId()))
-                        .orElseThrow(() -> new ProductNotFound(orderLine.getProductId()));
-                if (funko.getQuantity() < orderLine.getQuantity() && orderLine.getQuantity() > 0) {
-                    throw new ProductWithoutStock(orderLine.getProductId());
-                }
-                if (!funko.getPrice().equals(orderLine.getProductPrice())) {
-                    throw new ProductBadPrice(orderLine.getProductId());
-                }
+                productIds.add(UUID.fromString(orderLine.getProductId()));
             } catch (IllegalArgumentException e) {
                 throw new FunkoNotValidUUIDException(NOT_VALID_FORMAT_UUID_MSG);
             }
         });
+        Map<UUID, Funko> funkos = funkoRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Funko::getId, Function.identity()));
+        order.getOrderLineList().forEach(orderLine -> {
+            var funko = Optional.ofNullable(funkos.get(UUID.fromString(orderLine.getProductId())))
+                    .orElseThrow(() -> new ProductNotFound(orderLine.getProductId()));
+            if (funko.getQuantity() < orderLine.getQuantity() && orderLine.getQuantity() > 0) {
+                throw new ProductWithoutStock(orderLine.getProductId());
+            }
+            if (!funko.getPrice().equals(orderLine.getProductPrice())) {
+                throw new ProductBadPrice(orderLine.getProductId());
+            }
+        });
         return order;
     }
 }
\ No newline at end of file
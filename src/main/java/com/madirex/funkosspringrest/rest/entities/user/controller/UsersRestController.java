@@ -10,7 +10,10 @@ import com.madirex.funkosspringrest.rest.entities.user.dto.UserResponse;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserUpdate;
 import com.madirex.funkosspringrest.rest.entities.user.exceptions.UserDiffers;
 import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import com.madirex.funkosspringrest.rest.entities.user.repository.UserSpecifications;
 import com.madirex.funkosspringrest.rest.entities.user.services.UsersService;
+import com.madirex.funkosspringrest.rest.pagination.exceptions.PageNotValidException;
+import com.madirex.funkosspringrest.rest.pagination.model.CursorPageResponse;
 import com.madirex.funkosspringrest.rest.pagination.model.PageResponse;
 import com.madirex.funkosspringrest.rest.pagination.util.PaginationLinksUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -40,6 +43,7 @@ import java.util.Optional;
 @RequestMapping("api/users")
 @PreAuthorize("hasAnyRole('USER','ADMIN')")
 public class UsersRestController {
+    public static final int MAX_SEARCH_SIZE = 100;
     private final UsersService usersService;
     private final PasswordEncoder passwordEncoder;
     private final OrderService orderService;
@@ -99,6 +103,37 @@ public class UsersRestController {
                 .body(PageResponse.of(pageResult, sortBy, direction));
     }
 
+    /**
+     * Busca usuarios paginando por cursor
+     * Pensado para la consola de administración: usa los índices sobre el nombre de usuario y el email en minúsculas
+     * y su coste no depende de lo avanzada que esté la página
+     *
+     * @param username  texto a buscar en el username
+     * @param email     texto a buscar en el email
+     * @param isDeleted si está borrado o no
+     * @param match     tipo de coincidencia: PREFIX o CONTAINS
+     * @param cursor    cursor de la página, devuelto en next por la página anterior
+     * @param size      tamaño
+     * @return Respuesta con la página de usuarios
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPageResponse<UserResponse>> search(
+            @RequestParam(required = false) Optional<String> username,
+            @RequestParam(required = false) Optional<String> email,
+            @RequestParam(required = false) Optional<Boolean> isDeleted,
+            @RequestParam(defaultValue = "CONTAINS") UserSpecifications.Match match,
+            @RequestParam(required = false) Optional<String> cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        log.info("search: username: {}, email: {}, isDeleted: {}, match: {}, size: {}",
+                username, email, isDeleted, match, size);
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new PageNotValidException("El tamaño de la página debe estar entre 1 y " + MAX_SEARCH_SIZE + ".");
+        }
+        return ResponseEntity.ok(usersService.search(username, email, isDeleted, match, cursor, size));
+    }
+
     /**
      * Obtiene un usuario por su ID
      *
@@ -112,6 +147,32 @@ public class UsersRestController {
         return ResponseEntity.ok(usersService.findById(id));
     }
 
+    /**
+     * Obtiene los pedidos de un usuario paginados
+     *
+     * @param id        ID del usuario
+     * @param page      Página
+     * @param size      Tamaño
+     * @param sortBy    Campo de ordenación
+     * @param direction Dirección de ordenación
+     * @return Respuesta con la página de pedidos
+     */
+    @GetMapping("/{id}/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<Order>> findOrdersById(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction
+    ) {
+        log.info("findOrdersById: id: {}", id);
+        Sort sort = direction.equalsIgnoreCase(Sort.Direction.ASC.name()) ?
+                Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+        return ResponseEntity.ok(PageResponse.of(orderService.findByUserId(id, pageable), sortBy, direction));
+    }
+
     /**
      * Crea un nuevo usuario
      *
@@ -10,6 +10,7 @@ import java.util.UUID;
 
 /**
  * Clase UserInfoResponse
+ * orders solo contiene los IDs de los últimos pedidos; el historial completo se consulta paginado
  */
 @Getter
 @Setter
@@ -28,4 +29,6 @@ public class UserInfoResponse {
     private Boolean isDeleted = false;
     @Builder.Default
     private List<String> orders = new ArrayList<>();
+    @Builder.Default
+    private Long orderCount = 0L;
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.madirex.funkosspringrest.rest.entities.user.dto.UserRequest;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserResponse;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserUpdate;
 import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import com.madirex.funkosspringrest.util.UuidV7;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -23,7 +24,7 @@ public class UsersMapper {
      */
     public User toUser(UserRequest request) {
         return User.builder()
-                .id(UUID.randomUUID())
+                .id(UuidV7.randomUUID())
                 .name(request.getName())
                 .surname(request.getSurname())
                 .username(request.getUsername())
@@ -31,6 +32,7 @@ public class UsersMapper {
                 .password(request.getPassword())
                 .roles(request.getRoles())
                 .isDeleted(request.getIsDeleted())
+                .newEntity(true)
                 .build();
     }
 
@@ -60,6 +62,18 @@ public class UsersMapper {
      * @return UserInfoResponse
      */
     public UserInfoResponse toUserInfoResponse(User user, List<String> orders) {
+        return toUserInfoResponse(user, orders, orders.size());
+    }
+
+    /**
+     * Método que convierte un objeto User, sus últimos pedidos y el total de pedidos en un objeto UserInfoResponse
+     *
+     * @param user       usuario
+     * @param orders     IDs de los últimos pedidos
+     * @param orderCount número total de pedidos
+     * @return UserInfoResponse
+     */
+    public UserInfoResponse toUserInfoResponse(User user, List<String> orders, long orderCount) {
         return UserInfoResponse.builder()
                 .id(user.getId())
                 .name(user.getName())
@@ -69,6 +83,7 @@ public class UsersMapper {
                 .roles(user.getRoles())
                 .isDeleted(user.getIsDeleted())
                 .orders(orders)
+                .orderCount(orderCount)
                 .build();
     }
 
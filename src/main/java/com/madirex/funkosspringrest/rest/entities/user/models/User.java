@@ -5,9 +5,12 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.validator.constraints.Length;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -27,9 +31,15 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "USERS")
+@Table(name = "USERS", indexes = {
+        @Index(name = "idx_users_username_lower_id", columnList = "username_lower, id"),
+        @Index(name = "idx_users_email_lower_id", columnList = "email_lower, id"),
+        @Index(name = "idx_users_is_deleted_username_lower_id", columnList = "is_deleted, username_lower, id")
+})
 @EntityListeners(AuditingEntityListener.class)
-public class User implements UserDetails {
+public class User implements UserDetails, Persistable<UUID> {
+    public static final String ROLES_CACHE_REGION = "user-roles";
+
     @Id
     @NotNull
     private UUID id;
@@ -70,10 +80,51 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean isDeleted = false;
 
+    @Column(name = "username_lower", unique = true)
+    private String usernameLower;
+
+    @Column(name = "email_lower", unique = true)
+    private String emailLower;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @Enumerated(EnumType.STRING)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.ROLES_CACHE_REGION)
     private Set<Role> roles;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean newEntity;
+
+    /**
+     * Indica si el usuario aún no se ha guardado, para que save() lo inserte sin consultarlo antes
+     * Solo lo son los creados con newEntity(true); en caso de duda se devuelve false y save() hace merge
+     *
+     * @return ¿es nuevo?
+     */
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Marca el usuario como guardado al insertarlo o cargarlo
+     */
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        newEntity = false;
+    }
+
+    /**
+     * Método que guarda el nombre de usuario y el email en minúsculas, para que las búsquedas usen sus índices
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalize() {
+        usernameLower = username == null ? null : username.toLowerCase(Locale.ROOT);
+        emailLower = email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Método que devuelve los roles del usuario
      *
@@ -0,0 +1,118 @@
+package com.madirex.funkosspringrest.rest.entities.user.repository;
+
+import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Clase UserSpecifications
+ * Construye las Specification de búsqueda de usuarios sobre las columnas normalizadas en minúsculas (username_lower y
+ * email_lower), que están indexadas para buscar por prefijo y por subcadena
+ */
+public class UserSpecifications {
+    public static final String USERNAME_LOWER = "usernameLower";
+    public static final String EMAIL_LOWER = "emailLower";
+    public static final String ID = "id";
+    public static final Sort KEYSET_SORT = Sort.by(USERNAME_LOWER, ID).ascending();
+    private static final char ESCAPE = '\\';
+
+    /**
+     * Tipo de coincidencia del texto buscado
+     */
+    public enum Match {
+        PREFIX,
+        CONTAINS
+    }
+
+    /**
+     * Constructor privado para evitar instanciación
+     */
+    private UserSpecifications() {
+        // Constructor privado para evitar instanciación
+    }
+
+    /**
+     * Obtiene la Specification correspondiente a los filtros del listado de usuarios
+     *
+     * @param username  Texto a buscar en el nombre de usuario
+     * @param email     Texto a buscar en el email
+     * @param isDeleted Borrado
+     * @param match     Tipo de coincidencia
+     * @return Specification
+     */
+    public static Specification<User> of(Optional<String> username, Optional<String> email,
+                                         Optional<Boolean> isDeleted, Match match) {
+        return Specification.where(byText(USERNAME_LOWER, username, match))
+                .and(byText(EMAIL_LOWER, email, match))
+                .and(byIsDeleted(isDeleted));
+    }
+
+    /**
+     * Filtro de paginación por cursor: usuarios posteriores al último de la página anterior en el orden KEYSET_SORT
+     *
+     * @param usernameLower Nombre de usuario en minúsculas del último usuario
+     * @param id            ID del último usuario
+     * @return Specification
+     */
+    public static Specification<User> after(String usernameLower, UUID id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.greaterThan(root.get(USERNAME_LOWER), usernameLower),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get(USERNAME_LOWER), usernameLower),
+                        criteriaBuilder.greaterThan(root.get(ID), id)));
+    }
+
+    /**
+     * Filtro por texto sobre una columna normalizada
+     *
+     * @param field Campo normalizado
+     * @param text  Texto a buscar
+     * @param match Tipo de coincidencia
+     * @return Specification
+     */
+    private static Specification<User> byText(String field, Optional<String> text, Match match) {
+        return (root, query, criteriaBuilder) -> text
+                .filter(t -> !t.isBlank())
+                .map(t -> like(root, criteriaBuilder, field, t, match))
+                .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+
+    /**
+     * Filtro por borrado
+     *
+     * @param isDeleted Borrado
+     * @return Specification
+     */
+    private static Specification<User> byIsDeleted(Optional<Boolean> isDeleted) {
+        return (root, query, criteriaBuilder) -> isDeleted
+                .map(d -> criteriaBuilder.equal(root.get("isDeleted"), d))
+                .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    }
+
+    /**
+     * Crea la condición LIKE escapando los comodines del texto buscado
+     *
+     * @param root            Raíz de la consulta
+     * @param criteriaBuilder CriteriaBuilder
+     * @param field           Campo normalizado
+     * @param text            Texto a buscar
+     * @param match           Tipo de coincidencia
+     * @return Condición
+     */
+    private static Predicate like(Root<User> root, CriteriaBuilder criteriaBuilder, String field, String text,
+                                  Match match) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(ESCAPE), String.valueOf(ESCAPE) + ESCAPE)
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+        String pattern = match == Match.PREFIX ? escaped + "%" : "%" + escaped + "%";
+        return criteriaBuilder.like(root.get(field), pattern, ESCAPE);
+    }
+}
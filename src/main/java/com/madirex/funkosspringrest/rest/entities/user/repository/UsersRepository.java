@@ -15,7 +15,8 @@ import java.util.UUID;
  * Interfaz UsersRepository
  */
 @Repository
-public interface UsersRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
+public interface UsersRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User>,
+        UsersSearchRepository {
 
     /**
      * Método que busca un usuario por nombre de usuario
@@ -67,4 +68,15 @@ public interface UsersRepository extends JpaRepository<User, UUID>, JpaSpecifica
     @Modifying
     @Query("UPDATE User p SET p.isDeleted = true WHERE p.id = :id")
     void updateIsDeletedToTrueById(UUID id);
+
+    /**
+     * Método que rellena el nombre de usuario y el email en minúsculas de los usuarios que aún no los tienen,
+     * por ejemplo los insertados directamente por SQL
+     *
+     * @return Número de usuarios actualizados
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.usernameLower = lower(u.username), u.emailLower = lower(u.email) "
+            + "WHERE u.usernameLower IS NULL OR u.emailLower IS NULL")
+    int normalizeMissing();
 }
\ No newline at end of file
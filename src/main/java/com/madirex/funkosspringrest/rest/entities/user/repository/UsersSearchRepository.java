@@ -0,0 +1,24 @@
+package com.madirex.funkosspringrest.rest.entities.user.repository;
+
+import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Interfaz UsersSearchRepository
+ * Consultas de usuarios limitadas a un número de filas, sin consulta de conteo, para el paginado por cursor
+ */
+public interface UsersSearchRepository {
+
+    /**
+     * Obtiene los primeros usuarios que cumplen un filtro
+     *
+     * @param specification Filtro
+     * @param sort          Ordenación
+     * @param limit         Número máximo de usuarios
+     * @return Usuarios
+     */
+    List<User> findFirst(Specification<User> specification, Sort sort, int limit);
+}
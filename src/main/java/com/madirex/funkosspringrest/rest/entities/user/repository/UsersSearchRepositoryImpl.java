@@ -0,0 +1,57 @@
+package com.madirex.funkosspringrest.rest.entities.user.repository;
+
+import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Clase UsersSearchRepositoryImpl
+ * A diferencia de findAll(Specification, Pageable), no calcula el total, que con millones de usuarios obligaría a
+ * recorrer todas las filas que cumplen el filtro
+ */
+public class UsersSearchRepositoryImpl implements UsersSearchRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor UsersSearchRepositoryImpl
+     *
+     * @param entityManager EntityManager
+     */
+    public UsersSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Obtiene los primeros usuarios que cumplen un filtro
+     *
+     * @param specification Filtro
+     * @param sort          Ordenación
+     * @param limit         Número máximo de usuarios
+     * @return Usuarios
+     */
+    @Override
+    public List<User> findFirst(Specification<User> specification, Sort sort, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = criteriaBuilder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,220 @@
+package com.madirex.funkosspringrest.rest.entities.user.search;
+
+import com.madirex.funkosspringrest.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clase UserExistenceIndex
+ * Filtro de Bloom en memoria con los nombres de usuario y emails registrados, normalizados en minúsculas
+ * Permite saber sin consultar la base de datos que un nombre de usuario o email está libre. Si el filtro responde que
+ * puede estar ocupado, hay que comprobarlo en la base de datos, cuyas restricciones únicas siguen siendo la referencia.
+ * Un filtro de Bloom no permite borrar, así que los usuarios eliminados siguen dando positivo hasta la siguiente
+ * reconstrucción; eso solo provoca una consulta de más, nunca un falso "libre"
+ * Cuando el filtro se llena se reconstruye en segundo plano, en el ejecutor de tareas de la aplicación, y mientras
+ * tanto se sigue usando el filtro actual. Las altas que llegan durante la reconstrucción se guardan y se añaden al
+ * filtro nuevo antes de que deje de recibirlas
+ */
+@Slf4j
+@Component
+public class UserExistenceIndex {
+    static final String EXISTENCE_SQL = "SELECT username, email FROM users";
+    static final String COUNT_SQL = "SELECT COUNT(*) FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int expectedUsers;
+    private final double fpp;
+    private final TaskExecutor taskExecutor;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean resizing = new AtomicBoolean();
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
+    private volatile BloomFilter filter;
+
+    /**
+     * Constructor UserExistenceIndex
+     *
+     * @param jdbcTemplate  JdbcTemplate para la carga inicial
+     * @param expectedUsers Número mínimo de usuarios para el que se dimensiona el filtro
+     * @param fpp           Probabilidad de falso positivo
+     * @param taskExecutor  Ejecutor de tareas de la aplicación, donde se reconstruye el filtro cuando se llena
+     */
+    @Autowired
+    public UserExistenceIndex(JdbcTemplate jdbcTemplate,
+                              @Value("${users.existence.expected-users:100000}") int expectedUsers,
+                              @Value("${users.existence.fpp:0.01}") double fpp,
+                              @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                              TaskExecutor taskExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedUsers = expectedUsers;
+        this.fpp = fpp;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Reconstruye el filtro a partir de la base de datos
+     * Se dimensiona para el doble de los usuarios actuales, de forma que admita altas sin perder precisión. Hasta
+     * que termina la primera carga, todas las consultas responden que el valor puede estar ocupado
+     * Se usa un ReentrantLock y no synchronized para que un hilo virtual no bloquee su hilo de plataforma mientras
+     * espera a la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            pending.clear();
+            rebuilding = true;
+            Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+            int users = count == null ? 0 : (int) Math.min(count, Integer.MAX_VALUE / 4);
+            // Cada usuario ocupa dos claves: nombre de usuario y email
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedUsers, users * 2) * 2, fpp);
+            jdbcTemplate.query(EXISTENCE_SQL, rs -> {
+                keys(rs.getString(1), rs.getString(2)).forEach(rebuilt::put);
+            });
+            filter = rebuilt;
+            // Las altas posteriores a la publicación ya ven el filtro nuevo; las anteriores están en la cola
+            for (String key = pending.poll(); key != null; key = pending.poll()) {
+                rebuilt.put(key);
+            }
+            log.info("Filtro de existencia de usuarios construido con " + users + " usuarios");
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Registra el nombre de usuario y el email de un usuario creado o actualizado
+     * Solo las claves nuevas cuentan para la capacidad, así que actualizar un usuario sin cambiar su nombre ni su
+     * email no acerca la reconstrucción. Si el filtro supera su capacidad se reconstruye en segundo plano con más
+     * espacio para mantener la tasa de falsos positivos; la petición que lo llena no espera a la reconstrucción
+     *
+     * @param username Nombre de usuario
+     * @param email    Email
+     */
+    public void add(String username, String email) {
+        List<String> keys = keys(username, email);
+        if (rebuilding) {
+            pending.addAll(keys);
+        }
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        keys.forEach(current::put);
+        BloomFilter latest = filter;
+        if (latest != current) {
+            // Se ha publicado un filtro nuevo mientras se añadían las claves
+            keys.forEach(latest::put);
+        }
+        if (latest.size() > latest.capacity()) {
+            resize();
+        }
+    }
+
+    /**
+     * Programa una reconstrucción en el ejecutor de tareas, si no hay ya una pendiente
+     */
+    private void resize() {
+        if (!resizing.compareAndSet(false, true)) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (DataAccessException e) {
+                log.error("Error al reconstruir el filtro de existencia de usuarios", e);
+            } finally {
+                resizing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Comprueba si un nombre de usuario puede estar ocupado
+     *
+     * @param username Nombre de usuario
+     * @return false si seguro que está libre
+     */
+    public boolean mightContainUsername(String username) {
+        BloomFilter current = filter;
+        return current == null || username == null || current.mightContain(usernameKey(username));
+    }
+
+    /**
+     * Comprueba si un email puede estar ocupado
+     *
+     * @param email Email
+     * @return false si seguro que está libre
+     */
+    public boolean mightContainEmail(String email) {
+        BloomFilter current = filter;
+        return current == null || email == null || current.mightContain(emailKey(email));
+    }
+
+    /**
+     * Comprueba si un nombre de usuario o un email pueden estar ocupados
+     *
+     * @param username Nombre de usuario
+     * @param email    Email
+     * @return false si seguro que ambos están libres
+     */
+    public boolean mightContain(String username, String email) {
+        return mightContainUsername(username) || mightContainEmail(email);
+    }
+
+    /**
+     * Claves de un usuario en el filtro
+     *
+     * @param username Nombre de usuario
+     * @param email    Email
+     * @return Claves normalizadas
+     */
+    private static List<String> keys(String username, String email) {
+        List<String> keys = new ArrayList<>(2);
+        if (username != null) {
+            keys.add(usernameKey(username));
+        }
+        if (email != null) {
+            keys.add(emailKey(email));
+        }
+        return keys;
+    }
+
+    /**
+     * Clave de un nombre de usuario en el filtro
+     *
+     * @param username Nombre de usuario
+     * @return Clave normalizada
+     */
+    private static String usernameKey(String username) {
+        return "u:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Clave de un email en el filtro
+     *
+     * @param email Email
+     * @return Clave normalizada
+     */
+    private static String emailKey(String email) {
+        return "e:" + email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,6 +4,8 @@ import com.madirex.funkosspringrest.rest.entities.user.dto.UserInfoResponse;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserRequest;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserResponse;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserUpdate;
+import com.madirex.funkosspringrest.rest.entities.user.repository.UserSpecifications;
+import com.madirex.funkosspringrest.rest.pagination.model.CursorPageResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -25,6 +27,21 @@ public interface UsersService {
      */
     Page<UserResponse> findAll(Optional<String> username, Optional<String> email, Optional<Boolean> isDeleted, Pageable pageable);
 
+    /**
+     * Método que busca usuarios paginando por cursor
+     *
+     * @param username  Texto a buscar en el nombre de usuario
+     * @param email     Texto a buscar en el email
+     * @param isDeleted Borrado
+     * @param match     Tipo de coincidencia: por prefijo o por subcadena
+     * @param cursor    Cursor de la página, o vacío para la primera
+     * @param size      Tamaño de la página
+     * @return Página de usuarios
+     */
+    CursorPageResponse<UserResponse> search(Optional<String> username, Optional<String> email,
+                                            Optional<Boolean> isDeleted, UserSpecifications.Match match,
+                                            Optional<String> cursor, int size);
+
     /**
      * Método que busca un usuario por su ID
      *
@@ -1,5 +1,6 @@
 package com.madirex.funkosspringrest.rest.entities.user.services;
 
+import com.madirex.funkosspringrest.config.threads.CompositeReader;
 import com.madirex.funkosspringrest.rest.entities.order.models.Order;
 import com.madirex.funkosspringrest.rest.entities.order.repository.OrderRepository;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserInfoResponse;
@@ -11,18 +12,31 @@ import com.madirex.funkosspringrest.rest.entities.user.exceptions.UserNotValidUU
 import com.madirex.funkosspringrest.rest.entities.user.exceptions.UsernameOrEmailExists;
 import com.madirex.funkosspringrest.rest.entities.user.mappers.UsersMapper;
 import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import com.madirex.funkosspringrest.rest.entities.user.repository.UserSpecifications;
 import com.madirex.funkosspringrest.rest.entities.user.repository.UsersRepository;
+import com.madirex.funkosspringrest.rest.entities.user.search.UserExistenceIndex;
+import com.madirex.funkosspringrest.rest.pagination.exceptions.PageNotValidException;
+import com.madirex.funkosspringrest.rest.pagination.model.CursorPageResponse;
+import com.madirex.funkosspringrest.rest.pagination.util.CursorUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -37,6 +51,9 @@ public class UsersServiceImpl implements UsersService {
     private final UsersRepository usersRepository;
     private final OrderRepository orderRepository;
     private final UsersMapper usersMapper;
+    private final UserExistenceIndex existenceIndex;
+    private final CompositeReader compositeReader;
+    private final int latestOrders;
 
     /**
      * Constructor
@@ -44,11 +61,20 @@ public class UsersServiceImpl implements UsersService {
      * @param usersRepository repositorio de usuarios
      * @param orderRepository repositorio de pedidos
      * @param usersMapper     mapeador de usuarios
+     * @param existenceIndex  filtro de existencia de nombres de usuario y emails
+     * @param compositeReader lecturas simultáneas de Postgres y Mongo
+     * @param latestOrders    número de pedidos recientes que se incluyen en el perfil
      */
-    public UsersServiceImpl(UsersRepository usersRepository, OrderRepository orderRepository, UsersMapper usersMapper) {
+    @Autowired
+    public UsersServiceImpl(UsersRepository usersRepository, OrderRepository orderRepository, UsersMapper usersMapper,
+                            UserExistenceIndex existenceIndex, CompositeReader compositeReader,
+                            @Value("${users.profile.latest-orders:5}") int latestOrders) {
         this.usersRepository = usersRepository;
         this.orderRepository = orderRepository;
         this.usersMapper = usersMapper;
+        this.existenceIndex = existenceIndex;
+        this.compositeReader = compositeReader;
+        this.latestOrders = latestOrders;
     }
 
     /**
@@ -63,17 +89,66 @@ public class UsersServiceImpl implements UsersService {
     @Override
     public Page<UserResponse> findAll(Optional<String> username, Optional<String> email, Optional<Boolean> isDeleted, Pageable pageable) {
         log.info("Buscando todos los usuarios con username: " + username + " y borrados: " + isDeleted);
-        Specification<User> specUsernameUser = (root, query, criteriaBuilder) -> username.map(m -> criteriaBuilder.like(criteriaBuilder.lower(root.get("username")), "%" + m.toLowerCase() + "%")).orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
-        Specification<User> specEmailUser = (root, query, criteriaBuilder) -> email.map(m -> criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), "%" + m.toLowerCase() + "%")).orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
-        Specification<User> specIsDeleted = (root, query, criteriaBuilder) -> isDeleted.map(m -> criteriaBuilder.equal(root.get("isDeleted"), m)).orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
-        Specification<User> criterion = Specification.where(specUsernameUser)
-                .and(specEmailUser)
-                .and(specIsDeleted);
+        Specification<User> criterion = UserSpecifications.of(username, email, isDeleted,
+                UserSpecifications.Match.CONTAINS);
         return usersRepository.findAll(criterion, pageable).map(usersMapper::toUserResponse);
     }
 
+    /**
+     * Método que busca usuarios paginando por cursor
+     * Los usuarios se ordenan por nombre de usuario en minúsculas e ID, y cada página continúa tras el último usuario
+     * de la anterior, así que usa los índices de búsqueda sin calcular el total ni saltar filas
+     *
+     * @param username  Texto a buscar en el nombre de usuario
+     * @param email     Texto a buscar en el email
+     * @param isDeleted Borrado
+     * @param match     Tipo de coincidencia: por prefijo o por subcadena
+     * @param cursor    Cursor de la página, o vacío para la primera
+     * @param size      Tamaño de la página
+     * @return Página de usuarios
+     */
+    @Override
+    public CursorPageResponse<UserResponse> search(Optional<String> username, Optional<String> email,
+                                                   Optional<Boolean> isDeleted, UserSpecifications.Match match,
+                                                   Optional<String> cursor, int size) {
+        log.info("Buscando usuarios por cursor con username: " + username + ", email: " + email + " y borrados: "
+                + isDeleted);
+        Specification<User> criterion = UserSpecifications.of(username, email, isDeleted, match);
+        if (cursor.isPresent()) {
+            List<String> values = CursorUtils.decode(cursor.get(), 2);
+            UUID id;
+            try {id = UUID.fromString(values.get(1));} catch (IllegalArgumentException e) {
+                throw new PageNotValidException("El cursor no es válido");
+            }
+            criterion = criterion.and(UserSpecifications.after(values.get(0), id));
+        }
+        List<User> users = usersRepository.findFirst(criterion, UserSpecifications.KEYSET_SORT, size + 1);
+        boolean last = users.size() <= size;
+        List<User> content = last ? users : users.subList(0, size);
+        String next = null;
+        if (!last) {
+            User lastUser = content.get(content.size() - 1);
+            next = CursorUtils.encode(lastUser.getUsernameLower(), lastUser.getId().toString());
+        }
+        return new CursorPageResponse<>(content.stream().map(usersMapper::toUserResponse).toList(), size, last, next);
+    }
+
+    /**
+     * Método que rellena al arrancar las columnas en minúsculas de los usuarios que no las tienen
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void normalizeUsers() {
+        int updated = usersRepository.normalizeMissing();
+        if (updated > 0) {
+            log.info("Normalizados " + updated + " usuarios para la búsqueda");
+        }
+    }
+
     /**
      * Método que busca un usuario por su ID
+     * Incluye el número de pedidos y los IDs de los más recientes, leídos del índice de pedidos por usuario
+     * El usuario (Postgres) y sus pedidos (Mongo) se leen a la vez; si el usuario no existe se descartan los pedidos
      *
      * @param id ID del usuario
      * @return Usuario
@@ -84,13 +159,20 @@ public class UsersServiceImpl implements UsersService {
         log.info("Buscando usuario por ID: " + id);
         UUID uuid;
         try {uuid = UUID.fromString(id);} catch (IllegalArgumentException e) {throw new UserNotValidUUIDException(id);}
-        var user = usersRepository.findById(uuid).orElseThrow(() -> new UserNotFound(id));
-        var orders = orderRepository.findOrdersByUserId(id).stream().map(Order::getId).toList();
-        return usersMapper.toUserInfoResponse(user, orders);
+        var latest = PageRequest.of(0, latestOrders, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        try (var reads = compositeReader.open()) {
+            var user = reads.fork(() -> usersRepository.findById(uuid).orElseThrow(() -> new UserNotFound(id)));
+            var orders = reads.fork(() -> orderRepository.findIdsByUserId(id, latest).stream().map(Order::getId).toList());
+            var count = reads.fork(() -> orderRepository.countByUserId(id));
+            reads.join();
+            return usersMapper.toUserInfoResponse(user.get(), orders.get(), count.get());
+        }
     }
 
     /**
      * Método que guarda un usuario
+     * Solo se consulta la base de datos antes de insertar si el filtro de existencia indica que el username o el
+     * email pueden estar ocupados; si no, la restricción única de la base de datos resuelve las carreras
      *
      * @param userRequest Nombre de usuario
      * @return Usuario
@@ -99,9 +181,19 @@ public class UsersServiceImpl implements UsersService {
     @CachePut(key = "#result.id")
     public UserResponse save(UserRequest userRequest) {
         log.info("Guardando usuario: " + userRequest);
-        usersRepository.findByUsernameEqualsIgnoreCaseOrEmailEqualsIgnoreCase(userRequest.getUsername(), userRequest.getEmail())
-                .ifPresent(u -> {throw new UsernameOrEmailExists("Ya existe un usuario con ese username o email");});
-        return usersMapper.toUserResponse(usersRepository.save(usersMapper.toUser(userRequest)));
+        if (existenceIndex.mightContain(userRequest.getUsername(), userRequest.getEmail())) {
+            usersRepository.findByUsernameEqualsIgnoreCaseOrEmailEqualsIgnoreCase(userRequest.getUsername(),
+                            userRequest.getEmail())
+                    .ifPresent(u -> {throw new UsernameOrEmailExists("Ya existe un usuario con ese username o email");});
+        }
+        User saved;
+        try {
+            saved = usersRepository.save(usersMapper.toUser(userRequest));
+        } catch (DataIntegrityViolationException e) {
+            throw new UsernameOrEmailExists("Ya existe un usuario con ese username o email");
+        }
+        existenceIndex.add(saved.getUsername(), saved.getEmail());
+        return usersMapper.toUserResponse(saved);
     }
 
     /**
@@ -121,14 +213,22 @@ public class UsersServiceImpl implements UsersService {
         if (user.isEmpty()) {
             throw new UserNotFound(id);
         }
-        usersRepository.findByEmailEqualsIgnoreCase(userUpdate.getEmail())
-                .ifPresent(u -> {
-                    if (!u.getId().toString().equals(id)) {
-                        log.debug("usuario encontrado: " + u.getId() + " ID: " + id);
-                        throw new UsernameOrEmailExists("Ya existe un usuario con ese username o email");
-                    }});
-        return usersMapper.toUserResponse(usersRepository.save(usersMapper
-                .toUser(userUpdate, uuid, user.get().getUsername())));
+        if (existenceIndex.mightContainEmail(userUpdate.getEmail())) {
+            usersRepository.findByEmailEqualsIgnoreCase(userUpdate.getEmail())
+                    .ifPresent(u -> {
+                        if (!u.getId().toString().equals(id)) {
+                            log.debug("usuario encontrado: " + u.getId() + " ID: " + id);
+                            throw new UsernameOrEmailExists("Ya existe un usuario con ese username o email");
+                        }});
+        }
+        User saved;
+        try {
+            saved = usersRepository.save(usersMapper.toUser(userUpdate, uuid, user.get().getUsername()));
+        } catch (DataIntegrityViolationException e) {
+            throw new UsernameOrEmailExists("Ya existe un usuario con ese username o email");
+        }
+        existenceIndex.add(saved.getUsername(), saved.getEmail());
+        return usersMapper.toUserResponse(saved);
     }
 
     /**
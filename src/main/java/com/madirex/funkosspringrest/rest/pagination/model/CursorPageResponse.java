@@ -0,0 +1,22 @@
+package com.madirex.funkosspringrest.rest.pagination.model;
+
+import java.util.List;
+
+/**
+ * Clase CursorPageResponse
+ * Página de un listado paginado por cursor (keyset): en lugar del número de página se devuelve el cursor de la
+ * siguiente, de forma que cada página cuesta lo mismo sin importar lo lejos que esté del principio
+ *
+ * @param content  Contenido
+ * @param pageSize Tamaño de la página
+ * @param last     Si es la última página
+ * @param next     Cursor de la siguiente página, o null si es la última
+ * @param <T>      Tipo de dato
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int pageSize,
+        boolean last,
+        String next
+) {
+}
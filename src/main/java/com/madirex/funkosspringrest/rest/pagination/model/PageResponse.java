@@ -1,13 +1,16 @@
 package com.madirex.funkosspringrest.rest.pagination.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase PageResponse
  *
- * @param <T> Tipo de dato
+ * @param facets Número de elementos por valor de cada faceta, solo si se han solicitado
+ * @param <T>    Tipo de dato
  */
 public record PageResponse<T>(
         List<T> content,
@@ -20,7 +23,9 @@ public record PageResponse<T>(
         boolean first,
         boolean last,
         String sortBy,
-        String direction
+        String direction,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Map<String, Map<String, Long>> facets
 ) {
     /**
      * PageResponse
@@ -32,6 +37,21 @@ public record PageResponse<T>(
      * @return PageResponse
      */
     public static <T> PageResponse<T> of(Page<T> page, String sortBy, String direction) {
+        return of(page, sortBy, direction, null);
+    }
+
+    /**
+     * PageResponse con facetas
+     *
+     * @param page      Página
+     * @param sortBy    Ordenación
+     * @param direction Dirección
+     * @param facets    Facetas, o null si no se han solicitado
+     * @param <T>       Tipo de dato
+     * @return PageResponse
+     */
+    public static <T> PageResponse<T> of(Page<T> page, String sortBy, String direction,
+                                         Map<String, Map<String, Long>> facets) {
         return new PageResponse<>(
                 page.getContent(),
                 page.getTotalPages(),
@@ -43,7 +63,8 @@ public record PageResponse<T>(
                 page.isFirst(),
                 page.isLast(),
                 sortBy,
-                direction
+                direction,
+                facets
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.madirex.funkosspringrest.rest.pagination.util;
+
+import com.madirex.funkosspringrest.rest.pagination.exceptions.PageNotValidException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Clase CursorUtils
+ * Codifica y decodifica los cursores del paginado por cursor: los valores de la clave de ordenación del último
+ * elemento de la página, en Base64 apto para URL
+ */
+public class CursorUtils {
+    private static final String SEPARATOR = "\u0000";
+
+    /**
+     * Constructor privado para evitar instanciación
+     */
+    private CursorUtils() {
+        // Constructor privado para evitar instanciación
+    }
+
+    /**
+     * Codifica un cursor
+     *
+     * @param values Valores de la clave de ordenación
+     * @return Cursor
+     */
+    public static String encode(String... values) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(SEPARATOR, values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor
+     *
+     * @param cursor Cursor
+     * @param size   Número de valores esperado
+     * @return Valores de la clave de ordenación
+     * @throws PageNotValidException Si el cursor no es válido
+     */
+    public static List<String> decode(String cursor, int size) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> values = List.of(decoded.split(SEPARATOR, -1));
+            if (values.size() != size) {
+                throw new PageNotValidException("El cursor no es válido");
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new PageNotValidException("El cursor no es válido");
+        }
+    }
+}
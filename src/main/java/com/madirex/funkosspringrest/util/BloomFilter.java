@@ -0,0 +1,134 @@
+package com.madirex.funkosspringrest.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clase BloomFilter
+ * Filtro de Bloom sobre cadenas: si responde que una clave no está, seguro que no se ha añadido; si responde que sí,
+ * puede ser un falso positivo con la probabilidad indicada al crearlo. Los bits se guardan en un AtomicLongArray, de
+ * forma que las lecturas y las escrituras concurrentes no necesitan bloqueos
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructor BloomFilter
+     *
+     * @param capacity Número de claves previsto
+     * @param fpp      Probabilidad de falso positivo deseada con ese número de claves
+     */
+    public BloomFilter(int capacity, double fpp) {
+        if (capacity < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Capacidad o probabilidad de falso positivo no válida");
+        }
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (LN2 * LN2));
+        int words = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        this.capacity = capacity;
+    }
+
+    /**
+     * Añade una clave al filtro
+     * Solo cuenta para el tamaño si ha activado algún bit: volver a añadir una clave no consume capacidad
+     *
+     * @param key Clave
+     * @return true si la clave no estaba en el filtro; false si ya estaba o es un falso positivo
+     */
+    public boolean put(String key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+                current = bits.get(word);
+            }
+        }
+        if (changed) {
+            size.incrementAndGet();
+        }
+        return changed;
+    }
+
+    /**
+     * Comprueba si una clave puede estar en el filtro
+     *
+     * @param key Clave
+     * @return false si la clave seguro que no se ha añadido; true si puede haberse añadido
+     */
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Número de claves distintas añadidas
+     * Las claves que ya daban positivo al añadirse no se cuentan, así que puede quedarse algo por debajo del real
+     *
+     * @return Número de claves
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Número de claves previsto al crear el filtro
+     *
+     * @return Capacidad
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits de una cadena
+     *
+     * @param key Clave
+     * @return Hash
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Mezcla final de splitmix64, para repartir los bits del hash
+     *
+     * @param value Valor
+     * @return Valor mezclado
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
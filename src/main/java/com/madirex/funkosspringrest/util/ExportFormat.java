@@ -0,0 +1,60 @@
+package com.madirex.funkosspringrest.util;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Formatos de exportación soportados
+ */
+@Getter
+public enum ExportFormat {
+    JSON(MediaType.APPLICATION_JSON, "json"),
+    NDJSON(MediaType.parseMediaType(RecordReader.NDJSON_MEDIA_TYPE), "ndjson"),
+    CSV(MediaType.parseMediaType(RecordReader.CSV_MEDIA_TYPE), "csv"),
+    XML(MediaType.APPLICATION_XML, "xml");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    /**
+     * Constructor
+     *
+     * @param mediaType Tipo de contenido
+     * @param extension Extensión del fichero
+     */
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Obtiene el primer formato compatible con los tipos de contenido solicitados, por orden de preferencia
+     *
+     * @param requested Tipos de contenido solicitados
+     * @return Formato o vacío si ninguno es compatible
+     */
+    public static Optional<ExportFormat> resolve(List<MediaType> requested) {
+        for (MediaType mediaType : requested) {
+            Optional<ExportFormat> format = Arrays.stream(values())
+                    .filter(f -> mediaType.isCompatibleWith(f.mediaType))
+                    .findFirst();
+            if (format.isPresent()) {
+                return format;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Tipos de contenido de todos los formatos
+     *
+     * @return Lista de tipos de contenido
+     */
+    public static List<MediaType> mediaTypes() {
+        return Arrays.stream(values()).map(ExportFormat::getMediaType).toList();
+    }
+}
@@ -0,0 +1,191 @@
+package com.madirex.funkosspringrest.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lector incremental de registros en formato NDJSON o CSV
+ * Lee la entrada línea a línea, de forma que nunca se carga el fichero completo en memoria
+ */
+public class RecordReader implements Closeable {
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper mapper;
+    private String[] header;
+    private long lineNumber = 0;
+
+    /**
+     * Formatos soportados
+     */
+    public enum Format {
+        NDJSON, CSV;
+
+        /**
+         * Obtiene el formato a partir del Content-Type de la petición
+         *
+         * @param contentType Content-Type
+         * @return Formato
+         */
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase().contains("csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    /**
+     * Registro leído
+     *
+     * @param line   Número de línea en la entrada
+     * @param values Valores del registro por nombre de campo
+     * @param error  Error de lectura del registro, o null si se ha leído correctamente
+     */
+    public record Row(long line, Map<String, String> values, String error) {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param input  Entrada
+     * @param format Formato de la entrada
+     * @param mapper ObjectMapper para interpretar las líneas NDJSON
+     */
+    public RecordReader(InputStream input, Format format, ObjectMapper mapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Lee el siguiente registro
+     *
+     * @return Registro leído o null si se ha llegado al final de la entrada
+     * @throws IOException Error al leer la entrada
+     */
+    public Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        if (format == Format.CSV && header == null) {
+            header = splitCsv(line).stream().map(String::trim).toArray(String[]::new);
+            return next();
+        }
+        return format == Format.CSV ? readCsv(line) : readJson(line);
+    }
+
+    /**
+     * Número de la última línea leída
+     *
+     * @return Número de línea
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Cierra el lector
+     *
+     * @throws IOException Error al cerrar la entrada
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Interpreta una línea NDJSON
+     *
+     * @param line Línea
+     * @return Registro
+     */
+    private Row readJson(String line) {
+        try {
+            JsonNode node = mapper.readTree(line);
+            if (node == null || !node.isObject()) {
+                return new Row(lineNumber, Map.of(), "La línea no es un objeto JSON");
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                var field = fields.next();
+                values.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            return new Row(lineNumber, values, null);
+        } catch (JsonProcessingException e) {
+            return new Row(lineNumber, Map.of(), "JSON mal formado: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Interpreta una línea CSV usando la cabecera
+     *
+     * @param line Línea
+     * @return Registro
+     */
+    private Row readCsv(String line) {
+        List<String> cells = splitCsv(line);
+        if (cells.size() != header.length) {
+            return new Row(lineNumber, Map.of(), "Se esperaban " + header.length + " columnas y se han encontrado "
+                    + cells.size());
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String cell = cells.get(i).trim();
+            values.put(header[i], cell.isEmpty() ? null : cell);
+        }
+        return new Row(lineNumber, values, null);
+    }
+
+    /**
+     * Separa una línea CSV en celdas, respetando los valores entrecomillados
+     *
+     * @param line Línea
+     * @return Lista de celdas
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+}
@@ -0,0 +1,465 @@
+package com.madirex.funkosspringrest.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.fasterxml.jackson.dataformat.xml.util.XmlRootNameLookup;
+import org.codehaus.stax2.XMLStreamWriter2;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clase StreamingXmlWriter
+ * Escribe XML directamente sobre el XMLStreamWriter (StAX) de jackson-dataformat-xml, elemento a elemento según se
+ * recorren los datos, sin pasar cada campo por ToXmlGenerator ni el proveedor de serializadores de Jackson
+ * El modelo de campos de cada clase (nombres, orden y exclusión de nulos) se obtiene una sola vez de la introspección
+ * del ObjectMapper JSON, así que el XML tiene los mismos campos que el JSON y el mismo aspecto que el que genera el
+ * XmlMapper. Los valores que no son texto, números, booleanos, UUID, colecciones u objetos sin anotaciones de Jackson
+ * (fechas, enumerados, mapas, clases con formatos o serializadores propios...) se delegan en el XmlMapper sobre el
+ * mismo XMLStreamWriter
+ */
+public class StreamingXmlWriter {
+    private static final String NO_NAMESPACE = "";
+    private static final Set<Class<? extends Annotation>> PLAIN_ANNOTATIONS = Set.of(JsonProperty.class,
+            JsonInclude.class, JsonIgnore.class, JsonPropertyDescription.class, JsonPropertyOrder.class,
+            JsonAutoDetect.class);
+    private static final Set<JsonInclude.Include> PLAIN_INCLUSIONS = Set.of(JsonInclude.Include.ALWAYS,
+            JsonInclude.Include.USE_DEFAULTS, JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_ABSENT,
+            JsonInclude.Include.NON_EMPTY);
+    private static final BeanModel DELEGATED = new BeanModel(List.of());
+
+    private final ObjectMapper jsonMapper;
+    private final XmlMapper xmlMapper;
+    private final ObjectWriter delegateWriter;
+    private final XmlRootNameLookup rootNames = new XmlRootNameLookup();
+    private final Map<Class<?>, BeanModel> models = new ConcurrentHashMap<>();
+    private final Map<String, ElementName> names = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor StreamingXmlWriter
+     *
+     * @param jsonMapper ObjectMapper JSON del que se toma el modelo de campos
+     * @param xmlMapper  XmlMapper en el que se delegan los valores complejos
+     */
+    public StreamingXmlWriter(ObjectMapper jsonMapper, XmlMapper xmlMapper) {
+        this.jsonMapper = jsonMapper;
+        this.xmlMapper = xmlMapper;
+        this.delegateWriter = xmlMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Escribe un objeto como documento XML con el mismo elemento raíz que usaría el XmlMapper
+     * Las colecciones y las clases que no se escriben campo a campo se delegan enteras en el XmlMapper, que usa un
+     * formato propio para las listas en la raíz
+     *
+     * @param value  Objeto
+     * @param output Salida, que no se cierra
+     * @throws IOException Si no se ha podido escribir en la salida
+     */
+    public void write(Object value, OutputStream output) throws IOException {
+        ElementName rootName = elementName(rootNames.findRootName(value.getClass(),
+                xmlMapper.getSerializationConfig()).getLocalPart());
+        Document document = open(output, false);
+        if (isStreamed(value.getClass())) {
+            document.write(rootName.qName().getLocalPart(), value);
+        } else {
+            document.delegate(rootName, value);
+        }
+        document.finish();
+    }
+
+    /**
+     * Abre un documento XML sobre una salida para escribirlo por partes
+     *
+     * @param output      Salida, que no se cierra
+     * @param declaration ¿escribir la declaración XML?
+     * @return Documento
+     * @throws IOException Si no se ha podido iniciar el documento
+     */
+    public Document open(OutputStream output, boolean declaration) throws IOException {
+        try {
+            ToXmlGenerator generator = xmlMapper.getFactory().createGenerator(xmlMapper.getFactory()
+                    .getXMLOutputFactory().createXMLStreamWriter(output, StandardCharsets.UTF_8.name()));
+            XMLStreamWriter2 xml = (XMLStreamWriter2) generator.getStaxWriter();
+            if (declaration) {
+                xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            }
+            return new Document(xml, generator);
+        } catch (XMLStreamException e) {
+            throw new IOException("Error al iniciar el documento XML", e);
+        }
+    }
+
+    /**
+     * Indica si los objetos de una clase se escriben campo a campo, sin delegar en el XmlMapper
+     *
+     * @param type Clase
+     * @return ¿se escribe campo a campo?
+     */
+    public boolean isStreamed(Class<?> type) {
+        return model(type) != DELEGATED;
+    }
+
+    /**
+     * Nombre de elemento con su ObjectWriter para delegar valores, creado la primera vez que se usa
+     *
+     * @param name Nombre del elemento
+     * @return Nombre de elemento
+     */
+    private ElementName elementName(String name) {
+        return names.computeIfAbsent(name, n -> new ElementName(new QName(NO_NAMESPACE, n),
+                delegateWriter.withRootName(n)));
+    }
+
+    /**
+     * Modelo de campos de una clase, calculado la primera vez que se escribe
+     *
+     * @param type Clase
+     * @return Modelo, o DELEGATED si la clase se delega en el XmlMapper
+     */
+    private BeanModel model(Class<?> type) {
+        return models.computeIfAbsent(type, this::introspect);
+    }
+
+    /**
+     * Calcula el modelo de campos de una clase a partir de la introspección del ObjectMapper JSON
+     * Solo se escriben campo a campo las clases que Jackson serializa con un BeanSerializer sin personalizar
+     *
+     * @param type Clase
+     * @return Modelo, o DELEGATED si la clase se delega en el XmlMapper
+     */
+    private BeanModel introspect(Class<?> type) {
+        if (type.isArray() || type.isEnum() || Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type) || type.getName().contains("$HibernateProxy")
+                || !isPlain(type.getAnnotations())) {
+            return DELEGATED;
+        }
+        try {
+            if (jsonMapper.getSerializerProviderInstance().findValueSerializer(type).getClass()
+                    != BeanSerializer.class) {
+                return DELEGATED;
+            }
+        } catch (JsonMappingException e) {
+            return DELEGATED;
+        }
+        SerializationConfig config = jsonMapper.getSerializationConfig();
+        BeanDescription description = config.introspect(config.constructType(type));
+        if (description.findJsonValueAccessor() != null || description.findAnyGetter() != null) {
+            return DELEGATED;
+        }
+        JsonInclude.Value beanInclusion = description.findPropertyInclusion(config.getDefaultPropertyInclusion(type));
+        List<Property> properties = new ArrayList<>();
+        for (BeanPropertyDefinition definition : description.findProperties()) {
+            AnnotatedMember accessor = definition.getAccessor();
+            if (accessor == null || !definition.couldSerialize()) {
+                continue;
+            }
+            JsonInclude.Value inclusion = config.getDefaultInclusion(type, definition.getRawPrimaryType(),
+                    beanInclusion).withOverrides(definition.findInclusion());
+            if (!isPlain(accessor.getAnnotated().getAnnotations())
+                    || (definition.hasField() && !isPlain(definition.getField().getAnnotated().getAnnotations()))
+                    || definition.getPrimaryType().isReferenceType() || !isWrappable(definition.getRawPrimaryType())
+                    || !PLAIN_INCLUSIONS.contains(inclusion.getValueInclusion())
+                    || !PLAIN_INCLUSIONS.contains(inclusion.getContentInclusion())) {
+                return DELEGATED;
+            }
+            accessor.fixAccess(true);
+            properties.add(new Property(elementName(definition.getName()), accessor, inclusion.getValueInclusion()));
+        }
+        return properties.isEmpty() ? DELEGATED : new BeanModel(properties);
+    }
+
+    /**
+     * Comprueba que el tipo declarado de un campo permite saber cómo lo envuelve el XmlMapper: las colecciones solo
+     * se envuelven en un elemento con el nombre del campo si el campo se declara como colección
+     *
+     * @param type Tipo declarado del campo
+     * @return ¿se escribe igual que el XmlMapper?
+     */
+    private static boolean isWrappable(Class<?> type) {
+        if (type.isArray() || type == Object.class) {
+            return false;
+        }
+        return !type.isInterface() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Comprueba que unas anotaciones no cambian la forma en que Jackson serializa
+     *
+     * @param annotations Anotaciones de una clase o un campo
+     * @return ¿solo hay anotaciones que no afectan al formato?
+     */
+    private static boolean isPlain(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotationType.getName().startsWith("com.fasterxml.jackson")
+                    && !PLAIN_ANNOTATIONS.contains(annotationType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si un valor se omite según la regla de inclusión de su campo
+     *
+     * @param value     Valor
+     * @param inclusion Regla de inclusión
+     * @return ¿omitir?
+     */
+    private static boolean isExcluded(Object value, JsonInclude.Include inclusion) {
+        return switch (inclusion) {
+            case NON_NULL, NON_ABSENT -> value == null;
+            case NON_EMPTY -> value == null
+                    || (value instanceof CharSequence text && text.isEmpty())
+                    || (value instanceof Collection<?> collection && collection.isEmpty())
+                    || (value instanceof Map<?, ?> map && map.isEmpty());
+            default -> false;
+        };
+    }
+
+    /**
+     * Documento XML abierto sobre una salida
+     * No es seguro entre hilos: cada documento lo escribe un único hilo
+     */
+    public final class Document {
+        private final XMLStreamWriter2 xml;
+        private final ToXmlGenerator generator;
+
+        /**
+         * Constructor Document
+         *
+         * @param xml       XMLStreamWriter
+         * @param generator ToXmlGenerator sobre el mismo XMLStreamWriter, para los valores delegados
+         */
+        private Document(XMLStreamWriter2 xml, ToXmlGenerator generator) {
+            this.xml = xml;
+            this.generator = generator;
+        }
+
+        /**
+         * Abre un elemento
+         *
+         * @param name Nombre del elemento
+         * @throws IOException Si no se ha podido escribir
+         */
+        public void startElement(String name) throws IOException {
+            try {
+                xml.writeStartElement(NO_NAMESPACE, name);
+            } catch (XMLStreamException e) {
+                throw new IOException("Error al escribir el elemento XML " + name, e);
+            }
+        }
+
+        /**
+         * Escribe un valor como elemento
+         *
+         * @param name  Nombre del elemento
+         * @param value Valor
+         * @throws IOException Si no se ha podido escribir
+         */
+        public void write(String name, Object value) throws IOException {
+            try {
+                writeValue(elementName(name), value);
+            } catch (XMLStreamException e) {
+                throw new IOException("Error al escribir el elemento XML " + name, e);
+            }
+        }
+
+        /**
+         * Cierra el último elemento abierto
+         *
+         * @throws IOException Si no se ha podido escribir
+         */
+        public void endElement() throws IOException {
+            try {
+                xml.writeEndElement();
+            } catch (XMLStreamException e) {
+                throw new IOException("Error al cerrar el elemento XML", e);
+            }
+        }
+
+        /**
+         * Cierra los elementos abiertos y vuelca el documento en la salida, sin cerrarla
+         *
+         * @throws IOException Si no se ha podido escribir
+         */
+        public void finish() throws IOException {
+            try {
+                xml.writeEndDocument();
+                xml.flush();
+            } catch (XMLStreamException e) {
+                throw new IOException("Error al finalizar el documento XML", e);
+            }
+        }
+
+        /**
+         * Escribe un valor con las mismas llamadas a StAX que haría ToXmlGenerator
+         *
+         * @param name  Nombre del elemento
+         * @param value Valor
+         * @throws IOException        Si falla un valor delegado
+         * @throws XMLStreamException Si no se ha podido escribir
+         */
+        private void writeValue(ElementName name, Object value) throws IOException, XMLStreamException {
+            if (value == null) {
+                xml.writeEmptyElement(NO_NAMESPACE, name.qName().getLocalPart());
+                return;
+            }
+            if (value instanceof Collection<?> collection) {
+                writeCollection(name, collection);
+                return;
+            }
+            if (!isScalar(value)) {
+                BeanModel model = model(value.getClass());
+                if (model == DELEGATED) {
+                    delegate(name, value);
+                } else {
+                    writeBean(name, model, value);
+                }
+                return;
+            }
+            xml.writeStartElement(NO_NAMESPACE, name.qName().getLocalPart());
+            if (value instanceof String text) {
+                xml.writeCharacters(text);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                xml.writeInt(((Number) value).intValue());
+            } else if (value instanceof Long number) {
+                xml.writeLong(number);
+            } else if (value instanceof Double number) {
+                xml.writeDouble(number);
+            } else if (value instanceof Float number) {
+                xml.writeFloat(number);
+            } else if (value instanceof BigInteger number) {
+                xml.writeInteger(number);
+            } else if (value instanceof Boolean bool) {
+                xml.writeBoolean(bool);
+            } else {
+                xml.writeCharacters(value.toString());
+            }
+            xml.writeEndElement();
+        }
+
+        /**
+         * Escribe una colección con el elemento envolvente del XmlMapper: el nombre del campo se repite en cada
+         * elemento
+         *
+         * @param name       Nombre del campo
+         * @param collection Colección
+         * @throws IOException        Si falla un valor delegado
+         * @throws XMLStreamException Si no se ha podido escribir
+         */
+        private void writeCollection(ElementName name, Collection<?> collection)
+                throws IOException, XMLStreamException {
+            xml.writeStartElement(NO_NAMESPACE, name.qName().getLocalPart());
+            for (Object item : collection) {
+                if (item instanceof Collection<?> || item instanceof Map<?, ?>
+                        || (item != null && item.getClass().isArray())) {
+                    delegate(name, item);
+                } else {
+                    writeValue(name, item);
+                }
+            }
+            xml.writeEndElement();
+        }
+
+        /**
+         * Escribe un objeto campo a campo
+         *
+         * @param name  Nombre del elemento
+         * @param model Modelo de campos
+         * @param bean  Objeto
+         * @throws IOException        Si falla un valor delegado
+         * @throws XMLStreamException Si no se ha podido escribir
+         */
+        private void writeBean(ElementName name, BeanModel model, Object bean)
+                throws IOException, XMLStreamException {
+            xml.writeStartElement(NO_NAMESPACE, name.qName().getLocalPart());
+            for (Property property : model.properties()) {
+                Object value = property.accessor().getValue(bean);
+                if (!isExcluded(value, property.inclusion())) {
+                    writeValue(property.name(), value);
+                }
+            }
+            xml.writeEndElement();
+        }
+
+        /**
+         * Delega un valor en el XmlMapper, que lo escribe en el mismo XMLStreamWriter con el nombre indicado
+         *
+         * @param name  Nombre del elemento
+         * @param value Valor
+         * @throws IOException Si no se ha podido escribir
+         */
+        private void delegate(ElementName name, Object value) throws IOException {
+            name.writer().writeValue(generator, value);
+        }
+
+        /**
+         * Indica si un valor se escribe directamente como texto
+         *
+         * @param value Valor
+         * @return ¿escalar?
+         */
+        private static boolean isScalar(Object value) {
+            return value instanceof String || value instanceof Integer || value instanceof Long
+                    || value instanceof Double || value instanceof Boolean || value instanceof UUID
+                    || value instanceof Short || value instanceof Byte || value instanceof Float
+                    || value instanceof BigInteger;
+        }
+    }
+
+    /**
+     * Nombre de un elemento
+     *
+     * @param qName  Nombre cualificado, sin espacio de nombres como en el XmlMapper
+     * @param writer ObjectWriter del XmlMapper que escribe un valor delegado con este nombre
+     */
+    private record ElementName(QName qName, ObjectWriter writer) {
+    }
+
+    /**
+     * Campo de una clase
+     *
+     * @param name      Nombre del elemento
+     * @param accessor  Getter o campo del que se lee el valor
+     * @param inclusion Regla de inclusión
+     */
+    private record Property(ElementName name, AnnotatedMember accessor, JsonInclude.Include inclusion) {
+    }
+
+    /**
+     * Campos de una clase en el orden en que los escribe Jackson
+     *
+     * @param properties Campos
+     */
+    private record BeanModel(List<Property> properties) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.madirex.funkosspringrest.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Clase TextNormalizer
+ * Normaliza textos para búsquedas: minúsculas y sin tildes ni diacríticos
+ */
+public class TextNormalizer {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Constructor privado para evitar instanciación
+     */
+    private TextNormalizer() {
+        // Constructor privado para evitar instanciación
+    }
+
+    /**
+     * Normaliza un texto: descompone los caracteres, elimina los diacríticos y lo pasa a minúsculas
+     *
+     * @param text Texto
+     * @return Texto normalizado, o cadena vacía si el texto es nulo
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Divide un texto normalizado en términos alfanuméricos
+     *
+     * @param text Texto
+     * @return Lista de términos
+     */
+    public static List<String> tokenize(String text) {
+        return Arrays.stream(SEPARATORS.split(normalize(text)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
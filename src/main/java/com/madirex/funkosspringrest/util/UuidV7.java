@@ -0,0 +1,57 @@
+package com.madirex.funkosspringrest.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clase UuidV7
+ * Genera UUID de versión 7 (RFC 9562): los 48 bits altos son el instante en milisegundos, así que los IDs nuevos se
+ * insertan al final del índice de la clave primaria en lugar de repartirse por todo el árbol como los UUID aleatorios
+ * Los 12 bits siguientes son un contador que mantiene el orden entre los IDs del mismo milisegundo; si se agota, el
+ * instante avanza un milisegundo. El contador se actualiza con compareAndSet, sin bloqueos, y los 62 bits restantes
+ * son aleatorios de ThreadLocalRandom
+ * Son UUID normales: conviven con los v4 ya guardados y UUID.fromString los acepta
+ */
+public final class UuidV7 {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 7L << COUNTER_BITS;
+    private static final long VARIANT = 1L << 63;
+    private static final long RANDOM_MASK = -1L >>> 2;
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * Constructor privado para evitar instanciación
+     */
+    private UuidV7() {
+    }
+
+    /**
+     * Genera un UUID v7 mayor que todos los generados antes en la aplicación
+     *
+     * @return UUID
+     */
+    public static UUID randomUUID() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long state = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSigBits = (state >>> COUNTER_BITS) << 16 | VERSION | (state & COUNTER_MASK);
+        long leastSigBits = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Obtiene el instante de creación de un UUID v7
+     *
+     * @param uuid UUID
+     * @return Milisegundos desde 1970
+     * @throws IllegalArgumentException Si el UUID no es de versión 7
+     */
+    public static long timestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("El UUID no es de versión 7: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.madirex.funkosspringrest.rest.entities.category.models.Category;
 import com.madirex.funkosspringrest.rest.entities.category.services.CategoryService;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.CreateFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.UpdateFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoService;
@@ -121,7 +122,7 @@ public class FunkoWebController {
      *
      * @param session   Sesión
      * @param model     Modelo
-     * @param search    Búsqueda
+     * @param search    Texto a buscar en el nombre y la categoría
      * @param page      Página
      * @param size      Tamaño
      * @param sortBy    Ordenar por
@@ -147,8 +148,7 @@ public class FunkoWebController {
         Sort sort = direction.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy)
                 .ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        var funkoPage = funkoService.getAllFunko(search, Optional.empty(), Optional.empty(),
-                pageable);
+        var funkoPage = funkoService.getAllFunko(FunkoFilter.builder().q(search.orElse(null)).build(), pageable);
         String welcomeMessage = messageSource.getMessage("welcome.message", null, locale);
         UserStore sessionData = (UserStore) session.getAttribute(USER_SESSION_MSG);
         sessionData.incrementLoginCount();
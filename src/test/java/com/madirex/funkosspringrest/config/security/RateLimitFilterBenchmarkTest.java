@@ -0,0 +1,85 @@
+package com.madirex.funkosspringrest.config.security;
+
+import com.madirex.funkosspringrest.rest.entities.auth.services.jwt.JwtService;
+import com.madirex.funkosspringrest.util.BenchmarkRunner;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase RateLimitFilterBenchmarkTest
+ * Mide el coste por petición del filtro de limitación con varios hilos y muchos clientes distintos
+ */
+@Tag("benchmark")
+class RateLimitFilterBenchmarkTest {
+    private static final int CLIENTS = 10_000;
+    private static final int THREADS = 4;
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000 * THREADS;
+
+    private final RateLimitFilter filter = new RateLimitFilter(mock(JwtService.class), true, 100_000, 60_000,
+            "1000000/1m", "1000000/1m", "1000000/1m", "1000000/1m", "1000000/1m", "1000000/1m", "1000000/1m");
+    private final MockFilterChain chain = new MockFilterChain() {
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) {
+            // Se mide solo el filtro
+        }
+    };
+
+    /**
+     * Prepara las peticiones de un grupo de clientes
+     * Cada hilo usa sus propias peticiones, porque el filtro guarda atributos en ellas
+     *
+     * @param from Primer cliente
+     * @param to   Último cliente, sin incluir
+     * @return Peticiones
+     */
+    private static List<MockHttpServletRequest> requests(int from, int to) {
+        List<MockHttpServletRequest> requests = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            String uri = i % 2 == 0 ? "/api/funkos" : "/api/users";
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+            request.setRemoteAddr("10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /**
+     * Operación de un hilo: pasa por el filtro, una tras otra, las peticiones de su grupo de clientes
+     *
+     * @param thread Índice del hilo
+     * @return Operación
+     */
+    private BenchmarkRunner.Operation clients(int thread) {
+        List<MockHttpServletRequest> requests = requests(thread * CLIENTS / THREADS, (thread + 1) * CLIENTS / THREADS);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return i -> filter.doFilter(requests.get(i % requests.size()), response, chain);
+    }
+
+    /**
+     * Benchmark del filtro: tiempo medio por petición con varios hilos en paralelo
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void benchmarkRateLimitFilter() throws Exception {
+        BenchmarkRunner.Result result = BenchmarkRunner.measure("Filtro de limitación", THREADS, WARMUP, ITERATIONS,
+                this::clients);
+        // Tiempo que pasa cada hilo en una petición
+        double micros = result.micros() * THREADS;
+        BenchmarkRunner.report("Filtro de limitación con %d clientes y %d hilos: %.2f µs/petición",
+                CLIENTS, THREADS, micros);
+        assertTrue(micros < 20, "El filtro tarda " + micros + " µs por petición");
+    }
+}
@@ -0,0 +1,112 @@
+package com.madirex.funkosspringrest.config.security;
+
+import com.madirex.funkosspringrest.rest.entities.auth.services.jwt.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase RateLimitFilterTest
+ */
+class RateLimitFilterTest {
+    private final JwtService jwtService = mock(JwtService.class);
+    private final RateLimitFilter filter = new RateLimitFilter(jwtService, true, 1000, 60_000,
+            "2/1m", "10/1m", "1/1m", "10/1m", "10/1m", "10/1m", "10/1m");
+
+    /**
+     * Ejecuta una petición a través del filtro
+     *
+     * @param uri   Ruta
+     * @param ip    IP del cliente
+     * @param token Token Bearer o null
+     * @return Respuesta
+     * @throws Exception excepción
+     */
+    private MockHttpServletResponse perform(String uri, String ip, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(ip);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * Crea un token válido para un usuario
+     *
+     * @param username Nombre de usuario
+     * @return Token
+     */
+    private String token(String username) {
+        String token = "token-" + username;
+        when(jwtService.extractVerifiedUserName(token)).thenReturn(username);
+        return token;
+    }
+
+    /**
+     * Test para comprobar que al superar el límite por IP se responde 429 con Retry-After
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testIpLimit() throws Exception {
+        assertEquals(200, perform("/api/auth/signin", "10.0.0.1", null).getStatus());
+        assertEquals(200, perform("/api/auth/signin", "10.0.0.1", null).getStatus());
+        MockHttpServletResponse limited = perform("/api/auth/signin", "10.0.0.1", null);
+        assertAll(
+                () -> assertEquals(429, limited.getStatus()),
+                () -> assertEquals("30", limited.getHeader("Retry-After")),
+                () -> assertEquals(200, perform("/api/auth/signin", "10.0.0.2", null).getStatus()),
+                () -> assertEquals(200, perform("/api/funkos", "10.0.0.1", null).getStatus())
+        );
+    }
+
+    /**
+     * Test para comprobar que el límite por usuario se aplica aunque cambie la IP
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testUserLimit() throws Exception {
+        assertEquals(200, perform("/api/orders", "10.0.0.1", token("ana")).getStatus());
+        assertAll(
+                () -> assertEquals(429, perform("/api/orders", "10.0.0.2", token("ana")).getStatus()),
+                () -> assertEquals(200, perform("/api/orders", "10.0.0.2", token("luis")).getStatus()),
+                () -> assertEquals(200, perform("/api/orders", "10.0.0.3", "no-es-un-token").getStatus())
+        );
+    }
+
+    /**
+     * Test para comprobar que un token sin firma válida no consume el límite de su usuario
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testUnverifiedTokenUsesIpLimit() throws Exception {
+        assertAll(
+                () -> assertEquals(200, perform("/api/orders", "10.0.0.1", "token-falso-ana").getStatus()),
+                () -> assertEquals(200, perform("/api/orders", "10.0.0.2", "token-falso-ana").getStatus()),
+                () -> assertEquals(200, perform("/api/orders", "10.0.0.3", token("ana")).getStatus())
+        );
+        verify(jwtService, times(2)).extractVerifiedUserName("token-falso-ana");
+    }
+
+    /**
+     * Test para comprobar que los recursos estáticos no se limitan
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testStaticNotFiltered() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("/webjars/bootstrap.css", "10.0.0.1", null).getStatus());
+        }
+        assertEquals(0, filter.buckets());
+    }
+}
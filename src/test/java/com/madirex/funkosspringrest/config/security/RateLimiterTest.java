@@ -0,0 +1,93 @@
+package com.madirex.funkosspringrest.config.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase RateLimiterTest
+ */
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final RateLimiter.Limit limit = RateLimiter.Limit.parse("3/3s");
+
+    /**
+     * Avanza el reloj
+     *
+     * @param millis Milisegundos
+     */
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Test para comprobar que se permite la ráfaga configurada y después se indica cuánto esperar
+     */
+    @Test
+    void testBurstAndRefill() {
+        RateLimiter limiter = new RateLimiter(100, 60_000, clock::get);
+        assertAll(
+                () -> assertEquals(0, limiter.tryAcquire("ip:1", limit)),
+                () -> assertEquals(0, limiter.tryAcquire("ip:1", limit)),
+                () -> assertEquals(0, limiter.tryAcquire("ip:1", limit)),
+                () -> assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("ip:1", limit)),
+                () -> assertEquals(0, limiter.tryAcquire("ip:2", limit))
+        );
+        advance(1000);
+        assertAll(
+                () -> assertEquals(0, limiter.tryAcquire("ip:1", limit)),
+                () -> assertTrue(limiter.tryAcquire("ip:1", limit) > 0)
+        );
+    }
+
+    /**
+     * Test para comprobar que las cubetas llenas se eliminan en la limpieza
+     */
+    @Test
+    void testSweepIdleBuckets() {
+        RateLimiter limiter = new RateLimiter(100, 1000, clock::get);
+        limiter.tryAcquire("ip:1", limit);
+        limiter.tryAcquire("ip:2", limit);
+        assertEquals(2, limiter.size());
+        advance(5000);
+        limiter.tryAcquire("ip:3", limit);
+        assertEquals(1, limiter.size());
+    }
+
+    /**
+     * Test para comprobar que al llegar al máximo de cubetas las claves nuevas comparten una cubeta
+     */
+    @Test
+    void testOverflowSharesBucket() {
+        RateLimiter limiter = new RateLimiter(1, 60_000, clock::get);
+        limiter.tryAcquire("ip:1", limit);
+        assertAll(
+                () -> assertEquals(0, limiter.tryAcquire("ip:2", limit)),
+                () -> assertEquals(0, limiter.tryAcquire("ip:3", limit)),
+                () -> assertEquals(0, limiter.tryAcquire("ip:4", limit)),
+                () -> assertTrue(limiter.tryAcquire("ip:5", limit) > 0),
+                () -> assertEquals(1, limiter.size())
+        );
+    }
+
+    /**
+     * Test para comprobar el formato de los límites
+     */
+    @Test
+    void testParseLimit() {
+        assertAll(
+                () -> assertEquals(new RateLimiter.Limit(60, TimeUnit.MINUTES.toNanos(1)),
+                        RateLimiter.Limit.parse("60/1m")),
+                () -> assertEquals(new RateLimiter.Limit(5, TimeUnit.HOURS.toNanos(2)),
+                        RateLimiter.Limit.parse(" 5/2H ")),
+                () -> assertNull(RateLimiter.Limit.parse("0")),
+                () -> assertNull(RateLimiter.Limit.parse("")),
+                () -> assertThrows(IllegalArgumentException.class, () -> RateLimiter.Limit.parse("5/1d")),
+                () -> assertThrows(IllegalArgumentException.class, () -> RateLimiter.Limit.parse("0/1m")),
+                () -> assertThrows(IllegalArgumentException.class, () -> RateLimiter.Limit.parse("abc"))
+        );
+    }
+}
@@ -0,0 +1,89 @@
+package com.madirex.funkosspringrest.config.threads;
+
+import com.madirex.funkosspringrest.rest.entities.user.exceptions.UserNotFound;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase CompositeReaderTest
+ */
+class CompositeReaderTest {
+    private final CompositeReader compositeReader = new CompositeReader(500, 4);
+
+    /**
+     * Detiene el ejecutor
+     */
+    @AfterEach
+    void tearDown() {
+        compositeReader.destroy();
+    }
+
+    /**
+     * Test para comprobar que las lecturas se ejecutan a la vez y sus resultados están disponibles tras join
+     */
+    @Test
+    void testForkAndJoin() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        try (var reads = compositeReader.open()) {
+            Supplier<String> first = reads.fork(() -> {
+                bothStarted.countDown();
+                return bothStarted.await(1, TimeUnit.SECONDS) ? "postgres" : "secuencial";
+            });
+            Supplier<Integer> second = reads.fork(() -> {
+                bothStarted.countDown();
+                return bothStarted.await(1, TimeUnit.SECONDS) ? 2 : 0;
+            });
+            assertThrows(IllegalStateException.class, first::get);
+            reads.join();
+            assertAll(
+                    () -> assertEquals("postgres", first.get()),
+                    () -> assertEquals(2, second.get())
+            );
+        }
+    }
+
+    /**
+     * Test para comprobar que un error se propaga y cancela las lecturas pendientes
+     */
+    @Test
+    void testFailureCancelsPending() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        try (var reads = compositeReader.open()) {
+            reads.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    cancelled.countDown();
+                }
+                return null;
+            });
+            reads.fork(() -> {
+                throw new UserNotFound("1");
+            });
+            assertThrows(UserNotFound.class, reads::join);
+        }
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test para comprobar que se agota el plazo de la lectura compuesta
+     */
+    @Test
+    void testDeadline() {
+        try (var reads = compositeReader.open()) {
+            reads.fork(() -> {
+                Thread.sleep(10_000);
+                return null;
+            });
+            long start = System.nanoTime();
+            assertThrows(CompositeReadTimeout.class, reads::join);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+        }
+    }
+}
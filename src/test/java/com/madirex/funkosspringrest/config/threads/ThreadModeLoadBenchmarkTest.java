@@ -0,0 +1,147 @@
+package com.madirex.funkosspringrest.config.threads;
+
+import com.madirex.funkosspringrest.FunkosSpringRestApplication;
+import com.madirex.funkosspringrest.util.BenchmarkRunner;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase ThreadModeLoadBenchmarkTest
+ * Compara el rendimiento con hilos de plataforma y con hilos virtuales bajo una carga de E/S mixta: cada petición
+ * consulta el catálogo en la base de datos y espera además una llamada externa simulada. Con el pool de Tomcat
+ * limitado, los hilos de plataforma se agotan mientras esperan y las peticiones se encolan
+ */
+@Tag("benchmark")
+class ThreadModeLoadBenchmarkTest {
+    private static final int PLATFORM_THREADS = 50;
+    private static final int CONCURRENCY = 400;
+    private static final int REQUESTS = 4_000;
+    private static final int WARMUP = 200;
+    private static final long DOWNSTREAM_LATENCY_MS = 20;
+
+    /**
+     * Test para comprobar que los hilos virtuales aumentan el rendimiento con E/S bloqueante
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        BenchmarkRunner.report("Hilos de plataforma: %.0f peticiones/s, p50 %d ms, p99 %d ms",
+                platform.throughput(), platform.p50(), platform.p99());
+        BenchmarkRunner.report("Hilos virtuales:     %.0f peticiones/s, p50 %d ms, p99 %d ms",
+                virtual.throughput(), virtual.p50(), virtual.p99());
+        assertAll(
+                () -> assertEquals(0, platform.errors()),
+                () -> assertEquals(0, virtual.errors()),
+                () -> assertTrue(virtual.throughput() > platform.throughput(),
+                        "Los hilos virtuales no mejoran el rendimiento")
+        );
+    }
+
+    /**
+     * Arranca la aplicación en un modo de hilos y mide la carga
+     *
+     * @param virtualThreads ¿hilos virtuales?
+     * @return Resultado de la medición
+     * @throws Exception excepción
+     */
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                FunkosSpringRestApplication.class, DownstreamLatency.class)
+                .properties(
+                        "server.port=0",
+                        "server.ssl.enabled=false",
+                        "server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "server.tomcat.accept-count=" + CONCURRENCY * 2,
+                        "server.tomcat.max-connections=" + CONCURRENCY * 2,
+                        "rate-limit.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/funkos/list");
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            // Latencias en milisegundos; -1 para las peticiones fallidas
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>(WARMUP + REQUESTS));
+            BenchmarkRunner.Result result = BenchmarkRunner.measure(
+                    virtualThreads ? "Hilos virtuales" : "Hilos de plataforma", CONCURRENCY, WARMUP, REQUESTS,
+                    worker -> i -> {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies.add(response.statusCode() == 200 ? (System.nanoTime() - start) / 1_000_000 : -1);
+                    });
+            // Las primeras latencias son las del calentamiento, que termina antes de empezar la medición
+            List<Long> measured = latencies.subList(WARMUP, latencies.size());
+            long errors = measured.stream().filter(latency -> latency < 0).count();
+            List<Long> sorted = measured.stream().filter(latency -> latency >= 0).sorted().toList();
+            return new Result(1e9 / result.nanos(), percentile(sorted, 0.5), percentile(sorted, 0.99), errors);
+        }
+    }
+
+    /**
+     * Percentil de una lista ordenada
+     *
+     * @param sorted   Valores ordenados
+     * @param fraction Percentil entre 0 y 1
+     * @return Valor del percentil
+     */
+    private static long percentile(List<Long> sorted, double fraction) {
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(fraction * sorted.size()) - 1));
+    }
+
+    /**
+     * Resultado de una medición
+     *
+     * @param throughput Peticiones por segundo
+     * @param p50        Latencia mediana en milisegundos
+     * @param p99        Percentil 99 de la latencia en milisegundos
+     * @param errors     Peticiones fallidas
+     */
+    private record Result(double throughput, long p50, long p99, long errors) {
+    }
+
+    /**
+     * Simula una llamada bloqueante a un servicio externo en cada petición del catálogo
+     */
+    @TestConfiguration
+    static class DownstreamLatency {
+        /**
+         * Filtro que espera la latencia del servicio externo
+         *
+         * @return Registro del filtro
+         */
+        @Bean
+        FilterRegistrationBean<Filter> downstreamLatencyFilter() {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                try {
+                    Thread.sleep(DOWNSTREAM_LATENCY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                chain.doFilter(request, response);
+            });
+            registration.addUrlPatterns("/funkos/list");
+            return registration;
+        }
+    }
+}
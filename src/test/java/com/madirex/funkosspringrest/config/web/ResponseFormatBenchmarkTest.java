@@ -0,0 +1,94 @@
+package com.madirex.funkosspringrest.config.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.pagination.model.PageResponse;
+import com.madirex.funkosspringrest.util.BenchmarkRunner;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase ResponseFormatBenchmarkTest
+ * Compara el tamaño y los tiempos de codificación y decodificación de una página de Funkos en JSON, XML, CBOR y Smile
+ */
+@Tag("benchmark")
+class ResponseFormatBenchmarkTest {
+    private static final int FUNKOS = 1_000;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+    private static final TypeReference<PageResponse<GetFunkoDTO>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Test para comprobar que los formatos binarios son más compactos que JSON y XML
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void compareFormats() throws Exception {
+        PageResponse<GetFunkoDTO> page = page();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("JSON", new Jackson2ObjectMapperBuilder().build());
+        mappers.put("XML", new Jackson2ObjectMapperBuilder().createXmlMapper(true).build());
+        mappers.put("CBOR", new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build());
+        mappers.put("Smile", new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build());
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] bytes = mapper.writeValueAsBytes(page);
+            PageResponse<GetFunkoDTO> decoded = mapper.readValue(bytes, PAGE_TYPE);
+            assertEquals(page.content().get(FUNKOS - 1).getName(), decoded.content().get(FUNKOS - 1).getName());
+            BenchmarkRunner.Result encode = BenchmarkRunner.measure(entry.getKey() + " codificar", WARMUP, ITERATIONS,
+                    i -> mapper.writeValueAsBytes(page));
+            BenchmarkRunner.Result decode = BenchmarkRunner.measure(entry.getKey() + " decodificar", WARMUP, ITERATIONS,
+                    i -> mapper.readValue(bytes, PAGE_TYPE));
+            sizes.put(entry.getKey(), bytes.length);
+            BenchmarkRunner.report("%-5s %8d bytes  codificar %6.0f µs  decodificar %6.0f µs",
+                    entry.getKey(), bytes.length, encode.micros(), decode.micros());
+        }
+        assertAll(
+                () -> assertTrue(sizes.get("CBOR") < sizes.get("JSON")),
+                () -> assertTrue(sizes.get("Smile") < sizes.get("JSON")),
+                () -> assertTrue(sizes.get("JSON") < sizes.get("XML"))
+        );
+    }
+
+    /**
+     * Página de Funkos de prueba
+     *
+     * @return Página
+     */
+    private static PageResponse<GetFunkoDTO> page() {
+        Category category = Category.builder().id(1L).type("MOVIE").active(true)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        List<GetFunkoDTO> funkos = IntStream.range(0, FUNKOS)
+                .mapToObj(i -> GetFunkoDTO.builder()
+                        .id(UUID.randomUUID())
+                        .name("Funko " + i)
+                        .price((i * 7919) % 10000 / 100.0)
+                        .quantity(i % 50)
+                        .image("https://www.madirex.com/images/" + i + ".jpg")
+                        .category(category)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build())
+                .toList();
+        return PageResponse.of(new PageImpl<>(funkos, PageRequest.of(0, FUNKOS), FUNKOS * 10L), "id", "asc");
+    }
+}
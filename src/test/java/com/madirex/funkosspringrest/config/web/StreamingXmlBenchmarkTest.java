@@ -0,0 +1,92 @@
+package com.madirex.funkosspringrest.config.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.pagination.model.PageResponse;
+import com.madirex.funkosspringrest.util.BenchmarkRunner;
+import com.madirex.funkosspringrest.util.StreamingXmlWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase StreamingXmlBenchmarkTest
+ * Compara el tiempo y la memoria reservada al escribir una página de Funkos en XML con el XmlMapper de Jackson y con
+ * StreamingXmlWriter, con JSON como referencia
+ */
+@Tag("benchmark")
+class StreamingXmlBenchmarkTest {
+    private static final int FUNKOS = 1_000;
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 1_000;
+
+    /**
+     * Test para comprobar que el XML en streaming es igual al de Jackson y medir ambos
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void compareXmlWriters() throws Exception {
+        PageResponse<GetFunkoDTO> page = page();
+        ObjectMapper jsonMapper = new Jackson2ObjectMapperBuilder().build();
+        XmlMapper xmlMapper = new Jackson2ObjectMapperBuilder().createXmlMapper(true).build();
+        ObjectWriter jsonWriter = jsonMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        ObjectWriter xmlWriter = xmlMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingXmlWriter streamingXmlWriter = new StreamingXmlWriter(jsonMapper, xmlMapper);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        streamingXmlWriter.write(page, streamed);
+        assertEquals(xmlMapper.writeValueAsString(page), streamed.toString(StandardCharsets.UTF_8));
+
+        // Salida que descarta los bytes, para medir solo la escritura
+        OutputStream output = OutputStream.nullOutputStream();
+        BenchmarkRunner.Result json = BenchmarkRunner.measure("JSON", WARMUP, ITERATIONS,
+                i -> jsonWriter.writeValue(output, page));
+        BenchmarkRunner.Result jackson = BenchmarkRunner.measure("XML Jackson", WARMUP, ITERATIONS,
+                i -> xmlWriter.writeValue(output, page));
+        BenchmarkRunner.Result streaming = BenchmarkRunner.measure("XML StAX", WARMUP, ITERATIONS,
+                i -> streamingXmlWriter.write(page, output));
+        BenchmarkRunner.report("XML StAX frente a Jackson: %.2fx más rápido, %.2fx menos memoria (JSON %.0f µs)",
+                jackson.nanos() / streaming.nanos(), (double) jackson.bytes() / Math.max(1, streaming.bytes()),
+                json.micros());
+    }
+
+    /**
+     * Página de Funkos de prueba
+     *
+     * @return Página
+     */
+    private static PageResponse<GetFunkoDTO> page() {
+        Category category = Category.builder().id(1L).type("MOVIE").active(true)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        List<GetFunkoDTO> funkos = IntStream.range(0, FUNKOS)
+                .mapToObj(i -> GetFunkoDTO.builder()
+                        .id(UUID.randomUUID())
+                        .name("Funko " + i)
+                        .price((i * 7919) % 10000 / 100.0)
+                        .quantity(i % 50)
+                        .image("https://www.madirex.com/images/" + i + ".jpg")
+                        .category(category)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build())
+                .toList();
+        return PageResponse.of(new PageImpl<>(funkos, PageRequest.of(0, FUNKOS), FUNKOS * 10L), "id", "asc");
+    }
+}
@@ -0,0 +1,185 @@
+package com.madirex.funkosspringrest.config.web;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.order.models.Address;
+import com.madirex.funkosspringrest.rest.entities.order.models.Client;
+import com.madirex.funkosspringrest.rest.entities.order.models.Order;
+import com.madirex.funkosspringrest.rest.entities.order.models.OrderLine;
+import com.madirex.funkosspringrest.rest.pagination.model.CursorPageResponse;
+import com.madirex.funkosspringrest.rest.pagination.model.PageResponse;
+import com.madirex.funkosspringrest.util.StreamingXmlWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase StreamingXmlHttpMessageConverterTest
+ */
+class StreamingXmlHttpMessageConverterTest {
+    private XmlMapper xmlMapper;
+    private ObjectMapper jsonMapper;
+    private StreamingXmlHttpMessageConverter converter;
+
+    /**
+     * Fecha con formato propio, que se delega en el XmlMapper
+     *
+     * @param name Nombre
+     * @param day  Fecha
+     */
+    record Release(String name, @JsonFormat(pattern = "dd/MM/yyyy") LocalDate day) {
+    }
+
+    /**
+     * Inicializa el convertidor con los mismos mappers que la aplicación
+     */
+    @BeforeEach
+    void setUp() {
+        xmlMapper = new Jackson2ObjectMapperBuilder().createXmlMapper(true).build();
+        jsonMapper = new Jackson2ObjectMapperBuilder().build();
+        converter = new StreamingXmlHttpMessageConverter(xmlMapper, jsonMapper,
+                List.of(PageResponse.class, CursorPageResponse.class));
+    }
+
+    /**
+     * Test para comprobar que una página de Funkos se escribe igual que con Jackson, con nulos y facetas
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testFunkoPageLikeJackson() throws Exception {
+        Category category = Category.builder().id(1L).type("MOVIE").active(true)
+                .createdAt(LocalDateTime.of(2023, 1, 1, 10, 0)).updatedAt(LocalDateTime.now()).build();
+        List<GetFunkoDTO> funkos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            funkos.add(GetFunkoDTO.builder()
+                    .id(UUID.randomUUID())
+                    .name("Funko <" + i + "> & \"Co\"")
+                    .price(12.99 * i)
+                    .quantity(i)
+                    .image(i == 1 ? null : "https://www.madirex.com/images/" + i + ".jpg")
+                    .category(i == 2 ? null : category)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        PageResponse<GetFunkoDTO> page = PageResponse.of(new PageImpl<>(funkos, PageRequest.of(0, 3), 30), "id",
+                "asc", Map.of("category", Map.of("MOVIE", 2L)));
+        assertAll(
+                () -> assertTrue(new StreamingXmlWriter(jsonMapper, xmlMapper).isStreamed(GetFunkoDTO.class)),
+                () -> assertEquals(xmlMapper.writeValueAsString(page), write(page)),
+                () -> assertEquals(xmlMapper.writeValueAsString(PageResponse.of(new PageImpl<>(funkos.subList(0, 1),
+                        PageRequest.of(0, 1), 1), null, null)), write(PageResponse.of(new PageImpl<>(
+                        funkos.subList(0, 1), PageRequest.of(0, 1), 1), null, null)))
+        );
+    }
+
+    /**
+     * Test para comprobar que una página de pedidos, con registros y listas anidadas, se escribe igual que con Jackson
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testOrderPageLikeJackson() throws Exception {
+        Order order = Order.builder()
+                .userId("1")
+                .client(new Client("Madirex", "madirex@madirex.com", "123456789",
+                        new Address("Calle", "1", "Madrid", "Madrid", "España", "28001")))
+                .build();
+        order.setOrderLineList(List.of(
+                OrderLine.builder().productId(UUID.randomUUID().toString()).quantity(2).productPrice(10.0)
+                        .total(20.0).build(),
+                OrderLine.builder().productId(UUID.randomUUID().toString()).build()));
+        Order empty = Order.builder().userId("2").build();
+        PageResponse<Order> page = PageResponse.of(new PageImpl<>(List.of(order, empty), PageRequest.of(0, 2), 2),
+                "createdAt", "desc");
+        assertEquals(xmlMapper.writeValueAsString(page), write(page));
+    }
+
+    /**
+     * Test para comprobar que las páginas por cursor vacías y las clases con formatos propios se escriben igual
+     * que con Jackson
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testCursorPageAndDelegatedClasses() throws Exception {
+        CursorPageResponse<Release> emptyPage = new CursorPageResponse<>(List.of(), 10, true, null);
+        CursorPageResponse<Release> page = new CursorPageResponse<>(
+                List.of(new Release("Batman", LocalDate.of(2023, 5, 4))), 10, false, "abc");
+        assertAll(
+                () -> assertFalse(new StreamingXmlWriter(jsonMapper, xmlMapper).isStreamed(Release.class)),
+                () -> assertEquals(xmlMapper.writeValueAsString(emptyPage), write(emptyPage)),
+                () -> assertEquals(xmlMapper.writeValueAsString(page), write(page)),
+                () -> assertTrue(write(page).contains("<day>04/05/2023</day>"))
+        );
+    }
+
+    /**
+     * Test para comprobar que las respuestas que no son páginas siguen escribiéndose con Jackson
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testOtherTypesUseJackson() throws Exception {
+        GetFunkoDTO funko = GetFunkoDTO.builder().id(UUID.randomUUID()).name("Funko").price(1.0).quantity(1).build();
+        assertAll(
+                () -> assertFalse(converter.canWrite(PageResponse.class, MediaType.APPLICATION_JSON)),
+                () -> assertTrue(converter.canRead(GetFunkoDTO.class, MediaType.APPLICATION_XML)),
+                () -> assertEquals(xmlMapper.writeValueAsString(funko), write(funko))
+        );
+    }
+
+    /**
+     * Test para comprobar que un documento escrito por partes tiene declaración y un elemento por valor
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testDocument() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingXmlWriter.Document document = new StreamingXmlWriter(jsonMapper, xmlMapper).open(output, true);
+        document.startElement("funkos");
+        document.write("funko", GetFunkoDTO.builder().name("Uno").build());
+        document.write("funko", GetFunkoDTO.builder().name("Dos").build());
+        document.finish();
+        String xml = output.toString(StandardCharsets.UTF_8);
+        assertAll(
+                () -> assertTrue(xml.startsWith("<?xml")),
+                () -> assertTrue(xml.contains("<funkos><funko><id/><name>Uno</name>")),
+                () -> assertTrue(xml.endsWith("</funko></funkos>")),
+                () -> assertEquals(2, xmlMapper.readTree(xml.substring(xml.indexOf("<funkos>"))).get("funko").size())
+        );
+    }
+
+    /**
+     * Escribe un objeto con el convertidor como XML
+     *
+     * @param value Objeto
+     * @return XML
+     * @throws Exception excepción
+     */
+    private String write(Object value) throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(value, MediaType.APPLICATION_XML, outputMessage);
+        return outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package com.madirex.funkosspringrest.rest.cache;
+
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase SecondLevelCacheRegionsTest
+ * Comprueba con las estadísticas de Hibernate que las lecturas repetidas salen de la caché de segundo nivel y que las
+ * sentencias UPDATE de JPQL invalidan sus regiones
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SecondLevelCacheRegionsTest {
+    private static final UUID FUNKO_ID = UUID.fromString("57b77805-c1ce-490f-a96f-ec15505d5fae");
+    private static final UUID USER_ID = UUID.fromString("a2bcb7b3-4c36-4073-9ab8-9d8f4a57301b");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Test para comprobar que la segunda lectura de un Funko no consulta la base de datos
+     */
+    @Test
+    void testFunkoFromCache() {
+        inSession(entityManager -> assertNotNull(entityManager.find(Funko.class, FUNKO_ID)));
+        boolean cached = entityManagerFactory.getCache().contains(Funko.class, FUNKO_ID);
+        long statements = statistics.getPrepareStatementCount();
+        inSession(entityManager -> assertNotNull(entityManager.find(Funko.class, FUNKO_ID)));
+        assertAll(
+                () -> assertTrue(cached),
+                () -> assertEquals(statements, statistics.getPrepareStatementCount()),
+                () -> assertEquals(1, statistics.getDomainDataRegionStatistics(Funko.CACHE_REGION).getHitCount())
+        );
+    }
+
+    /**
+     * Test para comprobar que un UPDATE de JPQL sobre los usuarios invalida la región de roles
+     */
+    @Test
+    void testUserRolesEvictedByJpqlUpdate() {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        String roles = User.class.getName() + ".roles";
+        inSession(entityManager -> assertFalse(entityManager.find(User.class, USER_ID).getRoles().isEmpty()));
+        boolean cached = cache.containsCollection(roles, USER_ID);
+        inSession(entityManager -> {
+            entityManager.getTransaction().begin();
+            entityManager.createQuery("UPDATE User u SET u.isDeleted = u.isDeleted WHERE u.id = :id")
+                    .setParameter("id", USER_ID)
+                    .executeUpdate();
+            entityManager.getTransaction().commit();
+        });
+        assertAll(
+                () -> assertTrue(cached),
+                () -> assertFalse(cache.containsCollection(roles, USER_ID))
+        );
+    }
+
+    /**
+     * Ejecuta una operación en una sesión nueva, para que no se lea del contexto de persistencia
+     *
+     * @param operation Operación
+     */
+    private void inSession(Consumer<EntityManager> operation) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            operation.accept(entityManager);
+        } finally {
+            entityManager.close();
+        }
+    }
+}
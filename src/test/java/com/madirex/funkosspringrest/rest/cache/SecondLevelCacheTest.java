@@ -0,0 +1,90 @@
+package com.madirex.funkosspringrest.rest.cache;
+
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase SecondLevelCacheTest
+ */
+@ExtendWith(MockitoExtension.class)
+class SecondLevelCacheTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    private SecondLevelCache secondLevelCache;
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        secondLevelCache = new SecondLevelCache(entityManagerFactory);
+    }
+
+    /**
+     * Test para comprobar que se invalida la región de la entidad
+     */
+    @Test
+    void testEvict() {
+        Cache cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        secondLevelCache.evict(Funko.class);
+        verify(cache, times(1)).evict(Funko.class);
+    }
+
+    /**
+     * Test para comprobar que se devuelven las estadísticas de cada región ordenadas y con la proporción de aciertos
+     */
+    @Test
+    void testStatistics() {
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        Statistics statistics = mock(Statistics.class);
+        CacheRegionStatistics funko = region("funko", 3, 1, 4);
+        CacheRegionStatistics category = region("category", 0, 0, 0);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"funko", "category", "unknown"});
+        when(statistics.getCacheRegionStatistics("funko")).thenReturn(funko);
+        when(statistics.getCacheRegionStatistics("category")).thenReturn(category);
+        when(statistics.getCacheRegionStatistics("unknown")).thenReturn(null);
+        List<SecondLevelCache.RegionStatistics> result = secondLevelCache.statistics();
+        assertAll(
+                () -> assertEquals(2, result.size()),
+                () -> assertEquals(new SecondLevelCache.RegionStatistics("category", 0, 0, 0, 0), result.get(0)),
+                () -> assertEquals(new SecondLevelCache.RegionStatistics("funko", 3, 1, 4, 0.75), result.get(1))
+        );
+    }
+
+    /**
+     * Estadísticas de Hibernate de una región
+     *
+     * @param name   Nombre de la región
+     * @param hits   Aciertos
+     * @param misses Fallos
+     * @param puts   Entradas guardadas
+     * @return Estadísticas
+     */
+    private static CacheRegionStatistics region(String name, long hits, long misses, long puts) {
+        CacheRegionStatistics statistics = mock(CacheRegionStatistics.class);
+        when(statistics.getRegionName()).thenReturn(name);
+        when(statistics.getHitCount()).thenReturn(hits);
+        when(statistics.getMissCount()).thenReturn(misses);
+        when(statistics.getPutCount()).thenReturn(puts);
+        return statistics;
+    }
+}
@@ -0,0 +1,221 @@
+package com.madirex.funkosspringrest.rest.catalog;
+
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.accept.ContentNegotiationManager;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase CatalogETagFilterTest
+ */
+class CatalogETagFilterTest {
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final CatalogETagFilter filter = new CatalogETagFilter(catalogVersion, new ContentNegotiationManager(),
+            true);
+
+    /**
+     * Ejecuta una petición a través del filtro
+     *
+     * @param method      Método HTTP
+     * @param uri         Ruta
+     * @param ifNoneMatch Cabecera If-None-Match o null
+     * @param chain       Cadena de filtros
+     * @return Respuesta
+     * @throws Exception excepción
+     */
+    private MockHttpServletResponse perform(String method, String uri, String ifNoneMatch, MockFilterChain chain)
+            throws Exception {
+        return perform(method, uri, null, ifNoneMatch, chain);
+    }
+
+    /**
+     * Ejecuta una petición a través del filtro con una cabecera Accept
+     *
+     * @param method      Método HTTP
+     * @param uri         Ruta
+     * @param accept      Cabecera Accept o null
+     * @param ifNoneMatch Cabecera If-None-Match o null
+     * @param chain       Cadena de filtros
+     * @return Respuesta
+     * @throws Exception excepción
+     */
+    private MockHttpServletResponse perform(String method, String uri, String accept, String ifNoneMatch,
+                                            MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    /**
+     * Crea una cadena de filtros que responde como el controlador
+     *
+     * @param status      Estado de la respuesta; los errores se envían con sendError
+     * @param contentType Tipo de contenido de la respuesta
+     * @return Cadena de filtros
+     */
+    private static MockFilterChain chain(int status, MediaType contentType) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                if (status >= 400) {
+                    response.sendError(status);
+                    return;
+                }
+                response.setStatus(status);
+                response.setContentType(contentType.toString());
+                response.getOutputStream().write(new byte[]{'{', '}'});
+            }
+        });
+    }
+
+    /**
+     * Crea una cadena de filtros que responde 200 con JSON
+     *
+     * @return Cadena de filtros
+     */
+    private static MockFilterChain json() {
+        return chain(200, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Test para comprobar que se responde 304 sin llegar al controlador si la ETag sigue vigente
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testNotModified() throws Exception {
+        MockHttpServletResponse first = perform("GET", "/api/funkos", null, json());
+        String etag = first.getHeader("ETag");
+        MockFilterChain chain = json();
+        MockHttpServletResponse second = perform("GET", "/api/funkos", etag, chain);
+        assertAll(
+                () -> assertEquals(200, first.getStatus()),
+                () -> assertTrue(etag.startsWith("W/\"")),
+                () -> assertTrue(etag.endsWith("-application/json\"")),
+                () -> assertEquals("no-cache", first.getHeader("Cache-Control")),
+                () -> assertEquals("Accept", first.getHeader("Vary")),
+                () -> assertEquals(304, second.getStatus()),
+                () -> assertEquals(etag, second.getHeader("ETag")),
+                () -> assertEquals("Accept", second.getHeader("Vary")),
+                () -> assertNull(chain.getRequest())
+        );
+    }
+
+    /**
+     * Test para comprobar que una escritura invalida la ETag del listado
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testModifiedAfterWrite() throws Exception {
+        String etag = perform("GET", "/api/category", null, json()).getHeader("ETag");
+        catalogVersion.onFunkoChange(FunkoChangeEvent.bulk());
+        MockHttpServletResponse response = perform("GET", "/api/category", etag, json());
+        assertAll(
+                () -> assertEquals(200, response.getStatus()),
+                () -> assertNotEquals(etag, response.getHeader("ETag"))
+        );
+    }
+
+    /**
+     * Test para comprobar que cada tipo de contenido negociado tiene su propia ETag
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testETagPerMediaType() throws Exception {
+        String jsonETag = perform("GET", "/api/funkos", null, json()).getHeader("ETag");
+        MockHttpServletResponse xml = perform("GET", "/api/funkos", "application/xml", jsonETag,
+                chain(200, MediaType.APPLICATION_XML));
+        MockFilterChain chain = json();
+        MockHttpServletResponse notModified = perform("GET", "/api/funkos", "application/xml;q=0.5, application/json",
+                jsonETag, chain);
+        assertAll(
+                () -> assertEquals(200, xml.getStatus()),
+                () -> assertNotEquals(jsonETag, xml.getHeader("ETag")),
+                () -> assertTrue(xml.getHeader("ETag").endsWith("-application/xml\"")),
+                () -> assertEquals(304, notModified.getStatus()),
+                () -> assertNull(chain.getRequest())
+        );
+    }
+
+    /**
+     * Test para comprobar que solo las respuestas 2xx llevan ETag
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testETagOnlyOnSuccess() throws Exception {
+        MockHttpServletResponse notFound = perform("GET", "/api/funkos/" + UUID.randomUUID(), null,
+                chain(404, MediaType.APPLICATION_JSON));
+        MockHttpServletResponse redirect = perform("GET", "/api/funkos", null, chain(302, MediaType.APPLICATION_JSON));
+        MockHttpServletResponse noContent = perform("GET", "/api/funkos", null, new MockFilterChain());
+        assertAll(
+                () -> assertEquals(404, notFound.getStatus()),
+                () -> assertNull(notFound.getHeader("ETag")),
+                () -> assertEquals("Accept", notFound.getHeader("Vary")),
+                () -> assertNull(redirect.getHeader("ETag")),
+                () -> assertNull(noContent.getHeader("ETag"))
+        );
+    }
+
+    /**
+     * Test para comprobar que los detalles usan la versión de su elemento
+     */
+    @Test
+    void testDetailVersion() {
+        String id = UUID.randomUUID().toString();
+        assertAll(
+                () -> assertEquals(catalogVersion.ofFunko(id), filter.versionOf("/api/funkos/" + id)),
+                () -> assertEquals(catalogVersion.ofCategory(3L), filter.versionOf("/api/category/3")),
+                () -> assertEquals(catalogVersion.current(), filter.versionOf("/api/funkos/suggest")),
+                () -> assertEquals(catalogVersion.current(), filter.versionOf("/api/funkos"))
+        );
+    }
+
+    /**
+     * Test para comprobar que If-None-Match admite listas, ETags fuertes y el comodín
+     */
+    @Test
+    void testMatches() {
+        assertAll(
+                () -> assertTrue(CatalogETagFilter.matches("\"1\", W/\"7\"", "W/\"7\"")),
+                () -> assertTrue(CatalogETagFilter.matches("\"7\"", "W/\"7\"")),
+                () -> assertTrue(CatalogETagFilter.matches("*", "W/\"7\"")),
+                () -> assertFalse(CatalogETagFilter.matches("W/\"8\"", "W/\"7\"")),
+                () -> assertFalse(CatalogETagFilter.matches(null, "W/\"7\""))
+        );
+    }
+
+    /**
+     * Test para comprobar que las escrituras y otras rutas no se filtran
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testSkipsWritesAndOtherPaths() throws Exception {
+        assertAll(
+                () -> assertNull(perform("POST", "/api/funkos", null, new MockFilterChain()).getHeader("ETag")),
+                () -> assertNull(perform("GET", "/api/orders", null, new MockFilterChain()).getHeader("ETag")),
+                () -> assertNull(perform("GET", "/api/funkosx", null, new MockFilterChain()).getHeader("ETag"))
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package com.madirex.funkosspringrest.rest.catalog;
+
+import com.madirex.funkosspringrest.rest.entities.category.models.CategoryChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase CatalogVersionTest
+ */
+class CatalogVersionTest {
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final UUID changed = UUID.randomUUID();
+    private final UUID untouched = UUID.randomUUID();
+
+    /**
+     * Test para comprobar que un cambio de un Funko solo cambia la versión global y la de ese Funko
+     */
+    @Test
+    void testFunkoChange() {
+        long start = catalogVersion.current();
+        long untouchedBefore = catalogVersion.ofFunko(untouched.toString());
+        catalogVersion.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE,
+                GetFunkoDTO.builder().id(changed).build()));
+        assertAll(
+                () -> assertTrue(catalogVersion.current() > start),
+                () -> assertEquals(catalogVersion.current(), catalogVersion.ofFunko(changed.toString())),
+                () -> assertEquals(catalogVersion.current(),
+                        catalogVersion.ofFunko(changed.toString().toUpperCase())),
+                () -> assertEquals(untouchedBefore, catalogVersion.ofFunko(untouched.toString())),
+                () -> assertEquals(start, catalogVersion.ofCategory(1L))
+        );
+    }
+
+    /**
+     * Test para comprobar que una operación masiva cambia la versión de todos los Funkos
+     */
+    @Test
+    void testBulkChange() {
+        long before = catalogVersion.ofFunko(untouched.toString());
+        catalogVersion.onFunkoChange(FunkoChangeEvent.bulk());
+        assertAll(
+                () -> assertTrue(catalogVersion.ofFunko(untouched.toString()) > before),
+                () -> assertEquals(catalogVersion.current(), catalogVersion.ofFunko(untouched.toString()))
+        );
+    }
+
+    /**
+     * Test para comprobar que un cambio de categoría cambia su versión y la de los Funkos
+     */
+    @Test
+    void testCategoryChange() {
+        long otherBefore = catalogVersion.ofCategory(2L);
+        catalogVersion.onCategoryChange(new CategoryChangeEvent(1L));
+        assertAll(
+                () -> assertEquals(catalogVersion.current(), catalogVersion.ofCategory(1L)),
+                () -> assertEquals(otherBefore, catalogVersion.ofCategory(2L)),
+                () -> assertEquals(catalogVersion.current(), catalogVersion.ofFunko(untouched.toString()))
+        );
+    }
+}
@@ -0,0 +1,149 @@
+package com.madirex.funkosspringrest.rest.entities;
+
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.CreateFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.mappers.FunkoMapperImpl;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
+import com.madirex.funkosspringrest.rest.entities.order.models.Order;
+import com.madirex.funkosspringrest.rest.entities.order.models.OrderLine;
+import com.madirex.funkosspringrest.rest.entities.order.services.OrderServiceImpl;
+import com.madirex.funkosspringrest.rest.entities.user.dto.UserRequest;
+import com.madirex.funkosspringrest.rest.entities.user.mappers.UsersMapper;
+import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import com.madirex.funkosspringrest.rest.entities.user.repository.UsersRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase WriteStatementCountTest
+ * Comprueba con las estadísticas de Hibernate que las altas de entidades con ID asignado no consultan antes de
+ * insertar y que las actualizaciones de stock de un pedido con varias líneas se envían en un único lote JDBC
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class WriteStatementCountTest {
+    private static final List<String> FUNKO_IDS = List.of("57b77805-c1ce-490f-a96f-ec15505d5fae",
+            "874f872f-c30e-4089-ab33-16fd1c4d4344", "1783830d-1832-466e-a444-9510cecd06c2");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FunkoRepository funkoRepository;
+
+    @Autowired
+    private FunkoMapperImpl funkoMapper;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private UsersMapper usersMapper;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Test para comprobar que un Funko nuevo se inserta con una única sentencia, sin SELECT previo
+     */
+    @Test
+    void testCreateFunkoWithoutSelect() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Category category = entityManager.getReference(Category.class, 1L);
+            Funko funko = funkoMapper.toFunko(CreateFunkoDTO.builder().name("Batman").price(12.99).quantity(5)
+                    .image(Funko.IMAGE_DEFAULT).categoryId(1L).build(), category);
+            statistics.clear();
+            funkoRepository.save(funko);
+            entityManager.flush();
+            assertAll(
+                    () -> assertEquals(1, statistics.getPrepareStatementCount()),
+                    () -> assertEquals(1, statistics.getEntityInsertCount()),
+                    () -> assertFalse(funko.isNew())
+            );
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * Test para comprobar que un usuario nuevo se inserta sin SELECT previo: el usuario y sus roles
+     */
+    @Test
+    void testCreateUserWithoutSelect() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = usersMapper.toUser(UserRequest.builder().name("Test").surname("Count")
+                    .username("write-count").email("write-count@madirex.com").password("password").build());
+            statistics.clear();
+            usersRepository.save(user);
+            entityManager.flush();
+            assertAll(
+                    () -> assertEquals(2, statistics.getPrepareStatementCount()),
+                    () -> assertEquals(1, statistics.getEntityInsertCount()),
+                    () -> assertFalse(user.isNew())
+            );
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * Test para comprobar que el stock de un pedido con varias líneas se actualiza en un único lote
+     */
+    @Test
+    void testOrderStockInOneBatch() {
+        reserve(1);
+        try {
+            assertAll(
+                    () -> assertEquals(1, statistics.getPrepareStatementCount()),
+                    () -> assertEquals(FUNKO_IDS.size(), statistics.getEntityUpdateCount())
+            );
+        } finally {
+            reserve(-1);
+        }
+    }
+
+    /**
+     * Reserva stock de varios Funkos en una transacción, como al guardar un pedido, y deja en las estadísticas solo
+     * las sentencias de la escritura
+     *
+     * @param quantity Cantidad por línea; negativa para devolver el stock
+     */
+    private void reserve(int quantity) {
+        Order order = Order.builder().userId("1").orderLineList(FUNKO_IDS.stream()
+                .map(id -> OrderLine.builder().productId(id).quantity(quantity).productPrice(10.0).build())
+                .toList()).build();
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.reserveStockOrder(order);
+            statistics.clear();
+            entityManager.flush();
+        });
+    }
+}
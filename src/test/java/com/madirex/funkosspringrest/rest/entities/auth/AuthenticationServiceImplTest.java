@@ -10,6 +10,7 @@ import com.madirex.funkosspringrest.rest.entities.auth.repository.AuthUsersRepos
 import com.madirex.funkosspringrest.rest.entities.auth.services.authentication.AuthenticationServiceImpl;
 import com.madirex.funkosspringrest.rest.entities.auth.services.jwt.JwtService;
 import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import com.madirex.funkosspringrest.rest.entities.user.search.UserExistenceIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -20,6 +21,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,6 +46,9 @@ class AuthenticationServiceImplTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private UserExistenceIndex existenceIndex;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
@@ -72,7 +77,9 @@ class AuthenticationServiceImplTest {
                 () -> assertNotNull(response),
                 () -> assertEquals(token, response.getToken()),
                 () -> verify(authUsersRepository, times(1)).save(any(User.class)),
-                () -> verify(jwtService, times(1)).generateToken(userStored)
+                () -> verify(jwtService, times(1)).generateToken(userStored),
+                () -> verify(authUsersRepository, never()).existsByUsernameLowerOrEmailLower(any(), any()),
+                () -> verify(existenceIndex, times(1)).add("testuser", "test@example.com")
         );
     }
 
@@ -110,6 +117,28 @@ class AuthenticationServiceImplTest {
         assertThrows(AccountAlreadyExists.class, () -> authenticationService.signUp(request));
     }
 
+    /**
+     * Test para comprobar que si el filtro de existencia indica un posible duplicado y la base de datos lo confirma,
+     * signUp lanza una excepción sin calcular el hash de la contraseña
+     */
+    @Test
+    void testSignUp_WhenExistenceFilterHitIsConfirmed_ShouldThrowException() {
+        UserSignUpRequest request = new UserSignUpRequest();
+        request.setUsername("TestUser");
+        request.setPassword("password");
+        request.setPasswordRepeat("password");
+        request.setEmail("Test@Example.com");
+        request.setName("Test");
+        request.setSurname("User");
+
+        when(existenceIndex.mightContain("TestUser", "Test@Example.com")).thenReturn(true);
+        when(authUsersRepository.existsByUsernameLowerOrEmailLower("testuser", "test@example.com")).thenReturn(true);
+
+        assertThrows(AccountAlreadyExists.class, () -> authenticationService.signUp(request));
+        verify(passwordEncoder, never()).encode(any());
+        verify(authUsersRepository, never()).save(any(User.class));
+    }
+
     /**
      * Test para comprobar que el método signIn devuelve un token cuando las credenciales son válidas
      */
@@ -136,6 +165,26 @@ class AuthenticationServiceImplTest {
         );
     }
 
+    /**
+     * Test para comprobar que signIn reutiliza el usuario cargado al autenticar, sin volver a consultarlo
+     */
+    @Test
+    void testSignIn_ShouldReuseAuthenticatedUser() {
+        UserSignInRequest request = new UserSignInRequest();
+        request.setPassword("password");
+        request.setUsername("test");
+
+        User user = new User();
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        when(jwtService.generateToken(user)).thenReturn("test_token");
+
+        JwtAuthResponse response = authenticationService.signIn(request);
+
+        assertEquals("test_token", response.getToken());
+        verify(authUsersRepository, never()).findByUsername(any());
+    }
+
     /**
      * Test para comprobar que el método signIn lanza una excepción cuando las credenciales no son válidas
      */
@@ -0,0 +1,91 @@
+package com.madirex.funkosspringrest.rest.entities.auth;
+
+import com.madirex.funkosspringrest.config.security.PooledPasswordEncoder;
+import com.madirex.funkosspringrest.rest.entities.auth.exceptions.PasswordHashingBusy;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase PooledPasswordEncoderTest
+ */
+class PooledPasswordEncoderTest {
+
+    /**
+     * Test para comprobar que el pool calcula y comprueba los hashes BCrypt
+     */
+    @Test
+    void testEncodeAndMatches() {
+        PooledPasswordEncoder encoder = new PooledPasswordEncoder(4, 1, 1, 5000);
+        try {
+            String hash = encoder.encode("password");
+            assertAll(
+                    () -> assertTrue(hash.startsWith("$2a$04$")),
+                    () -> assertTrue(encoder.matches("password", hash)),
+                    () -> assertFalse(encoder.matches("otra", hash))
+            );
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    /**
+     * Test para comprobar que solo se recalculan los hashes con un coste distinto al configurado
+     */
+    @Test
+    void testUpgradeEncoding() {
+        PooledPasswordEncoder encoder = new PooledPasswordEncoder(5, 1, 1, 5000);
+        try {
+            assertAll(
+                    () -> assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))),
+                    () -> assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))),
+                    () -> assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password"))),
+                    () -> assertFalse(encoder.upgradeEncoding("no es bcrypt")),
+                    () -> assertFalse(encoder.upgradeEncoding(null))
+            );
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    /**
+     * Test para comprobar que se rechaza la petición cuando el cálculo no termina a tiempo
+     */
+    @Test
+    void testTimeout() {
+        PooledPasswordEncoder encoder = new PooledPasswordEncoder(14, 1, 1, 1);
+        try {
+            assertThrows(PasswordHashingBusy.class, () -> encoder.encode("password"));
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    /**
+     * Test para comprobar que se rechaza la petición sin esperar cuando el pool y su cola están llenos
+     *
+     * @throws InterruptedException excepción de interrupción
+     */
+    @Test
+    void testRejectWhenSaturated() throws InterruptedException {
+        PooledPasswordEncoder encoder = new PooledPasswordEncoder(14, 1, 1, 10000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.encode("primera"));
+            callers.submit(() -> encoder.encode("segunda"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (encoder.queued() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, encoder.queued());
+            assertThrows(PasswordHashingBusy.class, () -> encoder.matches("password", "hash"));
+        } finally {
+            encoder.destroy();
+            callers.shutdownNow();
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.madirex.funkosspringrest.rest.entities.auth.jwt;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.madirex.funkosspringrest.rest.entities.auth.services.jwt.JwtServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Base64;
+import java.util.Date;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
@@ -25,6 +31,9 @@ class JwtServiceImplTest {
     @Autowired
     private JwtServiceImpl jwtService;
 
+    @Value("${jwt.secret}")
+    private String jwtSigningKey;
+
     /**
      * Test para comprobar que se genera el token
      */
@@ -58,4 +67,22 @@ class JwtServiceImplTest {
         boolean isValid = jwtService.isTokenValid(token, userDetails);
         assertTrue(isValid);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test para comprobar que solo se extrae el usuario de tokens con firma válida y sin expirar
+     */
+    @Test
+    void testExtractVerifiedUserName() {
+        when(userDetails.getUsername()).thenReturn("testUser");
+        String token = jwtService.generateToken(userDetails);
+        String forged = JWT.create().withSubject("testUser").sign(Algorithm.HMAC512("secreto"));
+        String expired = JWT.create().withSubject("testUser").withExpiresAt(new Date(0))
+                .sign(Algorithm.HMAC512(Base64.getEncoder().encode(jwtSigningKey.getBytes())));
+        assertAll(
+                () -> assertEquals("testUser", jwtService.extractVerifiedUserName(token)),
+                () -> assertNull(jwtService.extractVerifiedUserName(forged)),
+                () -> assertNull(jwtService.extractVerifiedUserName(expired)),
+                () -> assertNull(jwtService.extractVerifiedUserName("no-es-un-token"))
+        );
+    }
+}
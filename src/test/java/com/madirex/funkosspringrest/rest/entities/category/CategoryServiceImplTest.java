@@ -3,18 +3,22 @@ package com.madirex.funkosspringrest.rest.entities.category;
 import com.madirex.funkosspringrest.rest.entities.category.dto.CreateCategoryDTO;
 import com.madirex.funkosspringrest.rest.entities.category.dto.PatchCategoryDTO;
 import com.madirex.funkosspringrest.rest.entities.category.dto.UpdateCategoryDTO;
+import com.madirex.funkosspringrest.rest.entities.category.exceptions.CategoryAlreadyExistsException;
 import com.madirex.funkosspringrest.rest.entities.category.exceptions.CategoryNotFoundException;
 import com.madirex.funkosspringrest.rest.entities.category.mappers.CategoryMapperImpl;
 import com.madirex.funkosspringrest.rest.entities.category.models.Category;
 import com.madirex.funkosspringrest.rest.entities.category.repository.CategoryRepository;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
 import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
 import com.madirex.funkosspringrest.rest.entities.category.services.CategoryServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -41,6 +45,9 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryMapperImpl categoryMapperImpl;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -72,9 +79,7 @@ class CategoryServiceImplTest {
     @Test
     void testGetAllCategory() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
-        Page<Category> expectedPage = new PageImpl<>(list);
-        Specification<Category> anySpecification = any();
-        when(categoryRepository.findAll(anySpecification, any(Pageable.class))).thenReturn(expectedPage);
+        when(categoryRepository.findAll()).thenReturn(list);
         Page<Category> actualPage = categoryService.getAllCategory(Optional.empty(), Optional.empty()
                 , pageable);
         var list3 = actualPage.getContent();
@@ -86,6 +91,39 @@ class CategoryServiceImplTest {
                 () -> assertEquals(list.get(1).getType(), list3.get(1).getType(), "El tipo debe coincidir"),
                 () -> assertEquals(list.get(1).getActive(), list3.get(1).getActive(), "El estado debe coincidir")
         );
+        verify(categoryRepository, never()).findAll(ArgumentMatchers.<Specification<Category>>any(), any(Pageable.class));
+    }
+
+    /**
+     * Test para comprobar que se filtran, ordenan y paginan las categorías con el registro
+     */
+    @Test
+    void testGetAllCategoryFromRegistry() {
+        when(categoryRepository.findAll()).thenReturn(list);
+        Page<Category> byType = categoryService.getAllCategory(Optional.of("disney"), Optional.of(true),
+                PageRequest.of(0, 10));
+        Page<Category> byTypeDesc = categoryService.getAllCategory(Optional.empty(), Optional.empty(),
+                PageRequest.of(0, 1, Sort.by("type").descending()));
+        assertAll("Category properties",
+                () -> assertEquals(List.of("DISNEY"), byType.getContent().stream().map(Category::getType).toList()),
+                () -> assertEquals(List.of("MOVIE"), byTypeDesc.getContent().stream().map(Category::getType).toList()),
+                () -> assertEquals(2, byTypeDesc.getTotalElements()),
+                () -> assertEquals(2, byTypeDesc.getTotalPages())
+        );
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    /**
+     * Test para comprobar que se delega en la base de datos si no se puede ordenar en memoria
+     */
+    @Test
+    void testGetAllCategoryUnknownSort() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("other").ascending());
+        Specification<Category> anySpecification = any();
+        when(categoryRepository.findAll(anySpecification, any(Pageable.class))).thenReturn(new PageImpl<>(list));
+        Page<Category> actualPage = categoryService.getAllCategory(Optional.empty(), Optional.empty(), pageable);
+        assertEquals(2, actualPage.getContent().size());
+        verify(categoryRepository, never()).findAll();
     }
 
 
@@ -96,14 +134,17 @@ class CategoryServiceImplTest {
      */
     @Test
     void testGetCategoryById() throws CategoryNotFoundException {
-        when(categoryRepository.findById(list.get(0).getId())).thenReturn(Optional.ofNullable(list.get(0)));
+        when(categoryRepository.findAll()).thenReturn(list);
         var category = categoryService.getCategoryById(list.get(0).getId());
+        var second = categoryService.getCategoryById(list.get(1).getId());
         assertAll("Category properties",
                 () -> assertEquals(list.get(0).getId(), category.getId(), "El id debe coincidir"),
                 () -> assertEquals(list.get(0).getType(), category.getType(), "El tipo debe coincidir"),
-                () -> assertEquals(list.get(0).getActive(), category.getActive(), "El estado debe coincidir")
+                () -> assertEquals(list.get(0).getActive(), category.getActive(), "El estado debe coincidir"),
+                () -> assertEquals(list.get(1).getType(), second.getType(), "El tipo debe coincidir")
         );
-        verify(categoryRepository, times(1)).findById(list.get(0).getId());
+        verify(categoryRepository, times(1)).findAll();
+        verify(categoryRepository, never()).findById(any());
     }
 
     /**
@@ -111,9 +152,9 @@ class CategoryServiceImplTest {
      */
     @Test
     void testGetCategoryByIdNotFound() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(categoryRepository.findAll()).thenReturn(List.of());
         assertThrows(CategoryNotFoundException.class, () -> categoryService.getCategoryById(1L));
-        verify(categoryRepository, times(1)).findById(1L);
+        verify(categoryRepository, times(1)).findAll();
     }
 
     /**
@@ -136,6 +177,20 @@ class CategoryServiceImplTest {
         verify(categoryRepository, times(1)).save(any(Category.class));
     }
 
+    /**
+     * Test para comprobar que no se crea una categoría con un tipo ya existente
+     */
+    @Test
+    void testPostCategoryAlreadyExists() {
+        var insert = CreateCategoryDTO.builder()
+                .type("MOVIE")
+                .active(true)
+                .build();
+        when(categoryRepository.findAll()).thenReturn(list);
+        assertThrows(CategoryAlreadyExistsException.class, () -> categoryService.postCategory(insert));
+        verify(categoryRepository, never()).save(any(Category.class));
+    }
+
     /**
      * Test para comprobar que se actualiza una categoría
      *
@@ -180,6 +235,32 @@ class CategoryServiceImplTest {
         verify(categoryRepository, times(1)).save(any(Category.class));
     }
 
+    /**
+     * Test para comprobar que el registro se actualiza tras una escritura y que se reindexan los Funkos si cambia el tipo
+     *
+     * @throws CategoryNotFoundException excepción
+     */
+    @Test
+    void testPatchCategoryUpdatesRegistry() throws CategoryNotFoundException {
+        var renamed = Category.builder()
+                .id(2L)
+                .type("PIXAR")
+                .active(true)
+                .build();
+        when(categoryRepository.findAll()).thenReturn(list);
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(renamed));
+        when(categoryRepository.save(renamed)).thenReturn(renamed);
+        categoryService.getCategoryById(2L);
+        categoryService.patchCategory(2L, PatchCategoryDTO.builder().type("PIXAR").build());
+        var category = categoryService.getCategoryById(2L);
+        assertAll("Category properties",
+                () -> assertEquals("PIXAR", category.getType(), "El tipo debe coincidir"),
+                () -> assertEquals(2, categoryService.getCategoriesById().size(), "Debe haber 2 categorías")
+        );
+        verify(categoryRepository, times(1)).findAll();
+        verify(eventPublisher, times(1)).publishEvent(FunkoChangeEvent.bulk());
+    }
+
     /**
      * Test para comprobar que se lanza una excepción cuando no se encuentra la categoría al tratar de hacer un Patch
      */
@@ -0,0 +1,267 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.madirex.funkosspringrest.rest.cache.SecondLevelCache;
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.category.services.CategoryServiceImpl;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.BulkPatchFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoBulkNotificationResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoBulkPatchResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoImportResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoPatchItemDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoPatchResult;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoPatchRuleDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoStockSyncResponse;
+import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoBulkNotValidException;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoBulkServiceImpl;
+import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoServiceImpl;
+import com.madirex.funkosspringrest.util.RecordReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase FunkoBulkServiceImplTest
+ */
+@ExtendWith(MockitoExtension.class)
+class FunkoBulkServiceImplTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CategoryServiceImpl categoryService;
+
+    @Mock
+    private FunkoServiceImpl funkoService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ObjectProvider<CacheManager> cacheManager;
+
+    @Mock
+    private SecondLevelCache secondLevelCache;
+
+    private FunkoBulkServiceImpl bulkService;
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        bulkService = new FunkoBulkServiceImpl(jdbcTemplate, transactionManager, entityManager, categoryService,
+                funkoService, Validation.buildDefaultValidatorFactory().getValidator(), cacheManager, secondLevelCache,
+                2);
+    }
+
+    /**
+     * Simula las categorías existentes
+     */
+    private void stubCategories() {
+        when(categoryService.getCategoriesById()).thenReturn(Map.of(
+                1L, Category.builder().id(1L).type("MOVIE").active(true).build()));
+    }
+
+    /**
+     * Convierte un texto en una entrada
+     *
+     * @param content Contenido
+     * @return Entrada
+     */
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test para comprobar que se importan los registros NDJSON válidos y se informa de los erróneos
+     *
+     * @throws IOException excepción de entrada/salida
+     */
+    @Test
+    void testImportNdjson() throws IOException {
+        stubCategories();
+        String content = """
+                {"name":"Batman","price":12.5,"quantity":3,"image":"https://www.madirex.com/batman.png","categoryId":1}
+                {"name":"","price":-1,"quantity":3,"categoryId":1}
+                {"name":"Robin","price":10,"quantity":1,"categoryId":1}
+                no es json
+                """;
+        FunkoImportResponse response = bulkService.importFunkos(input(content), RecordReader.Format.NDJSON);
+        assertAll(
+                () -> assertEquals(4, response.total()),
+                () -> assertEquals(2, response.imported()),
+                () -> assertEquals(2, response.failed()),
+                () -> assertEquals(2, response.errors().get(0).line()),
+                () -> assertEquals(4, response.errors().get(1).line())
+        );
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(funkoService, times(1)).onBulkChange(new FunkoBulkNotificationResponse("IMPORT", 2, 2));
+    }
+
+    /**
+     * Test para comprobar que los registros CSV se insertan en lotes del tamaño configurado
+     *
+     * @throws IOException excepción de entrada/salida
+     */
+    @Test
+    void testImportCsvInChunks() throws IOException {
+        stubCategories();
+        String content = """
+                name,price,quantity,image,categoryId
+                Batman,12.5,3,,1
+                "Robin, el joven",10,1,,1
+                Joker,11,2,,1
+                Bane,abc,2,,1
+                Alfred,9,2,,7
+                """;
+        FunkoImportResponse response = bulkService.importFunkos(input(content), RecordReader.Format.CSV);
+        assertAll(
+                () -> assertEquals(5, response.total()),
+                () -> assertEquals(3, response.imported()),
+                () -> assertEquals(2, response.failed()),
+                () -> assertEquals(5, response.errors().get(0).line()),
+                () -> assertEquals("Categoría no encontrada - 7", response.errors().get(1).message())
+        );
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    /**
+     * Test para comprobar que si falla un lote se marcan como erróneos todos sus registros
+     *
+     * @throws IOException excepción de entrada/salida
+     */
+    @Test
+    void testImportFailedChunk() throws IOException {
+        stubCategories();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicado"));
+        String content = """
+                {"name":"Batman","price":12.5,"quantity":3,"categoryId":1}
+                {"name":"Robin","price":10,"quantity":1,"categoryId":1}
+                """;
+        FunkoImportResponse response = bulkService.importFunkos(input(content), RecordReader.Format.NDJSON);
+        assertAll(
+                () -> assertEquals(2, response.total()),
+                () -> assertEquals(0, response.imported()),
+                () -> assertEquals(2, response.failed())
+        );
+        verify(transactionManager, times(1)).rollback(any());
+        verify(funkoService, never()).onBulkChange(any());
+    }
+
+    /**
+     * Test para comprobar que se aplican las actualizaciones parciales por lotes con el resultado por Funko
+     */
+    @Test
+    void testPatchItems() {
+        stubCategories();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+        String updated = UUID.randomUUID().toString();
+        String missing = UUID.randomUUID().toString();
+        BulkPatchFunkoDTO patch = BulkPatchFunkoDTO.builder()
+                .items(List.of(
+                        FunkoPatchItemDTO.builder().id(updated).price(9.99).build(),
+                        FunkoPatchItemDTO.builder().id("no-uuid").price(1.0).build(),
+                        FunkoPatchItemDTO.builder().id(missing).categoryId(1L).build(),
+                        FunkoPatchItemDTO.builder().id(UUID.randomUUID().toString()).categoryId(9L).build()))
+                .build();
+        FunkoBulkPatchResponse response = bulkService.patchFunkos(patch);
+        assertAll(
+                () -> assertEquals(1, response.updated()),
+                () -> assertEquals(3, response.failed()),
+                () -> assertEquals(4, response.results().size()),
+                () -> assertTrue(response.results().contains(
+                        new FunkoPatchResult(updated, FunkoPatchResult.Status.UPDATED, null))),
+                () -> assertEquals(2, response.results().stream()
+                        .filter(r -> r.status() == FunkoPatchResult.Status.INVALID).count()),
+                () -> assertEquals(1, response.results().stream()
+                        .filter(r -> r.status() == FunkoPatchResult.Status.NOT_FOUND).count())
+        );
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(secondLevelCache, times(1)).evict(Funko.class);
+        verify(funkoService, times(1)).onBulkChange(new FunkoBulkNotificationResponse("PATCH", 1, 3));
+    }
+
+    /**
+     * Test para comprobar que se rechaza una actualización masiva con lista y regla a la vez o sin ninguna
+     */
+    @Test
+    void testPatchNotValid() {
+        BulkPatchFunkoDTO both = BulkPatchFunkoDTO.builder()
+                .items(List.of(FunkoPatchItemDTO.builder().id(UUID.randomUUID().toString()).build()))
+                .rule(FunkoPatchRuleDTO.builder().category("MOVIE").priceFactor(0.9).build())
+                .build();
+        BulkPatchFunkoDTO none = BulkPatchFunkoDTO.builder().build();
+        assertAll(
+                () -> assertThrows(FunkoBulkNotValidException.class, () -> bulkService.patchFunkos(both)),
+                () -> assertThrows(FunkoBulkNotValidException.class, () -> bulkService.patchFunkos(none))
+        );
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    /**
+     * Test para comprobar que la sincronización de stock solo aplica los cambios y concilia el resultado
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testSyncStock() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getObject(1, UUID.class)).thenReturn(first, second);
+        when(resultSet.getInt(2)).thenReturn(5, 3);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+        String content = "{\"id\":\"" + first + "\",\"quantity\":5}\n"
+                + "{\"id\":\"" + second + "\",\"quantity\":10}\n"
+                + "{\"id\":\"" + UUID.randomUUID() + "\",\"quantity\":1}\n"
+                + "{\"id\":\"no-uuid\",\"quantity\":1}\n"
+                + "{\"id\":\"" + first + "\",\"quantity\":2}\n";
+        FunkoStockSyncResponse response = bulkService.syncStock(input(content), RecordReader.Format.NDJSON);
+        assertAll(
+                () -> assertEquals(5, response.total()),
+                () -> assertEquals(1, response.updated()),
+                () -> assertEquals(1, response.unchanged()),
+                () -> assertEquals(1, response.unknown()),
+                () -> assertEquals(1, response.conflicts()),
+                () -> assertEquals(1, response.invalid()),
+                () -> assertEquals(5, response.errors().get(2).line())
+        );
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(funkoService, times(1)).onBulkChange(new FunkoBulkNotificationResponse("STOCK_SYNC", 1, 1));
+        verify(secondLevelCache, times(1)).evict(Funko.class);
+    }
+}
@@ -0,0 +1,137 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoSpecifications;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoCatalogSnapshot;
+import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoBulkServiceImpl;
+import com.madirex.funkosspringrest.util.BenchmarkRunner;
+import com.madirex.funkosspringrest.util.RecordReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase FunkoCatalogBenchmarkTest
+ * Compara el listado de Funkos resuelto con JPA frente a la instantánea en memoria del catálogo
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "funkos.catalog.snapshot.enabled=true")
+class FunkoCatalogBenchmarkTest {
+    private static final int FUNKOS = 20_000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private FunkoBulkServiceImpl bulkService;
+    @Autowired
+    private FunkoRepository funkoRepository;
+    @Autowired
+    private FunkoCatalogSnapshot catalogSnapshot;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<FunkoFilter> filters = List.of(
+            FunkoFilter.builder().build(),
+            FunkoFilter.builder().category("MOVIE").build(),
+            FunkoFilter.builder().maxPrice(50.0).maxQuantity(20).build()
+    );
+    private final List<Pageable> pages = List.of(
+            PageRequest.of(0, 20, Sort.by("id")),
+            PageRequest.of(100, 20, Sort.by("price").descending()),
+            PageRequest.of(5, 50, Sort.by("quantity"))
+    );
+
+    /**
+     * Inserta el catálogo de prueba
+     *
+     * @throws IOException excepción de entrada/salida
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < FUNKOS; i++) {
+            content.append("{\"name\":\"Benchmark ").append(i)
+                    .append("\",\"price\":").append((i * 7919) % 10000 / 100.0)
+                    .append(",\"quantity\":").append(i % 50)
+                    .append(",\"categoryId\":").append(1 + i % 4)
+                    .append("}\n");
+        }
+        bulkService.importFunkos(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)),
+                RecordReader.Format.NDJSON);
+    }
+
+    /**
+     * Elimina el catálogo de prueba
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM funko WHERE name LIKE 'Benchmark %'");
+        catalogSnapshot.rebuild();
+    }
+
+    /**
+     * Listado con JPA, igual que FunkoServiceImpl cuando la instantánea no está activada
+     *
+     * @param filter   Filtro
+     * @param pageable Paginación
+     * @return Página de Funkos
+     */
+    private Page<GetFunkoDTO> jpa(FunkoFilter filter, Pageable pageable) {
+        return funkoRepository.findAllDto(FunkoSpecifications.of(filter), pageable);
+    }
+
+    /**
+     * Ejecuta todas las combinaciones de filtro y página con un motor de lectura
+     *
+     * @param engine Motor de lectura
+     */
+    private void queryAll(BiFunction<FunkoFilter, Pageable, Page<GetFunkoDTO>> engine) {
+        filters.forEach(f -> pages.forEach(p -> engine.apply(f, p)));
+    }
+
+    /**
+     * Benchmark del listado de Funkos: comprueba que ambos motores devuelven lo mismo y compara sus tiempos
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void benchmarkGetAllFunko() throws Exception {
+        assertTrue(catalogSnapshot.size() >= FUNKOS);
+        for (FunkoFilter filter : filters) {
+            Pageable byId = pages.get(0);
+            Page<GetFunkoDTO> expected = jpa(filter, byId);
+            Page<GetFunkoDTO> actual = catalogSnapshot.findAll(filter, byId);
+            assertAll(
+                    () -> assertEquals(expected.getTotalElements(), actual.getTotalElements()),
+                    () -> assertEquals(expected.map(GetFunkoDTO::getId).getContent(),
+                            actual.map(GetFunkoDTO::getId).getContent())
+            );
+        }
+
+        int queries = filters.size() * pages.size();
+        double jpaMicros = BenchmarkRunner.measure("JPA", WARMUP, ITERATIONS,
+                i -> queryAll(this::jpa)).micros() / queries;
+        double snapshotMicros = BenchmarkRunner.measure("Instantánea", WARMUP, ITERATIONS,
+                i -> queryAll(catalogSnapshot::findAll)).micros() / queries;
+        BenchmarkRunner.report("Listado de %d Funkos - JPA: %.1f µs/consulta, instantánea: %.1f µs/consulta (x%.1f)",
+                catalogSnapshot.size(), jpaMicros, snapshotMicros, jpaMicros / snapshotMicros);
+    }
+}
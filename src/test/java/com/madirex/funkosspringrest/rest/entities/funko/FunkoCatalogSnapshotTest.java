@@ -0,0 +1,212 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoCatalogSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase FunkoCatalogSnapshotTest
+ */
+@ExtendWith(MockitoExtension.class)
+class FunkoCatalogSnapshotTest {
+    @Mock
+    private FunkoRepository funkoRepository;
+
+    private FunkoCatalogSnapshot catalogSnapshot;
+    private final GetFunkoDTO batman = funko("Batman", 9.5, 3, "MOVIE");
+    private final GetFunkoDTO joker = funko("Joker", 25.0, 12, "MOVIE");
+    private final GetFunkoDTO elsa = funko("Elsa", 15.0, 60, "DISNEY");
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        catalogSnapshot = new FunkoCatalogSnapshot(funkoRepository, true);
+        List.of(batman, joker, elsa)
+                .forEach(f -> catalogSnapshot.onFunkoChange(new FunkoChangeEvent(Notification.Type.CREATE, f)));
+    }
+
+    /**
+     * Crea un Funko de prueba
+     *
+     * @param name     Nombre
+     * @param price    Precio
+     * @param quantity Stock
+     * @param category Tipo de categoría
+     * @return Funko
+     */
+    private static GetFunkoDTO funko(String name, double price, int quantity, String category) {
+        return GetFunkoDTO.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .price(price)
+                .quantity(quantity)
+                .category(Category.builder().id(1L).type(category).active(true).build())
+                .build();
+    }
+
+    /**
+     * Obtiene los nombres de una página
+     *
+     * @param page Página
+     * @return Nombres
+     */
+    private static List<String> names(Page<GetFunkoDTO> page) {
+        return page.getContent().stream().map(GetFunkoDTO::getName).toList();
+    }
+
+    /**
+     * Test para comprobar que se filtra, ordena y pagina en memoria
+     */
+    @Test
+    void testFindAll() {
+        FunkoFilter all = FunkoFilter.builder().build();
+        Page<GetFunkoDTO> byPriceDesc = catalogSnapshot.findAll(all, PageRequest.of(0, 2, Sort.by("price").descending()));
+        Page<GetFunkoDTO> secondPage = catalogSnapshot.findAll(all, PageRequest.of(1, 2, Sort.by("quantity")));
+        Page<GetFunkoDTO> movies = catalogSnapshot.findAll(FunkoFilter.builder().category("movie").maxQuantity(10).build(),
+                PageRequest.of(0, 10, Sort.by("quantity")));
+        Page<GetFunkoDTO> unknown = catalogSnapshot.findAll(FunkoFilter.builder().category("OTHER").build(),
+                PageRequest.of(0, 10));
+        assertAll(
+                () -> assertEquals(List.of("Joker", "Elsa"), names(byPriceDesc)),
+                () -> assertEquals(3, byPriceDesc.getTotalElements()),
+                () -> assertEquals(2, byPriceDesc.getTotalPages()),
+                () -> assertEquals(List.of("Elsa"), names(secondPage)),
+                () -> assertEquals(List.of("Batman"), names(movies)),
+                () -> assertEquals(1, movies.getTotalElements()),
+                () -> assertTrue(unknown.isEmpty())
+        );
+        verifyNoInteractions(funkoRepository);
+    }
+
+    /**
+     * Test para comprobar los filtros por rango en memoria
+     */
+    @Test
+    void testFindAllByRange() {
+        Page<GetFunkoDTO> byMinimums = catalogSnapshot.findAll(FunkoFilter.builder().minPrice(10.0).minQuantity(10).build(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "price", "id")));
+        Page<GetFunkoDTO> byUpdatedSince = catalogSnapshot.findAll(
+                FunkoFilter.builder().updatedSince(LocalDateTime.of(2023, 1, 1, 0, 0)).build(), PageRequest.of(0, 10));
+        assertAll(
+                () -> assertEquals(List.of("Elsa", "Joker"), names(byMinimums)),
+                () -> assertEquals(2, byMinimums.getTotalElements()),
+                () -> assertTrue(byUpdatedSince.isEmpty())
+        );
+    }
+
+    /**
+     * Test para comprobar qué consultas admite la instantánea
+     */
+    @Test
+    void testSupports() {
+        FunkoCatalogSnapshot disabled = new FunkoCatalogSnapshot(funkoRepository, false);
+        FunkoFilter all = FunkoFilter.builder().build();
+        assertAll(
+                () -> assertTrue(catalogSnapshot.supports(all, PageRequest.of(0, 10, Sort.by("price")))),
+                () -> assertFalse(catalogSnapshot.supports(all, PageRequest.of(0, 10, Sort.by("image")))),
+                () -> assertFalse(catalogSnapshot.supports(all, PageRequest.of(0, 10, Sort.by("name")))),
+                () -> assertFalse(catalogSnapshot.supports(all, PageRequest.of(0, 10, Sort.by("price", "name")))),
+                () -> assertTrue(catalogSnapshot.supports(all,
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price", "id")))),
+                () -> assertFalse(catalogSnapshot.supports(all,
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "category.id", "price", "id")))),
+                () -> assertFalse(catalogSnapshot.supports(FunkoFilter.builder().q("bat").build(),
+                        PageRequest.of(0, 10))),
+                () -> assertFalse(disabled.supports(all, PageRequest.of(0, 10)))
+        );
+    }
+
+    /**
+     * Test para comprobar que cada escritura publica una instantánea nueva
+     */
+    @Test
+    void testOnFunkoChange() {
+        GetFunkoDTO cheaper = GetFunkoDTO.builder()
+                .id(joker.getId())
+                .name(joker.getName())
+                .price(1.0)
+                .quantity(joker.getQuantity())
+                .category(joker.getCategory())
+                .build();
+        catalogSnapshot.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE, cheaper));
+        catalogSnapshot.onFunkoChange(new FunkoChangeEvent(Notification.Type.DELETE, elsa));
+        Page<GetFunkoDTO> page = catalogSnapshot.findAll(FunkoFilter.builder().build(),
+                PageRequest.of(0, 10, Sort.by("price")));
+        assertAll(
+                () -> assertEquals(List.of("Joker", "Batman"), names(page)),
+                () -> assertEquals(2, catalogSnapshot.size())
+        );
+    }
+
+    /**
+     * Test para comprobar que altas, cambios y bajas sucesivos mantienen el orden de cada campo
+     */
+    @Test
+    void testOnFunkoChangeKeepsOrder() {
+        GetFunkoDTO robin = funko("Robin", 9.5, 1, "COMIC");
+        GetFunkoDTO renamed = GetFunkoDTO.builder()
+                .id(batman.getId())
+                .name("Zatanna")
+                .price(30.0)
+                .quantity(batman.getQuantity())
+                .category(batman.getCategory())
+                .build();
+        catalogSnapshot.onFunkoChange(new FunkoChangeEvent(Notification.Type.CREATE, robin));
+        catalogSnapshot.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE, renamed));
+        catalogSnapshot.onFunkoChange(new FunkoChangeEvent(Notification.Type.DELETE, joker));
+        FunkoFilter all = FunkoFilter.builder().build();
+        Page<GetFunkoDTO> byQuantity = catalogSnapshot.findAll(all, PageRequest.of(0, 10, Sort.by("quantity")));
+        Page<GetFunkoDTO> byPriceDesc = catalogSnapshot.findAll(all, PageRequest.of(0, 10, Sort.by("price").descending()));
+        Page<GetFunkoDTO> comics = catalogSnapshot.findAll(FunkoFilter.builder().category("COMIC").build(),
+                PageRequest.of(0, 10));
+        assertAll(
+                () -> assertEquals(List.of("Robin", "Zatanna", "Elsa"), names(byQuantity)),
+                () -> assertEquals(List.of("Zatanna", "Elsa", "Robin"), names(byPriceDesc)),
+                () -> assertEquals(List.of("Robin"), names(comics)),
+                () -> assertEquals(3, catalogSnapshot.size())
+        );
+    }
+
+    /**
+     * Test para comprobar que la carga completa usa la proyección a DTO
+     */
+    @Test
+    void testRebuild() {
+        Specification<Funko> anySpecification = any();
+        when(funkoRepository.findAllDto(anySpecification, eq(Pageable.unpaged())))
+                .thenReturn(new PageImpl<>(List.of(batman, joker)));
+        catalogSnapshot.rebuild();
+        Page<GetFunkoDTO> page = catalogSnapshot.findAll(FunkoFilter.builder().build(),
+                PageRequest.of(0, 10, Sort.by("price")));
+        assertAll(
+                () -> assertEquals(List.of("Batman", "Joker"), names(page)),
+                () -> assertEquals(2, catalogSnapshot.size())
+        );
+        verify(funkoRepository, never()).findAll();
+    }
+}
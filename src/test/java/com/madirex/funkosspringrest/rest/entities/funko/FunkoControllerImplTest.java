@@ -1,13 +1,20 @@
 package com.madirex.funkosspringrest.rest.entities.funko;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.madirex.funkosspringrest.rest.entities.category.models.Category;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.CreateFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoSuggestion;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.PatchFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.UpdateFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoNotValidUUIDException;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoFacetIndex;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSuggestIndex;
 import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,12 +31,13 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +45,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -52,6 +61,10 @@ class FunkoControllerImplTest {
     MockMvc mockMvc;
     @MockBean
     FunkoServiceImpl service;
+    @MockBean
+    FunkoSuggestIndex suggestIndex;
+    @MockBean
+    FunkoFacetIndex facetIndex;
     GetFunkoDTO funko = GetFunkoDTO.builder()
             .id(UUID.randomUUID())
             .name("nombre")
@@ -96,8 +109,7 @@ class FunkoControllerImplTest {
         var funkoList = List.of(funko, funko2);
         var pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         var page = new PageImpl<>(funkoList);
-        when(service.getAllFunko(Optional.empty(), Optional.empty(), Optional.empty(),
-                pageable)).thenReturn(page);
+        when(service.getAllFunko(FunkoFilter.builder().build(), pageable)).thenReturn(page);
         MockHttpServletResponse response = mockMvc.perform(get(endpoint)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -112,6 +124,86 @@ class FunkoControllerImplTest {
         );
     }
 
+    /**
+     * Test para comprobar que el listado se puede negociar en CBOR y en Smile
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testGetAllBinaryFormats() throws Exception {
+        var pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
+        when(service.getAllFunko(FunkoFilter.builder().build(), pageable))
+                .thenReturn(new PageImpl<>(List.of(funko, funko2)));
+        MockHttpServletResponse cbor = mockMvc.perform(get(endpoint).param("format", "cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse();
+        MockHttpServletResponse smile = mockMvc.perform(get(endpoint)
+                        .accept(MediaType.parseMediaType("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        JsonNode cborPage = new ObjectMapper(new CBORFactory()).readTree(cbor.getContentAsByteArray());
+        JsonNode smilePage = new ObjectMapper(new SmileFactory()).readTree(smile.getContentAsByteArray());
+        assertAll(
+                () -> assertEquals(funko.getName(), cborPage.get("content").get(0).get("name").asText()),
+                () -> assertEquals(2, cborPage.get("totalElements").asInt()),
+                () -> assertEquals(funko2.getName(), smilePage.get("content").get(1).get("name").asText())
+        );
+    }
+
+    /**
+     * Test para comprobar que se devuelven las facetas junto a la página cuando se solicitan
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testGetAllWithFacets() throws Exception {
+        var pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
+        var filter = FunkoFilter.builder().category("MOVIE").build();
+        when(service.getAllFunko(filter, pageable)).thenReturn(new PageImpl<>(List.of(funko, funko2)));
+        when(facetIndex.facets(filter)).thenReturn(Map.of(FunkoFacetIndex.CATEGORY_FACET, Map.of("MOVIE", 2L)));
+        MockHttpServletResponse response = mockMvc.perform(get(endpoint)
+                        .param("category", "MOVIE")
+                        .param("facets", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse withoutFacets = mockMvc.perform(get(endpoint)
+                        .param("category", "MOVIE")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertAll(
+                () -> assertTrue(response.getContentAsString().contains("\"facets\":{\"category\":{\"MOVIE\":2}}")),
+                () -> assertFalse(withoutFacets.getContentAsString().contains("\"facets\""))
+        );
+        verify(facetIndex, times(1)).facets(filter);
+    }
+
+    /**
+     * Test para comprobar que se obtienen las sugerencias de autocompletado
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testSuggest() throws Exception {
+        when(suggestIndex.suggest("nom", 5)).thenReturn(List.of(
+                new FunkoSuggestion(funko2.getId(), funko2.getName(), funko2.getQuantity()),
+                new FunkoSuggestion(funko.getId(), funko.getName(), funko.getQuantity())));
+        MockHttpServletResponse response = mockMvc.perform(get(endpoint + "/suggest")
+                        .param("prefix", "nom")
+                        .param("limit", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertAll(
+                () -> assertEquals(HttpStatus.OK.value(), response.getStatus()),
+                () -> assertTrue(response.getContentAsString().indexOf("\"" + funko2.getName() + "\"")
+                        < response.getContentAsString().indexOf("\"" + funko.getName() + "\"")),
+                () -> assertTrue(response.getContentAsString().contains("\"quantity\":" + funko2.getQuantity()))
+        );
+    }
+
     /**
      * Test para comprobar retorno de error cuando page tiene valor no válido
      *
@@ -141,6 +233,53 @@ class FunkoControllerImplTest {
 
     }
 
+    /**
+     * Test para comprobar que se aplican los filtros por rango y la ordenación por varios campos
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testGetAllWithRangesAndSort() throws Exception {
+        var pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "category.id", "price", "id"));
+        var filter = FunkoFilter.builder()
+                .minPrice(10.0)
+                .maxPrice(20.0)
+                .minQuantity(1)
+                .updatedSince(LocalDateTime.of(2023, 11, 30, 0, 0))
+                .build();
+        when(service.getAllFunko(filter, pageable)).thenReturn(new PageImpl<>(List.of(funko)));
+        MockHttpServletResponse response = mockMvc.perform(get(endpoint)
+                        .param("minPrice", "10")
+                        .param("maxPrice", "20")
+                        .param("minQuantity", "1")
+                        .param("updatedSince", "2023-11-30T00:00:00")
+                        .param("sortBy", "category,price")
+                        .param("direction", "desc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertAll(
+                () -> assertEquals(HttpStatus.OK.value(), response.getStatus()),
+                () -> assertTrue(response.getContentAsString().contains("\"name\":" + "\"" + funko.getName() + "\""))
+        );
+        verify(service, times(1)).getAllFunko(filter, pageable);
+    }
+
+    /**
+     * Test para comprobar retorno de error cuando la ordenación no está respaldada por un índice
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void getAll_ShouldReturnErrorResponse_withUnindexedSort() throws Exception {
+        mockMvc.perform(get(endpoint)
+                        .param("sortBy", "name,price")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        verify(service, never()).getAllFunko(any(), any());
+    }
+
     /**
      * Test para comprobar que se obtiene un Funko por su id
      *
@@ -414,4 +553,37 @@ class FunkoControllerImplTest {
         verify(service, never()).updateImage(anyString(), any(MultipartFile.class), anyBoolean());
     }
 
+    /**
+     * Test para comprobar que se exporta el catálogo en formato CSV
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testExportCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get(endpoint + "/export")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertAll(
+                () -> assertTrue(response.getContentType().startsWith("text/csv")),
+                () -> assertTrue(response.getContentAsString()
+                        .startsWith("id,name,price,quantity,image,category,createdAt,updatedAt"))
+        );
+    }
+
+    /**
+     * Test para comprobar retorno de error cuando el formato de exportación no está soportado
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testExportNotAcceptable() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(endpoint + "/export")
+                        .param("format", "pdf"))
+                .andReturn().getResponse();
+        assertEquals(HttpStatus.NOT_ACCEPTABLE.value(), response.getStatus());
+    }
 }
@@ -0,0 +1,145 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoFacetIndex;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase FunkoFacetIndexTest
+ */
+@ExtendWith(MockitoExtension.class)
+class FunkoFacetIndexTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private FunkoSearchIndex searchIndex;
+
+    private FunkoFacetIndex facetIndex;
+    private final GetFunkoDTO batman = funko("Batman", 9.5, 0, "MOVIE");
+    private final GetFunkoDTO joker = funko("Joker", 25.0, 12, "MOVIE");
+    private final GetFunkoDTO elsa = funko("Elsa", 15.0, 60, "DISNEY");
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        facetIndex = new FunkoFacetIndex(jdbcTemplate, searchIndex, new double[]{10, 20}, new double[]{1, 50});
+        List.of(batman, joker, elsa)
+                .forEach(f -> facetIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.CREATE, f)));
+    }
+
+    /**
+     * Crea un Funko de prueba
+     *
+     * @param name     Nombre
+     * @param price    Precio
+     * @param quantity Stock
+     * @param category Tipo de categoría
+     * @return Funko
+     */
+    private static GetFunkoDTO funko(String name, double price, int quantity, String category) {
+        return GetFunkoDTO.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .price(price)
+                .quantity(quantity)
+                .category(Category.builder().id(1L).type(category).active(true).build())
+                .build();
+    }
+
+    /**
+     * Test para comprobar las facetas sin filtros
+     */
+    @Test
+    void testFacets() {
+        Map<String, Map<String, Long>> facets = facetIndex.facets(FunkoFilter.builder().build());
+        assertAll(
+                () -> assertEquals(Map.of("MOVIE", 2L, "DISNEY", 1L), facets.get(FunkoFacetIndex.CATEGORY_FACET)),
+                () -> assertEquals(List.of("MOVIE", "DISNEY"),
+                        List.copyOf(facets.get(FunkoFacetIndex.CATEGORY_FACET).keySet())),
+                () -> assertEquals(Map.of("<10", 1L, "10-20", 1L, ">=20", 1L), facets.get(FunkoFacetIndex.PRICE_FACET)),
+                () -> assertEquals(Map.of("<1", 1L, "1-50", 1L, ">=50", 1L), facets.get(FunkoFacetIndex.STOCK_FACET))
+        );
+    }
+
+    /**
+     * Test para comprobar que las facetas tienen en cuenta el filtro actual
+     */
+    @Test
+    void testFacetsWithFilter() {
+        Map<UUID, Double> ranking = new LinkedHashMap<>();
+        ranking.put(joker.getId(), 1.0);
+        ranking.put(elsa.getId(), 0.5);
+        when(searchIndex.search("a")).thenReturn(ranking);
+        Map<String, Map<String, Long>> byCategory = facetIndex.facets(FunkoFilter.builder().category("movie").build());
+        Map<String, Map<String, Long>> byPrice = facetIndex.facets(FunkoFilter.builder().maxPrice(20.0).build());
+        Map<String, Map<String, Long>> byText = facetIndex.facets(FunkoFilter.builder().q("a").maxQuantity(20).build());
+        Map<String, Map<String, Long>> byMinimums = facetIndex.facets(FunkoFilter.builder().minPrice(10.0)
+                .minQuantity(1).build());
+        assertAll(
+                () -> assertEquals(Map.of("MOVIE", 2L), byCategory.get(FunkoFacetIndex.CATEGORY_FACET)),
+                () -> assertEquals(Map.of("MOVIE", 1L, "DISNEY", 1L), byPrice.get(FunkoFacetIndex.CATEGORY_FACET)),
+                () -> assertEquals(Map.of("MOVIE", 1L), byText.get(FunkoFacetIndex.CATEGORY_FACET)),
+                () -> assertEquals(0L, byText.get(FunkoFacetIndex.PRICE_FACET).get("<10")),
+                () -> assertEquals(Map.of("MOVIE", 1L, "DISNEY", 1L), byMinimums.get(FunkoFacetIndex.CATEGORY_FACET))
+        );
+    }
+
+    /**
+     * Test para comprobar que el filtrado de una lista de Funkos conserva su orden y descarta los desconocidos
+     */
+    @Test
+    void testFilter() {
+        List<UUID> ranked = List.of(elsa.getId(), UUID.randomUUID(), joker.getId(), batman.getId());
+        assertAll(
+                () -> assertEquals(List.of(elsa.getId(), joker.getId(), batman.getId()),
+                        facetIndex.filter(FunkoFilter.builder().q("a").build(), ranked)),
+                () -> assertEquals(List.of(joker.getId(), batman.getId()),
+                        facetIndex.filter(FunkoFilter.builder().category("movie").build(), ranked)),
+                () -> assertEquals(List.of(elsa.getId(), joker.getId()),
+                        facetIndex.filter(FunkoFilter.builder().minPrice(10.0).build(), ranked)),
+                () -> assertTrue(facetIndex.filter(FunkoFilter.builder().category("anime").build(), ranked).isEmpty())
+        );
+    }
+
+    /**
+     * Test para comprobar que las facetas se actualizan con los eventos de cambio
+     */
+    @Test
+    void testOnFunkoChange() {
+        GetFunkoDTO soldOut = GetFunkoDTO.builder()
+                .id(elsa.getId())
+                .name(elsa.getName())
+                .price(elsa.getPrice())
+                .quantity(0)
+                .category(Category.builder().id(2L).type("MOVIE").active(true).build())
+                .build();
+        facetIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE, soldOut));
+        facetIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.DELETE, batman));
+        Map<String, Map<String, Long>> facets = facetIndex.facets(FunkoFilter.builder().build());
+        assertAll(
+                () -> assertEquals(Map.of("MOVIE", 2L), facets.get(FunkoFacetIndex.CATEGORY_FACET)),
+                () -> assertEquals(Map.of("<1", 1L, "1-50", 1L, ">=50", 0L), facets.get(FunkoFacetIndex.STOCK_FACET))
+        );
+    }
+}
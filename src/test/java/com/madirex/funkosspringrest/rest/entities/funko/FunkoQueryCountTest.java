@@ -0,0 +1,104 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Clase FunkoQueryCountTest
+ * Comprueba el número de consultas SQL de cada petición de lectura de Funkos con las estadísticas de Hibernate
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser(username = "madirex", password = "123", roles = {"ADMIN", "USER"})
+class FunkoQueryCountTest {
+    private static final String ENDPOINT = "/api/funkos";
+    private static final String FUNKO_ID = "57b77805-c1ce-490f-a96f-ec15505d5fae";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Test para comprobar que una página incompleta se obtiene con una única consulta y sin cargar entidades
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testGetAllSingleQuery() throws Exception {
+        mockMvc.perform(get(ENDPOINT)
+                        .param("size", "100")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertAll(
+                () -> assertEquals(1, statistics.getPrepareStatementCount()),
+                () -> assertEquals(0, statistics.getEntityLoadCount())
+        );
+    }
+
+    /**
+     * Test para comprobar que una página completa solo añade la consulta de conteo, con o sin filtro por categoría
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testGetAllWithCount() throws Exception {
+        mockMvc.perform(get(ENDPOINT)
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        long withoutCategory = statistics.getPrepareStatementCount();
+        statistics.clear();
+        mockMvc.perform(get(ENDPOINT)
+                        .param("category", "DISNEY")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertAll(
+                () -> assertEquals(2, withoutCategory),
+                () -> assertEquals(2, statistics.getPrepareStatementCount()),
+                () -> assertEquals(0, statistics.getEntityLoadCount())
+        );
+    }
+
+    /**
+     * Test para comprobar que un Funko se obtiene con una única consulta y sin cargar entidades
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testGetByIdSingleQuery() throws Exception {
+        mockMvc.perform(get(ENDPOINT + "/" + FUNKO_ID)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertAll(
+                () -> assertEquals(1, statistics.getPrepareStatementCount()),
+                () -> assertEquals(0, statistics.getEntityLoadCount())
+        );
+    }
+}
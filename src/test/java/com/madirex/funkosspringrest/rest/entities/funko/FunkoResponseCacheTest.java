@@ -0,0 +1,164 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.madirex.funkosspringrest.rest.catalog.CatalogVersion;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase FunkoResponseCacheTest
+ */
+class FunkoResponseCacheTest {
+    private static final List<MediaType> JSON = List.of(MediaType.APPLICATION_JSON);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final FunkoResponseCache cache = new FunkoResponseCache(catalogVersion, new Jackson2ObjectMapperBuilder(),
+            true, 100, DataSize.ofBytes(10));
+    private final UUID id = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<GetFunkoDTO> loader = () -> {
+        loads.incrementAndGet();
+        return GetFunkoDTO.builder().id(id).name("Funko " + loads.get()).price(2.2).quantity(2).build();
+    };
+
+    /**
+     * Test para comprobar que un acierto no vuelve a cargar ni serializar el Funko
+     *
+     * @throws HttpMediaTypeNotAcceptableException excepción
+     */
+    @Test
+    void testHit() throws HttpMediaTypeNotAcceptableException {
+        FunkoResponseCache.Body first = cache.get(id.toString(), JSON, false, loader);
+        FunkoResponseCache.Body second = cache.get(id.toString().toUpperCase(), JSON, false, loader);
+        assertAll(
+                () -> assertEquals(1, loads.get()),
+                () -> assertSame(first.bytes(), second.bytes()),
+                () -> assertEquals(MediaType.APPLICATION_JSON, second.mediaType()),
+                () -> assertTrue(new String(second.bytes(), StandardCharsets.UTF_8).contains("\"name\":\"Funko 1\""))
+        );
+    }
+
+    /**
+     * Test para comprobar que una escritura del Funko invalida su entrada
+     *
+     * @throws HttpMediaTypeNotAcceptableException excepción
+     */
+    @Test
+    void testInvalidatedByWrite() throws HttpMediaTypeNotAcceptableException {
+        cache.get(id.toString(), JSON, false, loader);
+        FunkoChangeEvent event = new FunkoChangeEvent(Notification.Type.UPDATE, GetFunkoDTO.builder().id(id).build());
+        cache.onFunkoChange(event);
+        catalogVersion.onFunkoChange(event);
+        FunkoResponseCache.Body body = cache.get(id.toString(), JSON, false, loader);
+        assertAll(
+                () -> assertEquals(2, loads.get()),
+                () -> assertTrue(new String(body.bytes(), StandardCharsets.UTF_8).contains("\"name\":\"Funko 2\""))
+        );
+    }
+
+    /**
+     * Test para comprobar que una entrada de una versión anterior no se sirve aunque no se haya eliminado
+     *
+     * @throws HttpMediaTypeNotAcceptableException excepción
+     */
+    @Test
+    void testStaleVersion() throws HttpMediaTypeNotAcceptableException {
+        cache.get(id.toString(), JSON, false, loader);
+        catalogVersion.onFunkoChange(FunkoChangeEvent.bulk());
+        cache.get(id.toString(), JSON, false, loader);
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Test para comprobar que el cuerpo comprimido se obtiene del ya serializado y que el XML se guarda aparte
+     *
+     * @throws IOException excepción de entrada/salida
+     */
+    @Test
+    void testGzipAndXml() throws IOException {
+        FunkoResponseCache.Body plain = cache.get(id.toString(), JSON, false, loader);
+        FunkoResponseCache.Body gzipped = cache.get(id.toString(), JSON, true, loader);
+        int loadsBeforeXml = loads.get();
+        FunkoResponseCache.Body xml = cache.get(id.toString(), List.of(MediaType.APPLICATION_XML), false, loader);
+        byte[] unzipped;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipped.bytes()))) {
+            unzipped = input.readAllBytes();
+        }
+        assertAll(
+                () -> assertEquals(1, loadsBeforeXml),
+                () -> assertTrue(gzipped.gzipped()),
+                () -> assertArrayEquals(plain.bytes(), unzipped),
+                () -> assertEquals(MediaType.APPLICATION_XML, xml.mediaType()),
+                () -> assertTrue(new String(xml.bytes(), StandardCharsets.UTF_8).contains("<name>Funko 2</name>"))
+        );
+    }
+
+    /**
+     * Test para comprobar que también se sirven los formatos binarios
+     *
+     * @throws IOException excepción de entrada/salida
+     */
+    @Test
+    void testCbor() throws IOException {
+        FunkoResponseCache.Body cbor = cache.get(id.toString(), List.of(MediaType.APPLICATION_CBOR), false, loader);
+        assertAll(
+                () -> assertEquals(MediaType.APPLICATION_CBOR, cbor.mediaType()),
+                () -> assertEquals("Funko 1",
+                        new ObjectMapper(new CBORFactory()).readTree(cbor.bytes()).get("name").asText())
+        );
+    }
+
+    /**
+     * Test para comprobar que con la caché llena se descarta el Funko usado hace más tiempo
+     *
+     * @throws HttpMediaTypeNotAcceptableException excepción
+     */
+    @Test
+    void testEvictsLeastRecentlyUsed() throws HttpMediaTypeNotAcceptableException {
+        FunkoResponseCache small = new FunkoResponseCache(catalogVersion, new Jackson2ObjectMapperBuilder(),
+                true, 2, DataSize.ofBytes(10));
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        small.get(first, JSON, false, loader);
+        small.get(second, JSON, false, loader);
+        small.get(first, JSON, false, loader);
+        small.get(UUID.randomUUID().toString(), JSON, false, loader);
+        int loadsBefore = loads.get();
+        small.get(first, JSON, false, loader);
+        int loadsAfterFirst = loads.get();
+        small.get(second, JSON, false, loader);
+        assertAll(
+                () -> assertEquals(2, small.size()),
+                () -> assertEquals(loadsBefore, loadsAfterFirst),
+                () -> assertEquals(loadsBefore + 1, loads.get())
+        );
+    }
+
+    /**
+     * Test para comprobar que se rechazan los formatos no soportados
+     */
+    @Test
+    void testNotAcceptable() {
+        String funkoId = id.toString();
+        List<MediaType> csv = List.of(MediaType.parseMediaType("text/csv"));
+        assertThrows(HttpMediaTypeNotAcceptableException.class, () -> cache.get(funkoId, csv, false, loader));
+    }
+}
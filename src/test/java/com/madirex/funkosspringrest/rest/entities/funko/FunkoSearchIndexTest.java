@@ -0,0 +1,107 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase FunkoSearchIndexTest
+ */
+@ExtendWith(MockitoExtension.class)
+class FunkoSearchIndexTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private FunkoSearchIndex searchIndex;
+    private final GetFunkoDTO spiderMan = funko("Spider-Man Homecoming", "MARVEL");
+    private final GetFunkoDTO spiderGwen = funko("Spider Gwen", "MARVEL");
+    private final GetFunkoDTO potter = funko("Harry Pótter", "MOVIE");
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        searchIndex = new FunkoSearchIndex(jdbcTemplate, 100);
+        List.of(spiderMan, spiderGwen, potter).forEach(searchIndex::index);
+    }
+
+    /**
+     * Crea un Funko de prueba
+     *
+     * @param name     Nombre
+     * @param category Tipo de categoría
+     * @return Funko
+     */
+    private static GetFunkoDTO funko(String name, String category) {
+        return GetFunkoDTO.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .category(Category.builder().id(1L).type(category).active(true).build())
+                .build();
+    }
+
+    /**
+     * Test para comprobar la búsqueda sin tildes, por prefijo y con ranking por relevancia
+     */
+    @Test
+    void testSearch() {
+        Map<UUID, Double> spider = searchIndex.search("spider");
+        Map<UUID, Double> spiderMarvel = searchIndex.search("spider homecoming");
+        assertAll(
+                () -> assertEquals(2, spider.size()),
+                () -> assertEquals(List.of(spiderMan.getId()), List.copyOf(spiderMarvel.keySet())),
+                () -> assertEquals(List.of(potter.getId()), List.copyOf(searchIndex.search("POTTER").keySet())),
+                () -> assertEquals(List.of(potter.getId()), List.copyOf(searchIndex.search("pot").keySet())),
+                () -> assertEquals(2, searchIndex.search("marvel").size()),
+                () -> assertTrue(searchIndex.search("batman").isEmpty()),
+                () -> assertTrue(searchIndex.search("  ").isEmpty())
+        );
+    }
+
+    /**
+     * Test para comprobar que un término del nombre puntúa más que el mismo término en la categoría
+     */
+    @Test
+    void testNameRanksAboveCategory() {
+        GetFunkoDTO marvelName = funko("Marvel Zombies", "OTHER");
+        searchIndex.index(marvelName);
+        assertEquals(marvelName.getId(), searchIndex.search("marvel").keySet().iterator().next());
+    }
+
+    /**
+     * Test para comprobar que el índice se actualiza con los eventos de cambio
+     */
+    @Test
+    void testOnFunkoChange() {
+        GetFunkoDTO renamed = GetFunkoDTO.builder()
+                .id(potter.getId())
+                .name("Hermione")
+                .category(potter.getCategory())
+                .build();
+        searchIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE, renamed));
+        assertAll(
+                () -> assertTrue(searchIndex.search("potter").isEmpty()),
+                () -> assertEquals(1, searchIndex.search("hermione").size())
+        );
+        searchIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.DELETE, renamed));
+        assertAll(
+                () -> assertTrue(searchIndex.search("hermione").isEmpty()),
+                () -> assertEquals(2, searchIndex.size())
+        );
+    }
+}
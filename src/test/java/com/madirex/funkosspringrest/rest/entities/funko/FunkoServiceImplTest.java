@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.madirex.funkosspringrest.config.websockets.WebSocketConfig;
 import com.madirex.funkosspringrest.config.websockets.WebSocketHandler;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.CreateFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoFilter;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.PatchFunkoDTO;
 import com.madirex.funkosspringrest.rest.entities.funko.dto.UpdateFunkoDTO;
@@ -17,6 +18,9 @@ import com.madirex.funkosspringrest.rest.entities.category.models.Category;
 import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
 import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
 import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoCatalogSnapshot;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoFacetIndex;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSearchIndex;
 import com.madirex.funkosspringrest.rest.entities.category.services.CategoryService;
 import com.madirex.funkosspringrest.rest.entities.funko.services.FunkoServiceImpl;
 import com.madirex.funkosspringrest.storage.services.StorageService;
@@ -27,6 +31,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.multipart.MultipartFile;
@@ -34,7 +40,9 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -70,6 +78,21 @@ class FunkoServiceImplTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private FunkoSearchIndex searchIndex;
+
+    @Mock
+    private FunkoFacetIndex facetIndex;
+
+    @Mock
+    private FunkoCatalogSnapshot catalogSnapshot;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskExecutor taskExecutor;
+
     @InjectMocks
     private FunkoServiceImpl funkoService;
 
@@ -130,12 +153,10 @@ class FunkoServiceImplTest {
                 .build());
 
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
-        Page<Funko> expectedPage = new PageImpl<>(list);
+        Page<GetFunkoDTO> expectedPage = new PageImpl<>(list2);
         Specification<Funko> anySpecification = any();
-        when(funkoRepository.findAll(anySpecification, any(Pageable.class))).thenReturn(expectedPage);
-        when(funkoMapperImpl.toGetFunkoDTO(any(Funko.class))).thenReturn(list2.get(0));
-        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(Optional.empty(), Optional.empty(),
-                Optional.empty(), pageable);
+        when(funkoRepository.findAllDto(anySpecification, any(Pageable.class))).thenReturn(expectedPage);
+        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(FunkoFilter.builder().build(), pageable);
         var list3 = actualPage.getContent();
         assertAll("Funko properties",
                 () -> assertEquals(2, list.size(), "La lista debe contener 2 elementos"),
@@ -166,8 +187,7 @@ class FunkoServiceImplTest {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build());
-        when(funkoRepository.findById(list.get(0).getId())).thenReturn(java.util.Optional.ofNullable(list.get(0)));
-        when(funkoMapperImpl.toGetFunkoDTO(list.get(0))).thenReturn(list2.get(0));
+        when(funkoRepository.findDtoById(list.get(0).getId())).thenReturn(Optional.of(list2.get(0)));
         var funko = funkoService.getFunkoById(String.valueOf(list.get(0).getId()));
         assertAll("Funko properties",
                 () -> assertEquals(list.get(0).getName(), funko.getName(), "El nombre debe coincidir"),
@@ -175,7 +195,8 @@ class FunkoServiceImplTest {
                 () -> assertEquals(list.get(0).getQuantity(), funko.getQuantity(), "La cantidad debe coincidir"),
                 () -> assertEquals(list.get(0).getImage(), funko.getImage(), "La imagen debe coincidir")
         );
-        verify(funkoRepository, times(1)).findById(list.get(0).getId());
+        verify(funkoRepository, times(1)).findDtoById(list.get(0).getId());
+        verify(funkoRepository, never()).findById(any(UUID.class));
     }
 
     /**
@@ -183,10 +204,10 @@ class FunkoServiceImplTest {
      */
     @Test
     void testGetFunkoByIdNotFound() {
-        when(funkoRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(funkoRepository.findDtoById(any(UUID.class))).thenReturn(Optional.empty());
         String id = UUID.randomUUID().toString();
         assertThrows(FunkoNotFoundException.class, () -> funkoService.getFunkoById(id));
-        verify(funkoRepository, times(1)).findById(any(UUID.class));
+        verify(funkoRepository, times(1)).findDtoById(any(UUID.class));
     }
 
     /**
@@ -339,6 +360,105 @@ class FunkoServiceImplTest {
         assertThrows(FunkoNotValidUUIDException.class, () -> funkoService.patchFunko("()", data));
     }
 
+    /**
+     * Simula una búsqueda por texto cuyo ranking pone el segundo Funko de la lista por delante del primero
+     *
+     * @param filter Filtro de la búsqueda
+     */
+    private void stubSearch(FunkoFilter filter) {
+        Map<UUID, Double> ranking = new LinkedHashMap<>();
+        ranking.put(list.get(1).getId(), 2.0);
+        ranking.put(list.get(0).getId(), 1.0);
+        when(searchIndex.search(filter.q())).thenReturn(ranking);
+        when(facetIndex.filter(filter, ranking.keySet())).thenReturn(List.copyOf(ranking.keySet()));
+    }
+
+    /**
+     * Test para comprobar que la búsqueda por texto ordenada por relevancia sigue el ranking del índice
+     */
+    @Test
+    void testGetAllFunkoByRelevance() {
+        FunkoFilter filter = FunkoFilter.builder().q("test").build();
+        stubSearch(filter);
+        Specification<Funko> anySpecification = any();
+        List<GetFunkoDTO> found = list.stream()
+                .map(f -> GetFunkoDTO.builder().id(f.getId()).name(f.getName()).build())
+                .toList();
+        when(funkoRepository.findAllDto(anySpecification, eq(Pageable.unpaged()))).thenReturn(new PageImpl<>(found));
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(FunkoServiceImpl.RELEVANCE_SORT).descending());
+        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(filter, pageable);
+        assertAll(
+                () -> assertEquals(2, actualPage.getTotalElements()),
+                () -> assertEquals("Test2", actualPage.getContent().get(0).getName()),
+                () -> assertEquals("Test", actualPage.getContent().get(1).getName())
+        );
+        verify(funkoRepository, times(1)).findAllDto(any(Specification.class), eq(Pageable.unpaged()));
+    }
+
+    /**
+     * Test para comprobar que una página de la búsqueda por relevancia informa del total real y solo carga sus Funkos
+     */
+    @Test
+    void testGetAllFunkoByRelevanceSecondPage() {
+        FunkoFilter filter = FunkoFilter.builder().q("test").build();
+        stubSearch(filter);
+        Specification<Funko> anySpecification = any();
+        GetFunkoDTO last = GetFunkoDTO.builder().id(list.get(0).getId()).name(list.get(0).getName()).build();
+        when(funkoRepository.findAllDto(anySpecification, eq(Pageable.unpaged())))
+                .thenReturn(new PageImpl<>(List.of(last)));
+        Pageable pageable = PageRequest.of(1, 1, Sort.by(FunkoServiceImpl.RELEVANCE_SORT).descending());
+        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(filter, pageable);
+        assertAll(
+                () -> assertEquals(2, actualPage.getTotalElements()),
+                () -> assertEquals(2, actualPage.getTotalPages()),
+                () -> assertEquals(List.of(last), actualPage.getContent())
+        );
+    }
+
+    /**
+     * Test para comprobar que la búsqueda por texto ordenada por otro campo se resuelve en la base de datos
+     */
+    @Test
+    void testGetAllFunkoSearchSortedByField() {
+        FunkoFilter filter = FunkoFilter.builder().q("test").build();
+        stubSearch(filter);
+        when(searchIndex.getMaxResults()).thenReturn(1);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("price"));
+        Page<GetFunkoDTO> expectedPage = new PageImpl<>(List.of(GetFunkoDTO.builder().name("Test2").build()));
+        Specification<Funko> anySpecification = any();
+        when(funkoRepository.findAllDto(anySpecification, eq(pageable))).thenReturn(expectedPage);
+        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(filter, pageable);
+        assertEquals(expectedPage, actualPage);
+        verify(funkoRepository, times(1)).findAllDto(any(Specification.class), eq(pageable));
+    }
+
+    /**
+     * Test para comprobar que una búsqueda por texto sin resultados no consulta la base de datos
+     */
+    @Test
+    void testGetAllFunkoSearchWithoutResults() {
+        when(searchIndex.search("nada")).thenReturn(Map.of());
+        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(FunkoFilter.builder().q("nada").build(),
+                PageRequest.of(0, 10));
+        assertTrue(actualPage.isEmpty());
+        verifyNoInteractions(funkoRepository);
+    }
+
+    /**
+     * Test para comprobar que el listado se resuelve con la instantánea del catálogo cuando la admite
+     */
+    @Test
+    void testGetAllFunkoFromSnapshot() {
+        FunkoFilter filter = FunkoFilter.builder().maxPrice(10.0).build();
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("price"));
+        Page<GetFunkoDTO> expectedPage = new PageImpl<>(List.of(GetFunkoDTO.builder().name("Test").build()));
+        when(catalogSnapshot.supports(filter, pageable)).thenReturn(true);
+        when(catalogSnapshot.findAll(filter, pageable)).thenReturn(expectedPage);
+        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(filter, pageable);
+        assertEquals(expectedPage, actualPage);
+        verifyNoInteractions(funkoRepository);
+    }
+
     /**
      * Test para comprobar que se elimina un Funko
      *
@@ -353,11 +473,10 @@ class FunkoServiceImplTest {
         funkoService.deleteFunko(String.valueOf(list.get(0).getId()));
 
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
-        Page<Funko> expectedPage = new PageImpl<>(new ArrayList<>());
+        Page<GetFunkoDTO> expectedPage = new PageImpl<>(new ArrayList<>());
         Specification<Funko> anySpecification = any();
-        when(funkoRepository.findAll(anySpecification, any(Pageable.class))).thenReturn(expectedPage);
-        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(Optional.empty(), Optional.empty(),
-                Optional.empty(), pageable);
+        when(funkoRepository.findAllDto(anySpecification, any(Pageable.class))).thenReturn(expectedPage);
+        Page<GetFunkoDTO> actualPage = funkoService.getAllFunko(FunkoFilter.builder().build(), pageable);
         var list3 = actualPage.getContent();
         assertNotNull(list3);
         assertEquals(0, actualPage.getContent().size());
@@ -483,6 +602,7 @@ class FunkoServiceImplTest {
         GetFunkoDTO dummyData = new GetFunkoDTO();
         funkoService.onChange(Notification.Type.CREATE, dummyData);
         assertNotNull(dummyData);
+        verify(taskExecutor, times(1)).execute(any(Runnable.class));
     }
 
 }
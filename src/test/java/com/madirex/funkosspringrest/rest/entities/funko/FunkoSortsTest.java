@@ -0,0 +1,44 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.madirex.funkosspringrest.rest.entities.funko.exceptions.FunkoSortNotValidException;
+import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoSorts;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase FunkoSortsTest
+ */
+class FunkoSortsTest {
+
+    /**
+     * Test para comprobar que se añade el id como desempate a las ordenaciones permitidas
+     */
+    @Test
+    void testOf() {
+        assertAll(
+                () -> assertEquals(Sort.by("id").ascending(), FunkoSorts.of("id", "asc")),
+                () -> assertEquals(Sort.by(Sort.Direction.DESC, "price", "id"), FunkoSorts.of("price", "desc")),
+                () -> assertEquals(Sort.by(Sort.Direction.ASC, "updatedAt", "id"), FunkoSorts.of("updatedAt,id", "asc")),
+                () -> assertEquals(Sort.by(Sort.Direction.DESC, "category.id", "price", "id"),
+                        FunkoSorts.of("category:desc, price:desc", "asc")),
+                () -> assertEquals(Sort.by(Sort.Direction.ASC, FunkoSorts.RELEVANCE_FIELD),
+                        FunkoSorts.of("relevance", "asc"))
+        );
+    }
+
+    /**
+     * Test para comprobar que se rechazan los campos desconocidos y las combinaciones sin índice
+     */
+    @Test
+    void testOfNotValid() {
+        assertAll(
+                () -> assertThrows(FunkoSortNotValidException.class, () -> FunkoSorts.of("image", "asc")),
+                () -> assertThrows(FunkoSortNotValidException.class, () -> FunkoSorts.of("price,category", "asc")),
+                () -> assertThrows(FunkoSortNotValidException.class, () -> FunkoSorts.of("name,price", "asc")),
+                () -> assertThrows(FunkoSortNotValidException.class, () -> FunkoSorts.of("category,price:desc", "asc")),
+                () -> assertThrows(FunkoSortNotValidException.class, () -> FunkoSorts.of("price", "sideways"))
+        );
+    }
+}
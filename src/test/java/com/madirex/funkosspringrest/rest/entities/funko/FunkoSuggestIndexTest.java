@@ -0,0 +1,147 @@
+package com.madirex.funkosspringrest.rest.entities.funko;
+
+import com.madirex.funkosspringrest.rest.entities.funko.dto.FunkoSuggestion;
+import com.madirex.funkosspringrest.rest.entities.funko.dto.GetFunkoDTO;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
+import com.madirex.funkosspringrest.rest.entities.funko.models.Notification;
+import com.madirex.funkosspringrest.rest.entities.funko.search.FunkoSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase FunkoSuggestIndexTest
+ */
+@ExtendWith(MockitoExtension.class)
+class FunkoSuggestIndexTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private FunkoSuggestIndex suggestIndex;
+    private final GetFunkoDTO spiderMan = funko("Spider-Man Homecoming", 5);
+    private final GetFunkoDTO spiderGwen = funko("Spider Gwen", 20);
+    private final GetFunkoDTO spock = funko("Spock", 1);
+    private final GetFunkoDTO potter = funko("Harry Pótter", 8);
+
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        suggestIndex = new FunkoSuggestIndex(jdbcTemplate, 3);
+        List.of(spiderMan, spiderGwen, spock, potter)
+                .forEach(f -> suggestIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.CREATE, f)));
+    }
+
+    /**
+     * Crea un Funko de prueba
+     *
+     * @param name     Nombre
+     * @param quantity Stock
+     * @return Funko
+     */
+    private static GetFunkoDTO funko(String name, int quantity) {
+        return GetFunkoDTO.builder().id(UUID.randomUUID()).name(name).quantity(quantity).build();
+    }
+
+    /**
+     * Obtiene los nombres de las sugerencias
+     *
+     * @param prefix Prefijo
+     * @param limit  Número máximo de sugerencias
+     * @return Nombres
+     */
+    private List<String> names(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, limit).stream().map(FunkoSuggestion::name).toList();
+    }
+
+    /**
+     * Test para comprobar que las sugerencias se ordenan por stock y respetan el límite
+     */
+    @Test
+    void testSuggest() {
+        assertAll(
+                () -> assertEquals(List.of("Spider Gwen", "Spider-Man Homecoming", "Spock"), names("sp", 10)),
+                () -> assertEquals(List.of("Spider Gwen", "Spider-Man Homecoming"), names("SPIDER", 2)),
+                () -> assertEquals(List.of("Spider-Man Homecoming"), names("spider man", 10)),
+                () -> assertEquals(List.of("Spider-Man Homecoming"), names("home", 10)),
+                () -> assertEquals(List.of("Harry Pótter"), names("pot", 10)),
+                () -> assertTrue(names("batman", 10).isEmpty()),
+                () -> assertTrue(names(" ", 10).isEmpty()),
+                () -> assertTrue(names("sp", 0).isEmpty())
+        );
+    }
+
+    /**
+     * Test para comprobar que las sugerencias se actualizan con los eventos de cambio
+     */
+    @Test
+    void testOnFunkoChange() {
+        GetFunkoDTO restocked = GetFunkoDTO.builder()
+                .id(spock.getId())
+                .name(spock.getName())
+                .quantity(50)
+                .build();
+        suggestIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE, restocked));
+        assertEquals(List.of("Spock", "Spider Gwen", "Spider-Man Homecoming"), names("sp", 10));
+        suggestIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.DELETE, spiderGwen));
+        assertAll(
+                () -> assertEquals(List.of("Spock", "Spider-Man Homecoming"), names("sp", 10)),
+                () -> assertEquals(3, suggestIndex.size())
+        );
+    }
+
+    /**
+     * Test para comprobar que al renombrar un Funko se actualizan sus claves antiguas y nuevas
+     */
+    @Test
+    void testOnFunkoRename() {
+        GetFunkoDTO renamed = GetFunkoDTO.builder()
+                .id(spock.getId())
+                .name("Batman Begins")
+                .quantity(spock.getQuantity())
+                .build();
+        suggestIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE, renamed));
+        assertAll(
+                () -> assertEquals(List.of("Spider Gwen", "Spider-Man Homecoming"), names("sp", 10)),
+                () -> assertTrue(names("spock", 10).isEmpty()),
+                () -> assertEquals(List.of("Batman Begins"), names("bat", 10)),
+                () -> assertEquals(List.of("Batman Begins"), names("begins", 10)),
+                () -> assertEquals(4, suggestIndex.size())
+        );
+    }
+
+    /**
+     * Test para comprobar que las sugerencias siguen siendo correctas cuando los Funkos con más stock salen de las
+     * sugerencias precalculadas de un prefijo
+     */
+    @Test
+    void testOnFunkoChangeBeyondPrecomputedSuggestions() {
+        List<GetFunkoDTO> spawns = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> funko("Spawn " + i, 100 + i))
+                .toList();
+        spawns.forEach(f -> suggestIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.CREATE, f)));
+        for (int i = 9; i >= 3; i--) {
+            GetFunkoDTO soldOut = GetFunkoDTO.builder()
+                    .id(spawns.get(i).getId())
+                    .name(spawns.get(i).getName())
+                    .quantity(0)
+                    .build();
+            suggestIndex.onFunkoChange(new FunkoChangeEvent(Notification.Type.UPDATE, soldOut));
+        }
+        assertAll(
+                () -> assertEquals(List.of("Spawn 3", "Spawn 2", "Spawn 1"), names("spawn", 10)),
+                () -> assertEquals(List.of("Spawn 3", "Spawn 2", "Spawn 1"), names("sp", 10)),
+                () -> assertEquals(List.of("Spawn 10"), names("spawn 10", 10))
+        );
+    }
+}
@@ -1,7 +1,9 @@
 package com.madirex.funkosspringrest.rest.entities.order;
 
 import com.madirex.funkosspringrest.rest.entities.category.models.Category;
+import com.madirex.funkosspringrest.rest.entities.funko.mappers.FunkoMapperImpl;
 import com.madirex.funkosspringrest.rest.entities.funko.models.Funko;
+import com.madirex.funkosspringrest.rest.entities.funko.models.FunkoChangeEvent;
 import com.madirex.funkosspringrest.rest.entities.funko.repository.FunkoRepository;
 import com.madirex.funkosspringrest.rest.entities.order.dto.CreateOrder;
 import com.madirex.funkosspringrest.rest.entities.order.dto.UpdateOrder;
@@ -20,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +32,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,6 +49,10 @@ class OrderServiceImplTest {
     private FunkoRepository funkoRepository;
     @Mock
     private OrderMapper orderMapper;
+    @Mock
+    private FunkoMapperImpl funkoMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -119,6 +127,7 @@ class OrderServiceImplTest {
         orderToSave.setOrderLineList(List.of(orderLine));
 
         when(orderRepository.save(any(Order.class))).thenReturn(orderToSave);
+        when(funkoRepository.findAllById(Set.of(id))).thenReturn(List.of(funko));
         when(funkoRepository.findById(any())).thenReturn(Optional.of(funko));
         when(orderMapper.createOrderToOrder(any(CreateOrder.class))).thenReturn(orderToSave);
 
@@ -129,7 +138,8 @@ class OrderServiceImplTest {
                 () -> assertEquals(orderToSave.getOrderLineList().size(), resultOrder.getOrderLineList().size())
         );
         verify(orderRepository).save(any(Order.class));
-        verify(funkoRepository, times(2)).findById(any());
+        verify(funkoRepository, times(1)).findAllById(Set.of(id));
+        verify(funkoRepository, times(1)).findById(any());
     }
 
     /**
@@ -188,6 +198,7 @@ class OrderServiceImplTest {
 
         when(orderRepository.findById(idOrder)).thenReturn(Optional.of(orderToUpdate));
         when(orderRepository.save(any(Order.class))).thenReturn(orderToUpdate);
+        when(funkoRepository.findAllById(Set.of(id))).thenReturn(List.of(funko));
         when(funkoRepository.findById(any())).thenReturn(Optional.of(funko));
         when(orderMapper.updateOrderToOrder(any(Order.class), any(UpdateOrder.class))).thenReturn(orderToUpdate);
 
@@ -201,7 +212,8 @@ class OrderServiceImplTest {
 
         verify(orderRepository).findById(idOrder);
         verify(orderRepository).save(any(Order.class));
-        verify(funkoRepository, times(3)).findById(any());
+        verify(funkoRepository, times(1)).findAllById(Set.of(id));
+        verify(funkoRepository, times(2)).findById(any());
     }
 
     /**
@@ -264,6 +276,7 @@ class OrderServiceImplTest {
 
         verify(funkoRepository, times(1)).findById(id);
         verify(funkoRepository, times(1)).save(funko);
+        verify(eventPublisher, times(1)).publishEvent(any(FunkoChangeEvent.class));
     }
 
     /**
@@ -295,14 +308,14 @@ class OrderServiceImplTest {
         orderLines.add(orderLine);
         order.setOrderLineList(orderLines);
 
-        when(funkoRepository.findById(id)).thenReturn(Optional.of(funko));
+        when(funkoRepository.findAllById(Set.of(id))).thenReturn(List.of(funko));
 
         Order result = orderService.checkValidOrder(order);
 
         assertEquals(2, funko.getQuantity());
         assertEquals(order, result);
 
-        verify(funkoRepository, times(1)).findById(id);
+        verify(funkoRepository, times(1)).findAllById(Set.of(id));
     }
 
     /**
@@ -334,10 +347,34 @@ class OrderServiceImplTest {
         lineasOrder.add(orderLine);
         order.setOrderLineList(lineasOrder);
 
-        when(funkoRepository.findById(id)).thenReturn(Optional.of(funko));
+        when(funkoRepository.findAllById(Set.of(id))).thenReturn(List.of(funko));
 
         assertDoesNotThrow(() -> orderService.checkValidOrder(order));
-        verify(funkoRepository, times(1)).findById(id);
+        verify(funkoRepository, times(1)).findAllById(Set.of(id));
+    }
+
+    /**
+     * Test para comprobar que checkValidOrder carga todos los productos del pedido en una sola consulta
+     */
+    @Test
+    void testCheckOrderLoadsProductsInOneQuery() {
+        List<OrderLine> orderLines = new ArrayList<>();
+        List<Funko> funkos = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            UUID id = UUID.randomUUID();
+            funkos.add(Funko.builder().id(id).name("nombre").price(2.2).quantity(2).build());
+            orderLines.add(OrderLine.builder().productId(id.toString()).quantity(1).productPrice(2.2).build());
+        }
+        orderLines.add(OrderLine.builder().productId(funkos.get(0).getId().toString()).quantity(1).productPrice(2.2)
+                .build());
+        Order order = new Order();
+        order.setOrderLineList(orderLines);
+        Set<UUID> ids = Set.of(funkos.get(0).getId(), funkos.get(1).getId());
+        when(funkoRepository.findAllById(ids)).thenReturn(funkos);
+
+        assertDoesNotThrow(() -> orderService.checkValidOrder(order));
+        verify(funkoRepository, times(1)).findAllById(ids);
+        verify(funkoRepository, never()).findById(any());
     }
 
     /**
@@ -356,10 +393,10 @@ class OrderServiceImplTest {
         orderLines.add(orderLine);
         order.setOrderLineList(orderLines);
 
-        when(funkoRepository.findById(id)).thenReturn(Optional.empty());
+        when(funkoRepository.findAllById(Set.of(id))).thenReturn(List.of());
 
         assertThrows(ProductNotFound.class, () -> orderService.checkValidOrder(order));
-        verify(funkoRepository, times(1)).findById(id);
+        verify(funkoRepository, times(1)).findAllById(Set.of(id));
     }
 
     /**
@@ -389,9 +426,9 @@ class OrderServiceImplTest {
         orderLines.add(orderLine);
         order.setOrderLineList(orderLines);
 
-        when(funkoRepository.findById(id)).thenReturn(Optional.of(funko));
+        when(funkoRepository.findAllById(Set.of(id))).thenReturn(List.of(funko));
         assertThrows(ProductWithoutStock.class, () -> orderService.checkValidOrder(order));
-        verify(funkoRepository, times(1)).findById(id);
+        verify(funkoRepository, times(1)).findAllById(Set.of(id));
     }
 
     /**
@@ -421,10 +458,10 @@ class OrderServiceImplTest {
         orderLines.add(orderLine);
         order.setOrderLineList(orderLines);
 
-        when(funkoRepository.findById(id)).thenReturn(Optional.of(funko));
+        when(funkoRepository.findAllById(Set.of(id))).thenReturn(List.of(funko));
 
         assertThrows(ProductBadPrice.class, () -> orderService.checkValidOrder(order));
-        verify(funkoRepository, times(1)).findById(id);
+        verify(funkoRepository, times(1)).findAllById(Set.of(id));
     }
 
     /**
@@ -434,14 +471,15 @@ class OrderServiceImplTest {
     void testFindByUserIdReturnsPageOfOrder() {
         String userId = "exampleUserId";
         List<Order> userOrders = List.of(new Order(), new Order());
-        Page<Order> expectedPage = new PageImpl<>(userOrders);
         Pageable pageable = PageRequest.of(0, 10);
-        when(orderRepository.findOrdersByUserId(userId)).thenReturn(userOrders);
+        Page<Order> expectedPage = new PageImpl<>(userOrders, pageable, 2);
+        when(orderRepository.findByUserId(userId, pageable)).thenReturn(expectedPage);
         Page<Order> result = orderService.findByUserId(userId, pageable);
         assertAll(
                 () -> assertEquals(expectedPage.getContent(), result.getContent()),
                 () -> assertEquals(expectedPage.getTotalElements(), result.getTotalElements())
         );
-        verify(orderRepository, times(1)).findOrdersByUserId(userId);
+        verify(orderRepository, times(1)).findByUserId(userId, pageable);
+        verify(orderRepository, never()).findOrdersByUserId(any());
     }
 }
\ No newline at end of file
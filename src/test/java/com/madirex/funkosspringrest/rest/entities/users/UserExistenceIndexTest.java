@@ -0,0 +1,156 @@
+package com.madirex.funkosspringrest.rest.entities.users;
+
+import com.madirex.funkosspringrest.rest.entities.user.search.UserExistenceIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class UserExistenceIndexTest
+ */
+@ExtendWith(MockitoExtension.class)
+class UserExistenceIndexTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserExistenceIndex existenceIndex;
+
+    /**
+     * Set up the index with two stored users.
+     *
+     * @throws Exception exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        existenceIndex = new UserExistenceIndex(jdbcTemplate, 100, 0.01, Runnable::run);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("Madirex", "admin");
+        when(resultSet.getString(2)).thenReturn("Madirex@Madirex.com", "admin@madirex.com");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(2L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        existenceIndex.rebuild();
+    }
+
+    /**
+     * Test stored usernames and emails are possible hits, ignoring case.
+     */
+    @Test
+    void testMightContainStoredUsers() {
+        assertAll(
+                () -> assertTrue(existenceIndex.mightContainUsername("madirex")),
+                () -> assertTrue(existenceIndex.mightContainUsername("ADMIN")),
+                () -> assertTrue(existenceIndex.mightContainEmail("madirex@madirex.com")),
+                () -> assertTrue(existenceIndex.mightContain("nuevo", "Admin@Madirex.com"))
+        );
+    }
+
+    /**
+     * Test a username is not confused with an email of the same value.
+     */
+    @Test
+    void testUsernameAndEmailAreSeparated() {
+        assertAll(
+                () -> assertFalse(existenceIndex.mightContainEmail("madirex")),
+                () -> assertFalse(existenceIndex.mightContainUsername("admin@madirex.com"))
+        );
+    }
+
+    /**
+     * Test added users become possible hits and the false positive rate stays low.
+     */
+    @Test
+    void testAddAndFalsePositives() {
+        existenceIndex.add("NuevoUsuario", "nuevo@madirex.com");
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> existenceIndex.mightContainUsername("libre" + i))
+                .count();
+        assertAll(
+                () -> assertTrue(existenceIndex.mightContain("nuevousuario", null)),
+                () -> assertTrue(existenceIndex.mightContainEmail("NUEVO@madirex.com")),
+                () -> assertTrue(falsePositives < 300, "Falsos positivos: " + falsePositives)
+        );
+    }
+
+    /**
+     * Test the filter grows when it exceeds its capacity.
+     */
+    @Test
+    void testRebuildWhenFull() {
+        IntStream.range(0, 150).forEach(i -> existenceIndex.add("usuario" + i, "usuario" + i + "@madirex.com"));
+        verify(jdbcTemplate, atLeast(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Test the resize runs on the task executor and the current filter keeps serving until it finishes.
+     */
+    @Test
+    void testRebuildRunsOnExecutor() {
+        List<Runnable> tasks = new ArrayList<>();
+        UserExistenceIndex index = new UserExistenceIndex(jdbcTemplate, 100, 0.01, tasks::add);
+        index.rebuild();
+        IntStream.range(0, 150).forEach(i -> index.add("usuario" + i, "usuario" + i + "@madirex.com"));
+        assertAll(
+                () -> assertEquals(1, tasks.size()),
+                () -> assertTrue(index.mightContainUsername("usuario149"))
+        );
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+        tasks.get(0).run();
+        verify(jdbcTemplate, times(3)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Test users added while the filter is being rebuilt are kept in the new filter.
+     */
+    @Test
+    void testAddDuringRebuild() {
+        doAnswer(invocation -> {
+            existenceIndex.add("Concurrente", "concurrente@madirex.com");
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        existenceIndex.rebuild();
+        assertAll(
+                () -> assertTrue(existenceIndex.mightContainUsername("concurrente")),
+                () -> assertTrue(existenceIndex.mightContainEmail("concurrente@madirex.com")),
+                () -> assertFalse(existenceIndex.mightContainUsername("madirex"))
+        );
+    }
+
+    /**
+     * Test adding the same user again does not count towards the capacity.
+     */
+    @Test
+    void testRepeatedAddDoesNotRebuild() {
+        IntStream.range(0, 150).forEach(i -> existenceIndex.add("Madirex", "madirex@madirex.com"));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Test everything is a possible hit before the first load.
+     */
+    @Test
+    void testNotLoaded() {
+        UserExistenceIndex empty = new UserExistenceIndex(jdbcTemplate, 100, 0.01, Runnable::run);
+        assertAll(
+                () -> assertTrue(empty.mightContainUsername("cualquiera")),
+                () -> assertTrue(empty.mightContainEmail("cualquiera@madirex.com"))
+        );
+    }
+}
@@ -13,7 +13,9 @@ import com.madirex.funkosspringrest.rest.entities.user.dto.UserRequest;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserResponse;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserUpdate;
 import com.madirex.funkosspringrest.rest.entities.user.exceptions.UserNotFound;
+import com.madirex.funkosspringrest.rest.entities.user.repository.UserSpecifications;
 import com.madirex.funkosspringrest.rest.entities.user.services.UsersService;
+import com.madirex.funkosspringrest.rest.pagination.model.CursorPageResponse;
 import com.madirex.funkosspringrest.rest.pagination.model.PageResponse;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
@@ -147,6 +149,52 @@ class UsersRestControllerTest {
                 Optional.empty(), Optional.empty(), pageable);
     }
 
+    /**
+     * Test search
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void testSearch() throws Exception {
+        var page = new CursorPageResponse<>(List.of(userResponse), 1, false, "Y3Vyc29y");
+        when(usersService.search(Optional.of("te"), Optional.empty(), Optional.of(false),
+                UserSpecifications.Match.PREFIX, Optional.empty(), 1)).thenReturn(page);
+        MockHttpServletResponse response = mockMvc.perform(
+                        get(myEndpoint + "/search")
+                                .param("username", "te")
+                                .param("isDeleted", "false")
+                                .param("match", "PREFIX")
+                                .param("size", "1")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        CursorPageResponse<UserResponse> res = mapper.readValue(response.getContentAsString(),
+                new TypeReference<>() {
+                });
+        assertAll("search",
+                () -> assertEquals(200, response.getStatus()),
+                () -> assertEquals(1, res.content().size()),
+                () -> assertEquals("Y3Vyc29y", res.next())
+        );
+        verify(usersService, times(1)).search(Optional.of("te"), Optional.empty(), Optional.of(false),
+                UserSpecifications.Match.PREFIX, Optional.empty(), 1);
+    }
+
+    /**
+     * Test search with invalid size
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void testSearchInvalidSize() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(
+                        get(myEndpoint + "/search")
+                                .param("size", "0")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        assertEquals(400, response.getStatus());
+        verify(usersService, never()).search(any(), any(), any(), any(), any(), anyInt());
+    }
+
     /**
      * Test findAll with parameters
      *
@@ -190,6 +238,29 @@ class UsersRestControllerTest {
         verify(usersService, times(1)).findById(any());
     }
 
+    /**
+     * Test findOrdersById returns the paged orders of a user
+     *
+     * @throws Exception Exception
+     */
+    @Test
+    void testFindOrdersById() throws Exception {
+        var myLocalEndpoint = myEndpoint + "/" + uuid + "/orders?page=1&size=5";
+        Pageable pageable = PageRequest.of(1, 5, Sort.by("createdAt").descending());
+        when(orderService.findByUserId(uuid.toString(), pageable))
+                .thenReturn(new PageImpl<>(List.of(order), pageable, 6));
+        MockHttpServletResponse response = mockMvc.perform(
+                        get(myLocalEndpoint)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        assertAll("findOrdersById",
+                () -> assertEquals(200, response.getStatus()),
+                () -> assertTrue(response.getContentAsString().contains("\"totalElements\":6"))
+        );
+        verify(orderService, times(1)).findByUserId(uuid.toString(), pageable);
+    }
+
     /**
      * Test createUser
      *
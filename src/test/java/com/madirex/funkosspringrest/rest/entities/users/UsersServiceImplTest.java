@@ -1,5 +1,7 @@
 package com.madirex.funkosspringrest.rest.entities.users;
 
+import com.madirex.funkosspringrest.config.threads.CompositeReader;
+import com.madirex.funkosspringrest.rest.entities.order.models.Order;
 import com.madirex.funkosspringrest.rest.entities.order.repository.OrderRepository;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserInfoResponse;
 import com.madirex.funkosspringrest.rest.entities.user.dto.UserRequest;
@@ -9,22 +11,32 @@ import com.madirex.funkosspringrest.rest.entities.user.exceptions.UserNotFound;
 import com.madirex.funkosspringrest.rest.entities.user.exceptions.UsernameOrEmailExists;
 import com.madirex.funkosspringrest.rest.entities.user.mappers.UsersMapper;
 import com.madirex.funkosspringrest.rest.entities.user.models.User;
+import com.madirex.funkosspringrest.rest.entities.user.repository.UserSpecifications;
 import com.madirex.funkosspringrest.rest.entities.user.repository.UsersRepository;
+import com.madirex.funkosspringrest.rest.entities.user.search.UserExistenceIndex;
 import com.madirex.funkosspringrest.rest.entities.user.services.UsersServiceImpl;
+import com.madirex.funkosspringrest.rest.pagination.exceptions.PageNotValidException;
+import com.madirex.funkosspringrest.rest.pagination.model.CursorPageResponse;
+import com.madirex.funkosspringrest.rest.pagination.util.CursorUtils;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,9 +62,18 @@ class UsersServiceImplTest {
     private OrderRepository orderRepository;
     @Mock
     private UsersMapper usersMapper;
-    @InjectMocks
+    @Mock
+    private UserExistenceIndex existenceIndex;
     private UsersServiceImpl usersService;
 
+    /**
+     * Método setUp para inicializar los objetos
+     */
+    @BeforeEach
+    void setUp() {
+        usersService = new UsersServiceImpl(usersRepository, orderRepository, usersMapper, existenceIndex,
+                new CompositeReader(2000, 4), 5);
+    }
 
     /**
      * Test findAll no filters returns page of users.
@@ -80,8 +101,9 @@ class UsersServiceImplTest {
     @Test
     void testFindById() {
         when(usersRepository.findById(uuid)).thenReturn(Optional.of(user));
-        when(orderRepository.findOrdersByUserId(uuid.toString())).thenReturn(List.of());
-        when(usersMapper.toUserInfoResponse(any(User.class), anyList())).thenReturn(userIResponse);
+        when(orderRepository.findIdsByUserId(eq(uuid.toString()), any(Pageable.class))).thenReturn(List.of());
+        when(orderRepository.countByUserId(uuid.toString())).thenReturn(0L);
+        when(usersMapper.toUserInfoResponse(any(User.class), anyList(), anyLong())).thenReturn(userIResponse);
         UserInfoResponse result = usersService.findById(uuid.toString());
         assertAll(
                 () -> assertNotNull(result),
@@ -89,8 +111,32 @@ class UsersServiceImplTest {
                 () -> assertEquals(userResponse.getEmail(), result.getEmail())
         );
         verify(usersRepository, times(1)).findById(uuid);
-        verify(orderRepository, times(1)).findOrdersByUserId(uuid.toString());
-        verify(usersMapper, times(1)).toUserInfoResponse(user, List.of());
+        verify(orderRepository, never()).findOrdersByUserId(any());
+        verify(usersMapper, times(1)).toUserInfoResponse(user, List.of(), 0L);
+    }
+
+    /**
+     * Test findById only loads the latest order ids and the order count.
+     */
+    @Test
+    void testFindByIdLatestOrders() {
+        Order first = new Order();
+        Order second = new Order();
+        when(usersRepository.findById(uuid)).thenReturn(Optional.of(user));
+        when(orderRepository.findIdsByUserId(eq(uuid.toString()), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(orderRepository.countByUserId(uuid.toString())).thenReturn(42L);
+        when(usersMapper.toUserInfoResponse(any(User.class), anyList(), anyLong())).thenReturn(userIResponse);
+        usersService.findById(uuid.toString());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(orderRepository).findIdsByUserId(eq(uuid.toString()), pageable.capture());
+        assertAll(
+                () -> assertEquals(0, pageable.getValue().getPageNumber()),
+                () -> assertEquals(5, pageable.getValue().getPageSize()),
+                () -> assertEquals(Sort.Direction.DESC,
+                        pageable.getValue().getSort().getOrderFor("createdAt").getDirection())
+        );
+        verify(usersMapper, times(1)).toUserInfoResponse(user, List.of(first.getId(), second.getId()), 42L);
     }
 
     /**
@@ -104,11 +150,31 @@ class UsersServiceImplTest {
         verify(usersRepository, times(1)).findById(uuid);
     }
 
+    /**
+     * Test findById reads the user and the orders at the same time.
+     */
+    @Test
+    void testFindById_ReadsStoresConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(usersRepository.findById(uuid)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            return bothStarted.await(1, TimeUnit.SECONDS) ? Optional.of(user) : Optional.empty();
+        });
+        when(orderRepository.countByUserId(uuid.toString())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            return bothStarted.await(1, TimeUnit.SECONDS) ? 3L : 0L;
+        });
+        when(orderRepository.findIdsByUserId(eq(uuid.toString()), any(Pageable.class))).thenReturn(List.of());
+        when(usersMapper.toUserInfoResponse(user, List.of(), 3L)).thenReturn(userIResponse);
+        assertEquals(userIResponse, usersService.findById(uuid.toString()));
+    }
+
     /**
      * Test save valid user request returns user response.
      */
     @Test
     void testSave_ValidUserRequest_ReturnsUserResponse() {
+        when(existenceIndex.mightContain(userRequest.getUsername(), userRequest.getEmail())).thenReturn(true);
         when(usersRepository.findByUsernameEqualsIgnoreCaseOrEmailEqualsIgnoreCase(userRequest.getUsername(),
                 userRequest.getEmail()))
                 .thenReturn(Optional.empty());
@@ -129,6 +195,33 @@ class UsersServiceImplTest {
 
     }
 
+    /**
+     * Test save skips the pre-check query when the username and email are definitely free.
+     */
+    @Test
+    void testSave_DefinitelyFree_SkipsQuery() {
+        when(existenceIndex.mightContain(userRequest.getUsername(), userRequest.getEmail())).thenReturn(false);
+        when(usersMapper.toUser(userRequest)).thenReturn(user);
+        when(usersMapper.toUserResponse(user)).thenReturn(userResponse);
+        when(usersRepository.save(user)).thenReturn(user);
+        UserResponse result = usersService.save(userRequest);
+        assertEquals(userResponse, result);
+        verify(usersRepository, never()).findByUsernameEqualsIgnoreCaseOrEmailEqualsIgnoreCase(any(), any());
+        verify(existenceIndex, times(1)).add(user.getUsername(), user.getEmail());
+    }
+
+    /**
+     * Test save maps a unique constraint violation to the same error as the pre-check.
+     */
+    @Test
+    void testSave_UniqueViolation_ThrowsUsernameOrEmailExists() {
+        when(existenceIndex.mightContain(userRequest.getUsername(), userRequest.getEmail())).thenReturn(false);
+        when(usersMapper.toUser(userRequest)).thenReturn(user);
+        when(usersRepository.save(user)).thenThrow(new DataIntegrityViolationException("duplicado"));
+        assertThrows(UsernameOrEmailExists.class, () -> usersService.save(userRequest));
+        verify(existenceIndex, never()).add(any(), any());
+    }
+
     /**
      * Test update valid user request returns user response.
      */
@@ -197,4 +290,83 @@ class UsersServiceImplTest {
         verify(usersRepository, times(1)).updateIsDeletedToTrueById(uuid);
         verify(orderRepository, times(1)).existsByUserId(uuid.toString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test search returns a page with the cursor of the next one.
+     */
+    @Test
+    void testSearch_ReturnsCursorOfNextPage() {
+        User first = User.builder().id(UUID.randomUUID()).username("Test1").usernameLower("test1").build();
+        User second = User.builder().id(UUID.randomUUID()).username("Test2").usernameLower("test2").build();
+        Specification<User> anySpecification = any();
+        when(usersRepository.findFirst(anySpecification, eq(UserSpecifications.KEYSET_SORT), eq(2)))
+                .thenReturn(List.of(first, second));
+        when(usersMapper.toUserResponse(first)).thenReturn(userResponse);
+        CursorPageResponse<UserResponse> result = usersService.search(Optional.of("test"), Optional.empty(),
+                Optional.empty(), UserSpecifications.Match.PREFIX, Optional.empty(), 1);
+        assertAll(
+                () -> assertEquals(1, result.content().size()),
+                () -> assertFalse(result.last()),
+                () -> assertEquals(List.of("test1", first.getId().toString()), CursorUtils.decode(result.next(), 2))
+        );
+    }
+
+    /**
+     * Test search last page has no cursor.
+     */
+    @Test
+    void testSearch_LastPage() {
+        User first = User.builder().id(UUID.randomUUID()).username("Test1").usernameLower("test1").build();
+        Specification<User> anySpecification = any();
+        when(usersRepository.findFirst(anySpecification, eq(UserSpecifications.KEYSET_SORT), eq(11)))
+                .thenReturn(List.of(first));
+        when(usersMapper.toUserResponse(first)).thenReturn(userResponse);
+        CursorPageResponse<UserResponse> result = usersService.search(Optional.empty(), Optional.empty(),
+                Optional.empty(), UserSpecifications.Match.CONTAINS,
+                Optional.of(CursorUtils.encode("test0", UUID.randomUUID().toString())), 10);
+        assertAll(
+                () -> assertEquals(1, result.content().size()),
+                () -> assertTrue(result.last()),
+                () -> assertNull(result.next())
+        );
+    }
+
+    /**
+     * Test search with an invalid cursor throws page not valid.
+     */
+    @Test
+    void testSearch_InvalidCursor_ThrowsPageNotValid() {
+        Optional<String> cursor = Optional.of(CursorUtils.encode("test0", "no-uuid"));
+        Optional<String> malformed = Optional.of("%%%");
+        assertAll(
+                () -> assertThrows(PageNotValidException.class, () -> usersService.search(Optional.empty(),
+                        Optional.empty(), Optional.empty(), UserSpecifications.Match.CONTAINS, cursor, 10)),
+                () -> assertThrows(PageNotValidException.class, () -> usersService.search(Optional.empty(),
+                        Optional.empty(), Optional.empty(), UserSpecifications.Match.CONTAINS, malformed, 10))
+        );
+        verify(usersRepository, never()).findFirst(any(), any(), anyInt());
+    }
+
+    /**
+     * Test normalize users fills the lowercase columns on startup.
+     */
+    @Test
+    void testNormalizeUsers() {
+        when(usersRepository.normalizeMissing()).thenReturn(2);
+        usersService.normalizeUsers();
+        verify(usersRepository, times(1)).normalizeMissing();
+    }
+
+    /**
+     * Test normalize sets the lowercase username and email.
+     */
+    @Test
+    void testUserNormalize() {
+        User mixed = User.builder().id(uuid).username("MiXeD").email("MiXeD@Test.com").build();
+        mixed.normalize();
+        assertAll(
+                () -> assertEquals("mixed", mixed.getUsernameLower()),
+                () -> assertEquals("mixed@test.com", mixed.getEmailLower())
+        );
+    }
+}
@@ -0,0 +1,163 @@
+package com.madirex.funkosspringrest.util;
+
+import com.sun.management.ThreadMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Clase BenchmarkRunner
+ * Bucle común de los tests de rendimiento: ejecuta la operación para calentar la JVM, mide el tiempo y la memoria
+ * reservada por ejecución y registra el resultado. Cada test aporta solo su carga de trabajo
+ * Los tests de rendimiento llevan la etiqueta "benchmark" y no se ejecutan con los tests normales: ./gradlew benchmark
+ */
+public final class BenchmarkRunner {
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkRunner.class);
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Constructor privado para evitar instanciación
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Operación medida
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Ejecuta la operación una vez
+         *
+         * @param iteration Número de ejecución dentro del hilo, empezando en 0
+         * @throws Exception excepción
+         */
+        void run(int iteration) throws Exception;
+    }
+
+    /**
+     * Resultado de una medición
+     *
+     * @param nanos Nanosegundos por ejecución
+     * @param bytes Bytes reservados por ejecución
+     */
+    public record Result(double nanos, long bytes) {
+        /**
+         * Tiempo por ejecución
+         *
+         * @return Microsegundos por ejecución
+         */
+        public double micros() {
+            return nanos / 1000;
+        }
+    }
+
+    /**
+     * Mide una operación en el hilo actual
+     *
+     * @param name       Nombre de la medición
+     * @param warmup     Ejecuciones de calentamiento, sin medir
+     * @param iterations Ejecuciones medidas
+     * @param operation  Operación
+     * @return Resultado
+     * @throws Exception excepción
+     */
+    public static Result measure(String name, int warmup, int iterations, Operation operation) throws Exception {
+        return measure(name, 1, warmup, iterations, thread -> operation);
+    }
+
+    /**
+     * Mide una operación repartida entre varios hilos
+     * El tiempo por ejecución es el tiempo total dividido entre todas las ejecuciones de todos los hilos
+     *
+     * @param name       Nombre de la medición
+     * @param threads    Número de hilos
+     * @param warmup     Ejecuciones de calentamiento entre todos los hilos, sin medir
+     * @param iterations Ejecuciones medidas entre todos los hilos
+     * @param perThread  Crea la operación de cada hilo a partir de su índice; se llama antes de empezar a medir
+     * @return Resultado
+     * @throws Exception excepción
+     */
+    public static Result measure(String name, int threads, int warmup, int iterations,
+                                 IntFunction<Operation> perThread) throws Exception {
+        run(threads, warmup, perThread);
+        Result result = run(threads, iterations, perThread);
+        log.info(String.format("%-20s %10.2f µs/op  %10d bytes/op", name, result.micros(), result.bytes()));
+        return result;
+    }
+
+    /**
+     * Registra una línea del informe, normalmente la comparación entre varias mediciones
+     *
+     * @param format Formato de String.format
+     * @param args   Argumentos
+     */
+    public static void report(String format, Object... args) {
+        log.info(String.format(format, args));
+    }
+
+    /**
+     * Ejecuta la operación el número de veces indicado, repartido entre los hilos
+     *
+     * @param threads    Número de hilos
+     * @param iterations Ejecuciones entre todos los hilos
+     * @param perThread  Crea la operación de cada hilo
+     * @return Resultado
+     * @throws Exception excepción
+     */
+    private static Result run(int threads, int iterations, IntFunction<Operation> perThread) throws Exception {
+        List<Operation> operations = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            operations.add(perThread.apply(t));
+        }
+        LongAdder allocated = new LongAdder();
+        long start = System.nanoTime();
+        if (threads == 1) {
+            loop(operations.get(0), iterations, allocated);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Object>> futures = new ArrayList<>(threads);
+                for (int t = 0; t < threads; t++) {
+                    Operation operation = operations.get(t);
+                    int share = iterations / threads + (t < iterations % threads ? 1 : 0);
+                    futures.add(executor.submit(() -> {
+                        loop(operation, share, allocated);
+                        return null;
+                    }));
+                }
+                for (Future<Object> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result((double) elapsed / Math.max(1, iterations), allocated.sum() / Math.max(1, iterations));
+    }
+
+    /**
+     * Ejecuta la operación en el hilo actual y suma la memoria que reserva
+     *
+     * @param operation  Operación
+     * @param iterations Ejecuciones
+     * @param allocated  Acumulador de bytes reservados
+     * @throws Exception excepción
+     */
+    private static void loop(Operation operation, int iterations, LongAdder allocated) throws Exception {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            operation.run(i);
+        }
+        allocated.add(THREADS.getCurrentThreadAllocatedBytes() - before);
+    }
+}
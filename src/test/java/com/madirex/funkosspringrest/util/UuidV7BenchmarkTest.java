@@ -0,0 +1,106 @@
+package com.madirex.funkosspringrest.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase UuidV7BenchmarkTest
+ * Compara la inserción por lotes en una tabla con clave primaria UUID usando UUID v4 aleatorios y UUID v7 ordenados
+ * por tiempo, sobre H2 en memoria. Además del tiempo, mide la localidad en el índice: la proporción de claves que se
+ * insertan detrás de la mayor ya existente (en la última hoja del árbol) y la distancia media, en posiciones del
+ * índice, entre dos inserciones consecutivas
+ */
+@Tag("benchmark")
+class UuidV7BenchmarkTest {
+    private static final int BATCH = 1_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+    private static final int LOCALITY_SAMPLE = 20_000;
+
+    /**
+     * Test para comprobar que los UUID v7 se insertan al final del índice y medir ambos generadores
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void compareInserts() throws Exception {
+        double v4 = measure("UUID v4", UUID::randomUUID);
+        double v7 = measure("UUID v7", UuidV7::randomUUID);
+        BenchmarkRunner.report("UUID v7 frente a v4: %.2fx más rápido", v4 / v7);
+        long[] v4Locality = locality(UUID::randomUUID);
+        long[] v7Locality = locality(UuidV7::randomUUID);
+        BenchmarkRunner.report("UUID v4: %3d%% al final del índice, %6d posiciones entre inserciones",
+                v4Locality[0], v4Locality[1]);
+        BenchmarkRunner.report("UUID v7: %3d%% al final del índice, %6d posiciones entre inserciones",
+                v7Locality[0], v7Locality[1]);
+        assertAll(
+                () -> assertEquals(100, v7Locality[0]),
+                () -> assertTrue(v4Locality[0] < 5)
+        );
+    }
+
+    /**
+     * Inserta lotes de filas en una tabla nueva y mide el tiempo por lote
+     *
+     * @param name      Nombre del generador
+     * @param generator Generador de UUID
+     * @return Nanosegundos por lote
+     * @throws Exception excepción
+     */
+    private static double measure(String name, Supplier<UUID> generator) throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:uuid_benchmark", "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE funko_benchmark (id UUID PRIMARY KEY, name VARCHAR(255), price DOUBLE)");
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO funko_benchmark (id, name, price) VALUES (?, ?, ?)")) {
+                return BenchmarkRunner.measure(name, WARMUP, ITERATIONS, batch -> {
+                    for (int i = 0; i < BATCH; i++) {
+                        insert.setObject(1, generator.get());
+                        insert.setString(2, "Funko " + (batch * BATCH + i));
+                        insert.setDouble(3, i % 100);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                    connection.commit();
+                }).nanos();
+            }
+        }
+    }
+
+    /**
+     * Simula el índice con una lista ordenada y calcula dónde cae cada clave nueva
+     *
+     * @param generator Generador de UUID
+     * @return Porcentaje de claves añadidas al final y distancia media entre dos inserciones consecutivas
+     */
+    private static long[] locality(Supplier<UUID> generator) {
+        List<UUID> index = new ArrayList<>(LOCALITY_SAMPLE);
+        long appended = 0;
+        long distance = 0;
+        int previous = 0;
+        for (int i = 0; i < LOCALITY_SAMPLE; i++) {
+            UUID uuid = generator.get();
+            int position = -Collections.binarySearch(index, uuid, UuidV7Test::compareUnsigned) - 1;
+            if (position == index.size()) {
+                appended++;
+            }
+            distance += Math.abs(position - previous);
+            previous = position;
+            index.add(position, uuid);
+        }
+        return new long[]{appended * 100 / LOCALITY_SAMPLE, distance / LOCALITY_SAMPLE};
+    }
+}
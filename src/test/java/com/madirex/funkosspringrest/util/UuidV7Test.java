@@ -0,0 +1,99 @@
+package com.madirex.funkosspringrest.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase UuidV7Test
+ */
+class UuidV7Test {
+
+    /**
+     * Test para comprobar la versión, la variante, el instante y que UUID.fromString acepta el UUID
+     */
+    @Test
+    void testFormat() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.randomUUID();
+        long after = System.currentTimeMillis();
+        assertAll(
+                () -> assertEquals(7, uuid.version()),
+                () -> assertEquals(2, uuid.variant()),
+                () -> assertTrue(UuidV7.timestamp(uuid) >= before),
+                () -> assertTrue(UuidV7.timestamp(uuid) <= after + 1),
+                () -> assertEquals(uuid, UUID.fromString(uuid.toString())),
+                () -> assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()))
+        );
+    }
+
+    /**
+     * Test para comprobar que los UUID generados seguidos son estrictamente crecientes, también dentro del mismo
+     * milisegundo, comparando los bytes sin signo como hacen las bases de datos
+     */
+    @Test
+    void testMonotonic() {
+        UUID previous = UuidV7.randomUUID();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.randomUUID();
+            assertTrue(compareUnsigned(previous, next) < 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    /**
+     * Test para comprobar que no se repiten los UUID generados desde varios hilos y que cada hilo los obtiene en orden
+     *
+     * @throws Exception excepción
+     */
+    @Test
+    void testConcurrent() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        List<Future<Boolean>> ordered = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                ordered.add(executor.submit(() -> {
+                    Set<UUID> local = new HashSet<>();
+                    UUID previous = null;
+                    boolean inOrder = true;
+                    for (int i = 0; i < perThread; i++) {
+                        UUID uuid = UuidV7.randomUUID();
+                        inOrder &= previous == null || compareUnsigned(previous, uuid) < 0;
+                        local.add(uuid);
+                        previous = uuid;
+                    }
+                    all.addAll(local);
+                    return inOrder;
+                }));
+            }
+            for (Future<Boolean> future : ordered) {
+                assertTrue(future.get());
+            }
+        }
+        assertEquals(threads * perThread, all.size());
+    }
+
+    /**
+     * Compara dos UUID como secuencias de bytes sin signo
+     *
+     * @param a UUID
+     * @param b UUID
+     * @return Resultado de la comparación
+     */
+    static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}